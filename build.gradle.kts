@@ -1,6 +1,7 @@
 plugins {
     java
     id("io.qameta.allure") version "2.12.0"
+    id("me.champeau.jmh") version "0.7.2"
 }
 
 tasks.withType(Wrapper::class) {
@@ -12,6 +13,8 @@ version = "1.0-SNAPSHOT"
 
 val allureVersion = "2.29.0"
 val aspectJVersion = "1.9.22"
+val jmhCoreVersion = "1.37"
+val vectorModule = "jdk.incubator.vector"
 
 java {
     toolchain {
@@ -22,6 +25,7 @@ java {
 tasks.withType(JavaCompile::class) {
     options.encoding = "UTF-8"
     options.compilerArgs.add("-parameters")
+    options.compilerArgs.addAll(listOf("--add-modules", vectorModule))
 }
 
 val agent: Configuration by configurations.creating {
@@ -33,8 +37,12 @@ tasks.test {
     ignoreFailures = true
     useJUnitPlatform()
     jvmArgs = listOf(
-        "-javaagent:${agent.singleFile}"
+        "-javaagent:${agent.singleFile}",
+        "--add-modules", vectorModule
     )
+    providers.gradleProperty("fuzzIterations").orNull?.let { systemProperty("delivery.fuzz.iterations", it) }
+    providers.gradleProperty("fuzzSeed").orNull?.let { systemProperty("delivery.fuzz.seed", it) }
+    providers.gradleProperty("budgetLatencyFactor").orNull?.let { systemProperty("delivery.budget.latency-factor", it) }
 }
 
 dependencies {
@@ -51,6 +59,21 @@ dependencies {
     testImplementation("org.slf4j:slf4j-simple:2.0.16")
 }
 
+jmh {
+    jmhVersion.set(jmhCoreVersion)
+    benchmarkMode.set(listOf("thrpt", "avgt"))
+    timeUnit.set("ns")
+    profilers.set(listOf("gc"))
+    fork.set(1)
+    warmupIterations.set(2)
+    warmup.set("1s")
+    iterations.set(3)
+    timeOnIteration.set("1s")
+    jvmArgsAppend.set(listOf("--add-modules", vectorModule))
+    resultFormat.set("JSON")
+    providers.gradleProperty("jmhIncludes").orNull?.let { includes.set(listOf(it)) }
+}
+
 allure {
     adapter {
         frameworks {
@@ -0,0 +1,76 @@
+package ru.yandex.practicum.bystritskiy;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import ru.yandex.practicum.bystritskiy.enums.CargoSize;
+import ru.yandex.practicum.bystritskiy.enums.DeliveryWorkload;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.Random;
+
+/**
+ * Сквозной расчёт через {@link BinaryQuoteServer} на loopback: одиночный запрос с ожиданием ответа
+ * и конвейерный пакет из {@value #BATCH_SIZE} заказов. Время приводится к одному заказу.
+ * Запуск: {@code ./gradlew jmh -PjmhIncludes=BinaryQuoteBenchmark}.
+ */
+@State(Scope.Benchmark)
+public class BinaryQuoteBenchmark {
+
+    private static final int BATCH_SIZE = 10_000;
+
+    @Param({"scalar", "vector"})
+    private String pricing;
+
+    private BinaryQuoteServer server;
+    private BinaryQuoteClient client;
+
+    private final long[] distancesMetres = new long[BATCH_SIZE];
+    private final byte[] cargoSizes = new byte[BATCH_SIZE];
+    private final long[] fragile = new long[(BATCH_SIZE + 63) / 64];
+    private final byte[] deliveryWorkloads = new byte[BATCH_SIZE];
+    private final long[] costs = new long[BATCH_SIZE];
+    private final byte[] statuses = new byte[BATCH_SIZE];
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        DeliveryCalculator calculator = "vector".equals(pricing) ? new VectorDeliveryCalculator() : new DeliveryCalculator();
+        server = new BinaryQuoteServer(calculator, new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        client = new BinaryQuoteClient(server.getAddress());
+
+        Random random = new Random(42);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            distancesMetres[i] = 1 + random.nextInt(60_000);
+            cargoSizes[i] = (byte) random.nextInt(CargoSize.values().length);
+            deliveryWorkloads[i] = (byte) random.nextInt(DeliveryWorkload.values().length);
+            if (distancesMetres[i] <= 30_000 && random.nextBoolean()) {
+                fragile[i >>> 6] |= 1L << i;
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        client.close();
+        server.close();
+    }
+
+    @Benchmark
+    public QuoteResult singleRoundTrip() throws Exception {
+        return client.quote(15_000, CargoSize.LARGE, false, DeliveryWorkload.HIGH).get();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public long[] pipelinedBatch() throws Exception {
+        client.quote(distancesMetres, cargoSizes, fragile, deliveryWorkloads, costs, statuses).get();
+        return costs;
+    }
+}
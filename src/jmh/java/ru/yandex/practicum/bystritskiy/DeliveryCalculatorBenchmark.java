@@ -0,0 +1,82 @@
+package ru.yandex.practicum.bystritskiy;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import ru.yandex.practicum.bystritskiy.enums.CargoSize;
+import ru.yandex.practicum.bystritskiy.enums.DeliveryWorkload;
+
+import java.math.BigDecimal;
+
+/**
+ * Сравнение способов расчёта на граничных случаях: верхние границы полос расстояния, хрупкость
+ * и крайние коэффициенты загруженности. Габариты влияют только на слагаемое из таблицы и не перебираются.
+ * Хрупкий груз на 50 км проходит по пути с исключением (или с кодом отказа для {@code try*}-методов).
+ * Запуск: {@code ./gradlew jmh}, отдельные методы: {@code ./gradlew jmh -PjmhIncludes=tableCalculator}.
+ */
+@State(Scope.Benchmark)
+public class DeliveryCalculatorBenchmark {
+
+    @Param({"2.00", "10.00", "30.00", "50.00"})
+    private String distance;
+
+    @Param({"SMALL"})
+    private CargoSize cargoSize;
+
+    @Param({"false", "true"})
+    private boolean isFragile;
+
+    @Param({"NORMAL", "VERY_HIGH"})
+    private DeliveryWorkload deliveryWorkload;
+
+    private BigDecimal distanceKm;
+    private long distanceMetres;
+
+    private final DeliveryCalculator reference = new DeliveryCalculator();
+    private final DeliveryCalculator table = new TableDeliveryCalculator();
+
+    @Setup
+    public void setUp() {
+        distanceKm = new BigDecimal(distance);
+        distanceMetres = distanceKm.movePointRight(3).longValueExact();
+    }
+
+    @Benchmark
+    public Object referenceCalculator() {
+        try {
+            return reference.calculateDeliveryCost(distanceKm, cargoSize, isFragile, deliveryWorkload);
+        } catch (IllegalArgumentException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public Object tableCalculator() {
+        try {
+            return table.calculateDeliveryCost(distanceKm, cargoSize, isFragile, deliveryWorkload);
+        } catch (IllegalArgumentException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public long kopecksCalculator() {
+        try {
+            return reference.calculateDeliveryCostKopecks(distanceMetres, cargoSize, isFragile, deliveryWorkload);
+        } catch (IllegalArgumentException e) {
+            return -1;
+        }
+    }
+
+    @Benchmark
+    public QuoteResult referenceTryCalculator() {
+        return reference.tryCalculateDeliveryCost(distanceKm, cargoSize, isFragile, deliveryWorkload);
+    }
+
+    @Benchmark
+    public QuoteResult tableTryCalculator() {
+        return table.tryCalculateDeliveryCost(distanceKm, cargoSize, isFragile, deliveryWorkload);
+    }
+}
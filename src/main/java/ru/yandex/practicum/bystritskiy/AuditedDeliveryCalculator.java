@@ -0,0 +1,91 @@
+package ru.yandex.practicum.bystritskiy;
+
+import ru.yandex.practicum.bystritskiy.enums.CargoSize;
+import ru.yandex.practicum.bystritskiy.enums.DeliveryWorkload;
+import ru.yandex.practicum.bystritskiy.enums.QuoteStatus;
+
+import java.math.BigDecimal;
+
+/**
+ * Обёртка над калькулятором, которая записывает каждый расчёт, в том числе отказ, в {@link QuoteAuditJournal}.
+ * Запись в журнал не ждёт диска, поэтому расчёт задерживается только на копирование полей в отображённую память.
+ */
+public class AuditedDeliveryCalculator extends DeliveryCalculator {
+
+    private static final CargoSize[] CARGO_SIZES = CargoSize.values();
+    private static final DeliveryWorkload[] DELIVERY_WORKLOADS = DeliveryWorkload.values();
+
+    private final DeliveryCalculator delegate;
+    private final QuoteAuditJournal journal;
+
+    public AuditedDeliveryCalculator(DeliveryCalculator delegate, QuoteAuditJournal journal) {
+        this.delegate = delegate;
+        this.journal = journal;
+    }
+
+    @Override
+    public BigDecimal calculateDeliveryCost(BigDecimal distance, CargoSize cargoSize, boolean isFragile, DeliveryWorkload deliveryWorkload) {
+        BigDecimal cost;
+        try {
+            cost = delegate.calculateDeliveryCost(distance, cargoSize, isFragile, deliveryWorkload);
+        } catch (RuntimeException e) {
+            QuoteStatus status = delegate.checkInput(distance, cargoSize, isFragile, deliveryWorkload);
+            if (status != QuoteStatus.OK) {
+                journal.append(distance, cargoSize, isFragile, deliveryWorkload, status, 0);
+            }
+            throw e;
+        }
+        journal.append(distance, cargoSize, isFragile, deliveryWorkload, QuoteStatus.OK, toKopecks(cost));
+        return cost;
+    }
+
+    @Override
+    public QuoteResult tryCalculateDeliveryCost(BigDecimal distance, CargoSize cargoSize, boolean isFragile, DeliveryWorkload deliveryWorkload) {
+        QuoteResult result = delegate.tryCalculateDeliveryCost(distance, cargoSize, isFragile, deliveryWorkload);
+        journal.append(distance, cargoSize, isFragile, deliveryWorkload, result.status(), result.isOk() ? toKopecks(result.cost()) : 0);
+        return result;
+    }
+
+    @Override
+    public long calculateDeliveryCostKopecks(long distanceMetres, CargoSize cargoSize, boolean isFragile, DeliveryWorkload deliveryWorkload) {
+        long cost;
+        try {
+            cost = delegate.calculateDeliveryCostKopecks(distanceMetres, cargoSize, isFragile, deliveryWorkload);
+        } catch (RuntimeException e) {
+            QuoteStatus status = delegate.checkInput(distanceMetres, cargoSize, isFragile, deliveryWorkload);
+            if (status != QuoteStatus.OK) {
+                journal.append(distanceMetres, cargoSize, isFragile, deliveryWorkload, status, 0);
+            }
+            throw e;
+        }
+        journal.append(distanceMetres, cargoSize, isFragile, deliveryWorkload, QuoteStatus.OK, cost);
+        return cost;
+    }
+
+    @Override
+    public void calculateDeliveryCostsKopecks(long[] distancesMetres, byte[] cargoSizes, long[] fragile, byte[] deliveryWorkloads,
+                                              long[] costs, byte[] statuses, int from, int to) {
+        delegate.calculateDeliveryCostsKopecks(distancesMetres, cargoSizes, fragile, deliveryWorkloads, costs, statuses, from, to);
+        for (int i = from; i < to; i++) {
+            int cargoSize = cargoSizes[i];
+            int deliveryWorkload = deliveryWorkloads[i];
+            journal.append(
+                    distancesMetres[i],
+                    cargoSize >= 0 && cargoSize < CARGO_SIZES.length ? CARGO_SIZES[cargoSize] : null,
+                    isFragile(fragile, i),
+                    deliveryWorkload >= 0 && deliveryWorkload < DELIVERY_WORKLOADS.length ? DELIVERY_WORKLOADS[deliveryWorkload] : null,
+                    QuoteStatus.fromCode(statuses[i]),
+                    costs[i]
+            );
+        }
+    }
+
+    @Override
+    public Tariff getTariff() {
+        return delegate.getTariff();
+    }
+
+    private static long toKopecks(BigDecimal cost) {
+        return cost.movePointRight(Tariff.MONEY_SCALE).longValueExact();
+    }
+}
@@ -0,0 +1,254 @@
+package ru.yandex.practicum.bystritskiy;
+
+import ru.yandex.practicum.bystritskiy.enums.CargoSize;
+import ru.yandex.practicum.bystritskiy.enums.DeliveryWorkload;
+import ru.yandex.practicum.bystritskiy.enums.QuoteStatus;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static ru.yandex.practicum.bystritskiy.BinaryQuoteProtocol.CARGO_SIZE_OFFSET;
+import static ru.yandex.practicum.bystritskiy.BinaryQuoteProtocol.CORRELATION_ID_OFFSET;
+import static ru.yandex.practicum.bystritskiy.BinaryQuoteProtocol.COST_OFFSET;
+import static ru.yandex.practicum.bystritskiy.BinaryQuoteProtocol.DELIVERY_WORKLOAD_OFFSET;
+import static ru.yandex.practicum.bystritskiy.BinaryQuoteProtocol.DISTANCE_OFFSET;
+import static ru.yandex.practicum.bystritskiy.BinaryQuoteProtocol.FRAGILE_OFFSET;
+import static ru.yandex.practicum.bystritskiy.BinaryQuoteProtocol.REQUEST_SIZE;
+import static ru.yandex.practicum.bystritskiy.BinaryQuoteProtocol.RESPONSE_SIZE;
+import static ru.yandex.practicum.bystritskiy.BinaryQuoteProtocol.STATUS_OFFSET;
+
+/**
+ * Клиент протокола {@link BinaryQuoteProtocol} с конвейерной отправкой запросов.
+ * Запросы пишутся в соединение без ожидания ответов, отдельный поток читает ответы
+ * и завершает ожидающие их задачи в порядке отправки, сверяя идентификаторы корреляции.
+ * Клиент потокобезопасен.
+ */
+public class BinaryQuoteClient implements AutoCloseable {
+
+    private static final int BUFFER_FRAMES = 1024;
+
+    private final SocketChannel channel;
+    private final ByteBuffer out = ByteBuffer.allocateDirect(BUFFER_FRAMES * REQUEST_SIZE);
+    private final ConcurrentLinkedQueue<Pending> pending = new ConcurrentLinkedQueue<>();
+    private final Thread reader;
+    private long nextCorrelationId;
+    private volatile IOException failure;
+
+    public BinaryQuoteClient(InetSocketAddress address) throws IOException {
+        this.channel = SocketChannel.open(address);
+        channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+        this.reader = new Thread(this::read, "binary-quote-client-" + address.getPort());
+        reader.setDaemon(true);
+        reader.start();
+    }
+
+    public CompletableFuture<QuoteResult> quote(long distanceMetres, CargoSize cargoSize, boolean isFragile,
+                                                DeliveryWorkload deliveryWorkload) throws IOException {
+        SingleQuote quote = new SingleQuote();
+        synchronized (out) {
+            quote.correlationId = nextCorrelationId;
+            register(quote);
+            put(distanceMetres,
+                    cargoSize == null ? -1 : (byte) cargoSize.ordinal(),
+                    isFragile,
+                    deliveryWorkload == null ? -1 : (byte) deliveryWorkload.ordinal());
+            write();
+        }
+        return quote.future;
+    }
+
+    /**
+     * Отправляет все строки пакета одним потоком кадров. Задача завершается, когда в {@code costs}
+     * и {@code statuses} записаны ответы на все строки.
+     */
+    public CompletableFuture<Void> quote(long[] distancesMetres, byte[] cargoSizes, long[] fragile, byte[] deliveryWorkloads,
+                                         long[] costs, byte[] statuses) throws IOException {
+        int size = distancesMetres.length;
+        DeliveryCalculator.checkBatchBounds(distancesMetres, cargoSizes, fragile, deliveryWorkloads, costs, statuses, 0, size);
+        BatchQuote batch = new BatchQuote(costs, statuses, size);
+        if (size == 0) {
+            batch.future.complete(null);
+            return batch.future;
+        }
+
+        synchronized (out) {
+            batch.firstCorrelationId = nextCorrelationId;
+            register(batch);
+            for (int i = 0; i < size; i++) {
+                if (!out.hasRemaining()) {
+                    write();
+                }
+                put(distancesMetres[i], cargoSizes[i], DeliveryCalculator.isFragile(fragile, i), deliveryWorkloads[i]);
+            }
+            write();
+        }
+        return batch.future;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+        try {
+            reader.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void register(Pending request) throws IOException {
+        pending.add(request);
+        IOException e = failure;
+        if (e != null) {
+            failPending(e);
+            throw e;
+        }
+    }
+
+    private void put(long distanceMetres, byte cargoSize, boolean isFragile, byte deliveryWorkload) {
+        int frame = out.position();
+        out.putLong(frame + CORRELATION_ID_OFFSET, nextCorrelationId++);
+        out.putLong(frame + DISTANCE_OFFSET, distanceMetres);
+        out.put(frame + CARGO_SIZE_OFFSET, cargoSize);
+        out.put(frame + DELIVERY_WORKLOAD_OFFSET, deliveryWorkload);
+        out.put(frame + FRAGILE_OFFSET, (byte) (isFragile ? 1 : 0));
+        out.put(frame + FRAGILE_OFFSET + 1, (byte) 0);
+        out.position(frame + REQUEST_SIZE);
+    }
+
+    private void write() throws IOException {
+        out.flip();
+        while (out.hasRemaining()) {
+            channel.write(out);
+        }
+        out.clear();
+    }
+
+    private void read() {
+        ByteBuffer in = ByteBuffer.allocateDirect(BUFFER_FRAMES * RESPONSE_SIZE);
+        try {
+            while (channel.read(in) >= 0) {
+                in.flip();
+                while (in.remaining() >= RESPONSE_SIZE) {
+                    int frame = in.position();
+                    Pending request = pending.peek();
+                    if (request == null || !request.accept(
+                            in.getLong(frame + CORRELATION_ID_OFFSET), in.getLong(frame + COST_OFFSET), in.get(frame + STATUS_OFFSET)
+                    )) {
+                        throw new IOException("Получен ответ на неизвестный запрос");
+                    }
+                    if (request.isDone()) {
+                        pending.poll();
+                    }
+                    in.position(frame + RESPONSE_SIZE);
+                }
+                in.compact();
+            }
+            fail(new IOException("Соединение закрыто сервером"));
+        } catch (IOException e) {
+            fail(e);
+        } catch (RuntimeException e) {
+            fail(new IOException("Некорректный ответ сервера", e));
+        }
+    }
+
+    private void fail(IOException e) {
+        failure = e;
+        try {
+            channel.close();
+        } catch (IOException closeFailure) {
+            e.addSuppressed(closeFailure);
+        }
+        failPending(e);
+    }
+
+    private void failPending(IOException e) {
+        for (Pending request = pending.poll(); request != null; request = pending.poll()) {
+            request.fail(e);
+        }
+    }
+
+    private interface Pending {
+
+        /**
+         * Принимает очередной ответ. Возвращает {@code false}, если идентификатор не совпадает с ожидаемым.
+         */
+        boolean accept(long correlationId, long cost, byte status);
+
+        boolean isDone();
+
+        void fail(Throwable e);
+    }
+
+    private static final class SingleQuote implements Pending {
+
+        private final CompletableFuture<QuoteResult> future = new CompletableFuture<>();
+        private long correlationId;
+
+        @Override
+        public boolean accept(long correlationId, long cost, byte status) {
+            if (correlationId != this.correlationId) {
+                return false;
+            }
+            QuoteStatus quoteStatus = QuoteStatus.fromCode(status);
+            future.complete(quoteStatus == QuoteStatus.OK
+                    ? QuoteResult.ok(BigDecimal.valueOf(cost, Tariff.MONEY_SCALE))
+                    : QuoteResult.rejected(quoteStatus));
+            return true;
+        }
+
+        @Override
+        public boolean isDone() {
+            return true;
+        }
+
+        @Override
+        public void fail(Throwable e) {
+            future.completeExceptionally(e);
+        }
+    }
+
+    private static final class BatchQuote implements Pending {
+
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+        private final long[] costs;
+        private final byte[] statuses;
+        private final int size;
+        private long firstCorrelationId;
+        private int received;
+
+        private BatchQuote(long[] costs, byte[] statuses, int size) {
+            this.costs = costs;
+            this.statuses = statuses;
+            this.size = size;
+        }
+
+        @Override
+        public boolean accept(long correlationId, long cost, byte status) {
+            if (correlationId != firstCorrelationId + received) {
+                return false;
+            }
+            costs[received] = cost;
+            statuses[received] = status;
+            if (++received == size) {
+                future.complete(null);
+            }
+            return true;
+        }
+
+        @Override
+        public boolean isDone() {
+            return received == size;
+        }
+
+        @Override
+        public void fail(Throwable e) {
+            future.completeExceptionally(e);
+        }
+    }
+}
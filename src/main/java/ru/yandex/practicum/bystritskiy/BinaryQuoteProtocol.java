@@ -0,0 +1,39 @@
+package ru.yandex.practicum.bystritskiy;
+
+/**
+ * Двоичный протокол расчёта стоимости с кадрами фиксированной длины в сетевом порядке байтов.
+ * <p>
+ * Запрос, {@value #REQUEST_SIZE} байт:
+ * <pre>
+ * 0..7   long  correlationId
+ * 8..15  long  distanceMetres
+ * 16     byte  ordinal CargoSize
+ * 17     byte  ordinal DeliveryWorkload
+ * 18     byte  fragile (0 или 1)
+ * 19     byte  зарезервировано, 0
+ * </pre>
+ * Ответ, {@value #RESPONSE_SIZE} байт:
+ * <pre>
+ * 0..7   long  correlationId
+ * 8..15  long  стоимость в копейках, 0 при отказе
+ * 16     byte  код QuoteStatus
+ * </pre>
+ * Кадры можно отправлять подряд, не дожидаясь ответов: сервер отвечает на кадры одного соединения в порядке их получения.
+ */
+public final class BinaryQuoteProtocol {
+
+    public static final int REQUEST_SIZE = 20;
+    public static final int RESPONSE_SIZE = 17;
+
+    static final int CORRELATION_ID_OFFSET = 0;
+    static final int DISTANCE_OFFSET = 8;
+    static final int CARGO_SIZE_OFFSET = 16;
+    static final int DELIVERY_WORKLOAD_OFFSET = 17;
+    static final int FRAGILE_OFFSET = 18;
+
+    static final int COST_OFFSET = 8;
+    static final int STATUS_OFFSET = 16;
+
+    private BinaryQuoteProtocol() {
+    }
+}
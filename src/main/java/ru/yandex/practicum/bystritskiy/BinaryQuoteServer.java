@@ -0,0 +1,212 @@
+package ru.yandex.practicum.bystritskiy;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Arrays;
+import java.util.Iterator;
+
+import static ru.yandex.practicum.bystritskiy.BinaryQuoteProtocol.CARGO_SIZE_OFFSET;
+import static ru.yandex.practicum.bystritskiy.BinaryQuoteProtocol.CORRELATION_ID_OFFSET;
+import static ru.yandex.practicum.bystritskiy.BinaryQuoteProtocol.COST_OFFSET;
+import static ru.yandex.practicum.bystritskiy.BinaryQuoteProtocol.DELIVERY_WORKLOAD_OFFSET;
+import static ru.yandex.practicum.bystritskiy.BinaryQuoteProtocol.DISTANCE_OFFSET;
+import static ru.yandex.practicum.bystritskiy.BinaryQuoteProtocol.FRAGILE_OFFSET;
+import static ru.yandex.practicum.bystritskiy.BinaryQuoteProtocol.REQUEST_SIZE;
+import static ru.yandex.practicum.bystritskiy.BinaryQuoteProtocol.RESPONSE_SIZE;
+import static ru.yandex.practicum.bystritskiy.BinaryQuoteProtocol.STATUS_OFFSET;
+
+/**
+ * Неблокирующий сервер протокола {@link BinaryQuoteProtocol} на одном селекторе.
+ * Все полные кадры, прочитанные из соединения, раскладываются по столбцам и считаются одним пакетным вызовом
+ * {@link DeliveryCalculator#calculateDeliveryCostsKopecks}, ответы пишутся в прямой буфер соединения.
+ * Пока ответы не отправлены клиенту, новые запросы из соединения не читаются. Когда клиент закрывает свою сторону
+ * соединения, сервер отвечает на все уже полученные полные кадры и только затем закрывает соединение.
+ * Ошибка калькулятора закрывает только соединение, кадры которого считались, сервер продолжает работу.
+ */
+public class BinaryQuoteServer implements AutoCloseable {
+
+    static final int BATCH_SIZE = 1024;
+
+    private final DeliveryCalculator calculator;
+    private final Selector selector;
+    private final ServerSocketChannel serverChannel;
+    private final Thread thread;
+    private volatile boolean closed;
+
+    private final long[] correlationIds = new long[BATCH_SIZE];
+    private final long[] distancesMetres = new long[BATCH_SIZE];
+    private final byte[] cargoSizes = new byte[BATCH_SIZE];
+    private final long[] fragile = new long[BATCH_SIZE / Long.SIZE];
+    private final byte[] deliveryWorkloads = new byte[BATCH_SIZE];
+    private final long[] costs = new long[BATCH_SIZE];
+    private final byte[] statuses = new byte[BATCH_SIZE];
+
+    public BinaryQuoteServer(DeliveryCalculator calculator, InetSocketAddress address) throws IOException {
+        this.calculator = calculator;
+        this.selector = Selector.open();
+        this.serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(address);
+        serverChannel.configureBlocking(false);
+        serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        this.thread = new Thread(this::run, "binary-quote-server");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public InetSocketAddress getAddress() throws IOException {
+        return (InetSocketAddress) serverChannel.getLocalAddress();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        selector.wakeup();
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+        try {
+            while (!closed) {
+                selector.select();
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    try {
+                        if (key.isAcceptable()) {
+                            accept();
+                        } else {
+                            serve(key);
+                        }
+                    } catch (IOException | RuntimeException e) {
+                        closeChannel(key);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            // Селектор сломан, сервер прекращает работу.
+        } finally {
+            for (SelectionKey key : selector.keys()) {
+                closeChannel(key);
+            }
+            try {
+                selector.close();
+            } catch (IOException e) {
+                // Каналы уже закрыты.
+            }
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel = serverChannel.accept();
+        if (channel == null) {
+            return;
+        }
+        channel.configureBlocking(false);
+        channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+        channel.register(selector, SelectionKey.OP_READ, new Connection());
+    }
+
+    private void serve(SelectionKey key) throws IOException {
+        SocketChannel channel = (SocketChannel) key.channel();
+        Connection connection = (Connection) key.attachment();
+
+        if (key.isWritable() && !flush(channel, connection)) {
+            return;
+        }
+        if (key.isReadable() && channel.read(connection.in) < 0) {
+            connection.inputShutdown = true;
+        }
+
+        while (process(connection)) {
+            if (!flush(channel, connection)) {
+                break;
+            }
+        }
+        if (connection.out.position() > 0) {
+            key.interestOps(SelectionKey.OP_WRITE);
+        } else if (connection.inputShutdown) {
+            closeChannel(key);
+        } else {
+            key.interestOps(SelectionKey.OP_READ);
+        }
+    }
+
+    /**
+     * Считает полные кадры из входного буфера, пока для ответов хватает места. Возвращает {@code true},
+     * если был посчитан хотя бы один кадр.
+     */
+    private boolean process(Connection connection) {
+        ByteBuffer in = connection.in.flip();
+        ByteBuffer out = connection.out;
+        int size = Math.min(Math.min(in.remaining() / REQUEST_SIZE, out.remaining() / RESPONSE_SIZE), BATCH_SIZE);
+
+        Arrays.fill(fragile, 0);
+        for (int i = 0; i < size; i++) {
+            int frame = in.position() + i * REQUEST_SIZE;
+            correlationIds[i] = in.getLong(frame + CORRELATION_ID_OFFSET);
+            distancesMetres[i] = in.getLong(frame + DISTANCE_OFFSET);
+            cargoSizes[i] = in.get(frame + CARGO_SIZE_OFFSET);
+            deliveryWorkloads[i] = in.get(frame + DELIVERY_WORKLOAD_OFFSET);
+            if (in.get(frame + FRAGILE_OFFSET) != 0) {
+                fragile[i >>> 6] |= 1L << i;
+            }
+        }
+        in.position(in.position() + size * REQUEST_SIZE).compact();
+        if (size == 0) {
+            return false;
+        }
+
+        calculator.calculateDeliveryCostsKopecks(
+                distancesMetres, cargoSizes, fragile, deliveryWorkloads, costs, statuses, 0, size
+        );
+
+        for (int i = 0; i < size; i++) {
+            int frame = out.position();
+            out.putLong(frame + CORRELATION_ID_OFFSET, correlationIds[i]);
+            out.putLong(frame + COST_OFFSET, costs[i]);
+            out.put(frame + STATUS_OFFSET, statuses[i]);
+            out.position(frame + RESPONSE_SIZE);
+        }
+        return true;
+    }
+
+    /**
+     * Отправляет накопленные ответы. Возвращает {@code true}, если буфер ответов опустел.
+     */
+    private static boolean flush(SocketChannel channel, Connection connection) throws IOException {
+        ByteBuffer out = connection.out.flip();
+        channel.write(out);
+        out.compact();
+        return out.position() == 0;
+    }
+
+    private static void closeChannel(SelectionKey key) {
+        key.cancel();
+        try {
+            key.channel().close();
+        } catch (IOException e) {
+            // Канал уже закрыт.
+        }
+    }
+
+    private static final class Connection {
+
+        private final ByteBuffer in = ByteBuffer.allocateDirect(BATCH_SIZE * REQUEST_SIZE);
+        private final ByteBuffer out = ByteBuffer.allocateDirect(BATCH_SIZE * RESPONSE_SIZE);
+        private boolean inputShutdown;
+    }
+}
@@ -2,10 +2,16 @@ package ru.yandex.practicum.bystritskiy;
 
 import ru.yandex.practicum.bystritskiy.enums.CargoSize;
 import ru.yandex.practicum.bystritskiy.enums.DeliveryWorkload;
+import ru.yandex.practicum.bystritskiy.enums.QuoteStatus;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
 import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 public class DeliveryCalculator {
 
@@ -22,13 +28,39 @@ public class DeliveryCalculator {
     private static final BigDecimal COST_UP_TO_30KM = new BigDecimal("200.00");
     private static final BigDecimal COST_OVER_30KM = new BigDecimal("300.00");
 
+    static final BigDecimal[] DISTANCE_BAND_COSTS = {
+            COST_UP_TO_2KM, COST_UP_TO_10KM, COST_UP_TO_30KM, COST_OVER_30KM
+    };
+
     private static final int SCALE = 2;
 
+    static final Tariff TARIFF = Tariff.of(
+            List.of(DISTANCE_THRESHOLD_2KM, DISTANCE_THRESHOLD_10KM, DISTANCE_THRESHOLD_30KM),
+            List.of(DISTANCE_BAND_COSTS),
+            Arrays.stream(CargoSize.values()).collect(Collectors.toMap(
+                    Function.identity(), CargoSize::getSurcharge, (a, b) -> a, () -> new EnumMap<>(CargoSize.class)
+            )),
+            Arrays.stream(DeliveryWorkload.values()).collect(Collectors.toMap(
+                    Function.identity(), DeliveryWorkload::getCoefficient, (a, b) -> a, () -> new EnumMap<>(DeliveryWorkload.class)
+            )),
+            FRAGILE_SURCHARGE,
+            MAX_FRAGILE_DISTANCE,
+            MIN_DELIVERY_COST
+    );
+
+    private static final String NULL_DISTANCE_MESSAGE = "Расстояние не может быть null";
+    private static final String NULL_CARGO_SIZE_MESSAGE = "Размер груза не может быть null";
+    private static final String NULL_DELIVERY_WORKLOAD_MESSAGE = "Загруженность не может быть null";
+    private static final String NON_POSITIVE_DISTANCE_MESSAGE = "Расстояние должно быть больше 0 км";
+
     public BigDecimal calculateDeliveryCost(BigDecimal distance, CargoSize cargoSize, boolean isFragile, DeliveryWorkload deliveryWorkload) {
         validateInput(distance, cargoSize, deliveryWorkload, isFragile);
 
-        BigDecimal baseCost = calculateDistanceCost(distance);
-        baseCost = baseCost.add(cargoSize.getSurcharge());
+        return calculateCost(calculateDistanceCost(distance), cargoSize, isFragile, deliveryWorkload);
+    }
+
+    BigDecimal calculateCost(BigDecimal distanceCost, CargoSize cargoSize, boolean isFragile, DeliveryWorkload deliveryWorkload) {
+        BigDecimal baseCost = distanceCost.add(cargoSize.getSurcharge());
 
         if (isFragile) {
             baseCost = baseCost.add(FRAGILE_SURCHARGE);
@@ -39,29 +71,112 @@ public class DeliveryCalculator {
         return finalCost.max(MIN_DELIVERY_COST).setScale(SCALE, RoundingMode.HALF_UP);
     }
 
-    private void validateInput(BigDecimal distance, CargoSize cargoSize, DeliveryWorkload deliveryWorkload, boolean isFragile) {
-        Objects.requireNonNull(distance, "Расстояние не может быть null");
-        Objects.requireNonNull(cargoSize, "Размер груза не может быть null");
-        Objects.requireNonNull(deliveryWorkload, "Загруженность не может быть null");
+    public long calculateDeliveryCostKopecks(long distanceMetres, CargoSize cargoSize, boolean isFragile, DeliveryWorkload deliveryWorkload) {
+        Tariff tariff = getTariff();
+        QuoteStatus status = tariff.checkInput(distanceMetres, cargoSize, isFragile, deliveryWorkload);
+        if (status != QuoteStatus.OK) {
+            throw toException(status, tariff);
+        }
+
+        return tariff.calculateCostKopecks(tariff.distanceBand(distanceMetres), cargoSize.ordinal(), isFragile, deliveryWorkload.ordinal());
+    }
+
+    public void calculateDeliveryCostsKopecks(long[] distancesMetres, byte[] cargoSizes, long[] fragile, byte[] deliveryWorkloads,
+                                              long[] costs, byte[] statuses) {
+        calculateDeliveryCostsKopecks(distancesMetres, cargoSizes, fragile, deliveryWorkloads, costs, statuses, 0, distancesMetres.length);
+    }
+
+    public void calculateDeliveryCostsKopecks(long[] distancesMetres, byte[] cargoSizes, long[] fragile, byte[] deliveryWorkloads,
+                                              long[] costs, byte[] statuses, int from, int to) {
+        checkBatchBounds(distancesMetres, cargoSizes, fragile, deliveryWorkloads, costs, statuses, from, to);
+
+        calculateCostsKopecks(getTariff(), distancesMetres, cargoSizes, fragile, deliveryWorkloads, costs, statuses, from, to);
+    }
+
+    public Tariff getTariff() {
+        return TARIFF;
+    }
+
+    static void calculateCostsKopecks(Tariff tariff, long[] distancesMetres, byte[] cargoSizes, long[] fragile, byte[] deliveryWorkloads,
+                                      long[] costs, byte[] statuses, int from, int to) {
+        for (int i = from; i < to; i++) {
+            long distanceMetres = distancesMetres[i];
+            int cargoSize = cargoSizes[i];
+            boolean isFragile = isFragile(fragile, i);
+            int deliveryWorkload = deliveryWorkloads[i];
+
+            QuoteStatus status = tariff.checkRow(distanceMetres, cargoSize, isFragile, deliveryWorkload);
+            statuses[i] = status.getCode();
+            costs[i] = status == QuoteStatus.OK
+                    ? tariff.calculateCostKopecks(tariff.distanceBand(distanceMetres), cargoSize, isFragile, deliveryWorkload)
+                    : 0;
+        }
+    }
 
-        if (distance.signum() <= 0) {
-            throw new IllegalArgumentException("Расстояние должно быть больше 0 км");
+    public QuoteResult tryCalculateDeliveryCost(BigDecimal distance, CargoSize cargoSize, boolean isFragile, DeliveryWorkload deliveryWorkload) {
+        QuoteStatus status = checkInput(distance, cargoSize, isFragile, deliveryWorkload);
+        if (status != QuoteStatus.OK) {
+            return QuoteResult.rejected(status);
         }
 
-        if (isFragile && distance.compareTo(MAX_FRAGILE_DISTANCE) > 0) {
-            throw new IllegalArgumentException("Хрупкие грузы нельзя возить на расстояние более 30 км");
+        return QuoteResult.ok(calculateCost(calculateDistanceCost(distance), cargoSize, isFragile, deliveryWorkload));
+    }
+
+    public QuoteStatus checkInput(BigDecimal distance, CargoSize cargoSize, boolean isFragile, DeliveryWorkload deliveryWorkload) {
+        return getTariff().checkInput(distance, cargoSize, isFragile, deliveryWorkload);
+    }
+
+    public QuoteStatus checkInput(long distanceMetres, CargoSize cargoSize, boolean isFragile, DeliveryWorkload deliveryWorkload) {
+        return getTariff().checkInput(distanceMetres, cargoSize, isFragile, deliveryWorkload);
+    }
+
+    void validateInput(BigDecimal distance, CargoSize cargoSize, DeliveryWorkload deliveryWorkload, boolean isFragile) {
+        QuoteStatus status = TARIFF.checkInput(distance, cargoSize, isFragile, deliveryWorkload);
+        if (status != QuoteStatus.OK) {
+            throw toException(status, TARIFF);
         }
     }
 
+    static boolean isFragile(long[] fragile, int index) {
+        int word = index >>> 6;
+        return word < fragile.length && (fragile[word] & (1L << index)) != 0;
+    }
+
+    static void checkBatchBounds(long[] distancesMetres, byte[] cargoSizes, long[] fragile, byte[] deliveryWorkloads,
+                                 long[] costs, byte[] statuses, int from, int to) {
+        Objects.requireNonNull(fragile, "Признаки хрупкости не могут быть null");
+        Objects.checkFromToIndex(from, to, distancesMetres.length);
+        Objects.checkFromToIndex(from, to, cargoSizes.length);
+        Objects.checkFromToIndex(from, to, deliveryWorkloads.length);
+        Objects.checkFromToIndex(from, to, costs.length);
+        Objects.checkFromToIndex(from, to, statuses.length);
+    }
+
+    static RuntimeException toException(QuoteStatus status, Tariff tariff) {
+        return switch (status) {
+            case MISSING_DISTANCE -> new NullPointerException(NULL_DISTANCE_MESSAGE);
+            case UNKNOWN_CARGO_SIZE -> new NullPointerException(NULL_CARGO_SIZE_MESSAGE);
+            case UNKNOWN_DELIVERY_WORKLOAD -> new NullPointerException(NULL_DELIVERY_WORKLOAD_MESSAGE);
+            case NON_POSITIVE_DISTANCE -> new IllegalArgumentException(NON_POSITIVE_DISTANCE_MESSAGE);
+            case FRAGILE_TOO_FAR -> new IllegalArgumentException(tariff.fragileTooFarMessage());
+            default -> new IllegalArgumentException("Некорректные входные данные: " + status);
+        };
+    }
+
     private BigDecimal calculateDistanceCost(BigDecimal distance) {
+        return DISTANCE_BAND_COSTS[distanceBand(distance)];
+    }
+
+    static int distanceBand(BigDecimal distance) {
         if (distance.compareTo(DISTANCE_THRESHOLD_30KM) > 0) {
-            return COST_OVER_30KM;
+            return 3;
         } else if (distance.compareTo(DISTANCE_THRESHOLD_10KM) > 0) {
-            return COST_UP_TO_30KM;
+            return 2;
         } else if (distance.compareTo(DISTANCE_THRESHOLD_2KM) > 0) {
-            return COST_UP_TO_10KM;
+            return 1;
         } else {
-            return COST_UP_TO_2KM;
+            return 0;
         }
     }
+
 }
@@ -0,0 +1,303 @@
+package ru.yandex.practicum.bystritskiy;
+
+import ru.yandex.practicum.bystritskiy.enums.CargoSize;
+import ru.yandex.practicum.bystritskiy.enums.DeliveryWorkload;
+import ru.yandex.practicum.bystritskiy.enums.QuoteStatus;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Расчёт стоимости для выгрузки заказов в CSV/TSV с записью результата в файл.
+ * <p>
+ * Входной файл отображается в память окнами по {@code windowSize} байт, поля разбираются прямо из байтов.
+ * Строка входного файла: {@code расстояние_км;габариты;хрупкость;загруженность},
+ * например {@code 12.5;SMALL;false;NORMAL}. Расстояние разбирается {@link DistanceParser}.
+ * Строка файла стоимостей: {@code номер_строки;стоимость}, строка файла отказов:
+ * {@code номер_строки;код_отказа} с именем {@link QuoteStatus}.
+ */
+public class DeliveryCostFilePipeline {
+
+    public static final int DEFAULT_WINDOW_SIZE = 256 << 20;
+
+    private static final int BATCH_SIZE = 4096;
+    private static final int OUTPUT_BUFFER_SIZE = 1 << 16;
+    private static final int MAX_OUTPUT_LINE_LENGTH = 64;
+
+    private static final byte[][] CARGO_SIZE_NAMES = names(CargoSize.values());
+    private static final byte[][] DELIVERY_WORKLOAD_NAMES = names(DeliveryWorkload.values());
+    private static final byte[][] STATUS_NAMES = new byte[QuoteStatus.values().length][];
+    private static final byte[] TRUE = "true".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] FALSE = "false".getBytes(StandardCharsets.US_ASCII);
+
+    static {
+        for (QuoteStatus status : QuoteStatus.values()) {
+            STATUS_NAMES[status.getCode()] = status.name().getBytes(StandardCharsets.US_ASCII);
+        }
+    }
+
+    private final DeliveryCalculator calculator;
+    private final byte delimiter;
+    private final boolean hasHeader;
+    private final int windowSize;
+
+    public DeliveryCostFilePipeline(DeliveryCalculator calculator, char delimiter, boolean hasHeader) {
+        this(calculator, delimiter, hasHeader, DEFAULT_WINDOW_SIZE);
+    }
+
+    public DeliveryCostFilePipeline(DeliveryCalculator calculator, char delimiter, boolean hasHeader, int windowSize) {
+        if (delimiter > 0x7F || delimiter == '\n' || delimiter == '\r') {
+            throw new IllegalArgumentException("Разделитель должен быть однобайтовым символом, отличным от перевода строки");
+        }
+        if (windowSize <= 0) {
+            throw new IllegalArgumentException("Размер окна должен быть больше 0");
+        }
+        this.calculator = calculator;
+        this.delimiter = (byte) delimiter;
+        this.hasHeader = hasHeader;
+        this.windowSize = windowSize;
+    }
+
+    public Summary process(Path input, Path quotes, Path rejects) throws IOException {
+        try (FileChannel in = FileChannel.open(input, StandardOpenOption.READ);
+             FileChannel quotesOut = openForWrite(quotes);
+             FileChannel rejectsOut = openForWrite(rejects)) {
+            Batch batch = new Batch(new LineWriter(quotesOut), new LineWriter(rejectsOut));
+            long size = in.size();
+            long position = 0;
+            long lineNumber = 0;
+
+            while (position < size) {
+                int length = (int) Math.min(windowSize, size - position);
+                boolean lastWindow = position + length == size;
+                MappedByteBuffer window = in.map(FileChannel.MapMode.READ_ONLY, position, length);
+
+                int lineStart = 0;
+                while (lineStart < length) {
+                    int lineEnd = indexOf(window, (byte) '\n', lineStart, length);
+                    if (lineEnd < 0) {
+                        if (!lastWindow) {
+                            break;
+                        }
+                        lineEnd = length;
+                    }
+                    lineNumber++;
+                    int contentEnd = lineEnd > lineStart && window.get(lineEnd - 1) == '\r' ? lineEnd - 1 : lineEnd;
+                    if (contentEnd > lineStart && !(hasHeader && lineNumber == 1)) {
+                        parseRow(window, lineStart, contentEnd, lineNumber, batch);
+                    }
+                    lineStart = lineEnd + 1;
+                }
+
+                if (lineStart == 0) {
+                    throw new IOException("Строка " + (lineNumber + 1) + " не помещается в окно размером " + windowSize + " байт");
+                }
+                position += Math.min(lineStart, length);
+            }
+
+            batch.flush();
+            batch.quotes.flush();
+            batch.rejects.flush();
+            return new Summary(batch.quoted, batch.rejected);
+        }
+    }
+
+    private void parseRow(ByteBuffer line, int from, int to, long lineNumber, Batch batch) throws IOException {
+        int distanceEnd = indexOf(line, delimiter, from, to);
+        int cargoSizeEnd = distanceEnd < 0 ? -1 : indexOf(line, delimiter, distanceEnd + 1, to);
+        int fragileEnd = cargoSizeEnd < 0 ? -1 : indexOf(line, delimiter, cargoSizeEnd + 1, to);
+        if (fragileEnd < 0 || indexOf(line, delimiter, fragileEnd + 1, to) >= 0) {
+            batch.addMalformed(lineNumber);
+            return;
+        }
+
+        long distanceMetres = DistanceParser.parseMetres(line, from, distanceEnd);
+        boolean isFragile = matches(line, cargoSizeEnd + 1, fragileEnd, TRUE);
+        if (distanceMetres == DistanceParser.MALFORMED_INPUT || !isFragile && !matches(line, cargoSizeEnd + 1, fragileEnd, FALSE)) {
+            batch.addMalformed(lineNumber);
+            return;
+        }
+
+        // Нулевые и отрицательные расстояния отклоняет калькулятор в общем порядке проверок.
+        batch.add(
+                lineNumber,
+                Math.max(distanceMetres, 0),
+                (byte) find(line, distanceEnd + 1, cargoSizeEnd, CARGO_SIZE_NAMES),
+                isFragile,
+                (byte) find(line, fragileEnd + 1, to, DELIVERY_WORKLOAD_NAMES)
+        );
+    }
+
+    private static int find(ByteBuffer line, int from, int to, byte[][] names) {
+        for (int i = 0; i < names.length; i++) {
+            if (matches(line, from, to, names[i])) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean matches(ByteBuffer line, int from, int to, byte[] expected) {
+        if (to - from != expected.length) {
+            return false;
+        }
+        for (int i = 0; i < expected.length; i++) {
+            if (line.get(from + i) != expected[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int indexOf(ByteBuffer buffer, byte value, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (buffer.get(i) == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static FileChannel openForWrite(Path path) throws IOException {
+        return FileChannel.open(
+                path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE
+        );
+    }
+
+    private static byte[][] names(Enum<?>[] values) {
+        byte[][] names = new byte[values.length][];
+        for (Enum<?> value : values) {
+            names[value.ordinal()] = value.name().getBytes(StandardCharsets.US_ASCII);
+        }
+        return names;
+    }
+
+    public record Summary(long quoted, long rejected) {
+    }
+
+    private final class Batch {
+
+        private final long[] lineNumbers = new long[BATCH_SIZE];
+        private final long[] distancesMetres = new long[BATCH_SIZE];
+        private final byte[] cargoSizes = new byte[BATCH_SIZE];
+        private final long[] fragile = new long[BATCH_SIZE / Long.SIZE];
+        private final byte[] deliveryWorkloads = new byte[BATCH_SIZE];
+        private final boolean[] malformed = new boolean[BATCH_SIZE];
+        private final long[] costs = new long[BATCH_SIZE];
+        private final byte[] statuses = new byte[BATCH_SIZE];
+
+        private final LineWriter quotes;
+        private final LineWriter rejects;
+        private int size;
+        private long quoted;
+        private long rejected;
+
+        Batch(LineWriter quotes, LineWriter rejects) {
+            this.quotes = quotes;
+            this.rejects = rejects;
+        }
+
+        void add(long lineNumber, long distanceMetres, byte cargoSize, boolean isFragile, byte deliveryWorkload) throws IOException {
+            add(lineNumber, distanceMetres, cargoSize, isFragile, deliveryWorkload, false);
+        }
+
+        void addMalformed(long lineNumber) throws IOException {
+            add(lineNumber, 1, (byte) 0, false, (byte) 0, true);
+        }
+
+        private void add(long lineNumber, long distanceMetres, byte cargoSize, boolean isFragile, byte deliveryWorkload,
+                         boolean isMalformed) throws IOException {
+            lineNumbers[size] = lineNumber;
+            distancesMetres[size] = distanceMetres;
+            cargoSizes[size] = cargoSize;
+            deliveryWorkloads[size] = deliveryWorkload;
+            if (isFragile) {
+                fragile[size >>> 6] |= 1L << size;
+            }
+            malformed[size] = isMalformed;
+            if (++size == BATCH_SIZE) {
+                flush();
+            }
+        }
+
+        void flush() throws IOException {
+            calculator.calculateDeliveryCostsKopecks(
+                    distancesMetres, cargoSizes, fragile, deliveryWorkloads, costs, statuses, 0, size
+            );
+            for (int i = 0; i < size; i++) {
+                byte status = malformed[i] ? QuoteStatus.MALFORMED_INPUT.getCode() : statuses[i];
+                if (status == QuoteStatus.OK.getCode()) {
+                    quotes.putLine(lineNumbers[i], costs[i]);
+                    quoted++;
+                } else {
+                    rejects.putLine(lineNumbers[i], STATUS_NAMES[status]);
+                    rejected++;
+                }
+            }
+            Arrays.fill(fragile, 0);
+            size = 0;
+        }
+    }
+
+    private final class LineWriter {
+
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(OUTPUT_BUFFER_SIZE);
+
+        LineWriter(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        void putLine(long lineNumber, long costKopecks) throws IOException {
+            ensureCapacity();
+            putLong(lineNumber);
+            buffer.put(delimiter);
+            putLong(costKopecks / 100);
+            buffer.put((byte) '.');
+            buffer.put((byte) ('0' + costKopecks / 10 % 10));
+            buffer.put((byte) ('0' + costKopecks % 10));
+            buffer.put((byte) '\n');
+        }
+
+        void putLine(long lineNumber, byte[] reason) throws IOException {
+            ensureCapacity();
+            putLong(lineNumber);
+            buffer.put(delimiter);
+            buffer.put(reason);
+            buffer.put((byte) '\n');
+        }
+
+        void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        private void ensureCapacity() throws IOException {
+            if (buffer.remaining() < MAX_OUTPUT_LINE_LENGTH) {
+                flush();
+            }
+        }
+
+        private void putLong(long value) {
+            int digits = 1;
+            for (long rest = value / 10; rest > 0; rest /= 10) {
+                digits++;
+            }
+            int end = buffer.position() + digits;
+            for (int i = end - 1; i >= end - digits; i--) {
+                buffer.put(i, (byte) ('0' + value % 10));
+                value /= 10;
+            }
+            buffer.position(end);
+        }
+    }
+}
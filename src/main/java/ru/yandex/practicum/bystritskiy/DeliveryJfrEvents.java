@@ -0,0 +1,95 @@
+package ru.yandex.practicum.bystritskiy;
+
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.FlightRecorderListener;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import ru.yandex.practicum.bystritskiy.enums.DeliveryWorkload;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Регистрация событий JFR калькулятора. События регистрируются только после старта первой записи JFR,
+ * до этого калькулятор проверяет один volatile-флаг и не создаёт событий.
+ */
+final class DeliveryJfrEvents {
+
+    private static final AtomicBoolean INSTALLED = new AtomicBoolean();
+    private static final AtomicBoolean REGISTERED = new AtomicBoolean();
+    private static final LongAdder[] QUOTES = new LongAdder[DeliveryWorkload.values().length];
+    private static final LongAdder REJECTED = new LongAdder();
+
+    private static volatile boolean recording;
+
+    static {
+        for (int i = 0; i < QUOTES.length; i++) {
+            QUOTES[i] = new LongAdder();
+        }
+    }
+
+    private DeliveryJfrEvents() {
+    }
+
+    static void install() {
+        if (INSTALLED.compareAndSet(false, true)) {
+            FlightRecorder.addListener(new Listener());
+        }
+    }
+
+    static boolean isRecording() {
+        return recording;
+    }
+
+    static void countQuote(DeliveryWorkload deliveryWorkload) {
+        QUOTES[deliveryWorkload.ordinal()].increment();
+    }
+
+    static void countRejection() {
+        REJECTED.increment();
+    }
+
+    private static synchronized void update(FlightRecorder recorder) {
+        boolean running = false;
+        for (Recording recording : recorder.getRecordings()) {
+            running |= recording.getState() == RecordingState.RUNNING;
+        }
+        if (running && REGISTERED.compareAndSet(false, true)) {
+            FlightRecorder.register(QuoteEvent.class);
+            FlightRecorder.register(QuoteThroughputEvent.class);
+            FlightRecorder.addPeriodicEvent(QuoteThroughputEvent.class, DeliveryJfrEvents::emitThroughput);
+        }
+        if (running != recording) {
+            // Счётчики остаются только в пределах одной записи: периодическое событие при старте следующей
+            // записи не должно содержать расчёты, выполненные после остановки предыдущей.
+            for (LongAdder quotes : QUOTES) {
+                quotes.reset();
+            }
+            REJECTED.reset();
+        }
+        recording = running;
+    }
+
+    private static void emitThroughput() {
+        QuoteThroughputEvent event = new QuoteThroughputEvent();
+        event.normal = QUOTES[DeliveryWorkload.NORMAL.ordinal()].sumThenReset();
+        event.increased = QUOTES[DeliveryWorkload.INCREASED.ordinal()].sumThenReset();
+        event.high = QUOTES[DeliveryWorkload.HIGH.ordinal()].sumThenReset();
+        event.veryHigh = QUOTES[DeliveryWorkload.VERY_HIGH.ordinal()].sumThenReset();
+        event.rejected = REJECTED.sumThenReset();
+        event.commit();
+    }
+
+    private static final class Listener implements FlightRecorderListener {
+
+        @Override
+        public void recorderInitialized(FlightRecorder recorder) {
+            update(recorder);
+        }
+
+        @Override
+        public void recordingStateChanged(Recording recording) {
+            update(FlightRecorder.getFlightRecorder());
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package ru.yandex.practicum.bystritskiy;
+
+import ru.yandex.practicum.bystritskiy.enums.CargoSize;
+import ru.yandex.practicum.bystritskiy.enums.DeliveryWorkload;
+import ru.yandex.practicum.bystritskiy.enums.QuoteStatus;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Счётчики расчётов по измерениям тарифа, отказов по причинам, сбоев калькулятора и гистограмма времени расчёта.
+ * Все счётчики — {@link LongAdder}, гистограмма — фиксированные степени двойки в наносекундах,
+ * поэтому запись не берёт блокировок и не конкурирует за одну ячейку.
+ * Сбор отключается свойством {@code -Ddelivery.metrics.enabled=false}: тогда
+ * {@link MeteredDeliveryCalculator#of} возвращает исходный калькулятор без обёртки.
+ */
+public class DeliveryMetrics {
+
+    static final boolean ENABLED = Boolean.parseBoolean(System.getProperty("delivery.metrics.enabled", "true"));
+
+    static final int LATENCY_BUCKETS = Long.SIZE;
+
+    private final LongAdder[] distanceBands;
+    private final LongAdder[] cargoSizes = adders(CargoSize.values().length);
+    private final LongAdder[] fragile = adders(2);
+    private final LongAdder[] deliveryWorkloads = adders(DeliveryWorkload.values().length);
+    private final LongAdder[] rejections = adders(QuoteStatus.values().length);
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder[] latency = adders(LATENCY_BUCKETS);
+
+    public DeliveryMetrics(int distanceBandCount) {
+        this.distanceBands = adders(distanceBandCount);
+    }
+
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * Учитывает расчёт. Полоса сверх заданного числа полос (тариф перечитан с более подробной сеткой)
+     * учитывается в последней, чтобы метрики никогда не мешали расчёту.
+     */
+    public void recordQuote(int distanceBand, CargoSize cargoSize, boolean isFragile, DeliveryWorkload deliveryWorkload,
+                            long latencyNanos) {
+        distanceBands[Math.min(distanceBand, distanceBands.length - 1)].increment();
+        cargoSizes[cargoSize.ordinal()].increment();
+        fragile[isFragile ? 1 : 0].increment();
+        deliveryWorkloads[deliveryWorkload.ordinal()].increment();
+        latency[latencyBucket(latencyNanos)].increment();
+    }
+
+    public void recordRejection(QuoteStatus status, long latencyNanos) {
+        rejections[status.getCode()].increment();
+        latency[latencyBucket(latencyNanos)].increment();
+    }
+
+    /**
+     * Учитывает сбой калькулятора: исключение при корректных входных данных, например при недоступном тарифе.
+     */
+    public void recordFailure(long latencyNanos) {
+        failures.increment();
+        latency[latencyBucket(latencyNanos)].increment();
+    }
+
+    public Snapshot snapshot() {
+        return new Snapshot(
+                sums(distanceBands, false),
+                sums(cargoSizes, false),
+                sums(fragile, false),
+                sums(deliveryWorkloads, false),
+                sums(rejections, false),
+                failures.sum(),
+                sums(latency, false)
+        );
+    }
+
+    public Snapshot snapshotAndReset() {
+        return new Snapshot(
+                sums(distanceBands, true),
+                sums(cargoSizes, true),
+                sums(fragile, true),
+                sums(deliveryWorkloads, true),
+                sums(rejections, true),
+                failures.sumThenReset(),
+                sums(latency, true)
+        );
+    }
+
+    public void reset() {
+        snapshotAndReset();
+    }
+
+    static int latencyBucket(long latencyNanos) {
+        return latencyNanos <= 0 ? 0 : Long.SIZE - 1 - Long.numberOfLeadingZeros(latencyNanos);
+    }
+
+    private static LongAdder[] adders(int size) {
+        LongAdder[] adders = new LongAdder[size];
+        for (int i = 0; i < size; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+
+    private static long[] sums(LongAdder[] adders, boolean reset) {
+        long[] sums = new long[adders.length];
+        for (int i = 0; i < adders.length; i++) {
+            sums[i] = reset ? adders[i].sumThenReset() : adders[i].sum();
+        }
+        return sums;
+    }
+
+    /**
+     * Счётчики на момент снимка. Индексы массивов — номер полосы расстояния, ординалы
+     * {@link CargoSize} и {@link DeliveryWorkload}, 0/1 для хрупкости, код {@link QuoteStatus}.
+     * {@code failures} — число сбоев калькулятора, не связанных с входными данными.
+     * Корзина гистограммы {@code i} содержит расчёты длительностью {@code [2^i, 2^(i+1))} нс.
+     */
+    public record Snapshot(long[] distanceBands, long[] cargoSizes, long[] fragile, long[] deliveryWorkloads,
+                           long[] rejections, long failures, long[] latencyBuckets) {
+
+        public long quotes() {
+            return fragile[0] + fragile[1];
+        }
+
+        public long rejections(QuoteStatus status) {
+            return rejections[status.getCode()];
+        }
+
+        public long latencyPercentileNanos(double percentile) {
+            long total = 0;
+            for (long count : latencyBuckets) {
+                total += count;
+            }
+            long rank = (long) Math.ceil(total * percentile / 100);
+            long seen = 0;
+            for (int i = 0; i < latencyBuckets.length; i++) {
+                seen += latencyBuckets[i];
+                if (seen >= rank && seen > 0) {
+                    return i == Long.SIZE - 1 ? Long.MAX_VALUE : (1L << (i + 1)) - 1;
+                }
+            }
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package ru.yandex.practicum.bystritskiy;
+
+import ru.yandex.practicum.bystritskiy.enums.CargoSize;
+import ru.yandex.practicum.bystritskiy.enums.DeliveryWorkload;
+
+import java.math.BigDecimal;
+
+public record DeliveryOrder(BigDecimal distance, CargoSize cargoSize, boolean isFragile, DeliveryWorkload deliveryWorkload) {
+}
@@ -0,0 +1,7 @@
+package ru.yandex.practicum.bystritskiy;
+
+/**
+ * Результат расчёта заказа в реактивном конвейере {@link DeliveryQuoteProcessor}: исходный заказ и стоимость или причина отказа.
+ */
+public record DeliveryQuote(DeliveryOrder order, QuoteResult result) {
+}
@@ -0,0 +1,258 @@
+package ru.yandex.practicum.bystritskiy;
+
+import ru.yandex.practicum.bystritskiy.enums.CargoSize;
+import ru.yandex.practicum.bystritskiy.enums.DeliveryWorkload;
+import ru.yandex.practicum.bystritskiy.enums.QuoteStatus;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Объединяет одиночные запросы из разных потоков в пакеты. Запрос кладётся в ограниченную
+ * неблокирующую очередь {@link QuoteRingBuffer}, потоки-обработчики забирают до {@code batchSize} запросов,
+ * ожидая недостающие не дольше {@code maxWait} с момента получения первого, и считают пакет одним вызовом
+ * {@link DeliveryCalculator#calculateDeliveryCostsKopecks}.
+ * Результат и исключения такие же, как у {@link DeliveryCalculator#calculateDeliveryCost}.
+ */
+public class DeliveryQuoteDispatcher implements AutoCloseable {
+
+    private final DeliveryCalculator calculator;
+    private final QuoteRingBuffer<Request> queue;
+    private final int batchSize;
+    private final long maxWaitNanos;
+    private final Worker[] workers;
+    private final AtomicInteger idleWorkers = new AtomicInteger();
+    private volatile boolean closed;
+
+    public DeliveryQuoteDispatcher(DeliveryCalculator calculator, int capacity, int batchSize, Duration maxWait, int consumers) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Размер пакета должен быть больше 0");
+        }
+        if (maxWait.isNegative()) {
+            throw new IllegalArgumentException("Время ожидания пакета не может быть отрицательным");
+        }
+        if (consumers <= 0) {
+            throw new IllegalArgumentException("Количество обработчиков должно быть больше 0");
+        }
+        this.calculator = calculator;
+        this.queue = new QuoteRingBuffer<>(capacity);
+        this.batchSize = batchSize;
+        this.maxWaitNanos = maxWait.toNanos();
+        this.workers = new Worker[consumers];
+        for (int i = 0; i < consumers; i++) {
+            workers[i] = new Worker("quote-dispatcher-" + i);
+        }
+        for (Worker worker : workers) {
+            worker.thread.start();
+        }
+    }
+
+    /**
+     * Ставит заказ в очередь. Отсутствующие параметры отклоняются сразу, остальные правила проверяются при расчёте пакета.
+     *
+     * @throws RejectedExecutionException если очередь заполнена или диспетчер закрыт
+     */
+    public CompletableFuture<BigDecimal> submit(BigDecimal distance, CargoSize cargoSize, boolean isFragile,
+                                                DeliveryWorkload deliveryWorkload) {
+        if (distance == null || cargoSize == null || deliveryWorkload == null) {
+            QuoteStatus status = calculator.checkInput(distance, cargoSize, isFragile, deliveryWorkload);
+            return CompletableFuture.failedFuture(DeliveryCalculator.toException(status, calculator.getTariff()));
+        }
+        if (closed) {
+            throw new RejectedExecutionException("Диспетчер расчётов закрыт");
+        }
+
+        Request request = new Request(Tariff.ceilMetres(distance), cargoSize, isFragile, deliveryWorkload);
+        if (!queue.offer(request)) {
+            throw new RejectedExecutionException("Очередь расчётов заполнена");
+        }
+        if (closed) {
+            // close() мог уже остановить обработчики и разобрать очередь до этой вставки. Если запрос ещё не посчитан,
+            // отклоняем его сами: повторное завершение обработчиком или close() ничего не изменит.
+            RejectedExecutionException rejection = new RejectedExecutionException("Диспетчер расчётов закрыт");
+            if (request.completeExceptionally(rejection)) {
+                throw rejection;
+            }
+            return request;
+        }
+        if (idleWorkers.get() > 0) {
+            wakeUpOne();
+        }
+        return request;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public Duration getMaxWait() {
+        return Duration.ofNanos(maxWaitNanos);
+    }
+
+    /**
+     * Останавливает обработчики, дожидаясь расчёта уже принятых запросов.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        for (Worker worker : workers) {
+            LockSupport.unpark(worker.thread);
+        }
+        for (Worker worker : workers) {
+            try {
+                worker.thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        for (Request request = queue.poll(); request != null; request = queue.poll()) {
+            request.completeExceptionally(new RejectedExecutionException("Диспетчер расчётов закрыт"));
+        }
+    }
+
+    private void wakeUpOne() {
+        for (Worker worker : workers) {
+            if (worker.idle.compareAndSet(true, false)) {
+                LockSupport.unpark(worker.thread);
+                return;
+            }
+        }
+    }
+
+    private static final class Request extends CompletableFuture<BigDecimal> {
+
+        private final long distanceMetres;
+        private final byte cargoSize;
+        private final boolean isFragile;
+        private final byte deliveryWorkload;
+
+        private Request(long distanceMetres, CargoSize cargoSize, boolean isFragile, DeliveryWorkload deliveryWorkload) {
+            this.distanceMetres = distanceMetres;
+            this.cargoSize = (byte) cargoSize.ordinal();
+            this.isFragile = isFragile;
+            this.deliveryWorkload = (byte) deliveryWorkload.ordinal();
+        }
+    }
+
+    private final class Worker {
+
+        private final Thread thread;
+        private final AtomicBoolean idle = new AtomicBoolean();
+
+        private final Request[] batch = new Request[batchSize];
+        private final long[] distancesMetres = new long[batchSize];
+        private final byte[] cargoSizes = new byte[batchSize];
+        private final long[] fragile = new long[(batchSize + Long.SIZE - 1) / Long.SIZE];
+        private final byte[] deliveryWorkloads = new byte[batchSize];
+        private final long[] costs = new long[batchSize];
+        private final byte[] statuses = new byte[batchSize];
+
+        private Worker(String name) {
+            this.thread = new Thread(this::run, name);
+            thread.setDaemon(true);
+        }
+
+        private void run() {
+            while (true) {
+                int size = collect();
+                if (size == 0) {
+                    if (closed && queue.isEmpty()) {
+                        return;
+                    }
+                    park(0);
+                    continue;
+                }
+                price(size);
+            }
+        }
+
+        /**
+         * Собирает пакет: после первого запроса ждёт остальные, пока пакет не заполнится или не истечёт {@code maxWait}.
+         */
+        private int collect() {
+            int size = 0;
+            long deadline = 0;
+            while (size < batchSize) {
+                Request request = queue.poll();
+                if (request != null) {
+                    if (size == 0) {
+                        deadline = System.nanoTime() + maxWaitNanos;
+                    }
+                    add(size++, request);
+                    continue;
+                }
+                if (size == 0) {
+                    break;
+                }
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0 || closed) {
+                    break;
+                }
+                park(remaining);
+            }
+            return size;
+        }
+
+        private void add(int index, Request request) {
+            batch[index] = request;
+            distancesMetres[index] = request.distanceMetres;
+            cargoSizes[index] = request.cargoSize;
+            deliveryWorkloads[index] = request.deliveryWorkload;
+            if (request.isFragile) {
+                fragile[index >>> 6] |= 1L << index;
+            }
+        }
+
+        private void price(int size) {
+            Tariff tariff = calculator.getTariff();
+            try {
+                calculator.calculateDeliveryCostsKopecks(
+                        distancesMetres, cargoSizes, fragile, deliveryWorkloads, costs, statuses, 0, size
+                );
+                for (int i = 0; i < size; i++) {
+                    QuoteStatus status = QuoteStatus.fromCode(statuses[i]);
+                    if (status == QuoteStatus.OK) {
+                        batch[i].complete(BigDecimal.valueOf(costs[i], Tariff.MONEY_SCALE));
+                    } else {
+                        batch[i].completeExceptionally(DeliveryCalculator.toException(status, tariff));
+                    }
+                }
+            } catch (RuntimeException e) {
+                for (int i = 0; i < size; i++) {
+                    batch[i].completeExceptionally(e);
+                }
+            } finally {
+                Arrays.fill(batch, 0, size, null);
+                Arrays.fill(fragile, 0);
+            }
+        }
+
+        /**
+         * Засыпает до появления нового запроса, закрытия диспетчера или, если {@code nanos > 0}, до истечения времени.
+         * Перед сном ещё раз проверяет очередь, чтобы не пропустить запрос, поставленный после последней проверки.
+         */
+        private void park(long nanos) {
+            idle.set(true);
+            idleWorkers.incrementAndGet();
+            try {
+                if (queue.isEmpty() && !closed) {
+                    if (nanos > 0) {
+                        LockSupport.parkNanos(this, nanos);
+                    } else {
+                        LockSupport.park(this);
+                    }
+                }
+            } finally {
+                idle.set(false);
+                idleWorkers.decrementAndGet();
+            }
+        }
+    }
+}
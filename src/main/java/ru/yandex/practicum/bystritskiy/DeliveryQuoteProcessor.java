@@ -0,0 +1,299 @@
+package ru.yandex.practicum.bystritskiy;
+
+import ru.yandex.practicum.bystritskiy.enums.QuoteStatus;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Стадия реактивного конвейера: получает заказы {@link DeliveryOrder} и публикует {@link DeliveryQuote}
+ * со стоимостью или причиной отказа в порядке поступления заказов.
+ * <p>
+ * У источника запрашивается не больше заказов, чем запросил подписчик, и не больше {@code bufferSize} сверх
+ * уже опубликованных, поэтому внутренний буфер ограничен. Накопленные заказы считаются пакетами до {@code batchSize}
+ * одним вызовом {@link DeliveryCalculator#calculateDeliveryCostsKopecks} в потоке {@code executor}.
+ * Поддерживается один подписчик. Ошибка источника или калькулятора передаётся подписчику сразу,
+ * ещё не опубликованные заказы отбрасываются.
+ */
+public class DeliveryQuoteProcessor implements Flow.Processor<DeliveryOrder, DeliveryQuote> {
+
+    private final DeliveryCalculator calculator;
+    private final int batchSize;
+    private final int bufferSize;
+    private final Executor executor;
+    private final QuoteRingBuffer<DeliveryOrder> buffer;
+    private final AtomicReference<Flow.Subscriber<? super DeliveryQuote>> downstream = new AtomicReference<>();
+    private final AtomicLong requested = new AtomicLong();
+    private final AtomicInteger wip = new AtomicInteger();
+
+    private final DeliveryOrder[] orders;
+    private final long[] distancesMetres;
+    private final byte[] cargoSizes;
+    private final long[] fragile;
+    private final byte[] deliveryWorkloads;
+    private final long[] costs;
+    private final byte[] statuses;
+
+    private volatile Flow.Subscription upstream;
+    private volatile boolean done;
+    private volatile Throwable error;
+    private volatile boolean cancelled;
+    private boolean terminated;
+    private long pending;
+
+    public DeliveryQuoteProcessor(DeliveryCalculator calculator, int batchSize, int bufferSize) {
+        this(calculator, batchSize, bufferSize, ForkJoinPool.commonPool());
+    }
+
+    public DeliveryQuoteProcessor(DeliveryCalculator calculator, int batchSize, int bufferSize, Executor executor) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Размер пакета должен быть больше 0");
+        }
+        if (bufferSize < batchSize) {
+            throw new IllegalArgumentException("Размер буфера не может быть меньше размера пакета");
+        }
+        this.calculator = calculator;
+        this.batchSize = batchSize;
+        this.bufferSize = bufferSize;
+        this.executor = Objects.requireNonNull(executor, "Исполнитель не может быть null");
+        this.buffer = new QuoteRingBuffer<>(bufferSize);
+        this.orders = new DeliveryOrder[batchSize];
+        this.distancesMetres = new long[batchSize];
+        this.cargoSizes = new byte[batchSize];
+        this.fragile = new long[(batchSize + Long.SIZE - 1) / Long.SIZE];
+        this.deliveryWorkloads = new byte[batchSize];
+        this.costs = new long[batchSize];
+        this.statuses = new byte[batchSize];
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super DeliveryQuote> subscriber) {
+        Objects.requireNonNull(subscriber, "Подписчик не может быть null");
+        if (!downstream.compareAndSet(null, subscriber)) {
+            subscriber.onSubscribe(new Flow.Subscription() {
+                @Override
+                public void request(long n) {
+                }
+
+                @Override
+                public void cancel() {
+                }
+            });
+            subscriber.onError(new IllegalStateException("У стадии расчёта уже есть подписчик"));
+            return;
+        }
+        subscriber.onSubscribe(new Subscription());
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        if (upstream != null) {
+            subscription.cancel();
+            return;
+        }
+        upstream = subscription;
+        drain();
+    }
+
+    @Override
+    public void onNext(DeliveryOrder order) {
+        Objects.requireNonNull(order, "Заказ не может быть null");
+        if (done || cancelled) {
+            return;
+        }
+        if (!buffer.offer(order)) {
+            fail(new IllegalStateException("Источник прислал больше заказов, чем было запрошено"));
+            return;
+        }
+        drain();
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        Objects.requireNonNull(throwable, "Ошибка не может быть null");
+        if (done) {
+            return;
+        }
+        error = throwable;
+        done = true;
+        drain();
+    }
+
+    @Override
+    public void onComplete() {
+        done = true;
+        drain();
+    }
+
+    private void fail(Throwable throwable) {
+        Flow.Subscription subscription = upstream;
+        if (subscription != null) {
+            subscription.cancel();
+        }
+        onError(throwable);
+    }
+
+    private void drain() {
+        if (wip.getAndIncrement() == 0) {
+            executor.execute(this::drainLoop);
+        }
+    }
+
+    /**
+     * Выполняется не более чем в одном потоке одновременно: публикует посчитанные пакеты в пределах спроса подписчика,
+     * завершает поток и дозапрашивает заказы у источника.
+     */
+    private void drainLoop() {
+        int missed = 1;
+        do {
+            if (!terminated) {
+                drainOnce();
+            }
+            missed = wip.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    private void drainOnce() {
+        Flow.Subscriber<? super DeliveryQuote> subscriber = downstream.get();
+        if (cancelled) {
+            terminate(null, null);
+            return;
+        }
+        if (subscriber == null) {
+            return;
+        }
+
+        Throwable failure = error;
+        if (failure != null) {
+            terminate(subscriber, failure);
+            return;
+        }
+
+        long demand = requested.get();
+        long emitted = 0;
+        while (emitted < demand && !cancelled) {
+            int size = collect((int) Math.min(batchSize, demand - emitted));
+            if (size == 0) {
+                break;
+            }
+            try {
+                price(size);
+            } catch (RuntimeException e) {
+                Arrays.fill(orders, 0, size, null);
+                fail(e);
+                terminate(subscriber, e);
+                return;
+            }
+            for (int i = 0; i < size && !cancelled; i++) {
+                subscriber.onNext(new DeliveryQuote(orders[i], result(i)));
+            }
+            Arrays.fill(orders, 0, size, null);
+            emitted += size;
+        }
+        if (emitted > 0) {
+            pending -= emitted;
+            if (demand != Long.MAX_VALUE) {
+                requested.addAndGet(-emitted);
+            }
+        }
+
+        if (done && error == null && buffer.isEmpty()) {
+            terminate(subscriber, null);
+            return;
+        }
+
+        Flow.Subscription subscription = upstream;
+        long wanted = Math.min(bufferSize, requested.get()) - pending;
+        if (subscription != null && !done && !cancelled && wanted > 0) {
+            pending += wanted;
+            subscription.request(wanted);
+        }
+    }
+
+    private int collect(int limit) {
+        int size = 0;
+        for (DeliveryOrder order; size < limit && (order = buffer.poll()) != null; size++) {
+            orders[size] = order;
+        }
+        return size;
+    }
+
+    /**
+     * Считает пакет. Заказы без обязательных полей получают дежурную строку, а их отказ определяется отдельно.
+     */
+    private void price(int size) {
+        Arrays.fill(fragile, 0);
+        for (int i = 0; i < size; i++) {
+            DeliveryOrder order = orders[i];
+            boolean complete = order.distance() != null && order.cargoSize() != null && order.deliveryWorkload() != null;
+            distancesMetres[i] = complete ? Tariff.ceilMetres(order.distance()) : 1;
+            cargoSizes[i] = (byte) (complete ? order.cargoSize().ordinal() : 0);
+            deliveryWorkloads[i] = (byte) (complete ? order.deliveryWorkload().ordinal() : 0);
+            if (complete && order.isFragile()) {
+                fragile[i >>> 6] |= 1L << i;
+            }
+        }
+        calculator.calculateDeliveryCostsKopecks(distancesMetres, cargoSizes, fragile, deliveryWorkloads, costs, statuses, 0, size);
+    }
+
+    private QuoteResult result(int index) {
+        DeliveryOrder order = orders[index];
+        if (order.distance() == null || order.cargoSize() == null || order.deliveryWorkload() == null) {
+            return QuoteResult.rejected(
+                    calculator.checkInput(order.distance(), order.cargoSize(), order.isFragile(), order.deliveryWorkload())
+            );
+        }
+        QuoteStatus status = QuoteStatus.fromCode(statuses[index]);
+        return status == QuoteStatus.OK
+                ? QuoteResult.ok(BigDecimal.valueOf(costs[index], Tariff.MONEY_SCALE))
+                : QuoteResult.rejected(status);
+    }
+
+    private void terminate(Flow.Subscriber<? super DeliveryQuote> subscriber, Throwable failure) {
+        terminated = true;
+        while (buffer.poll() != null) {
+            // Неопубликованные заказы больше не нужны.
+        }
+        if (subscriber == null || cancelled) {
+            return;
+        }
+        if (failure != null) {
+            subscriber.onError(failure);
+        } else {
+            subscriber.onComplete();
+        }
+    }
+
+    private final class Subscription implements Flow.Subscription {
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                fail(new IllegalArgumentException("Запрошенное количество должно быть больше 0: " + n));
+                return;
+            }
+            requested.accumulateAndGet(n, (current, added) -> current + added < 0 ? Long.MAX_VALUE : current + added);
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            if (cancelled) {
+                return;
+            }
+            cancelled = true;
+            Flow.Subscription subscription = upstream;
+            if (subscription != null) {
+                subscription.cancel();
+            }
+            drain();
+        }
+    }
+}
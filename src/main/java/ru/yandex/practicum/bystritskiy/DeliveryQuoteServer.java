@@ -0,0 +1,414 @@
+package ru.yandex.practicum.bystritskiy;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import ru.yandex.practicum.bystritskiy.enums.CargoSize;
+import ru.yandex.practicum.bystritskiy.enums.DeliveryWorkload;
+import ru.yandex.practicum.bystritskiy.enums.QuoteStatus;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Встроенный HTTP-сервис расчёта стоимости доставки на {@link HttpServer} из JDK.
+ * Каждый обмен обрабатывается в своём виртуальном потоке, поэтому ожидающие keep-alive соединения
+ * не занимают потоки платформы.
+ * <p>
+ * {@code POST /quote} принимает один заказ:
+ * <pre>
+ * {"distance": 15.00, "cargoSize": "LARGE", "fragile": false, "deliveryWorkload": "HIGH"}
+ * </pre>
+ * и отвечает {@code 200 {"cost":"560.00"}}, {@code 422 {"status":"FRAGILE_TOO_FAR","code":2}}
+ * при нарушении правил расчёта или {@code 400} при некорректном JSON.
+ * {@code POST /quotes} принимает массив заказов и отвечает {@code 200} с массивом результатов в том же порядке.
+ */
+public class DeliveryQuoteServer implements AutoCloseable {
+
+    public static final String QUOTE_PATH = "/quote";
+    public static final String QUOTES_PATH = "/quotes";
+
+    static final int MAX_BODY_SIZE = 1 << 20;
+
+    private static final int BACKLOG = 4096;
+    private static final int MAX_CACHED_COSTS = 4096;
+
+    private static final byte[][] STATUS_BODIES = new byte[QuoteStatus.values().length][];
+    private static final byte[][] CARGO_SIZE_NAMES = names(CargoSize.values());
+    private static final byte[][] DELIVERY_WORKLOAD_NAMES = names(DeliveryWorkload.values());
+    private static final CargoSize[] CARGO_SIZES = CargoSize.values();
+    private static final DeliveryWorkload[] DELIVERY_WORKLOADS = DeliveryWorkload.values();
+
+    static {
+        for (QuoteStatus status : QuoteStatus.values()) {
+            STATUS_BODIES[status.ordinal()] = ("{\"status\":\"" + status.name() + "\",\"code\":" + status.getCode() + "}")
+                    .getBytes(StandardCharsets.US_ASCII);
+        }
+    }
+
+    private final DeliveryCalculator calculator;
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final ConcurrentHashMap<BigDecimal, byte[]> costBodies = new ConcurrentHashMap<>();
+
+    public DeliveryQuoteServer(DeliveryCalculator calculator, InetSocketAddress address) throws IOException {
+        this.calculator = calculator;
+        this.server = HttpServer.create(address, BACKLOG);
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        server.setExecutor(executor);
+        server.createContext(QUOTE_PATH, this::handleQuote);
+        server.createContext(QUOTES_PATH, this::handleQuotes);
+        server.start();
+    }
+
+    public InetSocketAddress getAddress() {
+        return server.getAddress();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.close();
+    }
+
+    private void handleQuote(HttpExchange exchange) throws IOException {
+        byte[] request = readBody(exchange);
+        if (request == null) {
+            return;
+        }
+
+        JsonReader reader = new JsonReader(request);
+        DeliveryOrder order = reader.readOrder();
+        if (order == null || !reader.isAtEnd()) {
+            send(exchange, 400, STATUS_BODIES[QuoteStatus.MALFORMED_INPUT.ordinal()]);
+            return;
+        }
+
+        QuoteResult result = quote(order);
+        send(exchange, result.isOk() ? 200 : 422, body(result));
+    }
+
+    private void handleQuotes(HttpExchange exchange) throws IOException {
+        byte[] request = readBody(exchange);
+        if (request == null) {
+            return;
+        }
+
+        JsonReader reader = new JsonReader(request);
+        ByteArrayOutputStream response = new ByteArrayOutputStream(Math.max(64, request.length / 2));
+        if (!reader.consume('[')) {
+            send(exchange, 400, STATUS_BODIES[QuoteStatus.MALFORMED_INPUT.ordinal()]);
+            return;
+        }
+        response.write('[');
+        if (!reader.consume(']')) {
+            do {
+                DeliveryOrder order = reader.readOrder();
+                if (order == null) {
+                    send(exchange, 400, STATUS_BODIES[QuoteStatus.MALFORMED_INPUT.ordinal()]);
+                    return;
+                }
+                if (response.size() > 1) {
+                    response.write(',');
+                }
+                response.write(body(quote(order)));
+            } while (reader.consume(','));
+            if (!reader.consume(']')) {
+                send(exchange, 400, STATUS_BODIES[QuoteStatus.MALFORMED_INPUT.ordinal()]);
+                return;
+            }
+        }
+        if (!reader.isAtEnd()) {
+            send(exchange, 400, STATUS_BODIES[QuoteStatus.MALFORMED_INPUT.ordinal()]);
+            return;
+        }
+        response.write(']');
+
+        send(exchange, 200, response.toByteArray());
+    }
+
+    private QuoteResult quote(DeliveryOrder order) {
+        return calculator.tryCalculateDeliveryCost(
+                order.distance(), order.cargoSize(), order.isFragile(), order.deliveryWorkload()
+        );
+    }
+
+    private byte[] body(QuoteResult result) {
+        if (!result.isOk()) {
+            return STATUS_BODIES[result.status().ordinal()];
+        }
+
+        BigDecimal cost = result.cost();
+        byte[] body = costBodies.get(cost);
+        if (body == null) {
+            body = ("{\"cost\":\"" + cost.toPlainString() + "\"}").getBytes(StandardCharsets.US_ASCII);
+            if (costBodies.size() < MAX_CACHED_COSTS) {
+                costBodies.putIfAbsent(cost, body);
+            }
+        }
+        return body;
+    }
+
+    private static byte[] readBody(HttpExchange exchange) throws IOException {
+        if (!"POST".equals(exchange.getRequestMethod())) {
+            exchange.getResponseHeaders().set("Allow", "POST");
+            exchange.sendResponseHeaders(405, -1);
+            exchange.close();
+            return null;
+        }
+
+        byte[] body = exchange.getRequestBody().readNBytes(MAX_BODY_SIZE + 1);
+        if (body.length > MAX_BODY_SIZE) {
+            exchange.sendResponseHeaders(413, -1);
+            exchange.close();
+            return null;
+        }
+        return body;
+    }
+
+    private static void send(HttpExchange exchange, int code, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(code, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static byte[][] names(Enum<?>[] values) {
+        byte[][] names = new byte[values.length][];
+        for (Enum<?> value : values) {
+            names[value.ordinal()] = value.name().getBytes(StandardCharsets.US_ASCII);
+        }
+        return names;
+    }
+
+    /**
+     * Разбор JSON заказов прямо из байтов тела запроса. Неизвестные поля пропускаются,
+     * неизвестные названия габаритов и загруженности превращаются в {@code null},
+     * чтобы калькулятор вернул соответствующий статус отказа.
+     */
+    static final class JsonReader {
+
+        private static final byte[] DISTANCE = "distance".getBytes(StandardCharsets.US_ASCII);
+        private static final byte[] CARGO_SIZE = "cargoSize".getBytes(StandardCharsets.US_ASCII);
+        private static final byte[] FRAGILE = "fragile".getBytes(StandardCharsets.US_ASCII);
+        private static final byte[] DELIVERY_WORKLOAD = "deliveryWorkload".getBytes(StandardCharsets.US_ASCII);
+        private static final byte[] TRUE = "true".getBytes(StandardCharsets.US_ASCII);
+        private static final byte[] FALSE = "false".getBytes(StandardCharsets.US_ASCII);
+        private static final byte[] NULL = "null".getBytes(StandardCharsets.US_ASCII);
+
+        private final byte[] json;
+        private int position;
+        private boolean malformed;
+
+        JsonReader(byte[] json) {
+            this.json = json;
+        }
+
+        DeliveryOrder readOrder() {
+            if (!consume('{')) {
+                return null;
+            }
+
+            BigDecimal distance = null;
+            CargoSize cargoSize = null;
+            boolean isFragile = false;
+            DeliveryWorkload deliveryWorkload = null;
+            if (!consume('}')) {
+                do {
+                    skipWhitespace();
+                    int keyStart = position + 1;
+                    int keyEnd = readStringEnd();
+                    if (keyEnd < 0 || !consume(':')) {
+                        return null;
+                    }
+                    skipWhitespace();
+                    if (equals(keyStart, keyEnd, DISTANCE)) {
+                        distance = readDecimal();
+                    } else if (equals(keyStart, keyEnd, CARGO_SIZE)) {
+                        cargoSize = readName(CARGO_SIZE_NAMES, CARGO_SIZES);
+                    } else if (equals(keyStart, keyEnd, FRAGILE)) {
+                        isFragile = readBoolean();
+                    } else if (equals(keyStart, keyEnd, DELIVERY_WORKLOAD)) {
+                        deliveryWorkload = readName(DELIVERY_WORKLOAD_NAMES, DELIVERY_WORKLOADS);
+                    } else {
+                        skipValue();
+                    }
+                    if (malformed) {
+                        return null;
+                    }
+                } while (consume(','));
+                if (!consume('}')) {
+                    return null;
+                }
+            }
+
+            return new DeliveryOrder(distance, cargoSize, isFragile, deliveryWorkload);
+        }
+
+        boolean consume(char expected) {
+            skipWhitespace();
+            if (position < json.length && json[position] == expected) {
+                position++;
+                return true;
+            }
+            return false;
+        }
+
+        boolean isAtEnd() {
+            skipWhitespace();
+            return position == json.length;
+        }
+
+        private BigDecimal readDecimal() {
+            if (readLiteral(NULL)) {
+                return null;
+            }
+
+            int start;
+            int end;
+            if (position < json.length && json[position] == '"') {
+                start = position + 1;
+                end = readStringEnd();
+                if (end < 0) {
+                    malformed = true;
+                    return null;
+                }
+            } else {
+                start = position;
+                while (position < json.length && isNumberByte(json[position])) {
+                    position++;
+                }
+                end = position;
+            }
+
+            try {
+                return new BigDecimal(new String(json, start, end - start, StandardCharsets.US_ASCII));
+            } catch (NumberFormatException e) {
+                malformed = true;
+                return null;
+            }
+        }
+
+        private <E> E readName(byte[][] names, E[] values) {
+            if (readLiteral(NULL)) {
+                return null;
+            }
+
+            int start = position + 1;
+            int end = readStringEnd();
+            if (end < 0) {
+                malformed = true;
+                return null;
+            }
+            for (int i = 0; i < names.length; i++) {
+                if (equals(start, end, names[i])) {
+                    return values[i];
+                }
+            }
+            return null;
+        }
+
+        private boolean readBoolean() {
+            if (readLiteral(TRUE)) {
+                return true;
+            }
+            if (!readLiteral(FALSE) && !readLiteral(NULL)) {
+                malformed = true;
+            }
+            return false;
+        }
+
+        private void skipValue() {
+            if (position < json.length && json[position] == '"') {
+                malformed = readStringEnd() < 0;
+                return;
+            }
+
+            int depth = 0;
+            while (position < json.length) {
+                byte b = json[position];
+                if (b == '"') {
+                    if (readStringEnd() < 0) {
+                        break;
+                    }
+                    continue;
+                }
+                if (b == '{' || b == '[') {
+                    depth++;
+                } else if (b == '}' || b == ']') {
+                    if (depth == 0) {
+                        return;
+                    }
+                    depth--;
+                } else if (b == ',' && depth == 0) {
+                    return;
+                }
+                position++;
+            }
+            malformed = true;
+        }
+
+        /**
+         * Читает строку, начинающуюся в текущей позиции, и возвращает индекс закрывающей кавычки
+         * или -1, если строки нет. Экранированные символы допускаются только в пропускаемых значениях.
+         */
+        private int readStringEnd() {
+            if (position >= json.length || json[position] != '"') {
+                return -1;
+            }
+            int i = position + 1;
+            while (i < json.length && json[i] != '"') {
+                i += json[i] == '\\' ? 2 : 1;
+            }
+            if (i >= json.length) {
+                return -1;
+            }
+            position = i + 1;
+            return i;
+        }
+
+        private boolean readLiteral(byte[] literal) {
+            if (position + literal.length > json.length) {
+                return false;
+            }
+            if (!equals(position, position + literal.length, literal)) {
+                return false;
+            }
+            position += literal.length;
+            return true;
+        }
+
+        private boolean equals(int start, int end, byte[] expected) {
+            if (end - start != expected.length) {
+                return false;
+            }
+            for (int i = 0; i < expected.length; i++) {
+                if (json[start + i] != expected[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void skipWhitespace() {
+            while (position < json.length) {
+                byte b = json[position];
+                if (b != ' ' && b != '\t' && b != '\n' && b != '\r') {
+                    return;
+                }
+                position++;
+            }
+        }
+
+        private static boolean isNumberByte(byte b) {
+            return (b >= '0' && b <= '9') || b == '-' || b == '+' || b == '.' || b == 'e' || b == 'E';
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package ru.yandex.practicum.bystritskiy;
+
+import ru.yandex.practicum.bystritskiy.enums.QuoteStatus;
+
+import java.nio.ByteBuffer;
+import java.util.Objects;
+
+/**
+ * Разбор расстояния в километрах из текста прямо в целые метры без создания объектов.
+ * <p>
+ * Формат: необязательный знак, цифры и необязательная дробная часть через точку, например {@code 12.5}.
+ * Доли метра округляются вверх, как в {@link Tariff#ceilMetres}, поэтому результат можно сразу передавать
+ * в {@link Tariff#distanceBand(long)} и {@link DeliveryCalculator#calculateDeliveryCostKopecks}.
+ * Положительный результат — расстояние в метрах, отрицательный — код отказа со знаком минус
+ * ({@link #MALFORMED_INPUT} или {@link #NON_POSITIVE_DISTANCE}), см. {@link #status(long)}.
+ * Слишком большие расстояния ограничиваются {@link Long#MAX_VALUE}.
+ */
+public final class DistanceParser {
+
+    public static final long MALFORMED_INPUT = -QuoteStatus.MALFORMED_INPUT.getCode();
+    public static final long NON_POSITIVE_DISTANCE = -QuoteStatus.NON_POSITIVE_DISTANCE.getCode();
+
+    private static final long MAX_KILOMETRES = Long.MAX_VALUE / 1000 - 1;
+    private static final int FIRST_FRACTION_WEIGHT = 100;
+
+    private DistanceParser() {
+    }
+
+    public static long parseMetres(CharSequence text) {
+        return parseMetres(text, 0, text.length());
+    }
+
+    public static long parseMetres(CharSequence text, int from, int to) {
+        Objects.checkFromToIndex(from, to, text.length());
+        return parse(text, CharSequence::charAt, from, to);
+    }
+
+    public static long parseMetres(byte[] bytes, int from, int to) {
+        Objects.checkFromToIndex(from, to, bytes.length);
+        return parse(bytes, (source, i) -> source[i], from, to);
+    }
+
+    /**
+     * Разбирает байты буфера с абсолютными индексами {@code [from, to)}; позиция и лимит буфера не меняются.
+     */
+    public static long parseMetres(ByteBuffer buffer, int from, int to) {
+        Objects.checkFromToIndex(from, to, buffer.limit());
+        if (buffer.hasArray()) {
+            return parseMetres(buffer.array(), buffer.arrayOffset() + from, buffer.arrayOffset() + to);
+        }
+        return parse(buffer, ByteBuffer::get, from, to);
+    }
+
+    public static QuoteStatus status(long parsedMetres) {
+        return parsedMetres > 0 ? QuoteStatus.OK : QuoteStatus.fromCode((byte) -parsedMetres);
+    }
+
+    /**
+     * Общий разбор для всех источников; доступ к символу без захвата состояния, поэтому вызов ничего не создаёт.
+     */
+    private static <T> long parse(T source, CharAccessor<T> accessor, int from, int to) {
+        int i = from;
+        boolean negative = false;
+        if (i < to && (accessor.charAt(source, i) == '-' || accessor.charAt(source, i) == '+')) {
+            negative = accessor.charAt(source, i++) == '-';
+        }
+
+        long kilometres = 0;
+        int integerStart = i;
+        for (int c; i < to && isDigit(c = accessor.charAt(source, i)); i++) {
+            kilometres = appendDigit(kilometres, c);
+        }
+        if (i == integerStart) {
+            return MALFORMED_INPUT;
+        }
+
+        long metres = 0;
+        boolean roundUp = false;
+        if (i < to && accessor.charAt(source, i) == '.') {
+            int fractionStart = ++i;
+            int weight = FIRST_FRACTION_WEIGHT;
+            for (int c; i < to && isDigit(c = accessor.charAt(source, i)); i++, weight /= 10) {
+                metres += (c - '0') * weight;
+                roundUp |= weight == 0 && c != '0';
+            }
+            if (i == fractionStart) {
+                return MALFORMED_INPUT;
+            }
+        }
+        return i == to ? toMetres(negative, kilometres, metres, roundUp) : MALFORMED_INPUT;
+    }
+
+    private static boolean isDigit(int c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static long appendDigit(long kilometres, int digit) {
+        return kilometres > MAX_KILOMETRES ? kilometres : kilometres * 10 + (digit - '0');
+    }
+
+    private static long toMetres(boolean negative, long kilometres, long metres, boolean roundUp) {
+        long distanceMetres = kilometres > MAX_KILOMETRES ? Long.MAX_VALUE : kilometres * 1000 + metres + (roundUp ? 1 : 0);
+        return negative || distanceMetres == 0 ? NON_POSITIVE_DISTANCE : distanceMetres;
+    }
+
+    @FunctionalInterface
+    private interface CharAccessor<T> {
+
+        int charAt(T source, int index);
+    }
+}
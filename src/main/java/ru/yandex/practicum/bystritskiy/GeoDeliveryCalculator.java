@@ -0,0 +1,113 @@
+package ru.yandex.practicum.bystritskiy;
+
+import ru.yandex.practicum.bystritskiy.enums.CargoSize;
+import ru.yandex.practicum.bystritskiy.enums.DeliveryWorkload;
+import ru.yandex.practicum.bystritskiy.enums.QuoteStatus;
+
+import java.math.BigDecimal;
+
+/**
+ * Расчёт стоимости по координатам точек забора и доставки или по зонам доставки.
+ * Расстояние в метрах считается {@link GeoDistance} или берётся из {@link ZoneDistanceMatrix}
+ * и передаётся в калькулятор, дальше действуют обычные правила расчёта.
+ * Для неизвестной зоны {@code try*}-методы и {@link #checkInput(int, int, CargoSize, boolean, DeliveryWorkload)}
+ * возвращают {@link QuoteStatus#UNKNOWN_ZONE}, отдельно от {@link QuoteStatus#UNKNOWN_REGION} для региона без тарифа.
+ */
+public class GeoDeliveryCalculator {
+
+    private final DeliveryCalculator calculator;
+    private final GeoDistance distance;
+    private final ZoneDistanceMatrix matrix;
+
+    public GeoDeliveryCalculator(DeliveryCalculator calculator, GeoDistance distance) {
+        this(calculator, distance, null);
+    }
+
+    public GeoDeliveryCalculator(DeliveryCalculator calculator, GeoDistance distance, ZoneDistanceMatrix matrix) {
+        this.calculator = calculator;
+        this.distance = distance;
+        this.matrix = matrix;
+    }
+
+    public long distanceMetres(double pickupLatitude, double pickupLongitude, double dropOffLatitude, double dropOffLongitude) {
+        GeoDistance.checkCoordinates(pickupLatitude, pickupLongitude);
+        GeoDistance.checkCoordinates(dropOffLatitude, dropOffLongitude);
+        return distance.distanceMetres(pickupLatitude, pickupLongitude, dropOffLatitude, dropOffLongitude);
+    }
+
+    public BigDecimal calculateDeliveryCost(double pickupLatitude, double pickupLongitude, double dropOffLatitude, double dropOffLongitude,
+                                            CargoSize cargoSize, boolean isFragile, DeliveryWorkload deliveryWorkload) {
+        long distanceMetres = distanceMetres(pickupLatitude, pickupLongitude, dropOffLatitude, dropOffLongitude);
+        return calculator.calculateDeliveryCost(
+                BigDecimal.valueOf(distanceMetres, Tariff.METRES_SCALE), cargoSize, isFragile, deliveryWorkload
+        );
+    }
+
+    public QuoteResult tryCalculateDeliveryCost(double pickupLatitude, double pickupLongitude, double dropOffLatitude,
+                                                double dropOffLongitude, CargoSize cargoSize, boolean isFragile,
+                                                DeliveryWorkload deliveryWorkload) {
+        long distanceMetres;
+        try {
+            distanceMetres = distanceMetres(pickupLatitude, pickupLongitude, dropOffLatitude, dropOffLongitude);
+        } catch (IllegalArgumentException e) {
+            return QuoteResult.rejected(QuoteStatus.MALFORMED_INPUT);
+        }
+        return calculator.tryCalculateDeliveryCost(
+                BigDecimal.valueOf(distanceMetres, Tariff.METRES_SCALE), cargoSize, isFragile, deliveryWorkload
+        );
+    }
+
+    public long calculateDeliveryCostKopecks(double pickupLatitude, double pickupLongitude, double dropOffLatitude,
+                                             double dropOffLongitude, CargoSize cargoSize, boolean isFragile,
+                                             DeliveryWorkload deliveryWorkload) {
+        long distanceMetres = distanceMetres(pickupLatitude, pickupLongitude, dropOffLatitude, dropOffLongitude);
+        return calculator.calculateDeliveryCostKopecks(distanceMetres, cargoSize, isFragile, deliveryWorkload);
+    }
+
+    public BigDecimal calculateDeliveryCost(int pickupZone, int dropOffZone, CargoSize cargoSize, boolean isFragile,
+                                            DeliveryWorkload deliveryWorkload) {
+        return calculator.calculateDeliveryCost(
+                BigDecimal.valueOf(zoneDistanceMetres(pickupZone, dropOffZone), Tariff.METRES_SCALE), cargoSize, isFragile, deliveryWorkload
+        );
+    }
+
+    public long calculateDeliveryCostKopecks(int pickupZone, int dropOffZone, CargoSize cargoSize, boolean isFragile,
+                                             DeliveryWorkload deliveryWorkload) {
+        return calculator.calculateDeliveryCostKopecks(
+                zoneDistanceMetres(pickupZone, dropOffZone), cargoSize, isFragile, deliveryWorkload
+        );
+    }
+
+    public QuoteResult tryCalculateDeliveryCost(int pickupZone, int dropOffZone, CargoSize cargoSize, boolean isFragile,
+                                                DeliveryWorkload deliveryWorkload) {
+        if (!hasZones(pickupZone, dropOffZone)) {
+            return QuoteResult.rejected(QuoteStatus.UNKNOWN_ZONE);
+        }
+        return calculator.tryCalculateDeliveryCost(
+                BigDecimal.valueOf(matrix.distanceMetres(pickupZone, dropOffZone), Tariff.METRES_SCALE), cargoSize, isFragile,
+                deliveryWorkload
+        );
+    }
+
+    public QuoteStatus checkInput(int pickupZone, int dropOffZone, CargoSize cargoSize, boolean isFragile,
+                                  DeliveryWorkload deliveryWorkload) {
+        if (!hasZones(pickupZone, dropOffZone)) {
+            return QuoteStatus.UNKNOWN_ZONE;
+        }
+        return calculator.checkInput(matrix.distanceMetres(pickupZone, dropOffZone), cargoSize, isFragile, deliveryWorkload);
+    }
+
+    private boolean hasZones(int pickupZone, int dropOffZone) {
+        if (matrix == null) {
+            throw new IllegalStateException("Матрица расстояний между зонами не задана");
+        }
+        return matrix.hasZone(pickupZone) && matrix.hasZone(dropOffZone);
+    }
+
+    private long zoneDistanceMetres(int pickupZone, int dropOffZone) {
+        if (matrix == null) {
+            throw new IllegalStateException("Матрица расстояний между зонами не задана");
+        }
+        return matrix.distanceMetres(pickupZone, dropOffZone);
+    }
+}
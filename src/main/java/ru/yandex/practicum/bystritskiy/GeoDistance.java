@@ -0,0 +1,46 @@
+package ru.yandex.practicum.bystritskiy;
+
+/**
+ * Расстояние между точками по координатам в градусах, в метрах с округлением вверх.
+ */
+@FunctionalInterface
+public interface GeoDistance {
+
+    double EARTH_RADIUS_METRES = 6_371_008.8;
+
+    /**
+     * Расстояние по дуге большого круга.
+     */
+    GeoDistance HAVERSINE = GeoDistance::haversineMetres;
+
+    /**
+     * Сумма расстояний по широте и долготе в равнопромежуточной проекции — оценка пути по сетке улиц.
+     */
+    GeoDistance GRID = GeoDistance::gridMetres;
+
+    long distanceMetres(double fromLatitude, double fromLongitude, double toLatitude, double toLongitude);
+
+    static long haversineMetres(double fromLatitude, double fromLongitude, double toLatitude, double toLongitude) {
+        double fromPhi = Math.toRadians(fromLatitude);
+        double toPhi = Math.toRadians(toLatitude);
+        double sinHalfPhi = Math.sin((toPhi - fromPhi) / 2);
+        double sinHalfLambda = Math.sin(Math.toRadians(toLongitude - fromLongitude) / 2);
+        double a = sinHalfPhi * sinHalfPhi + Math.cos(fromPhi) * Math.cos(toPhi) * sinHalfLambda * sinHalfLambda;
+        return (long) Math.ceil(2 * EARTH_RADIUS_METRES * Math.asin(Math.min(1, Math.sqrt(a))));
+    }
+
+    static long gridMetres(double fromLatitude, double fromLongitude, double toLatitude, double toLongitude) {
+        double longitudeDelta = Math.abs(toLongitude - fromLongitude);
+        longitudeDelta = Math.min(longitudeDelta, 360 - longitudeDelta);
+        double meanPhi = Math.toRadians((fromLatitude + toLatitude) / 2);
+        double north = Math.toRadians(Math.abs(toLatitude - fromLatitude));
+        double east = Math.toRadians(longitudeDelta) * Math.cos(meanPhi);
+        return (long) Math.ceil(EARTH_RADIUS_METRES * (north + east));
+    }
+
+    static void checkCoordinates(double latitude, double longitude) {
+        if (!(latitude >= -90 && latitude <= 90) || !(longitude >= -180 && longitude <= 180)) {
+            throw new IllegalArgumentException("Некорректные координаты: " + latitude + ", " + longitude);
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package ru.yandex.practicum.bystritskiy;
+
+import ru.yandex.practicum.bystritskiy.enums.CargoSize;
+import ru.yandex.practicum.bystritskiy.enums.DeliveryWorkload;
+import ru.yandex.practicum.bystritskiy.enums.QuoteStatus;
+
+import java.math.BigDecimal;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.IntStream;
+
+/**
+ * Обёртка над калькулятором, которая пишет события JFR {@link QuoteEvent} для каждого
+ * {@code sampleInterval}-го в среднем расчёта и считает расчёты для периодического {@link QuoteThroughputEvent}.
+ * Пока JFR не записывает, вызов сразу передаётся исходному калькулятору.
+ * <p>
+ * Строки пакетного расчёта учитываются в {@link QuoteThroughputEvent} по отдельности и выбираются для {@link QuoteEvent}
+ * с тем же интервалом; длительность события строки — время всего пакетного вызова.
+ */
+public class JfrDeliveryCalculator extends DeliveryCalculator {
+
+    private static final CargoSize[] CARGO_SIZES = CargoSize.values();
+    private static final DeliveryWorkload[] DELIVERY_WORKLOADS = DeliveryWorkload.values();
+
+    private final DeliveryCalculator delegate;
+    private final int sampleInterval;
+
+    public JfrDeliveryCalculator(DeliveryCalculator delegate, int sampleInterval) {
+        if (sampleInterval <= 0) {
+            throw new IllegalArgumentException("Интервал выборки должен быть больше 0");
+        }
+        this.delegate = delegate;
+        this.sampleInterval = sampleInterval;
+        DeliveryJfrEvents.install();
+    }
+
+    @Override
+    public BigDecimal calculateDeliveryCost(BigDecimal distance, CargoSize cargoSize, boolean isFragile, DeliveryWorkload deliveryWorkload) {
+        if (!DeliveryJfrEvents.isRecording()) {
+            return delegate.calculateDeliveryCost(distance, cargoSize, isFragile, deliveryWorkload);
+        }
+
+        QuoteEvent event = beginEvent();
+        try {
+            BigDecimal cost = delegate.calculateDeliveryCost(distance, cargoSize, isFragile, deliveryWorkload);
+            DeliveryJfrEvents.countQuote(deliveryWorkload);
+            if (event != null) {
+                commit(event, distance, cargoSize, isFragile, deliveryWorkload, QuoteStatus.OK, cost);
+            }
+            return cost;
+        } catch (RuntimeException e) {
+            DeliveryJfrEvents.countRejection();
+            if (event != null) {
+                QuoteStatus status = delegate.checkInput(distance, cargoSize, isFragile, deliveryWorkload);
+                commit(event, distance, cargoSize, isFragile, deliveryWorkload, status, null);
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public QuoteResult tryCalculateDeliveryCost(BigDecimal distance, CargoSize cargoSize, boolean isFragile, DeliveryWorkload deliveryWorkload) {
+        if (!DeliveryJfrEvents.isRecording()) {
+            return delegate.tryCalculateDeliveryCost(distance, cargoSize, isFragile, deliveryWorkload);
+        }
+
+        QuoteEvent event = beginEvent();
+        QuoteResult result = delegate.tryCalculateDeliveryCost(distance, cargoSize, isFragile, deliveryWorkload);
+        if (result.isOk()) {
+            DeliveryJfrEvents.countQuote(deliveryWorkload);
+        } else {
+            DeliveryJfrEvents.countRejection();
+        }
+        if (event != null) {
+            commit(event, distance, cargoSize, isFragile, deliveryWorkload, result.status(), result.cost());
+        }
+        return result;
+    }
+
+    @Override
+    public long calculateDeliveryCostKopecks(long distanceMetres, CargoSize cargoSize, boolean isFragile, DeliveryWorkload deliveryWorkload) {
+        if (!DeliveryJfrEvents.isRecording()) {
+            return delegate.calculateDeliveryCostKopecks(distanceMetres, cargoSize, isFragile, deliveryWorkload);
+        }
+
+        QuoteEvent event = beginEvent();
+        try {
+            long cost = delegate.calculateDeliveryCostKopecks(distanceMetres, cargoSize, isFragile, deliveryWorkload);
+            DeliveryJfrEvents.countQuote(deliveryWorkload);
+            if (event != null) {
+                commit(event, BigDecimal.valueOf(distanceMetres, Tariff.METRES_SCALE), cargoSize, isFragile, deliveryWorkload,
+                        QuoteStatus.OK, BigDecimal.valueOf(cost, Tariff.MONEY_SCALE));
+            }
+            return cost;
+        } catch (RuntimeException e) {
+            DeliveryJfrEvents.countRejection();
+            if (event != null) {
+                QuoteStatus status = delegate.checkInput(distanceMetres, cargoSize, isFragile, deliveryWorkload);
+                commit(event, BigDecimal.valueOf(distanceMetres, Tariff.METRES_SCALE), cargoSize, isFragile, deliveryWorkload,
+                        status, null);
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public void calculateDeliveryCostsKopecks(long[] distancesMetres, byte[] cargoSizes, long[] fragile, byte[] deliveryWorkloads,
+                                              long[] costs, byte[] statuses, int from, int to) {
+        if (!DeliveryJfrEvents.isRecording()) {
+            delegate.calculateDeliveryCostsKopecks(distancesMetres, cargoSizes, fragile, deliveryWorkloads, costs, statuses, from, to);
+            return;
+        }
+
+        int[] sampledRows = IntStream.range(from, to)
+                .filter(i -> sampleInterval == 1 || ThreadLocalRandom.current().nextInt(sampleInterval) == 0)
+                .toArray();
+        QuoteEvent[] events = new QuoteEvent[sampledRows.length];
+        for (int k = 0; k < events.length; k++) {
+            events[k] = new QuoteEvent();
+            events[k].begin();
+        }
+        delegate.calculateDeliveryCostsKopecks(distancesMetres, cargoSizes, fragile, deliveryWorkloads, costs, statuses, from, to);
+
+        for (int i = from; i < to; i++) {
+            if (statuses[i] == QuoteStatus.OK.getCode()) {
+                DeliveryJfrEvents.countQuote(DELIVERY_WORKLOADS[deliveryWorkloads[i]]);
+            } else {
+                DeliveryJfrEvents.countRejection();
+            }
+        }
+        for (int k = 0; k < events.length; k++) {
+            int i = sampledRows[k];
+            QuoteStatus status = QuoteStatus.fromCode(statuses[i]);
+            commit(events[k], BigDecimal.valueOf(distancesMetres[i], Tariff.METRES_SCALE), valueOf(CARGO_SIZES, cargoSizes[i]),
+                    isFragile(fragile, i), valueOf(DELIVERY_WORKLOADS, deliveryWorkloads[i]), status,
+                    status == QuoteStatus.OK ? BigDecimal.valueOf(costs[i], Tariff.MONEY_SCALE) : null);
+        }
+    }
+
+    @Override
+    public Tariff getTariff() {
+        return delegate.getTariff();
+    }
+
+    private static <E> E valueOf(E[] values, byte ordinal) {
+        return ordinal >= 0 && ordinal < values.length ? values[ordinal] : null;
+    }
+
+    private QuoteEvent beginEvent() {
+        if (sampleInterval > 1 && ThreadLocalRandom.current().nextInt(sampleInterval) != 0) {
+            return null;
+        }
+        QuoteEvent event = new QuoteEvent();
+        event.begin();
+        return event;
+    }
+
+    private void commit(QuoteEvent event, BigDecimal distance, CargoSize cargoSize, boolean isFragile,
+                        DeliveryWorkload deliveryWorkload, QuoteStatus status, BigDecimal cost) {
+        event.end();
+        if (!event.shouldCommit()) {
+            return;
+        }
+        event.distance = distance == null ? null : distance.toPlainString();
+        event.cargoSize = cargoSize == null ? null : cargoSize.name();
+        event.fragile = isFragile;
+        event.deliveryWorkload = deliveryWorkload == null ? null : deliveryWorkload.name();
+        event.distanceBand = status == QuoteStatus.OK ? getTariff().distanceBand(distance) : -1;
+        event.cost = cost == null ? null : cost.toPlainString();
+        event.status = status.name();
+        event.commit();
+    }
+}
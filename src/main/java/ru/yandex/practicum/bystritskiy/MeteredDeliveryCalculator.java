@@ -0,0 +1,121 @@
+package ru.yandex.practicum.bystritskiy;
+
+import ru.yandex.practicum.bystritskiy.enums.CargoSize;
+import ru.yandex.practicum.bystritskiy.enums.DeliveryWorkload;
+import ru.yandex.practicum.bystritskiy.enums.QuoteStatus;
+
+import java.math.BigDecimal;
+
+/**
+ * Обёртка над калькулятором, которая записывает каждый расчёт в {@link DeliveryMetrics}.
+ * Строки пакетного расчёта учитываются по отдельности со средним временем строки в пакете.
+ * Исключение при корректных входных данных учитывается как сбой {@link DeliveryMetrics#recordFailure}, а не как отказ.
+ */
+public class MeteredDeliveryCalculator extends DeliveryCalculator {
+
+    private static final CargoSize[] CARGO_SIZES = CargoSize.values();
+    private static final DeliveryWorkload[] DELIVERY_WORKLOADS = DeliveryWorkload.values();
+
+    private final DeliveryCalculator delegate;
+    private final DeliveryMetrics metrics;
+
+    private MeteredDeliveryCalculator(DeliveryCalculator delegate, DeliveryMetrics metrics) {
+        this.delegate = delegate;
+        this.metrics = metrics;
+    }
+
+    public static DeliveryCalculator of(DeliveryCalculator delegate, DeliveryMetrics metrics) {
+        return DeliveryMetrics.ENABLED ? new MeteredDeliveryCalculator(delegate, metrics) : delegate;
+    }
+
+    @Override
+    public BigDecimal calculateDeliveryCost(BigDecimal distance, CargoSize cargoSize, boolean isFragile, DeliveryWorkload deliveryWorkload) {
+        long start = System.nanoTime();
+        BigDecimal cost;
+        try {
+            cost = delegate.calculateDeliveryCost(distance, cargoSize, isFragile, deliveryWorkload);
+        } catch (RuntimeException e) {
+            recordThrown(delegate.checkInput(distance, cargoSize, isFragile, deliveryWorkload), System.nanoTime() - start);
+            throw e;
+        }
+        metrics.recordQuote(getTariff().distanceBand(distance), cargoSize, isFragile, deliveryWorkload, System.nanoTime() - start);
+        return cost;
+    }
+
+    @Override
+    public QuoteResult tryCalculateDeliveryCost(BigDecimal distance, CargoSize cargoSize, boolean isFragile, DeliveryWorkload deliveryWorkload) {
+        long start = System.nanoTime();
+        QuoteResult result = delegate.tryCalculateDeliveryCost(distance, cargoSize, isFragile, deliveryWorkload);
+        if (result.isOk()) {
+            metrics.recordQuote(
+                    getTariff().distanceBand(distance), cargoSize, isFragile, deliveryWorkload, System.nanoTime() - start
+            );
+        } else {
+            metrics.recordRejection(result.status(), System.nanoTime() - start);
+        }
+        return result;
+    }
+
+    @Override
+    public long calculateDeliveryCostKopecks(long distanceMetres, CargoSize cargoSize, boolean isFragile, DeliveryWorkload deliveryWorkload) {
+        long start = System.nanoTime();
+        long cost;
+        try {
+            cost = delegate.calculateDeliveryCostKopecks(distanceMetres, cargoSize, isFragile, deliveryWorkload);
+        } catch (RuntimeException e) {
+            recordThrown(delegate.checkInput(distanceMetres, cargoSize, isFragile, deliveryWorkload), System.nanoTime() - start);
+            throw e;
+        }
+        metrics.recordQuote(
+                getTariff().distanceBand(distanceMetres), cargoSize, isFragile, deliveryWorkload, System.nanoTime() - start
+        );
+        return cost;
+    }
+
+    @Override
+    public void calculateDeliveryCostsKopecks(long[] distancesMetres, byte[] cargoSizes, long[] fragile, byte[] deliveryWorkloads,
+                                              long[] costs, byte[] statuses, int from, int to) {
+        long start = System.nanoTime();
+        try {
+            delegate.calculateDeliveryCostsKopecks(distancesMetres, cargoSizes, fragile, deliveryWorkloads, costs, statuses, from, to);
+        } catch (RuntimeException e) {
+            long latencyNanos = (System.nanoTime() - start) / Math.max(1, to - from);
+            for (int i = from; i < to; i++) {
+                metrics.recordFailure(latencyNanos);
+            }
+            throw e;
+        }
+        if (to <= from) {
+            return;
+        }
+
+        long latencyNanos = (System.nanoTime() - start) / (to - from);
+        Tariff tariff = getTariff();
+        for (int i = from; i < to; i++) {
+            if (statuses[i] == QuoteStatus.OK.getCode()) {
+                metrics.recordQuote(
+                        tariff.distanceBand(distancesMetres[i]), CARGO_SIZES[cargoSizes[i]], isFragile(fragile, i),
+                        DELIVERY_WORKLOADS[deliveryWorkloads[i]], latencyNanos
+                );
+            } else {
+                metrics.recordRejection(QuoteStatus.fromCode(statuses[i]), latencyNanos);
+            }
+        }
+    }
+
+    @Override
+    public Tariff getTariff() {
+        return delegate.getTariff();
+    }
+
+    /**
+     * Учитывает исключение исходного калькулятора: отказ, если входные данные не прошли проверку, иначе сбой.
+     */
+    private void recordThrown(QuoteStatus status, long latencyNanos) {
+        if (status == QuoteStatus.OK) {
+            metrics.recordFailure(latencyNanos);
+        } else {
+            metrics.recordRejection(status, latencyNanos);
+        }
+    }
+}
@@ -0,0 +1,296 @@
+package ru.yandex.practicum.bystritskiy;
+
+import ru.yandex.practicum.bystritskiy.enums.CargoSize;
+import ru.yandex.practicum.bystritskiy.enums.DeliveryWorkload;
+import ru.yandex.practicum.bystritskiy.enums.QuoteStatus;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Хранилище заказов вне кучи: записи фиксированной длины в прямых буферах, поэтому десятки миллионов заказов
+ * не создают объектов для сборщика мусора. Буферы выделяются частями по {@code ordersPerChunk} записей,
+ * номер заказа — {@code long}, так что общий объём может превышать 2 ГБ.
+ * <p>
+ * Запись, {@value #RECORD_SIZE} байт, в порядке байтов платформы:
+ * <pre>
+ * 0..7   long  идентификатор заказа
+ * 8..15  long  расстояние в метрах
+ * 16..23 long  последняя рассчитанная стоимость в копейках, 0 при отказе
+ * 24     byte  ordinal CargoSize
+ * 25     byte  ordinal DeliveryWorkload
+ * 26     byte  fragile (0 или 1)
+ * 27     byte  код QuoteStatus последнего расчёта, -1 если заказ ещё не рассчитан
+ * 28..31       зарезервировано
+ * </pre>
+ * Добавление и удаление не потокобезопасны. Пересчёт непересекающихся диапазонов можно выполнять параллельно.
+ */
+public final class OffHeapOrderStore {
+
+    public static final int RECORD_SIZE = 32;
+    public static final int DEFAULT_ORDERS_PER_CHUNK = 1 << 20;
+
+    private static final int ORDER_ID_OFFSET = 0;
+    private static final int DISTANCE_OFFSET = 8;
+    private static final int COST_OFFSET = 16;
+    private static final int CARGO_SIZE_OFFSET = 24;
+    private static final int DELIVERY_WORKLOAD_OFFSET = 25;
+    private static final int FRAGILE_OFFSET = 26;
+    private static final int STATUS_OFFSET = 27;
+    private static final byte NOT_PRICED = -1;
+
+    private static final CargoSize[] CARGO_SIZES = CargoSize.values();
+    private static final DeliveryWorkload[] DELIVERY_WORKLOADS = DeliveryWorkload.values();
+
+    private final int chunkShift;
+    private final long chunkMask;
+    private ByteBuffer[] chunks = new ByteBuffer[0];
+    private long size;
+
+    public OffHeapOrderStore() {
+        this(DEFAULT_ORDERS_PER_CHUNK);
+    }
+
+    public OffHeapOrderStore(int ordersPerChunk) {
+        if (ordersPerChunk <= 0 || Integer.bitCount(ordersPerChunk) != 1 || ordersPerChunk > Integer.MAX_VALUE / RECORD_SIZE) {
+            throw new IllegalArgumentException(
+                    "Число заказов в части должно быть степенью двойки не больше " + Integer.highestOneBit(Integer.MAX_VALUE / RECORD_SIZE)
+            );
+        }
+        this.chunkShift = Integer.numberOfTrailingZeros(ordersPerChunk);
+        this.chunkMask = ordersPerChunk - 1;
+    }
+
+    /**
+     * Добавляет нерассчитанный заказ и возвращает его номер в хранилище.
+     */
+    public long add(long orderId, long distanceMetres, CargoSize cargoSize, boolean isFragile, DeliveryWorkload deliveryWorkload) {
+        Objects.requireNonNull(cargoSize, "Размер груза не может быть null");
+        Objects.requireNonNull(deliveryWorkload, "Загруженность не может быть null");
+        long index = size;
+        int chunk = (int) (index >>> chunkShift);
+        if (chunk == chunks.length) {
+            chunks = Arrays.copyOf(chunks, chunk + 1);
+            chunks[chunk] = ByteBuffer.allocateDirect((int) (chunkMask + 1) * RECORD_SIZE).order(ByteOrder.nativeOrder());
+        }
+        size = index + 1;
+        set(index, orderId, distanceMetres, cargoSize, isFragile, deliveryWorkload);
+        return index;
+    }
+
+    /**
+     * Заменяет параметры заказа, сохраняя его идентификатор; стоимость сбрасывается до следующего пересчёта.
+     */
+    public void update(long index, long distanceMetres, CargoSize cargoSize, boolean isFragile, DeliveryWorkload deliveryWorkload) {
+        Objects.requireNonNull(cargoSize, "Размер груза не может быть null");
+        Objects.requireNonNull(deliveryWorkload, "Загруженность не может быть null");
+        set(index, getOrderId(index), distanceMetres, cargoSize, isFragile, deliveryWorkload);
+    }
+
+    /**
+     * Удаляет заказ, перенося на его место последний. Возвращает идентификатор перенесённого заказа
+     * или {@code -1}, если удалён последний.
+     */
+    public long remove(long index) {
+        Objects.checkIndex(index, size);
+        long last = size - 1;
+        long movedOrderId = -1;
+        if (index != last) {
+            ByteBuffer from = chunk(last);
+            ByteBuffer to = chunk(index);
+            int fromPosition = position(last);
+            int toPosition = position(index);
+            for (int i = 0; i < RECORD_SIZE; i += Long.BYTES) {
+                to.putLong(toPosition + i, from.getLong(fromPosition + i));
+            }
+            movedOrderId = to.getLong(toPosition + ORDER_ID_OFFSET);
+        }
+        size = last;
+        return movedOrderId;
+    }
+
+    public void clear() {
+        chunks = new ByteBuffer[0];
+        size = 0;
+    }
+
+    public long size() {
+        return size;
+    }
+
+    public long getFootprintBytes() {
+        return (long) chunks.length * (chunkMask + 1) * RECORD_SIZE;
+    }
+
+    public long getOrderId(long index) {
+        return chunk(checkIndex(index)).getLong(position(index) + ORDER_ID_OFFSET);
+    }
+
+    public long getDistanceMetres(long index) {
+        return chunk(checkIndex(index)).getLong(position(index) + DISTANCE_OFFSET);
+    }
+
+    public CargoSize getCargoSize(long index) {
+        return CARGO_SIZES[chunk(checkIndex(index)).get(position(index) + CARGO_SIZE_OFFSET)];
+    }
+
+    public boolean isFragile(long index) {
+        return chunk(checkIndex(index)).get(position(index) + FRAGILE_OFFSET) != 0;
+    }
+
+    public DeliveryWorkload getDeliveryWorkload(long index) {
+        return DELIVERY_WORKLOADS[chunk(checkIndex(index)).get(position(index) + DELIVERY_WORKLOAD_OFFSET)];
+    }
+
+    /**
+     * Стоимость последнего расчёта в копейках, 0 при отказе или если заказ ещё не рассчитан.
+     */
+    public long getCostKopecks(long index) {
+        return chunk(checkIndex(index)).getLong(position(index) + COST_OFFSET);
+    }
+
+    /**
+     * Результат последнего расчёта или {@code null}, если заказ ещё не рассчитан.
+     */
+    public QuoteStatus getStatus(long index) {
+        byte status = chunk(checkIndex(index)).get(position(index) + STATUS_OFFSET);
+        return status == NOT_PRICED ? null : QuoteStatus.fromCode(status);
+    }
+
+    /**
+     * Пересчитывает все заказы по тарифу и возвращает число рассчитанных без отказа. Расчёт идёт напрямую по тарифу,
+     * как {@link Cursor#price(Tariff)}: переопределения и обёртки {@link DeliveryCalculator} не применяются,
+     * поэтому тариф передаётся явно, например {@code calculator.getTariff()}.
+     */
+    public long reprice(Tariff tariff) {
+        return reprice(tariff, 0, size);
+    }
+
+    public long reprice(Tariff tariff, long from, long to) {
+        Objects.requireNonNull(tariff, "Тариф не может быть null");
+        Objects.checkFromToIndex(from, to, size);
+        long priced = 0;
+        for (long index = from; index < to; index++) {
+            if (price(chunk(index), position(index), tariff) == QuoteStatus.OK) {
+                priced++;
+            }
+        }
+        return priced;
+    }
+
+    public Cursor cursor() {
+        return cursor(0, size);
+    }
+
+    public Cursor cursor(long from, long to) {
+        Objects.checkFromToIndex(from, to, size);
+        return new Cursor(from, to);
+    }
+
+    private void set(long index, long orderId, long distanceMetres, CargoSize cargoSize, boolean isFragile,
+                     DeliveryWorkload deliveryWorkload) {
+        ByteBuffer chunk = chunk(checkIndex(index));
+        int position = position(index);
+        chunk.putLong(position + ORDER_ID_OFFSET, orderId);
+        chunk.putLong(position + DISTANCE_OFFSET, distanceMetres);
+        chunk.putLong(position + COST_OFFSET, 0);
+        chunk.put(position + CARGO_SIZE_OFFSET, (byte) cargoSize.ordinal());
+        chunk.put(position + DELIVERY_WORKLOAD_OFFSET, (byte) deliveryWorkload.ordinal());
+        chunk.put(position + FRAGILE_OFFSET, (byte) (isFragile ? 1 : 0));
+        chunk.put(position + STATUS_OFFSET, NOT_PRICED);
+    }
+
+    private long checkIndex(long index) {
+        return Objects.checkIndex(index, size);
+    }
+
+    private ByteBuffer chunk(long index) {
+        return chunks[(int) (index >>> chunkShift)];
+    }
+
+    private int position(long index) {
+        return (int) (index & chunkMask) * RECORD_SIZE;
+    }
+
+    private static QuoteStatus price(ByteBuffer chunk, int position, Tariff tariff) {
+        long distanceMetres = chunk.getLong(position + DISTANCE_OFFSET);
+        int cargoSize = chunk.get(position + CARGO_SIZE_OFFSET);
+        int deliveryWorkload = chunk.get(position + DELIVERY_WORKLOAD_OFFSET);
+        boolean isFragile = chunk.get(position + FRAGILE_OFFSET) != 0;
+
+        QuoteStatus status = tariff.checkRow(distanceMetres, cargoSize, isFragile, deliveryWorkload);
+        chunk.putLong(position + COST_OFFSET, status == QuoteStatus.OK
+                ? tariff.calculateCostKopecks(tariff.distanceBand(distanceMetres), cargoSize, isFragile, deliveryWorkload)
+                : 0);
+        chunk.put(position + STATUS_OFFSET, status.getCode());
+        return status;
+    }
+
+    /**
+     * Курсор по диапазону заказов: читает поля текущей записи и пересчитывает её на месте.
+     */
+    public final class Cursor {
+
+        private final long to;
+        private long index;
+        private ByteBuffer chunk;
+        private int position;
+
+        private Cursor(long from, long to) {
+            this.index = from - 1;
+            this.to = to;
+        }
+
+        public boolean next() {
+            if (index + 1 >= to) {
+                return false;
+            }
+            index++;
+            chunk = chunk(index);
+            position = position(index);
+            return true;
+        }
+
+        public long getIndex() {
+            return index;
+        }
+
+        public long getOrderId() {
+            return chunk.getLong(position + ORDER_ID_OFFSET);
+        }
+
+        public long getDistanceMetres() {
+            return chunk.getLong(position + DISTANCE_OFFSET);
+        }
+
+        public CargoSize getCargoSize() {
+            return CARGO_SIZES[chunk.get(position + CARGO_SIZE_OFFSET)];
+        }
+
+        public boolean isFragile() {
+            return chunk.get(position + FRAGILE_OFFSET) != 0;
+        }
+
+        public DeliveryWorkload getDeliveryWorkload() {
+            return DELIVERY_WORKLOADS[chunk.get(position + DELIVERY_WORKLOAD_OFFSET)];
+        }
+
+        public long getCostKopecks() {
+            return chunk.getLong(position + COST_OFFSET);
+        }
+
+        public QuoteStatus getStatus() {
+            byte status = chunk.get(position + STATUS_OFFSET);
+            return status == NOT_PRICED ? null : QuoteStatus.fromCode(status);
+        }
+
+        /**
+         * Рассчитывает текущий заказ по тарифу, записывает стоимость и результат в запись и возвращает результат.
+         */
+        public QuoteStatus price(Tariff tariff) {
+            return OffHeapOrderStore.price(chunk, position, tariff);
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package ru.yandex.practicum.bystritskiy;
+
+import ru.yandex.practicum.bystritskiy.enums.CargoSize;
+import ru.yandex.practicum.bystritskiy.enums.DeliveryWorkload;
+import ru.yandex.practicum.bystritskiy.enums.QuoteStatus;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+/**
+ * Книга открытых заказов с ценами по текущей загруженности. Стоимость до применения коэффициента загруженности
+ * зависит только от группы заказа (полоса расстояния × габариты × хрупкость), поэтому заказ хранит номер группы,
+ * а цены хранятся по группам. Смена загруженности пересчитывает только цены групп и стоит O(групп), а не O(заказов);
+ * стоимость заказа читается из таблицы цен его группы.
+ * <p>
+ * Добавление и удаление заказов не потокобезопасны. Смена загруженности публикует новую таблицу цен целиком,
+ * поэтому её можно вызывать из другого потока.
+ */
+public class OpenOrderBook {
+
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final short CLOSED = -1;
+    private static final int CARGO_SIZE_COUNT = CargoSize.values().length;
+
+    private final Tariff tariff;
+    private final long[] groupBaseCostsKopecks;
+    private final int[] groupOrderCounts;
+    private volatile Prices prices;
+
+    private short[] groups = new short[INITIAL_CAPACITY];
+    private int[] freeOrders = new int[INITIAL_CAPACITY];
+    private int freeCount;
+    private int capacityUsed;
+    private int size;
+
+    public OpenOrderBook(Tariff tariff, DeliveryWorkload deliveryWorkload) {
+        this.tariff = tariff;
+        int groupCount = tariff.getDistanceBandCount() * CARGO_SIZE_COUNT * 2;
+        if (groupCount > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Слишком много полос расстояния в тарифе");
+        }
+        this.groupBaseCostsKopecks = new long[groupCount];
+        this.groupOrderCounts = new int[groupCount];
+        for (int band = 0; band < tariff.getDistanceBandCount(); band++) {
+            for (int cargoSize = 0; cargoSize < CARGO_SIZE_COUNT; cargoSize++) {
+                for (int fragile = 0; fragile < 2; fragile++) {
+                    groupBaseCostsKopecks[group(band, cargoSize, fragile == 1)] = tariff.baseCostKopecks(band, cargoSize, fragile == 1);
+                }
+            }
+        }
+        setDeliveryWorkload(deliveryWorkload);
+    }
+
+    /**
+     * Добавляет заказ и возвращает его номер. Номера удалённых заказов используются повторно.
+     * Заказ проверяется по тем же правилам, что и в {@link DeliveryCalculator#calculateDeliveryCost}.
+     */
+    public int add(BigDecimal distance, CargoSize cargoSize, boolean isFragile) {
+        QuoteStatus status = tariff.checkInput(distance, cargoSize, isFragile, prices.deliveryWorkload);
+        if (status != QuoteStatus.OK) {
+            throw DeliveryCalculator.toException(status, tariff);
+        }
+
+        return add(tariff.distanceBand(distance), cargoSize.ordinal(), isFragile);
+    }
+
+    public int add(long distanceMetres, CargoSize cargoSize, boolean isFragile) {
+        QuoteStatus status = tariff.checkInput(distanceMetres, cargoSize, isFragile, prices.deliveryWorkload);
+        if (status != QuoteStatus.OK) {
+            throw DeliveryCalculator.toException(status, tariff);
+        }
+
+        return add(tariff.distanceBand(distanceMetres), cargoSize.ordinal(), isFragile);
+    }
+
+    public boolean remove(int order) {
+        if (!isOpen(order)) {
+            return false;
+        }
+
+        groupOrderCounts[groups[order]]--;
+        groups[order] = CLOSED;
+        if (freeCount == freeOrders.length) {
+            freeOrders = Arrays.copyOf(freeOrders, freeOrders.length * 2);
+        }
+        freeOrders[freeCount++] = order;
+        size--;
+        return true;
+    }
+
+    public boolean isOpen(int order) {
+        return order >= 0 && order < capacityUsed && groups[order] != CLOSED;
+    }
+
+    public long getCostKopecks(int order) {
+        checkOpen(order);
+        return prices.groupPricesKopecks[groups[order]];
+    }
+
+    public BigDecimal getCost(int order) {
+        return BigDecimal.valueOf(getCostKopecks(order), Tariff.MONEY_SCALE);
+    }
+
+    /**
+     * Записывает номера и стоимости всех открытых заказов по одной таблице цен и возвращает их количество.
+     */
+    public int copyCostsKopecks(int[] orders, long[] costs) {
+        if (orders.length < size || costs.length < size) {
+            throw new IllegalArgumentException("Массивы должны вмещать " + size + " заказов");
+        }
+
+        long[] groupPrices = prices.groupPricesKopecks;
+        int count = 0;
+        for (int order = 0; order < capacityUsed; order++) {
+            short group = groups[order];
+            if (group != CLOSED) {
+                orders[count] = order;
+                costs[count++] = groupPrices[group];
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Пересчитывает цены всех групп по новой загруженности и публикует их одной записью.
+     */
+    public void setDeliveryWorkload(DeliveryWorkload deliveryWorkload) {
+        if (deliveryWorkload == null) {
+            throw DeliveryCalculator.toException(QuoteStatus.UNKNOWN_DELIVERY_WORKLOAD, tariff);
+        }
+
+        long[] groupPrices = new long[groupBaseCostsKopecks.length];
+        for (int group = 0; group < groupPrices.length; group++) {
+            groupPrices[group] = tariff.calculateCostKopecks(groupBaseCostsKopecks[group], deliveryWorkload.ordinal());
+        }
+        prices = new Prices(deliveryWorkload, groupPrices);
+    }
+
+    public DeliveryWorkload getDeliveryWorkload() {
+        return prices.deliveryWorkload;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getGroupCount() {
+        return groupBaseCostsKopecks.length;
+    }
+
+    public long getGroupPriceKopecks(int group) {
+        return prices.groupPricesKopecks[group];
+    }
+
+    public int getGroupOrderCount(int group) {
+        return groupOrderCounts[group];
+    }
+
+    static int group(int distanceBand, int cargoSize, boolean isFragile) {
+        return (distanceBand * CARGO_SIZE_COUNT + cargoSize) * 2 + (isFragile ? 1 : 0);
+    }
+
+    private int add(int distanceBand, int cargoSize, boolean isFragile) {
+        int order;
+        if (freeCount > 0) {
+            order = freeOrders[--freeCount];
+        } else {
+            if (capacityUsed == groups.length) {
+                groups = Arrays.copyOf(groups, groups.length * 2);
+            }
+            order = capacityUsed++;
+        }
+
+        short group = (short) group(distanceBand, cargoSize, isFragile);
+        groups[order] = group;
+        groupOrderCounts[group]++;
+        size++;
+        return order;
+    }
+
+    private void checkOpen(int order) {
+        if (!isOpen(order)) {
+            throw new IllegalArgumentException("Заказ " + order + " не найден");
+        }
+    }
+
+    private static final class Prices {
+
+        private final DeliveryWorkload deliveryWorkload;
+        private final long[] groupPricesKopecks;
+
+        private Prices(DeliveryWorkload deliveryWorkload, long[] groupPricesKopecks) {
+            this.deliveryWorkload = deliveryWorkload;
+            this.groupPricesKopecks = groupPricesKopecks;
+        }
+    }
+}
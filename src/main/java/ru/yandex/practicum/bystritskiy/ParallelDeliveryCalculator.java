@@ -0,0 +1,175 @@
+package ru.yandex.practicum.bystritskiy;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Параллельный расчёт стоимости для больших наборов заказов.
+ * Диапазон заказов делится пополам, пока не станет не больше {@code chunkSize},
+ * каждый кусок считается переданным калькулятором, результаты пишутся по исходным индексам.
+ */
+public class ParallelDeliveryCalculator implements AutoCloseable {
+
+    private final DeliveryCalculator calculator;
+    private final ForkJoinPool pool;
+    private final boolean ownsPool;
+    private final int chunkSize;
+
+    public ParallelDeliveryCalculator(DeliveryCalculator calculator, int parallelism, int chunkSize) {
+        // Аргументы вычисляются слева направо: размер куска проверяется до создания собственного пула.
+        this(calculator, checkChunkSize(chunkSize), new ForkJoinPool(parallelism), true);
+    }
+
+    public ParallelDeliveryCalculator(DeliveryCalculator calculator, ForkJoinPool pool, int chunkSize) {
+        this(calculator, checkChunkSize(chunkSize), pool, false);
+    }
+
+    private ParallelDeliveryCalculator(DeliveryCalculator calculator, int chunkSize, ForkJoinPool pool, boolean ownsPool) {
+        this.calculator = calculator;
+        this.pool = pool;
+        this.ownsPool = ownsPool;
+        this.chunkSize = chunkSize;
+    }
+
+    private static int checkChunkSize(int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Размер куска должен быть больше 0");
+        }
+        return chunkSize;
+    }
+
+    public BigDecimal[] calculateDeliveryCosts(List<DeliveryOrder> orders) {
+        return calculateDeliveryCosts(orders.toArray(DeliveryOrder[]::new));
+    }
+
+    public BigDecimal[] calculateDeliveryCosts(DeliveryOrder[] orders) {
+        BigDecimal[] costs = new BigDecimal[orders.length];
+        invoke(new OrdersTask(orders, costs, 0, orders.length));
+        return costs;
+    }
+
+    public void calculateDeliveryCostsKopecks(long[] distancesMetres, byte[] cargoSizes, long[] fragile, byte[] deliveryWorkloads,
+                                              long[] costs, byte[] statuses) {
+        DeliveryCalculator.checkBatchBounds(
+                distancesMetres, cargoSizes, fragile, deliveryWorkloads, costs, statuses, 0, distancesMetres.length
+        );
+        invoke(new ColumnsTask(distancesMetres, cargoSizes, fragile, deliveryWorkloads, costs, statuses, 0, distancesMetres.length));
+    }
+
+    public int getParallelism() {
+        return pool.getParallelism();
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    @Override
+    public void close() {
+        if (ownsPool) {
+            pool.shutdown();
+        }
+    }
+
+    private void invoke(RecursiveAction task) {
+        try {
+            pool.invoke(task);
+        } catch (RuntimeException e) {
+            // ForkJoinTask пересоздаёт исключение из рабочего потока, оборачивая исходное как причину,
+            // при ожидании вложенных задач обёрток может быть несколько. Собственные цепочки причин не трогаем.
+            RuntimeException original = e;
+            while (isForkJoinCopy(original)) {
+                original = (RuntimeException) original.getCause();
+            }
+            throw original;
+        }
+    }
+
+    /**
+     * Копия, созданная ForkJoinTask, имеет тот же класс, что и причина, и либо не имеет сообщения,
+     * либо получает его из {@code cause.toString()} конструктором {@code (Throwable)}.
+     */
+    private static boolean isForkJoinCopy(Throwable exception) {
+        Throwable cause = exception.getCause();
+        if (cause == null || cause.getClass() != exception.getClass()) {
+            return false;
+        }
+        String message = exception.getMessage();
+        return message == null || message.equals(cause.toString());
+    }
+
+    private final class OrdersTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final DeliveryOrder[] orders;
+        private final BigDecimal[] costs;
+        private final int from;
+        private final int to;
+
+        OrdersTask(DeliveryOrder[] orders, BigDecimal[] costs, int from, int to) {
+            this.orders = orders;
+            this.costs = costs;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= chunkSize) {
+                for (int i = from; i < to; i++) {
+                    DeliveryOrder order = orders[i];
+                    costs[i] = calculator.calculateDeliveryCost(
+                            order.distance(), order.cargoSize(), order.isFragile(), order.deliveryWorkload()
+                    );
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new OrdersTask(orders, costs, from, middle), new OrdersTask(orders, costs, middle, to));
+        }
+    }
+
+    private final class ColumnsTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final long[] distancesMetres;
+        private final byte[] cargoSizes;
+        private final long[] fragile;
+        private final byte[] deliveryWorkloads;
+        private final long[] costs;
+        private final byte[] statuses;
+        private final int from;
+        private final int to;
+
+        ColumnsTask(long[] distancesMetres, byte[] cargoSizes, long[] fragile, byte[] deliveryWorkloads,
+                    long[] costs, byte[] statuses, int from, int to) {
+            this.distancesMetres = distancesMetres;
+            this.cargoSizes = cargoSizes;
+            this.fragile = fragile;
+            this.deliveryWorkloads = deliveryWorkloads;
+            this.costs = costs;
+            this.statuses = statuses;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= chunkSize) {
+                calculator.calculateDeliveryCostsKopecks(
+                        distancesMetres, cargoSizes, fragile, deliveryWorkloads, costs, statuses, from, to
+                );
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(
+                    new ColumnsTask(distancesMetres, cargoSizes, fragile, deliveryWorkloads, costs, statuses, from, middle),
+                    new ColumnsTask(distancesMetres, cargoSizes, fragile, deliveryWorkloads, costs, statuses, middle, to)
+            );
+        }
+    }
+}
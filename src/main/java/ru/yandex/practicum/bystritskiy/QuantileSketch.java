@@ -0,0 +1,161 @@
+package ru.yandex.practicum.bystritskiy;
+
+/**
+ * Объединяемый эскиз распределения неотрицательных целых значений, например стоимости в копейках.
+ * Положительные значения раскладываются по логарифмическим корзинам {@code (γ^(i-1), γ^i]},
+ * где {@code γ = (1 + α) / (1 - α)}, поэтому квантиль возвращается с относительной погрешностью не больше α.
+ * Хранятся только счётчики корзин между наименьшей и наибольшей занятой, память не зависит от числа значений.
+ * Эскизы с одинаковой точностью объединяются без потери точности. Не потокобезопасен.
+ */
+public final class QuantileSketch {
+
+    public static final double DEFAULT_RELATIVE_ACCURACY = 0.001;
+
+    private static final int INITIAL_BUCKETS = 16;
+
+    private final double relativeAccuracy;
+    private final double gamma;
+    private final double logGamma;
+    private long[] buckets;
+    private int offset;
+    private long zeroCount;
+    private long count;
+    private long min = Long.MAX_VALUE;
+    private long max = Long.MIN_VALUE;
+
+    public QuantileSketch() {
+        this(DEFAULT_RELATIVE_ACCURACY);
+    }
+
+    public QuantileSketch(double relativeAccuracy) {
+        if (!(relativeAccuracy > 0 && relativeAccuracy < 1)) {
+            throw new IllegalArgumentException("Относительная точность должна быть больше 0 и меньше 1");
+        }
+        this.relativeAccuracy = relativeAccuracy;
+        this.gamma = (1 + relativeAccuracy) / (1 - relativeAccuracy);
+        this.logGamma = Math.log(gamma);
+    }
+
+    public void add(long value) {
+        add(value, 1);
+    }
+
+    public void add(long value, long times) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Значение не может быть отрицательным: " + value);
+        }
+        if (times <= 0) {
+            return;
+        }
+        if (value == 0) {
+            zeroCount += times;
+        } else {
+            int index = bucketIndex(value);
+            ensureBucket(index);
+            buckets[index - offset] += times;
+        }
+        count += times;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+    /**
+     * Добавляет значения другого эскиза с той же относительной точностью.
+     */
+    public void merge(QuantileSketch other) {
+        if (other.relativeAccuracy != relativeAccuracy) {
+            throw new IllegalArgumentException("Нельзя объединить эскизы с разной точностью");
+        }
+        if (other.count == 0) {
+            return;
+        }
+        if (other.buckets != null) {
+            for (int i = 0; i < other.buckets.length; i++) {
+                if (other.buckets[i] != 0) {
+                    int index = other.offset + i;
+                    ensureBucket(index);
+                    buckets[index - offset] += other.buckets[i];
+                }
+            }
+        }
+        zeroCount += other.zeroCount;
+        count += other.count;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    /**
+     * Возвращает значение квантиля {@code q} из {@code [0, 1]}, округлённое до целого и ограниченное
+     * наименьшим и наибольшим добавленным значением. Квантили 0 и 1 точные.
+     *
+     * @throws IllegalStateException если эскиз пуст
+     */
+    public long quantile(double q) {
+        if (!(q >= 0 && q <= 1)) {
+            throw new IllegalArgumentException("Квантиль должен быть от 0 до 1: " + q);
+        }
+        if (count == 0) {
+            throw new IllegalStateException("Эскиз не содержит значений");
+        }
+
+        long rank = (long) (q * (count - 1));
+        if (rank == 0) {
+            return min;
+        }
+        if (rank == count - 1) {
+            return max;
+        }
+        if (rank < zeroCount) {
+            return 0;
+        }
+        long seen = zeroCount;
+        int i = 0;
+        while (seen + buckets[i] <= rank) {
+            seen += buckets[i++];
+        }
+        long value = Math.round(2 * Math.pow(gamma, offset + i) / (gamma + 1));
+        return Math.max(min, Math.min(max, value));
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getMin() {
+        return min;
+    }
+
+    public long getMax() {
+        return max;
+    }
+
+    public double getRelativeAccuracy() {
+        return relativeAccuracy;
+    }
+
+    private int bucketIndex(long value) {
+        return (int) Math.ceil(Math.log(value) / logGamma);
+    }
+
+    private void ensureBucket(int index) {
+        if (buckets == null) {
+            buckets = new long[INITIAL_BUCKETS];
+            offset = index - INITIAL_BUCKETS / 2;
+            return;
+        }
+        if (index >= offset && index < offset + buckets.length) {
+            return;
+        }
+
+        int from = Math.min(offset, index);
+        int to = Math.max(offset + buckets.length, index + 1);
+        int length = Math.max(to - from, buckets.length * 2);
+        if (index < offset) {
+            from = to - length;
+        }
+        long[] grown = new long[length];
+        System.arraycopy(buckets, 0, grown, offset - from, buckets.length);
+        buckets = grown;
+        offset = from;
+    }
+}
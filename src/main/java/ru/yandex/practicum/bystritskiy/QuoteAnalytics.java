@@ -0,0 +1,190 @@
+package ru.yandex.practicum.bystritskiy;
+
+import ru.yandex.practicum.bystritskiy.enums.CargoSize;
+import ru.yandex.practicum.bystritskiy.enums.DeliveryWorkload;
+import ru.yandex.practicum.bystritskiy.enums.QuoteStatus;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.function.IntPredicate;
+
+/**
+ * Однопроходная аналитика по расчётам: количество, выручка и эскиз распределения стоимости {@link QuantileSketch}
+ * для каждой ячейки сетки тарифа (полоса расстояния × габариты × хрупкость × загруженность, 64 ячейки
+ * для тарифа по умолчанию) и счётчики отказов по причинам. Стоимость хранится в копейках, BigDecimal создаётся
+ * только в {@link Summary}. Память зависит только от тарифа, а не от числа расчётов.
+ * <p>
+ * Номер ячейки считается по сетке этого тарифа, полоса расстояния — старший разряд:
+ * {@code ((полоса * CargoSize + габариты) * 2 + хрупкость) * DeliveryWorkload + загруженность}.
+ * <p>
+ * Экземпляр не потокобезопасен: каждый поток или файл считает свою часть, части объединяются {@link #merge}.
+ */
+public final class QuoteAnalytics {
+
+    private static final CargoSize[] CARGO_SIZES = CargoSize.values();
+    private static final DeliveryWorkload[] DELIVERY_WORKLOADS = DeliveryWorkload.values();
+    private static final int CELLS_PER_DISTANCE_BAND = CARGO_SIZES.length * 2 * DELIVERY_WORKLOADS.length;
+
+    private final Tariff tariff;
+    private final double relativeAccuracy;
+    private final int distanceBandCount;
+    private final long[] counts;
+    private final long[] revenuesKopecks;
+    private final QuantileSketch[] sketches;
+    private final long[] rejections = new long[QuoteStatus.values().length];
+
+    public QuoteAnalytics(Tariff tariff) {
+        this(tariff, QuantileSketch.DEFAULT_RELATIVE_ACCURACY);
+    }
+
+    public QuoteAnalytics(Tariff tariff, double relativeAccuracy) {
+        this.tariff = tariff;
+        this.relativeAccuracy = relativeAccuracy;
+        this.distanceBandCount = tariff.getDistanceBandCount();
+        int cells = distanceBandCount * CELLS_PER_DISTANCE_BAND;
+        this.counts = new long[cells];
+        this.revenuesKopecks = new long[cells];
+        this.sketches = new QuantileSketch[cells];
+        for (int cell = 0; cell < cells; cell++) {
+            sketches[cell] = new QuantileSketch(relativeAccuracy);
+        }
+    }
+
+    public void add(long distanceMetres, CargoSize cargoSize, boolean isFragile, DeliveryWorkload deliveryWorkload,
+                    long costKopecks) {
+        addCell(cellIndex(
+                tariff.distanceBand(distanceMetres), cargoSize.ordinal(), isFragile, deliveryWorkload.ordinal()
+        ), costKopecks);
+    }
+
+    public void addRejection(QuoteStatus status) {
+        rejections[status.getCode()]++;
+    }
+
+    /**
+     * Учитывает запись журнала расчётов {@link QuoteAuditJournal}.
+     */
+    public void add(QuoteAuditRecord record) {
+        if (record.status() != QuoteStatus.OK) {
+            addRejection(record.status());
+            return;
+        }
+        addCell(cellIndex(
+                tariff.distanceBand(record.distance()), record.cargoSize().ordinal(), record.isFragile(),
+                record.deliveryWorkload().ordinal()
+        ), record.cost().movePointRight(Tariff.MONEY_SCALE).longValueExact());
+    }
+
+    /**
+     * Учитывает результат пакетного расчёта в формате {@link DeliveryCalculator#calculateDeliveryCostsKopecks}.
+     */
+    public void addAll(long[] distancesMetres, byte[] cargoSizes, long[] fragile, byte[] deliveryWorkloads,
+                       long[] costs, byte[] statuses, int from, int to) {
+        DeliveryCalculator.checkBatchBounds(distancesMetres, cargoSizes, fragile, deliveryWorkloads, costs, statuses, from, to);
+        for (int i = from; i < to; i++) {
+            if (statuses[i] != QuoteStatus.OK.getCode()) {
+                rejections[statuses[i]]++;
+                continue;
+            }
+            addCell(cellIndex(
+                    tariff.distanceBand(distancesMetres[i]), cargoSizes[i], DeliveryCalculator.isFragile(fragile, i),
+                    deliveryWorkloads[i]
+            ), costs[i]);
+        }
+    }
+
+    /**
+     * Добавляет накопленные данные другой части, посчитанной по тарифу с той же сеткой и точностью.
+     */
+    public void merge(QuoteAnalytics other) {
+        if (other.distanceBandCount != distanceBandCount || other.relativeAccuracy != relativeAccuracy) {
+            throw new IllegalArgumentException("Нельзя объединить аналитику с разной сеткой тарифа или точностью");
+        }
+        for (int cell = 0; cell < counts.length; cell++) {
+            counts[cell] += other.counts[cell];
+            revenuesKopecks[cell] += other.revenuesKopecks[cell];
+            sketches[cell].merge(other.sketches[cell]);
+        }
+        for (int code = 0; code < rejections.length; code++) {
+            rejections[code] += other.rejections[code];
+        }
+    }
+
+    public Summary total() {
+        return summarize(cell -> true);
+    }
+
+    public Summary byDistanceBand(int distanceBand) {
+        checkDistanceBand(distanceBand);
+        return summarize(cell -> cell / CELLS_PER_DISTANCE_BAND == distanceBand);
+    }
+
+    public Summary byCargoSize(CargoSize cargoSize) {
+        return summarize(cell -> cell / (2 * DELIVERY_WORKLOADS.length) % CARGO_SIZES.length == cargoSize.ordinal());
+    }
+
+    public Summary byFragile(boolean isFragile) {
+        return summarize(cell -> (cell / DELIVERY_WORKLOADS.length % 2 == 1) == isFragile);
+    }
+
+    public Summary byDeliveryWorkload(DeliveryWorkload deliveryWorkload) {
+        return summarize(cell -> cell % DELIVERY_WORKLOADS.length == deliveryWorkload.ordinal());
+    }
+
+    public Summary cell(int distanceBand, CargoSize cargoSize, boolean isFragile, DeliveryWorkload deliveryWorkload) {
+        checkDistanceBand(distanceBand);
+        int index = cellIndex(distanceBand, cargoSize.ordinal(), isFragile, deliveryWorkload.ordinal());
+        return summarize(cell -> cell == index);
+    }
+
+    public long getRejections(QuoteStatus status) {
+        return rejections[status.getCode()];
+    }
+
+    private static int cellIndex(int distanceBand, int cargoSize, boolean isFragile, int deliveryWorkload) {
+        return ((distanceBand * CARGO_SIZES.length + cargoSize) * 2 + (isFragile ? 1 : 0)) * DELIVERY_WORKLOADS.length
+                + deliveryWorkload;
+    }
+
+    private void checkDistanceBand(int distanceBand) {
+        if (distanceBand < 0 || distanceBand >= distanceBandCount) {
+            throw new IllegalArgumentException("Неизвестная полоса расстояния: " + distanceBand);
+        }
+    }
+
+    private void addCell(int cell, long costKopecks) {
+        counts[cell]++;
+        revenuesKopecks[cell] += costKopecks;
+        sketches[cell].add(costKopecks);
+    }
+
+    private Summary summarize(IntPredicate cells) {
+        long count = 0;
+        long revenue = 0;
+        QuantileSketch sketch = new QuantileSketch(relativeAccuracy);
+        for (int cell = 0; cell < counts.length; cell++) {
+            if (cells.test(cell) && counts[cell] > 0) {
+                count += counts[cell];
+                revenue += revenuesKopecks[cell];
+                sketch.merge(sketches[cell]);
+            }
+        }
+        if (count == 0) {
+            return new Summary(0, BigDecimal.ZERO.setScale(Tariff.MONEY_SCALE), null, null, null, null);
+        }
+        return new Summary(
+                count,
+                BigDecimal.valueOf(revenue, Tariff.MONEY_SCALE),
+                BigDecimal.valueOf(revenue, Tariff.MONEY_SCALE).divide(BigDecimal.valueOf(count), RoundingMode.HALF_UP),
+                BigDecimal.valueOf(sketch.quantile(0.50), Tariff.MONEY_SCALE),
+                BigDecimal.valueOf(sketch.quantile(0.95), Tariff.MONEY_SCALE),
+                BigDecimal.valueOf(sketch.quantile(0.99), Tariff.MONEY_SCALE)
+        );
+    }
+
+    /**
+     * Итоги по группе ячеек. Средняя стоимость и квантили равны {@code null}, если расчётов не было.
+     */
+    public record Summary(long count, BigDecimal revenue, BigDecimal average, BigDecimal p50, BigDecimal p95, BigDecimal p99) {
+    }
+}
@@ -0,0 +1,485 @@
+package ru.yandex.practicum.bystritskiy;
+
+import ru.yandex.practicum.bystritskiy.enums.CargoSize;
+import ru.yandex.practicum.bystritskiy.enums.DeliveryWorkload;
+import ru.yandex.practicum.bystritskiy.enums.QuoteStatus;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+
+/**
+ * Журнал выданных расчётов для аудита. Записи фиксированной длины дописываются в отображённые в память файлы-сегменты
+ * по {@code recordsPerSegment} записей.
+ * <p>
+ * Запись, {@value #RECORD_SIZE} байт, в сетевом порядке байтов:
+ * <pre>
+ * 0..3   int   признак {@link #COMMITTED} или {@link #ABORTED}, пишется последним
+ * 4      byte  код QuoteStatus
+ * 5      byte  ordinal CargoSize, -1 если не задан
+ * 6      byte  ordinal DeliveryWorkload, -1 если не задан
+ * 7      byte  fragile (0 или 1)
+ * 8..15  long  порядковый номер записи
+ * 16..23 long  время расчёта, мс от начала эпохи
+ * 24..31 long  расстояние, немасштабированное значение
+ * 32..35 int   масштаб расстояния, {@link #NO_DISTANCE} если расстояние не задано
+ * 36..39 int   зарезервировано, 0
+ * 40..47 long  стоимость в копейках, 0 при отказе
+ * </pre>
+ * Писатель занимает место атомарным счётчиком и не ждёт диск. Фоновый поток раз в {@code flushInterval} сбрасывает
+ * на диск все записи, завершённые подряд, одним вызовом {@link MappedByteBuffer#force(int, int)} на сегмент
+ * и заранее открывает следующий сегмент. Писатель сам сегменты не открывает: если следующий сегмент ещё не готов,
+ * он будит фоновый поток и ждёт. После перезапуска запись продолжается в новом сегменте.
+ * <p>
+ * Место, занятое писателем, всегда закрывается: если запись не удалась, в слот пишется признак {@link #ABORTED}
+ * с порядковым номером, такие слоты пропускаются при сбросе и чтении и не прерывают журнал.
+ * <p>
+ * {@link #close()} перестаёт принимать записи, дожидается писателей, уже занявших место, и только затем
+ * сбрасывает сегменты на диск, поэтому каждая принятая запись оказывается на диске.
+ */
+public final class QuoteAuditJournal implements AutoCloseable {
+
+    public static final int RECORD_SIZE = 48;
+    public static final int DEFAULT_RECORDS_PER_SEGMENT = 1 << 20;
+
+    static final int COMMITTED = 0x51554F54;
+    static final int ABORTED = 0x41424F52;
+    static final int NO_DISTANCE = Integer.MIN_VALUE;
+
+    private static final int STATUS_OFFSET = 4;
+    private static final int CARGO_SIZE_OFFSET = 5;
+    private static final int DELIVERY_WORKLOAD_OFFSET = 6;
+    private static final int FRAGILE_OFFSET = 7;
+    private static final int SEQUENCE_OFFSET = 8;
+    private static final int TIMESTAMP_OFFSET = 16;
+    private static final int DISTANCE_OFFSET = 24;
+    private static final int DISTANCE_SCALE_OFFSET = 32;
+    private static final int COST_OFFSET = 40;
+
+    private static final String SEGMENT_PREFIX = "quotes-";
+    private static final String SEGMENT_SUFFIX = ".journal";
+    private static final VarHandle MARKER = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.BIG_ENDIAN);
+    private static final CargoSize[] CARGO_SIZES = CargoSize.values();
+    private static final DeliveryWorkload[] DELIVERY_WORKLOADS = DeliveryWorkload.values();
+
+    private final Path directory;
+    private final int recordsPerSegment;
+    private final long firstSegment;
+    private final long firstSequence;
+    private final long flushIntervalNanos;
+    private final AtomicLong nextSequence;
+    private final AtomicInteger activeWriters = new AtomicInteger();
+    private final ConcurrentHashMap<Long, Segment> segments = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Long> abortedWithoutSegment = new ConcurrentLinkedQueue<>();
+    private final Object flushLock = new Object();
+    private final Thread flusher;
+    private volatile Segment current;
+    private volatile long durableSequence;
+    private volatile Exception lastFlushError;
+    private volatile IOException mapError;
+    private volatile long mapAttempts;
+    private volatile boolean closed;
+    private volatile boolean stopped;
+    private long lastMappedSegment;
+
+    private QuoteAuditJournal(Path directory, int recordsPerSegment, Duration flushInterval, long firstSegment,
+                              long firstSequence) throws IOException {
+        this.directory = directory;
+        this.recordsPerSegment = recordsPerSegment;
+        this.firstSegment = firstSegment;
+        this.firstSequence = firstSequence;
+        this.flushIntervalNanos = flushInterval.toNanos();
+        this.nextSequence = new AtomicLong(firstSequence);
+        this.durableSequence = firstSequence;
+        this.current = map(firstSegment);
+        this.lastMappedSegment = firstSegment;
+        this.flusher = new Thread(this::flushLoop, "quote-audit-flusher-" + directory.getFileName());
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    public static QuoteAuditJournal open(Path directory) throws IOException {
+        return open(directory, DEFAULT_RECORDS_PER_SEGMENT, Duration.ofMillis(10));
+    }
+
+    public static QuoteAuditJournal open(Path directory, int recordsPerSegment, Duration flushInterval) throws IOException {
+        if (recordsPerSegment <= 0 || recordsPerSegment > Integer.MAX_VALUE / RECORD_SIZE) {
+            throw new IllegalArgumentException("Число записей в сегменте должно быть от 1 до " + Integer.MAX_VALUE / RECORD_SIZE);
+        }
+        if (flushInterval.isNegative() || flushInterval.isZero()) {
+            throw new IllegalArgumentException("Интервал сброса на диск должен быть больше 0");
+        }
+
+        Files.createDirectories(directory);
+        List<Path> files = segmentFiles(directory);
+        long firstSegment = files.isEmpty() ? 0 : segmentIndex(files.get(files.size() - 1)) + 1;
+        long firstSequence = 0;
+        for (int i = files.size() - 1; i >= 0; i--) {
+            MappedByteBuffer segment = mapReadOnly(files.get(i));
+            int records = committedRecords(segment);
+            if (records > 0) {
+                firstSequence = segment.getLong((records - 1) * RECORD_SIZE + SEQUENCE_OFFSET) + 1;
+                break;
+            }
+        }
+        return new QuoteAuditJournal(directory, recordsPerSegment, flushInterval, firstSegment, firstSequence);
+    }
+
+    /**
+     * Последовательное чтение всех записей каталога для воспроизведения. Слоты {@link #ABORTED} пропускаются,
+     * чтение сегмента останавливается на первой незавершённой записи, например оборванной аварийным завершением процесса.
+     */
+    public static Reader read(Path directory) throws IOException {
+        return new Reader(segmentFiles(directory));
+    }
+
+    /**
+     * Дописывает запись о расчёте и возвращает её порядковый номер.
+     *
+     * @throws NullPointerException  если не задан результат расчёта
+     * @throws IllegalStateException если журнал закрыт
+     * @throws UncheckedIOException  если фоновый поток не смог открыть сегмент для записи; занятый номер
+     *                               помечается {@link #ABORTED}, как только сегмент удастся открыть
+     */
+    public long append(BigDecimal distance, CargoSize cargoSize, boolean isFragile, DeliveryWorkload deliveryWorkload,
+                       QuoteStatus status, long costKopecks) {
+        if (distance == null) {
+            return append(0, NO_DISTANCE, cargoSize, isFragile, deliveryWorkload, status, costKopecks);
+        }
+        BigInteger unscaled = distance.unscaledValue();
+        if (unscaled.bitLength() < Long.SIZE) {
+            return append(unscaled.longValue(), distance.scale(), cargoSize, isFragile, deliveryWorkload, status, costKopecks);
+        }
+        return append(Tariff.ceilMetres(distance), Tariff.METRES_SCALE, cargoSize, isFragile, deliveryWorkload, status, costKopecks);
+    }
+
+    public long append(long distanceMetres, CargoSize cargoSize, boolean isFragile, DeliveryWorkload deliveryWorkload,
+                       QuoteStatus status, long costKopecks) {
+        return append(distanceMetres, Tariff.METRES_SCALE, cargoSize, isFragile, deliveryWorkload, status, costKopecks);
+    }
+
+    private long append(long distance, int distanceScale, CargoSize cargoSize, boolean isFragile,
+                        DeliveryWorkload deliveryWorkload, QuoteStatus status, long costKopecks) {
+        Objects.requireNonNull(status, "Результат расчёта не может быть null");
+        activeWriters.incrementAndGet();
+        try {
+            if (closed) {
+                throw new IllegalStateException("Журнал расчётов закрыт");
+            }
+            return write(distance, distanceScale, cargoSize, isFragile, deliveryWorkload, status, costKopecks);
+        } finally {
+            activeWriters.decrementAndGet();
+        }
+    }
+
+    private long write(long distance, int distanceScale, CargoSize cargoSize, boolean isFragile,
+                       DeliveryWorkload deliveryWorkload, QuoteStatus status, long costKopecks) {
+        long sequence = nextSequence.getAndIncrement();
+        long offset = sequence - firstSequence;
+        long segmentIndex = firstSegment + offset / recordsPerSegment;
+        int position = (int) (offset % recordsPerSegment) * RECORD_SIZE;
+        Segment current = this.current;
+        MappedByteBuffer segment = null;
+        boolean committed = false;
+        try {
+            segment = current.index == segmentIndex ? current.buffer : awaitSegment(segmentIndex);
+
+            segment.put(position + STATUS_OFFSET, status.getCode());
+            segment.put(position + CARGO_SIZE_OFFSET, (byte) (cargoSize == null ? -1 : cargoSize.ordinal()));
+            segment.put(position + DELIVERY_WORKLOAD_OFFSET, (byte) (deliveryWorkload == null ? -1 : deliveryWorkload.ordinal()));
+            segment.put(position + FRAGILE_OFFSET, (byte) (isFragile ? 1 : 0));
+            segment.putLong(position + SEQUENCE_OFFSET, sequence);
+            segment.putLong(position + TIMESTAMP_OFFSET, System.currentTimeMillis());
+            segment.putLong(position + DISTANCE_OFFSET, distance);
+            segment.putInt(position + DISTANCE_SCALE_OFFSET, distanceScale);
+            segment.putLong(position + COST_OFFSET, costKopecks);
+            MARKER.setRelease(segment, position, COMMITTED);
+            committed = true;
+            return sequence;
+        } finally {
+            if (!committed) {
+                if (segment != null) {
+                    abort(segment, position, sequence);
+                } else {
+                    abortedWithoutSegment.add(sequence);
+                    LockSupport.unpark(flusher);
+                }
+            }
+        }
+    }
+
+    /**
+     * Закрывает слот, запись в который не удалась, чтобы сброс и чтение не останавливались на нём.
+     */
+    private static void abort(MappedByteBuffer segment, int position, long sequence) {
+        segment.putLong(position + SEQUENCE_OFFSET, sequence);
+        MARKER.setRelease(segment, position, ABORTED);
+    }
+
+    /**
+     * Сбрасывает на диск записи, завершённые подряд, и возвращает номер первой записи, которая ещё не сброшена.
+     */
+    public long flush() throws IOException {
+        synchronized (flushLock) {
+            long claimed = nextSequence.get();
+            mapAhead(firstSegment + (claimed - firstSequence) / recordsPerSegment + 1);
+            for (Long aborted = abortedWithoutSegment.poll(); aborted != null; aborted = abortedWithoutSegment.poll()) {
+                long offset = aborted - firstSequence;
+                abort(segments.get(firstSegment + offset / recordsPerSegment).buffer,
+                        (int) (offset % recordsPerSegment) * RECORD_SIZE, aborted);
+            }
+
+            long sequence = durableSequence;
+            while (sequence < claimed) {
+                long offset = sequence - firstSequence;
+                long segmentIndex = firstSegment + offset / recordsPerSegment;
+                MappedByteBuffer segment = segments.get(segmentIndex).buffer;
+
+                int from = (int) (offset % recordsPerSegment);
+                int end = (int) Math.min(recordsPerSegment, from + claimed - sequence);
+                int slot = from;
+                while (slot < end && isClosedSlot((int) MARKER.getAcquire(segment, slot * RECORD_SIZE))) {
+                    slot++;
+                }
+                if (slot > from) {
+                    segment.force(from * RECORD_SIZE, (slot - from) * RECORD_SIZE);
+                    sequence += slot - from;
+                }
+                if (slot < recordsPerSegment) {
+                    break;
+                }
+                segments.remove(segmentIndex);
+            }
+            durableSequence = sequence;
+            return sequence;
+        }
+    }
+
+    public long getDurableSequence() {
+        return durableSequence;
+    }
+
+    public long getNextSequence() {
+        return nextSequence.get();
+    }
+
+    public Exception getLastFlushError() {
+        return lastFlushError;
+    }
+
+    /**
+     * Перестаёт принимать записи, дожидается начатых, останавливает фоновый сброс и сбрасывает на диск
+     * все открытые сегменты целиком.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        while (activeWriters.get() != 0) {
+            LockSupport.unpark(flusher);
+            Thread.yield();
+        }
+        stopped = true;
+        LockSupport.unpark(flusher);
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (flushLock) {
+            flush();
+            for (Segment segment : segments.values()) {
+                segment.buffer.force();
+            }
+        }
+    }
+
+    /**
+     * Сегмент для записи при смене сегмента. Открывает его фоновый поток; обычно он уже открыт заранее,
+     * иначе писатель будит фоновый поток и ждёт. Ошибка учитывается, только если она получена при попытке открыть
+     * сегмент, начатой после начала ожидания.
+     */
+    private MappedByteBuffer awaitSegment(long index) {
+        Segment segment = segments.get(index);
+        long attempts = mapAttempts;
+        while (segment == null) {
+            IOException error = mapError;
+            if (error != null && mapAttempts > attempts) {
+                throw new UncheckedIOException(error);
+            }
+            LockSupport.unpark(flusher);
+            Thread.yield();
+            segment = segments.get(index);
+        }
+        if (index > current.index) {
+            current = segment;
+        }
+        return segment.buffer;
+    }
+
+    /**
+     * Открывает все сегменты до {@code lastSegment} включительно. Вызывается под {@code flushLock}.
+     */
+    private void mapAhead(long lastSegment) throws IOException {
+        if (lastMappedSegment >= lastSegment) {
+            return;
+        }
+        try {
+            while (lastMappedSegment < lastSegment) {
+                map(lastMappedSegment + 1);
+                lastMappedSegment++;
+            }
+            mapError = null;
+        } catch (IOException e) {
+            mapError = e;
+            throw e;
+        } finally {
+            mapAttempts++;
+        }
+    }
+
+    private Segment map(long index) throws IOException {
+        try (FileChannel channel = FileChannel.open(
+                directory.resolve(segmentName(index)),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE
+        )) {
+            Segment segment = new Segment(
+                    index, channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) recordsPerSegment * RECORD_SIZE)
+            );
+            segments.put(index, segment);
+            return segment;
+        }
+    }
+
+    private void flushLoop() {
+        while (!stopped) {
+            LockSupport.parkNanos(this, flushIntervalNanos);
+            try {
+                flush();
+                lastFlushError = null;
+            } catch (IOException | UncheckedIOException e) {
+                lastFlushError = e;
+            }
+        }
+    }
+
+    private static int committedRecords(MappedByteBuffer segment) {
+        int records = 0;
+        int capacity = segment.capacity() / RECORD_SIZE;
+        while (records < capacity && isClosedSlot(segment.getInt(records * RECORD_SIZE))) {
+            records++;
+        }
+        return records;
+    }
+
+    private static boolean isClosedSlot(int marker) {
+        return marker == COMMITTED || marker == ABORTED;
+    }
+
+    private static MappedByteBuffer mapReadOnly(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    private static List<Path> segmentFiles(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                    .filter(file -> {
+                        String name = file.getFileName().toString();
+                        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+                    })
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private static String segmentName(long index) {
+        return SEGMENT_PREFIX + String.format("%019d", index) + SEGMENT_SUFFIX;
+    }
+
+    private static long segmentIndex(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private record Segment(long index, MappedByteBuffer buffer) {
+    }
+
+    /**
+     * Последовательное чтение сегментов журнала в порядке их номеров.
+     */
+    public static final class Reader {
+
+        private final List<Path> files;
+        private int fileIndex;
+        private MappedByteBuffer segment;
+        private int position;
+
+        private Reader(List<Path> files) {
+            this.files = files;
+        }
+
+        /**
+         * Возвращает следующую запись или {@code null}, если записи закончились.
+         */
+        public QuoteAuditRecord next() throws IOException {
+            while (segment == null || position + RECORD_SIZE > segment.capacity() || segment.getInt(position) != COMMITTED) {
+                if (segment != null && position + RECORD_SIZE <= segment.capacity() && segment.getInt(position) == ABORTED) {
+                    position += RECORD_SIZE;
+                    continue;
+                }
+                if (fileIndex == files.size()) {
+                    return null;
+                }
+                segment = mapReadOnly(files.get(fileIndex++));
+                position = 0;
+            }
+
+            QuoteAuditRecord record = decode(segment, position);
+            position += RECORD_SIZE;
+            return record;
+        }
+
+        private static QuoteAuditRecord decode(MappedByteBuffer segment, int position) {
+            byte cargoSize = segment.get(position + CARGO_SIZE_OFFSET);
+            byte deliveryWorkload = segment.get(position + DELIVERY_WORKLOAD_OFFSET);
+            int distanceScale = segment.getInt(position + DISTANCE_SCALE_OFFSET);
+            QuoteStatus status = QuoteStatus.fromCode(segment.get(position + STATUS_OFFSET));
+            return new QuoteAuditRecord(
+                    segment.getLong(position + SEQUENCE_OFFSET),
+                    Instant.ofEpochMilli(segment.getLong(position + TIMESTAMP_OFFSET)),
+                    distanceScale == NO_DISTANCE ? null : BigDecimal.valueOf(segment.getLong(position + DISTANCE_OFFSET), distanceScale),
+                    cargoSize < 0 ? null : CARGO_SIZES[cargoSize],
+                    segment.get(position + FRAGILE_OFFSET) != 0,
+                    deliveryWorkload < 0 ? null : DELIVERY_WORKLOADS[deliveryWorkload],
+                    status,
+                    status == QuoteStatus.OK ? BigDecimal.valueOf(segment.getLong(position + COST_OFFSET), Tariff.MONEY_SCALE) : null
+            );
+        }
+    }
+}
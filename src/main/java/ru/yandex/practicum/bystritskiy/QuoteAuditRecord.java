@@ -0,0 +1,16 @@
+package ru.yandex.practicum.bystritskiy;
+
+import ru.yandex.practicum.bystritskiy.enums.CargoSize;
+import ru.yandex.practicum.bystritskiy.enums.DeliveryWorkload;
+import ru.yandex.practicum.bystritskiy.enums.QuoteStatus;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Запись журнала расчётов {@link QuoteAuditJournal}: входные данные, результат и время расчёта.
+ * Стоимость равна {@code null}, если в расчёте отказано.
+ */
+public record QuoteAuditRecord(long sequence, Instant timestamp, BigDecimal distance, CargoSize cargoSize, boolean isFragile,
+                               DeliveryWorkload deliveryWorkload, QuoteStatus status, BigDecimal cost) {
+}
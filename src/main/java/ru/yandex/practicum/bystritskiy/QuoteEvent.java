@@ -0,0 +1,41 @@
+package ru.yandex.practicum.bystritskiy;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Registered;
+import jdk.jfr.StackTrace;
+
+@Name(QuoteEvent.NAME)
+@Label("Delivery Quote")
+@Category("Delivery")
+@Description("Расчёт стоимости доставки: входные данные, полоса расстояния, стоимость или причина отказа")
+@Registered(false)
+@StackTrace(false)
+class QuoteEvent extends Event {
+
+    static final String NAME = "ru.yandex.practicum.bystritskiy.Quote";
+
+    @Label("Distance")
+    String distance;
+
+    @Label("Cargo Size")
+    String cargoSize;
+
+    @Label("Fragile")
+    boolean fragile;
+
+    @Label("Delivery Workload")
+    String deliveryWorkload;
+
+    @Label("Distance Band")
+    int distanceBand;
+
+    @Label("Cost")
+    String cost;
+
+    @Label("Status")
+    String status;
+}
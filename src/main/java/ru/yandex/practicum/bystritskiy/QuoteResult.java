@@ -0,0 +1,34 @@
+package ru.yandex.practicum.bystritskiy;
+
+import ru.yandex.practicum.bystritskiy.enums.QuoteStatus;
+
+import java.math.BigDecimal;
+import java.util.Objects;
+
+public record QuoteResult(QuoteStatus status, BigDecimal cost) {
+
+    private static final QuoteResult[] REJECTED = new QuoteResult[QuoteStatus.values().length];
+
+    static {
+        for (QuoteStatus status : QuoteStatus.values()) {
+            if (status != QuoteStatus.OK) {
+                REJECTED[status.getCode()] = new QuoteResult(status, null);
+            }
+        }
+    }
+
+    public static QuoteResult ok(BigDecimal cost) {
+        return new QuoteResult(QuoteStatus.OK, Objects.requireNonNull(cost, "Стоимость не может быть null"));
+    }
+
+    public static QuoteResult rejected(QuoteStatus status) {
+        if (status == QuoteStatus.OK) {
+            throw new IllegalArgumentException("Отказ не может иметь статус OK");
+        }
+        return REJECTED[status.getCode()];
+    }
+
+    public boolean isOk() {
+        return status == QuoteStatus.OK;
+    }
+}
@@ -0,0 +1,37 @@
+package ru.yandex.practicum.bystritskiy;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Period;
+import jdk.jfr.Registered;
+import jdk.jfr.StackTrace;
+
+@Name(QuoteThroughputEvent.NAME)
+@Label("Delivery Quote Throughput")
+@Category("Delivery")
+@Description("Количество расчётов по уровням загруженности и отказов с момента предыдущего события")
+@Period("1 s")
+@Registered(false)
+@StackTrace(false)
+class QuoteThroughputEvent extends Event {
+
+    static final String NAME = "ru.yandex.practicum.bystritskiy.QuoteThroughput";
+
+    @Label("Normal")
+    long normal;
+
+    @Label("Increased")
+    long increased;
+
+    @Label("High")
+    long high;
+
+    @Label("Very High")
+    long veryHigh;
+
+    @Label("Rejected")
+    long rejected;
+}
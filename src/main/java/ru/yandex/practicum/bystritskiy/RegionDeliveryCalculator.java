@@ -0,0 +1,114 @@
+package ru.yandex.practicum.bystritskiy;
+
+import ru.yandex.practicum.bystritskiy.enums.CargoSize;
+import ru.yandex.practicum.bystritskiy.enums.DeliveryWorkload;
+import ru.yandex.practicum.bystritskiy.enums.QuoteStatus;
+
+import java.math.BigDecimal;
+
+/**
+ * Расчёт стоимости по тарифу региона из {@link RegionTariffStore}. Правила расчёта и проверки такие же,
+ * как у {@link DeliveryCalculator}; для неизвестного региона возвращается {@link QuoteStatus#UNKNOWN_REGION}.
+ */
+public class RegionDeliveryCalculator {
+
+    private final RegionTariffStore store;
+
+    public RegionDeliveryCalculator(RegionTariffStore store) {
+        this.store = store;
+    }
+
+    public BigDecimal calculateDeliveryCost(int region, BigDecimal distance, CargoSize cargoSize, boolean isFragile,
+                                            DeliveryWorkload deliveryWorkload) {
+        QuoteStatus status = checkInput(region, distance, cargoSize, isFragile, deliveryWorkload);
+        if (status != QuoteStatus.OK) {
+            throw toException(status, region);
+        }
+
+        return BigDecimal.valueOf(calculateCostKopecks(region, Tariff.ceilMetres(distance), cargoSize, isFragile, deliveryWorkload),
+                Tariff.MONEY_SCALE);
+    }
+
+    public QuoteResult tryCalculateDeliveryCost(int region, BigDecimal distance, CargoSize cargoSize, boolean isFragile,
+                                                DeliveryWorkload deliveryWorkload) {
+        QuoteStatus status = checkInput(region, distance, cargoSize, isFragile, deliveryWorkload);
+        if (status != QuoteStatus.OK) {
+            return QuoteResult.rejected(status);
+        }
+
+        return QuoteResult.ok(BigDecimal.valueOf(
+                calculateCostKopecks(region, Tariff.ceilMetres(distance), cargoSize, isFragile, deliveryWorkload), Tariff.MONEY_SCALE
+        ));
+    }
+
+    public long calculateDeliveryCostKopecks(int region, long distanceMetres, CargoSize cargoSize, boolean isFragile,
+                                             DeliveryWorkload deliveryWorkload) {
+        QuoteStatus status = store.checkRow(
+                region,
+                distanceMetres,
+                cargoSize == null ? -1 : cargoSize.ordinal(),
+                isFragile,
+                deliveryWorkload == null ? -1 : deliveryWorkload.ordinal()
+        );
+        if (status != QuoteStatus.OK) {
+            throw toException(status, region);
+        }
+
+        return calculateCostKopecks(region, distanceMetres, cargoSize, isFragile, deliveryWorkload);
+    }
+
+    /**
+     * Пакетный расчёт в формате {@link DeliveryCalculator#calculateDeliveryCostsKopecks} с регионом для каждой строки.
+     */
+    public void calculateDeliveryCostsKopecks(int[] regions, long[] distancesMetres, byte[] cargoSizes, long[] fragile,
+                                              byte[] deliveryWorkloads, long[] costs, byte[] statuses) {
+        int size = regions.length;
+        DeliveryCalculator.checkBatchBounds(distancesMetres, cargoSizes, fragile, deliveryWorkloads, costs, statuses, 0, size);
+        for (int i = 0; i < size; i++) {
+            int region = regions[i];
+            long distanceMetres = distancesMetres[i];
+            int cargoSize = cargoSizes[i];
+            boolean isFragile = DeliveryCalculator.isFragile(fragile, i);
+            int deliveryWorkload = deliveryWorkloads[i];
+
+            QuoteStatus status = store.checkRow(region, distanceMetres, cargoSize, isFragile, deliveryWorkload);
+            statuses[i] = status.getCode();
+            costs[i] = status == QuoteStatus.OK
+                    ? store.calculateCostKopecks(
+                    region, store.distanceBand(region, distanceMetres), cargoSize, isFragile, deliveryWorkload)
+                    : 0;
+        }
+    }
+
+    public QuoteStatus checkInput(int region, BigDecimal distance, CargoSize cargoSize, boolean isFragile,
+                                  DeliveryWorkload deliveryWorkload) {
+        if (distance == null) {
+            return QuoteStatus.MISSING_DISTANCE;
+        }
+
+        return store.checkRow(
+                region,
+                Tariff.ceilMetres(distance),
+                cargoSize == null ? -1 : cargoSize.ordinal(),
+                isFragile,
+                deliveryWorkload == null ? -1 : deliveryWorkload.ordinal()
+        );
+    }
+
+    private long calculateCostKopecks(int region, long distanceMetres, CargoSize cargoSize, boolean isFragile,
+                                      DeliveryWorkload deliveryWorkload) {
+        return store.calculateCostKopecks(
+                region, store.distanceBand(region, distanceMetres), cargoSize.ordinal(), isFragile, deliveryWorkload.ordinal()
+        );
+    }
+
+    private RuntimeException toException(QuoteStatus status, int region) {
+        return switch (status) {
+            case UNKNOWN_REGION -> new IllegalArgumentException("Неизвестный регион: " + region);
+            case FRAGILE_TOO_FAR -> new IllegalArgumentException(Tariff.fragileTooFarMessage(
+                    BigDecimal.valueOf(store.maxFragileDistanceMetres(region), Tariff.METRES_SCALE)
+            ));
+            default -> DeliveryCalculator.toException(status, Tariff.defaultTariff());
+        };
+    }
+}
@@ -0,0 +1,158 @@
+package ru.yandex.practicum.bystritskiy;
+
+import ru.yandex.practicum.bystritskiy.enums.CargoSize;
+import ru.yandex.practicum.bystritskiy.enums.DeliveryWorkload;
+import ru.yandex.practicum.bystritskiy.enums.QuoteStatus;
+
+import java.util.List;
+
+/**
+ * Тарифы регионов в плоских примитивных массивах, индексированных номером региона.
+ * Стоимости полос всех регионов лежат подряд в одном массиве: полосы региона {@code r} занимают
+ * {@code [bandOffsets[r], bandOffsets[r + 1])}, его пороги на одну позицию меньше, начиная с {@code thresholdOffsets[r]}.
+ * У отсутствующего региона полос нет. Коэффициенты загруженности хранятся в десятитысячных долях, как в {@link Tariff}.
+ */
+public final class RegionTariffStore {
+
+    private static final int CARGO_SIZE_COUNT = CargoSize.values().length;
+    private static final int DELIVERY_WORKLOAD_COUNT = DeliveryWorkload.values().length;
+    private static final long ARRAY_HEADER_BYTES = 16;
+
+    private final int[] bandOffsets;
+    private final int[] thresholdOffsets;
+    private final long[] distanceThresholdsMetres;
+    private final long[] distanceBandCostsKopecks;
+    private final long[] cargoSizeSurchargesKopecks;
+    private final int[] deliveryWorkloadCoefficients;
+    private final long[] fragileSurchargesKopecks;
+    private final long[] maxFragileDistancesMetres;
+    private final long[] minDeliveryCostsKopecks;
+    private final long coefficientUnit;
+
+    private RegionTariffStore(List<Tariff> tariffs) {
+        int regionCount = tariffs.size();
+        this.bandOffsets = new int[regionCount + 1];
+        for (int region = 0; region < regionCount; region++) {
+            Tariff tariff = tariffs.get(region);
+            bandOffsets[region + 1] = bandOffsets[region] + (tariff == null ? 0 : tariff.getDistanceBandCount());
+        }
+
+        this.thresholdOffsets = new int[regionCount];
+        int thresholdCount = 0;
+        for (int region = 0; region < regionCount; region++) {
+            Tariff tariff = tariffs.get(region);
+            thresholdOffsets[region] = thresholdCount;
+            thresholdCount += tariff == null ? 0 : tariff.distanceThresholdsMetres.length;
+        }
+
+        this.distanceBandCostsKopecks = new long[bandOffsets[regionCount]];
+        this.distanceThresholdsMetres = new long[thresholdCount];
+        this.cargoSizeSurchargesKopecks = new long[regionCount * CARGO_SIZE_COUNT];
+        this.deliveryWorkloadCoefficients = new int[regionCount * DELIVERY_WORKLOAD_COUNT];
+        this.fragileSurchargesKopecks = new long[regionCount];
+        this.maxFragileDistancesMetres = new long[regionCount];
+        this.minDeliveryCostsKopecks = new long[regionCount];
+        this.coefficientUnit = Tariff.defaultTariff().coefficientUnit;
+
+        for (int region = 0; region < regionCount; region++) {
+            Tariff tariff = tariffs.get(region);
+            if (tariff == null) {
+                continue;
+            }
+            System.arraycopy(
+                    tariff.distanceBandCostsKopecks, 0, distanceBandCostsKopecks, bandOffsets[region], tariff.getDistanceBandCount()
+            );
+            System.arraycopy(
+                    tariff.distanceThresholdsMetres, 0, distanceThresholdsMetres, thresholdOffsets[region],
+                    tariff.distanceThresholdsMetres.length
+            );
+            System.arraycopy(
+                    tariff.cargoSizeSurchargesKopecks, 0, cargoSizeSurchargesKopecks, region * CARGO_SIZE_COUNT, CARGO_SIZE_COUNT
+            );
+            for (int workload = 0; workload < DELIVERY_WORKLOAD_COUNT; workload++) {
+                deliveryWorkloadCoefficients[region * DELIVERY_WORKLOAD_COUNT + workload] =
+                        Math.toIntExact(tariff.deliveryWorkloadCoefficients[workload]);
+            }
+            fragileSurchargesKopecks[region] = tariff.fragileSurchargeKopecks;
+            maxFragileDistancesMetres[region] = tariff.maxFragileDistanceMetres;
+            minDeliveryCostsKopecks[region] = tariff.minDeliveryCostKopecks;
+        }
+    }
+
+    /**
+     * Собирает хранилище из тарифов, номер региона — индекс в списке. {@code null} означает отсутствующий регион.
+     */
+    public static RegionTariffStore of(List<Tariff> tariffs) {
+        return new RegionTariffStore(tariffs);
+    }
+
+    public int getRegionCount() {
+        return fragileSurchargesKopecks.length;
+    }
+
+    public boolean hasRegion(int region) {
+        return region >= 0 && region < getRegionCount() && bandOffsets[region + 1] > bandOffsets[region];
+    }
+
+    /**
+     * Приблизительный объём памяти массивов хранилища в байтах.
+     */
+    public long getFootprintBytes() {
+        return 9 * ARRAY_HEADER_BYTES
+                + 4L * (bandOffsets.length + thresholdOffsets.length + deliveryWorkloadCoefficients.length)
+                + 8L * (distanceThresholdsMetres.length + distanceBandCostsKopecks.length + cargoSizeSurchargesKopecks.length
+                + fragileSurchargesKopecks.length + maxFragileDistancesMetres.length + minDeliveryCostsKopecks.length);
+    }
+
+    QuoteStatus checkRow(int region, long distanceMetres, int cargoSize, boolean isFragile, int deliveryWorkload) {
+        if (cargoSize < 0 || cargoSize >= CARGO_SIZE_COUNT) {
+            return QuoteStatus.UNKNOWN_CARGO_SIZE;
+        }
+
+        if (deliveryWorkload < 0 || deliveryWorkload >= DELIVERY_WORKLOAD_COUNT) {
+            return QuoteStatus.UNKNOWN_DELIVERY_WORKLOAD;
+        }
+
+        if (!hasRegion(region)) {
+            return QuoteStatus.UNKNOWN_REGION;
+        }
+
+        if (distanceMetres <= 0) {
+            return QuoteStatus.NON_POSITIVE_DISTANCE;
+        }
+
+        if (isFragile && distanceMetres > maxFragileDistancesMetres[region]) {
+            return QuoteStatus.FRAGILE_TOO_FAR;
+        }
+
+        return QuoteStatus.OK;
+    }
+
+    int distanceBand(int region, long distanceMetres) {
+        int thresholdOffset = thresholdOffsets[region];
+        int thresholdCount = bandOffsets[region + 1] - bandOffsets[region] - 1;
+        int band = 0;
+        while (band < thresholdCount && distanceMetres > distanceThresholdsMetres[thresholdOffset + band]) {
+            band++;
+        }
+        return band;
+    }
+
+    long calculateCostKopecks(int region, int distanceBand, int cargoSize, boolean isFragile, int deliveryWorkload) {
+        long baseCost = distanceBandCostsKopecks[bandOffsets[region] + distanceBand]
+                + cargoSizeSurchargesKopecks[region * CARGO_SIZE_COUNT + cargoSize];
+
+        if (isFragile) {
+            baseCost += fragileSurchargesKopecks[region];
+        }
+
+        long coefficient = deliveryWorkloadCoefficients[region * DELIVERY_WORKLOAD_COUNT + deliveryWorkload];
+        long finalCost = Tariff.divideHalfUp(baseCost * coefficient, coefficientUnit);
+
+        return Math.max(finalCost, minDeliveryCostsKopecks[region]);
+    }
+
+    long maxFragileDistanceMetres(int region) {
+        return maxFragileDistancesMetres[region];
+    }
+}
@@ -0,0 +1,157 @@
+package ru.yandex.practicum.bystritskiy;
+
+import ru.yandex.practicum.bystritskiy.enums.CargoSize;
+import ru.yandex.practicum.bystritskiy.enums.DeliveryWorkload;
+import ru.yandex.practicum.bystritskiy.enums.QuoteStatus;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Калькулятор с тарифом из файла, который перечитывается при изменении файла.
+ * Новый тариф целиком собирается до публикации и подменяется одной атомарной записью,
+ * поэтому расчёт всегда видит либо старый, либо новый тариф и не берёт блокировок.
+ * Если файл не удалось разобрать, остаётся действующий тариф, ошибка доступна через {@link #getLastReloadError()}.
+ * <p>
+ * Файл перечитывается, только когда изменения затихли на {@code quietPeriod}, чтобы не разобрать файл,
+ * который редактор или {@code cp} ещё дописывает частями. Надёжнее всего записывать тариф во временный файл
+ * в том же каталоге и переносить его на место с {@code ATOMIC_MOVE}.
+ */
+public class ReloadableDeliveryCalculator extends DeliveryCalculator implements AutoCloseable {
+
+    public static final Duration DEFAULT_QUIET_PERIOD = Duration.ofMillis(200);
+
+    private final Path file;
+    private final long quietPeriodNanos;
+    private final AtomicReference<Tariff> tariff;
+    private final WatchService watchService;
+    private final Thread watcher;
+    private volatile Exception lastReloadError;
+
+    private ReloadableDeliveryCalculator(Path file, Duration quietPeriod) throws IOException {
+        this.quietPeriodNanos = quietPeriod.toNanos();
+        this.file = file;
+        this.tariff = new AtomicReference<>(Tariff.load(file));
+        this.watchService = file.getFileSystem().newWatchService();
+        try {
+            file.getParent().register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException | RuntimeException e) {
+            watchService.close();
+            throw e;
+        }
+        this.watcher = new Thread(this::watch, "tariff-watcher-" + file.getFileName());
+        this.watcher.setDaemon(true);
+    }
+
+    public static ReloadableDeliveryCalculator open(Path file) throws IOException {
+        return open(file, DEFAULT_QUIET_PERIOD);
+    }
+
+    /**
+     * Загружает тариф из файла и запускает наблюдение за ним. Поток наблюдения стартует только после того,
+     * как калькулятор полностью создан.
+     */
+    public static ReloadableDeliveryCalculator open(Path file, Duration quietPeriod) throws IOException {
+        if (quietPeriod.isNegative()) {
+            throw new IllegalArgumentException("Период затишья не может быть отрицательным");
+        }
+        ReloadableDeliveryCalculator calculator = new ReloadableDeliveryCalculator(file.toAbsolutePath(), quietPeriod);
+        calculator.watcher.start();
+        return calculator;
+    }
+
+    @Override
+    public Tariff getTariff() {
+        return tariff.get();
+    }
+
+    @Override
+    public BigDecimal calculateDeliveryCost(BigDecimal distance, CargoSize cargoSize, boolean isFragile, DeliveryWorkload deliveryWorkload) {
+        Tariff current = tariff.get();
+        QuoteStatus status = current.checkInput(distance, cargoSize, isFragile, deliveryWorkload);
+        if (status != QuoteStatus.OK) {
+            throw toException(status, current);
+        }
+
+        return calculateCost(current, distance, cargoSize, isFragile, deliveryWorkload);
+    }
+
+    @Override
+    public QuoteResult tryCalculateDeliveryCost(BigDecimal distance, CargoSize cargoSize, boolean isFragile, DeliveryWorkload deliveryWorkload) {
+        Tariff current = tariff.get();
+        QuoteStatus status = current.checkInput(distance, cargoSize, isFragile, deliveryWorkload);
+        if (status != QuoteStatus.OK) {
+            return QuoteResult.rejected(status);
+        }
+
+        return QuoteResult.ok(calculateCost(current, distance, cargoSize, isFragile, deliveryWorkload));
+    }
+
+    public boolean reload() {
+        try {
+            tariff.set(Tariff.load(file));
+            lastReloadError = null;
+            return true;
+        } catch (IOException | IllegalArgumentException e) {
+            lastReloadError = e;
+            return false;
+        }
+    }
+
+    public Exception getLastReloadError() {
+        return lastReloadError;
+    }
+
+    @Override
+    public void close() throws IOException {
+        watchService.close();
+    }
+
+    private static BigDecimal calculateCost(Tariff tariff, BigDecimal distance, CargoSize cargoSize, boolean isFragile,
+                                            DeliveryWorkload deliveryWorkload) {
+        long cost = tariff.calculateCostKopecks(
+                tariff.distanceBand(distance), cargoSize.ordinal(), isFragile, deliveryWorkload.ordinal()
+        );
+        return BigDecimal.valueOf(cost, Tariff.MONEY_SCALE);
+    }
+
+    private void watch() {
+        try {
+            while (true) {
+                if (!isTariffChanged(watchService.take())) {
+                    continue;
+                }
+                long quietUntil = System.nanoTime() + quietPeriodNanos;
+                for (long left; (left = quietUntil - System.nanoTime()) > 0; ) {
+                    WatchKey key = watchService.poll(left, TimeUnit.NANOSECONDS);
+                    if (key != null && isTariffChanged(key)) {
+                        quietUntil = System.nanoTime() + quietPeriodNanos;
+                    }
+                }
+                reload();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // Калькулятор закрыт, наблюдение за файлом прекращается.
+        }
+    }
+
+    private boolean isTariffChanged(WatchKey key) {
+        boolean changed = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            changed |= event.kind() == StandardWatchEventKinds.OVERFLOW || file.getFileName().equals(event.context());
+        }
+        key.reset();
+        return changed;
+    }
+}
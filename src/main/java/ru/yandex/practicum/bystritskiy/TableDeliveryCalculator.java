@@ -0,0 +1,69 @@
+package ru.yandex.practicum.bystritskiy;
+
+import ru.yandex.practicum.bystritskiy.enums.CargoSize;
+import ru.yandex.practicum.bystritskiy.enums.DeliveryWorkload;
+import ru.yandex.practicum.bystritskiy.enums.QuoteStatus;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+/**
+ * Калькулятор на основе заранее рассчитанной таблицы решений.
+ * Все возможные результаты (полоса расстояния × габариты × хрупкость × загруженность)
+ * один раз считаются эталонным {@link DeliveryCalculator}, после чего расчёт сводится
+ * к определению полосы расстояния и обращению к массиву.
+ */
+public class TableDeliveryCalculator extends DeliveryCalculator {
+
+    private static final CargoSize[] CARGO_SIZES = CargoSize.values();
+    private static final DeliveryWorkload[] DELIVERY_WORKLOADS = DeliveryWorkload.values();
+
+    private static final BigDecimal[] COSTS = buildTable(new DeliveryCalculator());
+    private static final QuoteResult[] RESULTS = Arrays.stream(COSTS).map(QuoteResult::ok).toArray(QuoteResult[]::new);
+
+    @Override
+    public BigDecimal calculateDeliveryCost(BigDecimal distance, CargoSize cargoSize, boolean isFragile, DeliveryWorkload deliveryWorkload) {
+        validateInput(distance, cargoSize, deliveryWorkload, isFragile);
+
+        return COSTS[tableIndex(distanceBand(distance), cargoSize.ordinal(), isFragile, deliveryWorkload.ordinal())];
+    }
+
+    @Override
+    public QuoteResult tryCalculateDeliveryCost(BigDecimal distance, CargoSize cargoSize, boolean isFragile, DeliveryWorkload deliveryWorkload) {
+        QuoteStatus status = checkInput(distance, cargoSize, isFragile, deliveryWorkload);
+        if (status != QuoteStatus.OK) {
+            return QuoteResult.rejected(status);
+        }
+
+        return RESULTS[tableIndex(distanceBand(distance), cargoSize.ordinal(), isFragile, deliveryWorkload.ordinal())];
+    }
+
+    static int tableIndex(int distanceBand, int cargoSize, boolean isFragile, int deliveryWorkload) {
+        int index = distanceBand * CARGO_SIZES.length + cargoSize;
+        index = index * 2 + (isFragile ? 1 : 0);
+        return index * DELIVERY_WORKLOADS.length + deliveryWorkload;
+    }
+
+    static int tableSize() {
+        return COSTS.length;
+    }
+
+    static BigDecimal tableCost(int index) {
+        return COSTS[index];
+    }
+
+    private static BigDecimal[] buildTable(DeliveryCalculator reference) {
+        BigDecimal[] costs = new BigDecimal[DISTANCE_BAND_COSTS.length * CARGO_SIZES.length * 2 * DELIVERY_WORKLOADS.length];
+        for (int band = 0; band < DISTANCE_BAND_COSTS.length; band++) {
+            for (CargoSize cargoSize : CARGO_SIZES) {
+                for (boolean isFragile : new boolean[]{false, true}) {
+                    for (DeliveryWorkload deliveryWorkload : DELIVERY_WORKLOADS) {
+                        costs[tableIndex(band, cargoSize.ordinal(), isFragile, deliveryWorkload.ordinal())] =
+                                reference.calculateCost(DISTANCE_BAND_COSTS[band], cargoSize, isFragile, deliveryWorkload);
+                    }
+                }
+            }
+        }
+        return costs;
+    }
+}
@@ -0,0 +1,358 @@
+package ru.yandex.practicum.bystritskiy;
+
+import ru.yandex.practicum.bystritskiy.enums.CargoSize;
+import ru.yandex.practicum.bystritskiy.enums.DeliveryWorkload;
+import ru.yandex.practicum.bystritskiy.enums.QuoteStatus;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Неизменяемый тариф, скомпилированный в целочисленные таблицы: расстояния в метрах,
+ * суммы в копейках, коэффициенты загруженности в десятитысячных долях.
+ * <p>
+ * Формат файла тарифа ({@link Properties}):
+ * <pre>
+ * distance.thresholds=2.00,10.00,30.00
+ * distance.costs=50.00,100.00,200.00,300.00
+ * cargo-size.surcharge.SMALL=100.00
+ * cargo-size.surcharge.LARGE=200.00
+ * workload.coefficient.NORMAL=1.00
+ * workload.coefficient.INCREASED=1.20
+ * workload.coefficient.HIGH=1.40
+ * workload.coefficient.VERY_HIGH=1.60
+ * fragile.surcharge=300.00
+ * fragile.max-distance=30.00
+ * min-cost=400.00
+ * </pre>
+ */
+public final class Tariff {
+
+    static final int MONEY_SCALE = 2;
+    static final int METRES_SCALE = 3;
+    static final int COEFFICIENT_SCALE = 4;
+
+    final BigDecimal[] distanceThresholds;
+    final BigDecimal maxFragileDistance;
+
+    final long[] distanceThresholdsMetres;
+    final long[] distanceBandCostsKopecks;
+    final long[] cargoSizeSurchargesKopecks;
+    final long[] deliveryWorkloadCoefficients;
+    final long coefficientUnit;
+    final long fragileSurchargeKopecks;
+    final long maxFragileDistanceMetres;
+    final long minDeliveryCostKopecks;
+
+    /**
+     * Сдвиги и множитель, которыми деление на {@link #coefficientUnit} заменяется умножением:
+     * {@code ((n >>> costReciprocalPreShift) * costReciprocal) >>> costReciprocalShift == n / coefficientUnit}
+     * для любой неотрицательной стоимости с округлением этого тарифа. Ноль, если такого множителя нет в пределах long.
+     */
+    final int costReciprocalPreShift;
+    final long costReciprocal;
+    final int costReciprocalShift;
+
+    private final String fragileTooFarMessage;
+
+    private Tariff(List<BigDecimal> distanceThresholds, List<BigDecimal> distanceBandCosts,
+                   Map<CargoSize, BigDecimal> cargoSizeSurcharges, Map<DeliveryWorkload, BigDecimal> deliveryWorkloadCoefficients,
+                   BigDecimal fragileSurcharge, BigDecimal maxFragileDistance, BigDecimal minDeliveryCost) {
+        if (distanceBandCosts.size() != distanceThresholds.size() + 1) {
+            throw new IllegalArgumentException("Количество стоимостей по расстоянию должно быть на 1 больше количества порогов");
+        }
+
+        this.distanceThresholds = distanceThresholds.toArray(BigDecimal[]::new);
+        this.maxFragileDistance = maxFragileDistance;
+
+        this.distanceThresholdsMetres = new long[this.distanceThresholds.length];
+        for (int i = 0; i < this.distanceThresholds.length; i++) {
+            distanceThresholdsMetres[i] = toFixedPoint(this.distanceThresholds[i], METRES_SCALE, "distance.thresholds");
+            if (distanceThresholdsMetres[i] <= (i == 0 ? 0 : distanceThresholdsMetres[i - 1])) {
+                throw new IllegalArgumentException("Пороги расстояния должны быть положительными и строго возрастать");
+            }
+        }
+
+        this.distanceBandCostsKopecks = new long[distanceBandCosts.size()];
+        for (int i = 0; i < distanceBandCosts.size(); i++) {
+            distanceBandCostsKopecks[i] = toFixedPoint(distanceBandCosts.get(i), MONEY_SCALE, "distance.costs");
+        }
+
+        this.cargoSizeSurchargesKopecks = new long[CargoSize.values().length];
+        for (CargoSize cargoSize : CargoSize.values()) {
+            cargoSizeSurchargesKopecks[cargoSize.ordinal()] =
+                    toFixedPoint(cargoSizeSurcharges.get(cargoSize), MONEY_SCALE, "cargo-size.surcharge." + cargoSize);
+        }
+
+        this.deliveryWorkloadCoefficients = new long[DeliveryWorkload.values().length];
+        for (DeliveryWorkload deliveryWorkload : DeliveryWorkload.values()) {
+            this.deliveryWorkloadCoefficients[deliveryWorkload.ordinal()] = toFixedPoint(
+                    deliveryWorkloadCoefficients.get(deliveryWorkload), COEFFICIENT_SCALE, "workload.coefficient." + deliveryWorkload
+            );
+        }
+
+        this.coefficientUnit = BigDecimal.ONE.movePointRight(COEFFICIENT_SCALE).longValueExact();
+        this.fragileSurchargeKopecks = toFixedPoint(fragileSurcharge, MONEY_SCALE, "fragile.surcharge");
+        this.maxFragileDistanceMetres = toFixedPoint(maxFragileDistance, METRES_SCALE, "fragile.max-distance");
+        this.minDeliveryCostKopecks = toFixedPoint(minDeliveryCost, MONEY_SCALE, "min-cost");
+        this.fragileTooFarMessage = fragileTooFarMessage(maxFragileDistance);
+
+        // Степень двойки из делителя снимается точным сдвигом, остаток делится умножением на обратное число.
+        this.costReciprocalPreShift = Long.numberOfTrailingZeros(coefficientUnit);
+        long divisor = coefficientUnit >>> costReciprocalPreShift;
+        long maxDividend = maxRoundedCostNumerator() >> costReciprocalPreShift;
+        long reciprocal = 0;
+        int shift = 0;
+        for (int candidate = 0; maxDividend >= 0 && candidate < Long.SIZE - 1; candidate++) {
+            long power = 1L << candidate;
+            long multiplier = (power + divisor - 1) / divisor;
+            long error = multiplier * divisor - power;
+            // Сдвиг точен, пока накопленная ошибка n * error меньше 2^shift, а произведение n * multiplier помещается в long.
+            if (fitsInLong(maxDividend, multiplier) && fitsInLong(maxDividend, error) && maxDividend * error < power) {
+                reciprocal = multiplier;
+                shift = candidate;
+                break;
+            }
+        }
+        this.costReciprocal = reciprocal;
+        this.costReciprocalShift = shift;
+    }
+
+    private static boolean fitsInLong(long left, long right) {
+        return Math.multiplyHigh(left, right) == 0 && left * right >= 0;
+    }
+
+    /**
+     * Наибольшее делимое округления стоимости: самая дорогая полоса с самой дорогой надбавкой за габариты и хрупкость,
+     * умноженная на наибольший коэффициент, плюс половина делителя. {@code -1}, если оно не помещается в long.
+     */
+    private long maxRoundedCostNumerator() {
+        try {
+            long baseCost = Math.addExact(
+                    Math.addExact(Arrays.stream(distanceBandCostsKopecks).max().orElse(0),
+                            Arrays.stream(cargoSizeSurchargesKopecks).max().orElse(0)),
+                    fragileSurchargeKopecks
+            );
+            return Math.addExact(
+                    Math.multiplyExact(baseCost, Arrays.stream(deliveryWorkloadCoefficients).max().orElse(0)),
+                    coefficientUnit / 2
+            );
+        } catch (ArithmeticException e) {
+            return -1;
+        }
+    }
+
+    public static Tariff of(List<BigDecimal> distanceThresholds, List<BigDecimal> distanceBandCosts,
+                            Map<CargoSize, BigDecimal> cargoSizeSurcharges, Map<DeliveryWorkload, BigDecimal> deliveryWorkloadCoefficients,
+                            BigDecimal fragileSurcharge, BigDecimal maxFragileDistance, BigDecimal minDeliveryCost) {
+        return new Tariff(
+                distanceThresholds, distanceBandCosts, cargoSizeSurcharges, deliveryWorkloadCoefficients,
+                fragileSurcharge, maxFragileDistance, minDeliveryCost
+        );
+    }
+
+    public static Tariff defaultTariff() {
+        return DeliveryCalculator.TARIFF;
+    }
+
+    public static Tariff load(Path file) throws IOException {
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        }
+        return fromProperties(properties);
+    }
+
+    public static Tariff fromProperties(Properties properties) {
+        Map<CargoSize, BigDecimal> cargoSizeSurcharges = new EnumMap<>(CargoSize.class);
+        for (CargoSize cargoSize : CargoSize.values()) {
+            cargoSizeSurcharges.put(cargoSize, decimal(properties, "cargo-size.surcharge." + cargoSize));
+        }
+
+        Map<DeliveryWorkload, BigDecimal> deliveryWorkloadCoefficients = new EnumMap<>(DeliveryWorkload.class);
+        for (DeliveryWorkload deliveryWorkload : DeliveryWorkload.values()) {
+            deliveryWorkloadCoefficients.put(deliveryWorkload, decimal(properties, "workload.coefficient." + deliveryWorkload));
+        }
+
+        return new Tariff(
+                decimals(properties, "distance.thresholds"),
+                decimals(properties, "distance.costs"),
+                cargoSizeSurcharges,
+                deliveryWorkloadCoefficients,
+                decimal(properties, "fragile.surcharge"),
+                decimal(properties, "fragile.max-distance"),
+                decimal(properties, "min-cost")
+        );
+    }
+
+    public QuoteStatus checkInput(BigDecimal distance, CargoSize cargoSize, boolean isFragile, DeliveryWorkload deliveryWorkload) {
+        if (distance == null) {
+            return QuoteStatus.MISSING_DISTANCE;
+        }
+
+        if (cargoSize == null) {
+            return QuoteStatus.UNKNOWN_CARGO_SIZE;
+        }
+
+        if (deliveryWorkload == null) {
+            return QuoteStatus.UNKNOWN_DELIVERY_WORKLOAD;
+        }
+
+        if (distance.signum() <= 0) {
+            return QuoteStatus.NON_POSITIVE_DISTANCE;
+        }
+
+        if (isFragile && distance.compareTo(maxFragileDistance) > 0) {
+            return QuoteStatus.FRAGILE_TOO_FAR;
+        }
+
+        return QuoteStatus.OK;
+    }
+
+    public QuoteStatus checkInput(long distanceMetres, CargoSize cargoSize, boolean isFragile, DeliveryWorkload deliveryWorkload) {
+        return checkRow(
+                distanceMetres,
+                cargoSize == null ? -1 : cargoSize.ordinal(),
+                isFragile,
+                deliveryWorkload == null ? -1 : deliveryWorkload.ordinal()
+        );
+    }
+
+    QuoteStatus checkRow(long distanceMetres, int cargoSize, boolean isFragile, int deliveryWorkload) {
+        if (cargoSize < 0 || cargoSize >= cargoSizeSurchargesKopecks.length) {
+            return QuoteStatus.UNKNOWN_CARGO_SIZE;
+        }
+
+        if (deliveryWorkload < 0 || deliveryWorkload >= deliveryWorkloadCoefficients.length) {
+            return QuoteStatus.UNKNOWN_DELIVERY_WORKLOAD;
+        }
+
+        if (distanceMetres <= 0) {
+            return QuoteStatus.NON_POSITIVE_DISTANCE;
+        }
+
+        if (isFragile && distanceMetres > maxFragileDistanceMetres) {
+            return QuoteStatus.FRAGILE_TOO_FAR;
+        }
+
+        return QuoteStatus.OK;
+    }
+
+    public int distanceBand(BigDecimal distance) {
+        int band = 0;
+        while (band < distanceThresholds.length && distance.compareTo(distanceThresholds[band]) > 0) {
+            band++;
+        }
+        return band;
+    }
+
+    public int distanceBand(long distanceMetres) {
+        int band = 0;
+        while (band < distanceThresholdsMetres.length && distanceMetres > distanceThresholdsMetres[band]) {
+            band++;
+        }
+        return band;
+    }
+
+    public int getDistanceBandCount() {
+        return distanceBandCostsKopecks.length;
+    }
+
+    long calculateCostKopecks(int distanceBand, int cargoSize, boolean isFragile, int deliveryWorkload) {
+        return calculateCostKopecks(baseCostKopecks(distanceBand, cargoSize, isFragile), deliveryWorkload);
+    }
+
+    long baseCostKopecks(int distanceBand, int cargoSize, boolean isFragile) {
+        long baseCost = distanceBandCostsKopecks[distanceBand] + cargoSizeSurchargesKopecks[cargoSize];
+
+        if (isFragile) {
+            baseCost += fragileSurchargeKopecks;
+        }
+
+        return baseCost;
+    }
+
+    long calculateCostKopecks(long baseCostKopecks, int deliveryWorkload) {
+        long finalCost = divideHalfUp(baseCostKopecks * deliveryWorkloadCoefficients[deliveryWorkload], coefficientUnit);
+
+        return Math.max(finalCost, minDeliveryCostKopecks);
+    }
+
+    String fragileTooFarMessage() {
+        return fragileTooFarMessage;
+    }
+
+    static String fragileTooFarMessage(BigDecimal maxFragileDistance) {
+        return "Хрупкие грузы нельзя возить на расстояние более " + maxFragileDistance.stripTrailingZeros().toPlainString() + " км";
+    }
+
+    /**
+     * Переводит расстояние в метры с округлением вверх. Пороги тарифа задаются целыми метрами, поэтому
+     * сравнения «больше порога» и «больше нуля» дают тот же результат, что и для исходного расстояния.
+     */
+    static long ceilMetres(BigDecimal distance) {
+        if (distance.signum() <= 0) {
+            return 0;
+        }
+        BigDecimal metres = distance.movePointRight(METRES_SCALE).setScale(0, RoundingMode.CEILING);
+        return metres.unscaledValue().bitLength() < Long.SIZE ? metres.longValue() : Long.MAX_VALUE;
+    }
+
+    static long divideHalfUp(long value, long divisor) {
+        long half = divisor / 2;
+        return value >= 0 ? (value + half) / divisor : -((half - value) / divisor);
+    }
+
+    private static long toFixedPoint(BigDecimal value, int scale, String name) {
+        if (value == null) {
+            throw new IllegalArgumentException("Не задан параметр тарифа: " + name);
+        }
+        if (value.signum() < 0) {
+            throw new IllegalArgumentException("Параметр тарифа не может быть отрицательным: " + name);
+        }
+        try {
+            return value.movePointRight(scale).longValueExact();
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Слишком высокая точность параметра тарифа: " + name, e);
+        }
+    }
+
+    private static BigDecimal decimal(Properties properties, String name) {
+        String value = properties.getProperty(name);
+        if (value == null) {
+            throw new IllegalArgumentException("Не задан параметр тарифа: " + name);
+        }
+        try {
+            return new BigDecimal(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Некорректное значение параметра тарифа: " + name, e);
+        }
+    }
+
+    private static List<BigDecimal> decimals(Properties properties, String name) {
+        String value = properties.getProperty(name);
+        if (value == null) {
+            throw new IllegalArgumentException("Не задан параметр тарифа: " + name);
+        }
+        List<BigDecimal> values = new ArrayList<>();
+        for (String item : value.split(",")) {
+            try {
+                values.add(new BigDecimal(item.trim()));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Некорректное значение параметра тарифа: " + name, e);
+            }
+        }
+        return values;
+    }
+}
@@ -0,0 +1,123 @@
+package ru.yandex.practicum.bystritskiy;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+import ru.yandex.practicum.bystritskiy.enums.QuoteStatus;
+
+import java.util.Arrays;
+
+/**
+ * Векторное ядро пакетного расчёта. Строки обрабатываются блоками по {@link #BLOCK}:
+ * ординалы габаритов и загруженности читаются одним байтовым вектором и расширяются до long,
+ * блок с хотя бы одной некорректной строкой пересчитывается скалярным циклом.
+ * Округление делится умножением на {@link Tariff#costReciprocal}; тариф, для которого такого множителя нет,
+ * считается скалярным циклом целиком.
+ * Загружается только из {@link VectorDeliveryCalculator}, когда модуль доступен.
+ */
+final class VectorBatchPricer {
+
+    private static final VectorSpecies<Byte> BYTE_SPECIES = ByteVector.SPECIES_64;
+    private static final int BLOCK = BYTE_SPECIES.length();
+
+    private static final VectorSpecies<Long> SPECIES = LongVector.SPECIES_PREFERRED.length() <= BLOCK
+            ? LongVector.SPECIES_PREFERRED
+            : LongVector.SPECIES_512;
+    private static final int LANES = SPECIES.length();
+    private static final int PARTS = BLOCK / LANES;
+    private static final long LANE_MASK = (1L << LANES) - 1;
+
+    private static final byte OK = QuoteStatus.OK.getCode();
+
+    private VectorBatchPricer() {
+    }
+
+    static void calculateCostsKopecks(Tariff tariff, long[] distancesMetres, byte[] cargoSizes, long[] fragile, byte[] deliveryWorkloads,
+                                      long[] costs, byte[] statuses, int from, int to) {
+        long[] distanceThresholds = tariff.distanceThresholdsMetres;
+        long[] distanceBandCosts = tariff.distanceBandCostsKopecks;
+        long[] cargoSizeSurcharges = tariff.cargoSizeSurchargesKopecks;
+        long[] deliveryWorkloadCoefficients = tariff.deliveryWorkloadCoefficients;
+        if (tariff.costReciprocal == 0) {
+            DeliveryCalculator.calculateCostsKopecks(
+                    tariff, distancesMetres, cargoSizes, fragile, deliveryWorkloads, costs, statuses, from, to
+            );
+            return;
+        }
+
+        int i = from;
+        for (int upperBound = to - BLOCK; i <= upperBound; i += BLOCK) {
+            ByteVector blockCargoSizes = ByteVector.fromArray(BYTE_SPECIES, cargoSizes, i);
+            ByteVector blockWorkloads = ByteVector.fromArray(BYTE_SPECIES, deliveryWorkloads, i);
+            long blockFragile = fragileBits(fragile, i);
+
+            for (int part = 0; part < PARTS; part++) {
+                int row = i + part * LANES;
+                LongVector distance = LongVector.fromArray(SPECIES, distancesMetres, row);
+                LongVector cargoSize = (LongVector) blockCargoSizes.convertShape(VectorOperators.B2L, SPECIES, part);
+                LongVector deliveryWorkload = (LongVector) blockWorkloads.convertShape(VectorOperators.B2L, SPECIES, part);
+                VectorMask<Long> isFragile = VectorMask.fromLong(SPECIES, (blockFragile >>> (part * LANES)) & LANE_MASK);
+
+                VectorMask<Long> invalid = distance.compare(VectorOperators.LE, 0)
+                        .or(isFragile.and(distance.compare(VectorOperators.GT, tariff.maxFragileDistanceMetres)))
+                        .or(outOfRange(cargoSize, cargoSizeSurcharges.length))
+                        .or(outOfRange(deliveryWorkload, deliveryWorkloadCoefficients.length));
+                if (invalid.anyTrue()) {
+                    DeliveryCalculator.calculateCostsKopecks(
+                            tariff, distancesMetres, cargoSizes, fragile, deliveryWorkloads, costs, statuses, row, row + LANES
+                    );
+                    continue;
+                }
+
+                LongVector baseCost = LongVector.broadcast(SPECIES, distanceBandCosts[0]);
+                for (int band = 0; band < distanceThresholds.length; band++) {
+                    baseCost = baseCost.blend(
+                            distanceBandCosts[band + 1],
+                            distance.compare(VectorOperators.GT, distanceThresholds[band])
+                    );
+                }
+                baseCost = baseCost
+                        .add(lookup(cargoSize, cargoSizeSurcharges))
+                        .add(tariff.fragileSurchargeKopecks, isFragile);
+
+                // Стоимость до минимума неотрицательна, поэтому округление HALF_UP сводится к сдвигу на половину делителя,
+                // а деление, у которого нет векторной инструкции, — к умножению на обратное число и сдвигу.
+                LongVector finalCost = baseCost
+                        .mul(lookup(deliveryWorkload, deliveryWorkloadCoefficients))
+                        .add(tariff.coefficientUnit / 2)
+                        .lanewise(VectorOperators.LSHR, tariff.costReciprocalPreShift)
+                        .mul(tariff.costReciprocal)
+                        .lanewise(VectorOperators.LSHR, tariff.costReciprocalShift);
+
+                finalCost.max(tariff.minDeliveryCostKopecks).intoArray(costs, row);
+                Arrays.fill(statuses, row, row + LANES, OK);
+            }
+        }
+
+        DeliveryCalculator.calculateCostsKopecks(tariff, distancesMetres, cargoSizes, fragile, deliveryWorkloads, costs, statuses, i, to);
+    }
+
+    private static VectorMask<Long> outOfRange(LongVector ordinal, int size) {
+        return ordinal.compare(VectorOperators.LT, 0).or(ordinal.compare(VectorOperators.GE, size));
+    }
+
+    private static LongVector lookup(LongVector ordinal, long[] table) {
+        LongVector result = LongVector.broadcast(SPECIES, table[0]);
+        for (int i = 1; i < table.length; i++) {
+            result = result.blend(table[i], ordinal.compare(VectorOperators.EQ, i));
+        }
+        return result;
+    }
+
+    private static long fragileBits(long[] fragile, int index) {
+        int word = index >>> 6;
+        int shift = index & 63;
+        long bits = word < fragile.length ? fragile[word] >>> shift : 0;
+        if (shift > Long.SIZE - BLOCK && word + 1 < fragile.length) {
+            bits |= fragile[word + 1] << (Long.SIZE - shift);
+        }
+        return bits & ((1L << BLOCK) - 1);
+    }
+}
@@ -0,0 +1,29 @@
+package ru.yandex.practicum.bystritskiy;
+
+/**
+ * Калькулятор с пакетным расчётом на SIMD-инструкциях через jdk.incubator.vector.
+ * Если модуль не подключён ({@code --add-modules jdk.incubator.vector}),
+ * пакетный расчёт выполняется скалярным циклом {@link DeliveryCalculator}.
+ */
+public class VectorDeliveryCalculator extends DeliveryCalculator {
+
+    private static final boolean VECTOR_API_AVAILABLE =
+            ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+
+    public static boolean isVectorApiAvailable() {
+        return VECTOR_API_AVAILABLE;
+    }
+
+    @Override
+    public void calculateDeliveryCostsKopecks(long[] distancesMetres, byte[] cargoSizes, long[] fragile, byte[] deliveryWorkloads,
+                                              long[] costs, byte[] statuses, int from, int to) {
+        if (!VECTOR_API_AVAILABLE) {
+            super.calculateDeliveryCostsKopecks(distancesMetres, cargoSizes, fragile, deliveryWorkloads, costs, statuses, from, to);
+            return;
+        }
+
+        checkBatchBounds(distancesMetres, cargoSizes, fragile, deliveryWorkloads, costs, statuses, from, to);
+
+        VectorBatchPricer.calculateCostsKopecks(getTariff(), distancesMetres, cargoSizes, fragile, deliveryWorkloads, costs, statuses, from, to);
+    }
+}
@@ -0,0 +1,55 @@
+package ru.yandex.practicum.bystritskiy;
+
+import ru.yandex.practicum.bystritskiy.enums.CargoSize;
+import ru.yandex.practicum.bystritskiy.enums.DeliveryWorkload;
+import ru.yandex.practicum.bystritskiy.enums.QuoteStatus;
+
+import java.math.BigDecimal;
+
+/**
+ * Расчёт стоимости по зоне доставки: загруженность берётся из {@link ZoneWorkloadRegistry}
+ * в момент расчёта, а не передаётся вызывающим.
+ */
+public class ZoneDeliveryCalculator {
+
+    private static final DeliveryWorkload[] DELIVERY_WORKLOADS = DeliveryWorkload.values();
+
+    private final DeliveryCalculator calculator;
+    private final ZoneWorkloadRegistry registry;
+
+    public ZoneDeliveryCalculator(DeliveryCalculator calculator, ZoneWorkloadRegistry registry) {
+        this.calculator = calculator;
+        this.registry = registry;
+    }
+
+    /**
+     * @throws IllegalArgumentException если загруженность зоны неизвестна
+     */
+    public BigDecimal calculateDeliveryCost(BigDecimal distance, CargoSize cargoSize, boolean isFragile, int zoneId) {
+        return calculator.calculateDeliveryCost(distance, cargoSize, isFragile, workload(zoneId));
+    }
+
+    public QuoteResult tryCalculateDeliveryCost(BigDecimal distance, CargoSize cargoSize, boolean isFragile, int zoneId) {
+        byte ordinal = registry.getOrdinal(zoneId);
+        if (ordinal == ZoneWorkloadRegistry.UNKNOWN_ZONE) {
+            return QuoteResult.rejected(QuoteStatus.UNKNOWN_DELIVERY_WORKLOAD);
+        }
+
+        return calculator.tryCalculateDeliveryCost(distance, cargoSize, isFragile, DELIVERY_WORKLOADS[ordinal]);
+    }
+
+    /**
+     * @throws IllegalArgumentException если загруженность зоны неизвестна
+     */
+    public long calculateDeliveryCostKopecks(long distanceMetres, CargoSize cargoSize, boolean isFragile, int zoneId) {
+        return calculator.calculateDeliveryCostKopecks(distanceMetres, cargoSize, isFragile, workload(zoneId));
+    }
+
+    private DeliveryWorkload workload(int zoneId) {
+        byte ordinal = registry.getOrdinal(zoneId);
+        if (ordinal == ZoneWorkloadRegistry.UNKNOWN_ZONE) {
+            throw new IllegalArgumentException("Неизвестна загруженность зоны доставки " + zoneId);
+        }
+        return DELIVERY_WORKLOADS[ordinal];
+    }
+}
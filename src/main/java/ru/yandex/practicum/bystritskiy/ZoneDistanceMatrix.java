@@ -0,0 +1,205 @@
+package ru.yandex.practicum.bystritskiy;
+
+import java.util.Arrays;
+
+/**
+ * Расстояния между центрами зон доставки. Для популярных зон матрица расстояний между ними считается заранее,
+ * остальные пары считаются по запросу и хранятся в ограниченном кеше. Кеш разбит на независимые сегменты,
+ * чтобы потоки с разными парами зон не ждали друг друга. Сегмент — таблица с открытой адресацией на массивах
+ * {@code long}, поэтому поиск в кеше не создаёт объектов.
+ */
+public class ZoneDistanceMatrix {
+
+    private static final int CACHE_SEGMENTS = 16;
+
+    private final double[] latitudes;
+    private final double[] longitudes;
+    private final GeoDistance distance;
+    private final int[] hotIndexes;
+    private final int hotZoneCount;
+    private final int[] hotDistancesMetres;
+    private final Segment[] segments = new Segment[CACHE_SEGMENTS];
+
+    /**
+     * @param latitudes     широты центров зон, номер зоны — индекс в массиве
+     * @param longitudes    долготы центров зон
+     * @param hotZones      зоны, расстояния между которыми считаются заранее
+     * @param cacheCapacity наибольшее количество остальных пар в кеше
+     */
+    public ZoneDistanceMatrix(double[] latitudes, double[] longitudes, int[] hotZones, int cacheCapacity, GeoDistance distance) {
+        if (latitudes.length != longitudes.length) {
+            throw new IllegalArgumentException("Количество широт и долгот зон должно совпадать");
+        }
+        if (cacheCapacity < 0) {
+            throw new IllegalArgumentException("Размер кеша не может быть отрицательным");
+        }
+        for (int zone = 0; zone < latitudes.length; zone++) {
+            GeoDistance.checkCoordinates(latitudes[zone], longitudes[zone]);
+        }
+
+        this.latitudes = latitudes.clone();
+        this.longitudes = longitudes.clone();
+        this.distance = distance;
+        this.hotIndexes = new int[latitudes.length];
+        Arrays.fill(hotIndexes, -1);
+        int[] hotZoneIds = new int[hotZones.length];
+        int hotCount = 0;
+        for (int zone : hotZones) {
+            checkZone(zone);
+            if (hotIndexes[zone] < 0) {
+                hotZoneIds[hotCount] = zone;
+                hotIndexes[zone] = hotCount++;
+            }
+        }
+        this.hotZoneCount = hotCount;
+        this.hotDistancesMetres = new int[hotCount * hotCount];
+        for (int from = 0; from < hotCount; from++) {
+            for (int to = 0; to < hotCount; to++) {
+                hotDistancesMetres[from * hotCount + to] = Math.toIntExact(compute(hotZoneIds[from], hotZoneIds[to]));
+            }
+        }
+        int segmentCapacity = (cacheCapacity + CACHE_SEGMENTS - 1) / CACHE_SEGMENTS;
+        for (int i = 0; i < CACHE_SEGMENTS; i++) {
+            segments[i] = new Segment(segmentCapacity);
+        }
+    }
+
+    public long distanceMetres(int fromZone, int toZone) {
+        checkZone(fromZone);
+        checkZone(toZone);
+
+        int hotFrom = hotIndexes[fromZone];
+        int hotTo = hotIndexes[toZone];
+        if (hotFrom >= 0 && hotTo >= 0) {
+            return hotDistancesMetres[hotFrom * hotZoneCount + hotTo];
+        }
+
+        long key = (long) fromZone << 32 | toZone;
+        long hash = key * 0x9E3779B97F4A7C15L;
+        Segment segment = segments[Long.hashCode(hash) & (CACHE_SEGMENTS - 1)];
+        synchronized (segment) {
+            long cached = segment.get(key, hash);
+            if (cached >= 0) {
+                return cached;
+            }
+        }
+        long metres = compute(fromZone, toZone);
+        synchronized (segment) {
+            segment.put(key, hash, metres);
+        }
+        return metres;
+    }
+
+    public boolean hasZone(int zone) {
+        return zone >= 0 && zone < latitudes.length;
+    }
+
+    public int getZoneCount() {
+        return latitudes.length;
+    }
+
+    public int getHotZoneCount() {
+        return hotZoneCount;
+    }
+
+    public int getCachedPairCount() {
+        int count = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                count += segment.size();
+            }
+        }
+        return count;
+    }
+
+    private long compute(int fromZone, int toZone) {
+        return distance.distanceMetres(latitudes[fromZone], longitudes[fromZone], latitudes[toZone], longitudes[toZone]);
+    }
+
+    private void checkZone(int zone) {
+        if (!hasZone(zone)) {
+            throw new IllegalArgumentException("Неизвестная зона доставки: " + zone);
+        }
+    }
+
+    /**
+     * Сегмент кеша: пара ищется в окне из {@link #WAYS} соседних ячеек, при вставке в заполненное окно
+     * вытесняется ячейка, к которой дольше всего не обращались.
+     */
+    private static final class Segment {
+
+        private static final int WAYS = 4;
+        private static final long EMPTY = -1;
+
+        private final long[] keys;
+        private final long[] values;
+        private final long[] usedAt;
+        private long clock;
+
+        private Segment(int capacity) {
+            this.keys = new long[capacity];
+            this.values = new long[capacity];
+            this.usedAt = new long[capacity];
+            Arrays.fill(keys, EMPTY);
+        }
+
+        /**
+         * Возвращает расстояние из кеша или {@code -1}, если пары в кеше нет.
+         */
+        private long get(long key, long hash) {
+            int start = start(hash);
+            for (int way = 0; way < ways(); way++) {
+                int slot = slot(start, way);
+                if (keys[slot] == key) {
+                    usedAt[slot] = ++clock;
+                    return values[slot];
+                }
+            }
+            return -1;
+        }
+
+        private void put(long key, long hash, long value) {
+            int start = start(hash);
+            int victim = -1;
+            for (int way = 0; way < ways(); way++) {
+                int slot = slot(start, way);
+                if (keys[slot] == key || keys[slot] == EMPTY) {
+                    victim = slot;
+                    break;
+                }
+                if (victim < 0 || usedAt[slot] < usedAt[victim]) {
+                    victim = slot;
+                }
+            }
+            if (victim < 0) {
+                return;
+            }
+            keys[victim] = key;
+            values[victim] = value;
+            usedAt[victim] = ++clock;
+        }
+
+        private int size() {
+            int size = 0;
+            for (long key : keys) {
+                if (key != EMPTY) {
+                    size++;
+                }
+            }
+            return size;
+        }
+
+        private int ways() {
+            return Math.min(WAYS, keys.length);
+        }
+
+        private int start(long hash) {
+            return (int) (((hash >>> 32) * keys.length) >>> 32);
+        }
+
+        private int slot(int start, int way) {
+            int slot = start + way;
+            return slot < keys.length ? slot : slot - keys.length;
+        }
+    }
+}
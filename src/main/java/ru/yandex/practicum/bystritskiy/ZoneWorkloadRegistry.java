@@ -0,0 +1,146 @@
+package ru.yandex.practicum.bystritskiy;
+
+import ru.yandex.practicum.bystritskiy.enums.DeliveryWorkload;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+
+/**
+ * Текущая загруженность по зонам доставки. Зоны хранятся в хеш-таблице с открытой адресацией
+ * из массива идентификаторов и массива ordinal загруженности. Чтение не берёт блокировок и не создаёт объектов:
+ * ячейки читаются с семантикой acquire, запись значения публикуется с release. Изменения сериализуются между собой,
+ * при расширении таблица строится заново и публикуется одной записью.
+ */
+public class ZoneWorkloadRegistry {
+
+    public static final byte UNKNOWN_ZONE = -1;
+
+    private static final VarHandle INTS = MethodHandles.arrayElementVarHandle(int[].class);
+    private static final VarHandle BYTES = MethodHandles.arrayElementVarHandle(byte[].class);
+    private static final DeliveryWorkload[] DELIVERY_WORKLOADS = DeliveryWorkload.values();
+    private static final int EMPTY = -1;
+    private static final int MIN_CAPACITY = 16;
+
+    private volatile Table table;
+    private int size;
+
+    public ZoneWorkloadRegistry() {
+        this(MIN_CAPACITY);
+    }
+
+    public ZoneWorkloadRegistry(int expectedZones) {
+        this.table = new Table(capacityFor(expectedZones));
+    }
+
+    public DeliveryWorkload get(int zoneId) {
+        byte ordinal = getOrdinal(zoneId);
+        return ordinal == UNKNOWN_ZONE ? null : DELIVERY_WORKLOADS[ordinal];
+    }
+
+    /**
+     * Возвращает ordinal загруженности зоны или {@link #UNKNOWN_ZONE}.
+     */
+    public byte getOrdinal(int zoneId) {
+        if (zoneId < 0) {
+            return UNKNOWN_ZONE;
+        }
+
+        Table current = table;
+        int[] zoneIds = current.zoneIds;
+        int mask = zoneIds.length - 1;
+        for (int slot = hash(zoneId) & mask; ; slot = (slot + 1) & mask) {
+            int id = (int) INTS.getAcquire(zoneIds, slot);
+            if (id == zoneId) {
+                return (byte) BYTES.getAcquire(current.ordinals, slot);
+            }
+            if (id == EMPTY) {
+                return UNKNOWN_ZONE;
+            }
+        }
+    }
+
+    /**
+     * Устанавливает загруженность зоны и возвращает предыдущую или {@code null}, если зона была неизвестна.
+     */
+    public synchronized DeliveryWorkload put(int zoneId, DeliveryWorkload deliveryWorkload) {
+        if (zoneId < 0) {
+            throw new IllegalArgumentException("Идентификатор зоны не может быть отрицательным");
+        }
+        if (deliveryWorkload == null) {
+            throw new NullPointerException("Загруженность не может быть null");
+        }
+
+        Table current = table;
+        int slot = find(current.zoneIds, zoneId);
+        if (current.zoneIds[slot] == zoneId) {
+            byte previous = current.ordinals[slot];
+            BYTES.setRelease(current.ordinals, slot, (byte) deliveryWorkload.ordinal());
+            return DELIVERY_WORKLOADS[previous];
+        }
+
+        if ((size + 1) * 2 > current.zoneIds.length) {
+            current = resize(current);
+            slot = find(current.zoneIds, zoneId);
+        }
+        BYTES.setRelease(current.ordinals, slot, (byte) deliveryWorkload.ordinal());
+        INTS.setRelease(current.zoneIds, slot, zoneId);
+        size++;
+        return null;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    private Table resize(Table current) {
+        Table resized = new Table(current.zoneIds.length * 2);
+        for (int slot = 0; slot < current.zoneIds.length; slot++) {
+            int zoneId = current.zoneIds[slot];
+            if (zoneId != EMPTY) {
+                int target = find(resized.zoneIds, zoneId);
+                resized.zoneIds[target] = zoneId;
+                resized.ordinals[target] = current.ordinals[slot];
+            }
+        }
+        table = resized;
+        return resized;
+    }
+
+    private static int find(int[] zoneIds, int zoneId) {
+        int mask = zoneIds.length - 1;
+        int slot = hash(zoneId) & mask;
+        while (zoneIds[slot] != EMPTY && zoneIds[slot] != zoneId) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private static int hash(int zoneId) {
+        int h = zoneId * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private static int capacityFor(int expectedZones) {
+        if (expectedZones < 0 || expectedZones > 1 << 29) {
+            throw new IllegalArgumentException("Ожидаемое количество зон должно быть от 0 до 2^29");
+        }
+        int capacity = MIN_CAPACITY;
+        while (capacity < expectedZones * 2) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    private static final class Table {
+
+        private final int[] zoneIds;
+        private final byte[] ordinals;
+
+        private Table(int capacity) {
+            this.zoneIds = new int[capacity];
+            this.ordinals = new byte[capacity];
+            Arrays.fill(zoneIds, EMPTY);
+        }
+    }
+}
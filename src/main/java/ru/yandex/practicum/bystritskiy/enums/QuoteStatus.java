@@ -0,0 +1,38 @@
+package ru.yandex.practicum.bystritskiy.enums;
+
+public enum QuoteStatus {
+    OK((byte) 0),
+    NON_POSITIVE_DISTANCE((byte) 1),
+    FRAGILE_TOO_FAR((byte) 2),
+    UNKNOWN_CARGO_SIZE((byte) 3),
+    UNKNOWN_DELIVERY_WORKLOAD((byte) 4),
+    MALFORMED_INPUT((byte) 5),
+    MISSING_DISTANCE((byte) 6),
+    UNKNOWN_REGION((byte) 7),
+    UNKNOWN_ZONE((byte) 8);
+
+    private static final QuoteStatus[] BY_CODE = new QuoteStatus[values().length];
+
+    static {
+        for (QuoteStatus status : values()) {
+            BY_CODE[status.code] = status;
+        }
+    }
+
+    private final byte code;
+
+    QuoteStatus(byte code) {
+        this.code = code;
+    }
+
+    public byte getCode() {
+        return code;
+    }
+
+    public static QuoteStatus fromCode(byte code) {
+        if (code < 0 || code >= BY_CODE.length) {
+            throw new IllegalArgumentException("Неизвестный код результата расчёта: " + code);
+        }
+        return BY_CODE[code];
+    }
+}
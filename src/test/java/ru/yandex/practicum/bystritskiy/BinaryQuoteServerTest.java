@@ -0,0 +1,236 @@
+package ru.yandex.practicum.bystritskiy;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.qameta.allure.Description;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import io.qameta.allure.Story;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.bystritskiy.enums.CargoSize;
+import ru.yandex.practicum.bystritskiy.enums.DeliveryWorkload;
+import ru.yandex.practicum.bystritskiy.enums.QuoteStatus;
+
+@Feature("Калькулятор стоимости доставки")
+@Story("Двоичный протокол расчёта")
+@DisplayName("Тесты двоичного протокола расчёта стоимости доставки")
+class BinaryQuoteServerTest {
+
+    private BinaryQuoteServer server;
+    private BinaryQuoteClient client;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = new BinaryQuoteServer(new DeliveryCalculator(), new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        client = new BinaryQuoteClient(server.getAddress());
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        client.close();
+        server.close();
+    }
+
+    @Test
+    @Severity(SeverityLevel.BLOCKER)
+    @Description("Одиночный запрос возвращает стоимость, рассчитанную по тарифу")
+    @DisplayName("Расчёт одного заказа")
+    void shouldQuoteSingleOrder() throws Exception {
+        QuoteResult result = client.quote(15_000, CargoSize.LARGE, false, DeliveryWorkload.HIGH).get(10, TimeUnit.SECONDS);
+
+        assertEquals(QuoteResult.ok(new BigDecimal("560.00")), result);
+    }
+
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Нарушение правил расчёта и неизвестные значения возвращаются кодом статуса")
+    @DisplayName("Отказ в расчёте")
+    void shouldReturnRejections() throws Exception {
+        assertEquals(
+                QuoteStatus.FRAGILE_TOO_FAR,
+                client.quote(30_001, CargoSize.SMALL, true, DeliveryWorkload.NORMAL).get(10, TimeUnit.SECONDS).status()
+        );
+        assertEquals(
+                QuoteStatus.NON_POSITIVE_DISTANCE,
+                client.quote(0, CargoSize.SMALL, false, DeliveryWorkload.NORMAL).get(10, TimeUnit.SECONDS).status()
+        );
+        assertEquals(
+                QuoteStatus.UNKNOWN_CARGO_SIZE,
+                client.quote(1_000, null, false, DeliveryWorkload.NORMAL).get(10, TimeUnit.SECONDS).status()
+        );
+        assertEquals(
+                QuoteStatus.UNKNOWN_DELIVERY_WORKLOAD,
+                client.quote(1_000, CargoSize.SMALL, false, null).get(10, TimeUnit.SECONDS).status()
+        );
+    }
+
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Пакет, превышающий буферы клиента и сервера, совпадает с пакетным расчётом калькулятора")
+    @DisplayName("Конвейерный пакетный расчёт")
+    void shouldMatchCalculatorForLargeBatch() throws Exception {
+        int size = 50_000;
+        Random random = new Random(13);
+        long[] distancesMetres = new long[size];
+        byte[] cargoSizes = new byte[size];
+        long[] fragile = new long[(size + 63) / 64];
+        byte[] deliveryWorkloads = new byte[size];
+        for (int i = 0; i < size; i++) {
+            distancesMetres[i] = random.nextInt(60_000) - 1_000;
+            cargoSizes[i] = (byte) random.nextInt(CargoSize.values().length);
+            deliveryWorkloads[i] = (byte) random.nextInt(DeliveryWorkload.values().length);
+            if (random.nextBoolean()) {
+                fragile[i >>> 6] |= 1L << i;
+            }
+        }
+
+        long[] expectedCosts = new long[size];
+        byte[] expectedStatuses = new byte[size];
+        new DeliveryCalculator().calculateDeliveryCostsKopecks(
+                distancesMetres, cargoSizes, fragile, deliveryWorkloads, expectedCosts, expectedStatuses
+        );
+        long[] costs = new long[size];
+        byte[] statuses = new byte[size];
+        client.quote(distancesMetres, cargoSizes, fragile, deliveryWorkloads, costs, statuses).get(30, TimeUnit.SECONDS);
+
+        assertArrayEquals(expectedCosts, costs);
+        assertArrayEquals(expectedStatuses, statuses);
+    }
+
+    @Test
+    @Severity(SeverityLevel.NORMAL)
+    @Description("Запросы из нескольких потоков отправляются без ожидания ответов и получают свои результаты")
+    @DisplayName("Конвейерные запросы из нескольких потоков")
+    void shouldPipelineConcurrentRequests() throws Exception {
+        List<CompletableFuture<List<CompletableFuture<QuoteResult>>>> senders = new ArrayList<>();
+        for (int thread = 0; thread < 4; thread++) {
+            DeliveryWorkload deliveryWorkload = DeliveryWorkload.values()[thread];
+            senders.add(CompletableFuture.supplyAsync(() -> {
+                List<CompletableFuture<QuoteResult>> results = new ArrayList<>();
+                for (int i = 0; i < 2_000; i++) {
+                    try {
+                        results.add(client.quote(25_000, CargoSize.LARGE, true, deliveryWorkload));
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                }
+                return results;
+            }));
+        }
+
+        String[] expected = {"700.00", "840.00", "980.00", "1120.00"};
+        for (int thread = 0; thread < senders.size(); thread++) {
+            for (CompletableFuture<QuoteResult> result : senders.get(thread).get(30, TimeUnit.SECONDS)) {
+                assertEquals(new BigDecimal(expected[thread]), result.get(30, TimeUnit.SECONDS).cost());
+            }
+        }
+    }
+
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Клиент отправляет кадры подряд и закрывает свою сторону соединения: сервер отвечает на все кадры, "
+            + "затем закрывает соединение")
+    @DisplayName("Ответы на все кадры после закрытия записи клиентом")
+    void shouldAnswerAllFramesBeforeClosingHalfClosedConnection() throws Exception {
+        int frames = 3 * BinaryQuoteServer.BATCH_SIZE + 7;
+        try (SocketChannel channel = SocketChannel.open(server.getAddress())) {
+            CompletableFuture<Void> writer = CompletableFuture.runAsync(() -> {
+                ByteBuffer request = ByteBuffer.allocate(frames * BinaryQuoteProtocol.REQUEST_SIZE);
+                for (int i = 0; i < frames; i++) {
+                    request.putLong(i).putLong(15_000).put((byte) CargoSize.LARGE.ordinal())
+                            .put((byte) DeliveryWorkload.HIGH.ordinal()).put((byte) 0).put((byte) 0);
+                }
+                request.flip();
+                try {
+                    while (request.hasRemaining()) {
+                        channel.write(request);
+                    }
+                    channel.shutdownOutput();
+                } catch (IOException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+
+            ByteBuffer response = ByteBuffer.allocate(frames * BinaryQuoteProtocol.RESPONSE_SIZE + 1);
+            while (channel.read(response) >= 0) {
+                assertTrue(response.hasRemaining(), "лишние байты в ответе");
+            }
+            writer.get(10, TimeUnit.SECONDS);
+
+            assertEquals(frames * BinaryQuoteProtocol.RESPONSE_SIZE, response.position());
+            for (int i = 0; i < frames; i++) {
+                int frame = i * BinaryQuoteProtocol.RESPONSE_SIZE;
+                assertEquals(i, response.getLong(frame));
+                assertEquals(56_000, response.getLong(frame + 8));
+                assertEquals(QuoteStatus.OK.getCode(), response.get(frame + 16));
+            }
+        }
+    }
+
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Исключение калькулятора закрывает только соединение с этим запросом, остальные клиенты обслуживаются")
+    @DisplayName("Работа сервера после ошибки калькулятора")
+    void shouldKeepServingAfterCalculatorFailure() throws Exception {
+        DeliveryCalculator failing = new DeliveryCalculator() {
+            @Override
+            public void calculateDeliveryCostsKopecks(long[] distancesMetres, byte[] cargoSizes, long[] fragile,
+                                                      byte[] deliveryWorkloads, long[] costs, byte[] statuses, int from, int to) {
+                for (int i = from; i < to; i++) {
+                    if (distancesMetres[i] == 13_013) {
+                        throw new IllegalStateException("Тариф недоступен");
+                    }
+                }
+                super.calculateDeliveryCostsKopecks(distancesMetres, cargoSizes, fragile, deliveryWorkloads, costs, statuses, from, to);
+            }
+        };
+        try (BinaryQuoteServer failingServer = new BinaryQuoteServer(
+                failing, new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+             BinaryQuoteClient broken = new BinaryQuoteClient(failingServer.getAddress())) {
+            CompletableFuture<QuoteResult> failed = broken.quote(13_013, CargoSize.LARGE, true, DeliveryWorkload.HIGH);
+            assertThrows(ExecutionException.class, () -> failed.get(10, TimeUnit.SECONDS));
+
+            try (BinaryQuoteClient healthy = new BinaryQuoteClient(failingServer.getAddress())) {
+                assertEquals(
+                        QuoteResult.ok(new BigDecimal("560.00")),
+                        healthy.quote(15_000, CargoSize.LARGE, false, DeliveryWorkload.HIGH).get(10, TimeUnit.SECONDS)
+                );
+            }
+        }
+    }
+
+    @Test
+    @Severity(SeverityLevel.NORMAL)
+    @Description("После закрытия сервера ожидающие и новые запросы завершаются ошибкой")
+    @DisplayName("Ошибка при закрытии сервера")
+    void shouldFailWhenServerCloses() throws Exception {
+        server.close();
+
+        CompletableFuture<QuoteResult> result;
+        try {
+            result = client.quote(1_000, CargoSize.SMALL, false, DeliveryWorkload.NORMAL);
+        } catch (IOException e) {
+            return;
+        }
+        assertThrows(ExecutionException.class, () -> result.get(10, TimeUnit.SECONDS));
+    }
+}
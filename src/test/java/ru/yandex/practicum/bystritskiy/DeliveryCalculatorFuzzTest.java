@@ -0,0 +1,389 @@
+package ru.yandex.practicum.bystritskiy;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import io.qameta.allure.Description;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import io.qameta.allure.Story;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Function;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ru.yandex.practicum.bystritskiy.enums.CargoSize;
+import ru.yandex.practicum.bystritskiy.enums.DeliveryWorkload;
+import ru.yandex.practicum.bystritskiy.enums.QuoteStatus;
+
+/**
+ * Дифференциальная проверка быстрых способов расчёта против эталонного {@link DeliveryCalculator} на BigDecimal.
+ * Число проверок и зерно генератора задаются свойствами {@code delivery.fuzz.iterations} и {@code delivery.fuzz.seed}
+ * (в Gradle — {@code -PfuzzIterations=300000000 -PfuzzSeed=42}). По умолчанию зерно фиксировано, чтобы прогон
+ * воспроизводился; случайное зерно включается явно через {@code -PfuzzSeed=random} и печатается при расхождении.
+ */
+@Feature("Калькулятор стоимости доставки")
+@Story("Сверка быстрых расчётов с эталоном")
+@DisplayName("Тесты сверки быстрых расчётов с эталонным калькулятором")
+class DeliveryCalculatorFuzzTest {
+
+    private static final long ITERATIONS = Long.getLong("delivery.fuzz.iterations", 2_000_000);
+    private static final long DEFAULT_SEED = 42;
+    private static final long SEED = seed(System.getProperty("delivery.fuzz.seed"));
+
+    private static final int CHUNK_SIZE = 4096;
+    private static final int DISPATCHER_SAMPLE_STEP = 64;
+    private static final int MAX_FAILURES = 16;
+    private static final int MAX_SHRINK_STEPS = 10_000;
+
+    private static final CargoSize[] CARGO_SIZES = CargoSize.values();
+    private static final DeliveryWorkload[] DELIVERY_WORKLOADS = DeliveryWorkload.values();
+    private static final Tariff TARIFF = DeliveryCalculator.TARIFF;
+    private static final long[] BOUNDARIES_METRES = boundariesMetres();
+
+    private static final String DEFAULT_TARIFF = """
+            distance.thresholds=2.00,10.00,30.00
+            distance.costs=50.00,100.00,200.00,300.00
+            cargo-size.surcharge.SMALL=100.00
+            cargo-size.surcharge.LARGE=200.00
+            workload.coefficient.NORMAL=1.00
+            workload.coefficient.INCREASED=1.20
+            workload.coefficient.HIGH=1.40
+            workload.coefficient.VERY_HIGH=1.60
+            fragile.surcharge=300.00
+            fragile.max-distance=30.00
+            min-cost=400.00
+            """;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @Severity(SeverityLevel.BLOCKER)
+    @Description("Таблица, расчёт в копейках, пакетные, векторный, региональный, перечитываемый расчёты, разбор расстояния "
+            + "и диспетчер совпадают с эталоном на случайных заказах у границ 2/10/30 км и минимальной стоимости")
+    @DisplayName("Совпадение быстрых расчётов с эталоном на случайных заказах")
+    void shouldMatchReferenceOnRandomOrders() throws IOException {
+        Files.writeString(directory.resolve("tariff.properties"), DEFAULT_TARIFF);
+        try (Engines engines = new Engines(directory.resolve("tariff.properties"))) {
+            Queue<DeliveryOrder> failedOrders = new ConcurrentLinkedQueue<>();
+            long chunks = (ITERATIONS + CHUNK_SIZE - 1) / CHUNK_SIZE;
+
+            LongStream.range(0, chunks).parallel().forEach(chunk -> {
+                if (failedOrders.size() >= MAX_FAILURES) {
+                    return;
+                }
+                SplittableRandom random = new SplittableRandom(SEED + chunk * 0x9E3779B97F4A7C15L);
+                int size = (int) Math.min(CHUNK_SIZE, ITERATIONS - chunk * CHUNK_SIZE);
+                DeliveryOrder[] orders = new DeliveryOrder[size];
+                for (int i = 0; i < size; i++) {
+                    orders[i] = randomOrder(random);
+                }
+                engines.compare(orders, (index, mismatch) -> failedOrders.add(orders[index]));
+            });
+
+            if (!failedOrders.isEmpty()) {
+                Set<String> counterexamples = new LinkedHashSet<>();
+                for (DeliveryOrder order : failedOrders) {
+                    DeliveryOrder minimal = shrink(order, engines::firstMismatch);
+                    counterexamples.add(minimal + " -> " + engines.firstMismatch(minimal));
+                }
+                fail("Расхождения с эталонным калькулятором (delivery.fuzz.seed=" + SEED + "):\n"
+                        + String.join("\n", counterexamples));
+            }
+        }
+    }
+
+    @Test
+    @Severity(SeverityLevel.NORMAL)
+    @Description("Найденное расхождение упрощается до минимального заказа, на котором оно ещё воспроизводится")
+    @DisplayName("Упрощение найденного расхождения")
+    void shouldShrinkToMinimalCounterexample() {
+        Function<DeliveryOrder, String> brokenAboveTenKilometres = order ->
+                order.isFragile() && order.distance().compareTo(BigDecimal.TEN) > 0 ? "сломано" : null;
+        DeliveryOrder order = new DeliveryOrder(
+                new BigDecimal("17.384512"), CargoSize.LARGE, true, DeliveryWorkload.VERY_HIGH
+        );
+
+        DeliveryOrder minimal = shrink(order, brokenAboveTenKilometres);
+
+        assertEquals(new DeliveryOrder(new BigDecimal("11"), CargoSize.SMALL, true, DeliveryWorkload.NORMAL), minimal);
+        assertNull(brokenAboveTenKilometres.apply(new DeliveryOrder(BigDecimal.TEN, CargoSize.SMALL, true, DeliveryWorkload.NORMAL)));
+    }
+
+    private static DeliveryOrder randomOrder(SplittableRandom random) {
+        long metres = switch (random.nextInt(8)) {
+            case 0, 1, 2, 3, 4 -> BOUNDARIES_METRES[random.nextInt(BOUNDARIES_METRES.length)] + random.nextInt(-3, 4);
+            // Короткие заказы дают стоимость около минимальной.
+            case 5 -> random.nextLong(1, TARIFF.distanceThresholdsMetres[1]);
+            case 6 -> random.nextLong(-1_000, 100_000);
+            default -> random.nextLong(1, 1_000_000_000_000L);
+        };
+
+        BigDecimal distance;
+        if (random.nextInt(4) == 0) {
+            int extraDigits = random.nextInt(1, 5);
+            long unit = LongStream.range(0, extraDigits).reduce(1, (power, digit) -> power * 10);
+            distance = BigDecimal.valueOf(metres * unit + random.nextLong(1 - unit, unit), Tariff.METRES_SCALE + extraDigits);
+        } else {
+            distance = BigDecimal.valueOf(metres, Tariff.METRES_SCALE);
+            int scale = random.nextInt(Tariff.METRES_SCALE + 1);
+            if (distance.scale() > scale && distance.setScale(scale, RoundingMode.DOWN).compareTo(distance) == 0) {
+                distance = distance.setScale(scale, RoundingMode.UNNECESSARY);
+            }
+        }
+
+        return new DeliveryOrder(
+                distance,
+                random.nextInt(3) == 0 ? CARGO_SIZES[0] : CARGO_SIZES[random.nextInt(CARGO_SIZES.length)],
+                random.nextBoolean(),
+                random.nextInt(3) == 0 ? DELIVERY_WORKLOADS[0] : DELIVERY_WORKLOADS[random.nextInt(DELIVERY_WORKLOADS.length)]
+        );
+    }
+
+    /**
+     * Жадно упрощает заказ, пока расхождение воспроизводится: габариты, загруженность и хрупкость сводятся
+     * к первому значению, у расстояния отбрасываются знаки после запятой и оно сдвигается к ближайшей границе тарифа.
+     */
+    static DeliveryOrder shrink(DeliveryOrder order, Function<DeliveryOrder, String> mismatch) {
+        for (int step = 0; step < MAX_SHRINK_STEPS; step++) {
+            DeliveryOrder simpler = null;
+            for (DeliveryOrder candidate : simplifications(order)) {
+                if (mismatch.apply(candidate) != null) {
+                    simpler = candidate;
+                    break;
+                }
+            }
+            if (simpler == null) {
+                return order;
+            }
+            order = simpler;
+        }
+        return order;
+    }
+
+    private static List<DeliveryOrder> simplifications(DeliveryOrder order) {
+        List<DeliveryOrder> candidates = new ArrayList<>();
+        BigDecimal distance = order.distance();
+        if (order.cargoSize().ordinal() > 0) {
+            candidates.add(new DeliveryOrder(distance, CARGO_SIZES[0], order.isFragile(), order.deliveryWorkload()));
+        }
+        if (order.deliveryWorkload().ordinal() > 0) {
+            candidates.add(new DeliveryOrder(distance, order.cargoSize(), order.isFragile(), DELIVERY_WORKLOADS[0]));
+        }
+        if (order.isFragile()) {
+            candidates.add(new DeliveryOrder(distance, order.cargoSize(), false, order.deliveryWorkload()));
+        }
+
+        List<BigDecimal> distances = new ArrayList<>();
+        if (distance.scale() > 0) {
+            distances.add(distance.setScale(distance.scale() - 1, RoundingMode.FLOOR));
+            distances.add(distance.setScale(distance.scale() - 1, RoundingMode.CEILING));
+        }
+        BigDecimal boundary = nearestBoundary(distance);
+        BigDecimal halfway = boundary.add(distance.subtract(boundary).divide(BigDecimal.valueOf(2), distance.scale(), RoundingMode.DOWN));
+        if (halfway.compareTo(distance) != 0) {
+            distances.add(halfway);
+        }
+        for (BigDecimal simplerDistance : distances) {
+            candidates.add(new DeliveryOrder(simplerDistance, order.cargoSize(), order.isFragile(), order.deliveryWorkload()));
+        }
+        return candidates;
+    }
+
+    private static BigDecimal nearestBoundary(BigDecimal distance) {
+        BigDecimal nearest = BigDecimal.ZERO;
+        for (long metres : BOUNDARIES_METRES) {
+            BigDecimal boundary = BigDecimal.valueOf(metres, Tariff.METRES_SCALE);
+            if (distance.subtract(boundary).abs().compareTo(distance.subtract(nearest).abs()) < 0) {
+                nearest = boundary;
+            }
+        }
+        return nearest;
+    }
+
+    private static long seed(String property) {
+        if (property == null) {
+            return DEFAULT_SEED;
+        }
+        return property.equals("random") ? System.nanoTime() : Long.parseLong(property);
+    }
+
+    private static long[] boundariesMetres() {
+        long[] boundaries = new long[TARIFF.distanceThresholdsMetres.length + 2];
+        System.arraycopy(TARIFF.distanceThresholdsMetres, 0, boundaries, 1, TARIFF.distanceThresholdsMetres.length);
+        boundaries[boundaries.length - 1] = TARIFF.maxFragileDistanceMetres;
+        return boundaries;
+    }
+
+    @FunctionalInterface
+    private interface MismatchListener {
+
+        void onMismatch(int index, String mismatch);
+    }
+
+    private static final class Engines implements AutoCloseable {
+
+        private final DeliveryCalculator reference = new DeliveryCalculator();
+        private final DeliveryCalculator table = new TableDeliveryCalculator();
+        private final DeliveryCalculator vector = new VectorDeliveryCalculator();
+        private final ReloadableDeliveryCalculator reloadable;
+        private final RegionDeliveryCalculator region = new RegionDeliveryCalculator(RegionTariffStore.of(List.of(TARIFF)));
+        private final DeliveryQuoteDispatcher dispatcher =
+                new DeliveryQuoteDispatcher(new DeliveryCalculator(), 1 << 16, 256, Duration.ofMillis(1), 2);
+
+        Engines(Path tariffFile) throws IOException {
+            this.reloadable = ReloadableDeliveryCalculator.open(tariffFile);
+        }
+
+        String firstMismatch(DeliveryOrder order) {
+            List<String> mismatches = new ArrayList<>();
+            compare(new DeliveryOrder[]{order}, (index, mismatch) -> mismatches.add(mismatch));
+            return mismatches.isEmpty() ? null : mismatches.get(0);
+        }
+
+        void compare(DeliveryOrder[] orders, MismatchListener listener) {
+            int size = orders.length;
+            long[] distancesMetres = new long[size];
+            byte[] cargoSizes = new byte[size];
+            long[] fragile = new long[(size + Long.SIZE - 1) / Long.SIZE];
+            byte[] deliveryWorkloads = new byte[size];
+            int[] regions = new int[size];
+            for (int i = 0; i < size; i++) {
+                DeliveryOrder order = orders[i];
+                distancesMetres[i] = Tariff.ceilMetres(order.distance());
+                cargoSizes[i] = (byte) order.cargoSize().ordinal();
+                if (order.isFragile()) {
+                    fragile[i >>> 6] |= 1L << i;
+                }
+                deliveryWorkloads[i] = (byte) order.deliveryWorkload().ordinal();
+            }
+
+            long[] scalarCosts = new long[size];
+            byte[] scalarStatuses = new byte[size];
+            reference.calculateDeliveryCostsKopecks(distancesMetres, cargoSizes, fragile, deliveryWorkloads, scalarCosts, scalarStatuses);
+            long[] vectorCosts = new long[size];
+            byte[] vectorStatuses = new byte[size];
+            vector.calculateDeliveryCostsKopecks(distancesMetres, cargoSizes, fragile, deliveryWorkloads, vectorCosts, vectorStatuses);
+            long[] regionCosts = new long[size];
+            byte[] regionStatuses = new byte[size];
+            region.calculateDeliveryCostsKopecks(
+                    regions, distancesMetres, cargoSizes, fragile, deliveryWorkloads, regionCosts, regionStatuses
+            );
+
+            List<CompletableFuture<String>> dispatched = new ArrayList<>();
+            for (int i = 0; i < size; i += DISPATCHER_SAMPLE_STEP) {
+                DeliveryOrder order = orders[i];
+                dispatched.add(dispatcher.submit(order.distance(), order.cargoSize(), order.isFragile(), order.deliveryWorkload())
+                        .handle(Engines::describe));
+            }
+
+            for (int i = 0; i < size; i++) {
+                DeliveryOrder order = orders[i];
+                QuoteResult expected = reference.tryCalculateDeliveryCost(
+                        order.distance(), order.cargoSize(), order.isFragile(), order.deliveryWorkload()
+                );
+                long expectedKopecks = expected.isOk() ? expected.cost().unscaledValue().longValueExact() : 0;
+                byte expectedStatus = expected.status().getCode();
+                long metres = distancesMetres[i];
+
+                String mismatch = mismatch("таблица", expected, table.tryCalculateDeliveryCost(
+                        order.distance(), order.cargoSize(), order.isFragile(), order.deliveryWorkload()));
+                if (mismatch == null) {
+                    mismatch = mismatch("тариф из файла", expected, reloadable.tryCalculateDeliveryCost(
+                            order.distance(), order.cargoSize(), order.isFragile(), order.deliveryWorkload()));
+                }
+                if (mismatch == null) {
+                    mismatch = mismatch("регион", expected, region.tryCalculateDeliveryCost(
+                            0, order.distance(), order.cargoSize(), order.isFragile(), order.deliveryWorkload()));
+                }
+                if (mismatch == null) {
+                    mismatch = mismatch("копейки", expectedStatus, expectedKopecks, kopecks(order, metres));
+                }
+                if (mismatch == null) {
+                    mismatch = mismatch("пакет", expectedStatus, expectedKopecks, scalarStatuses[i], scalarCosts[i]);
+                }
+                if (mismatch == null) {
+                    mismatch = mismatch("вектор", expectedStatus, expectedKopecks, vectorStatuses[i], vectorCosts[i]);
+                }
+                if (mismatch == null) {
+                    mismatch = mismatch("пакет по регионам", expectedStatus, expectedKopecks, regionStatuses[i], regionCosts[i]);
+                }
+                if (mismatch == null) {
+                    long expectedParsed = metres > 0 ? metres : DistanceParser.NON_POSITIVE_DISTANCE;
+                    long parsed = DistanceParser.parseMetres(order.distance().toPlainString());
+                    if (parsed != expectedParsed) {
+                        mismatch = "разбор расстояния: ожидалось " + expectedParsed + ", получено " + parsed;
+                    }
+                }
+                if (mismatch == null && i % DISPATCHER_SAMPLE_STEP == 0) {
+                    String expectedOutcome = expected.isOk()
+                            ? describe(expected.cost(), null)
+                            : describe(null, DeliveryCalculator.toException(expected.status(), TARIFF));
+                    String actualOutcome = dispatched.get(i / DISPATCHER_SAMPLE_STEP).join();
+                    if (!expectedOutcome.equals(actualOutcome)) {
+                        mismatch = "диспетчер: ожидалось " + expectedOutcome + ", получено " + actualOutcome;
+                    }
+                }
+                if (mismatch != null) {
+                    listener.onMismatch(i, mismatch);
+                }
+            }
+        }
+
+        private long[] kopecks(DeliveryOrder order, long metres) {
+            QuoteStatus status = reference.checkInput(metres, order.cargoSize(), order.isFragile(), order.deliveryWorkload());
+            long cost = status == QuoteStatus.OK
+                    ? reference.calculateDeliveryCostKopecks(metres, order.cargoSize(), order.isFragile(), order.deliveryWorkload())
+                    : 0;
+            return new long[]{status.getCode(), cost};
+        }
+
+        private static String mismatch(String path, QuoteResult expected, QuoteResult actual) {
+            return expected.equals(actual) ? null : path + ": ожидалось " + expected + ", получено " + actual;
+        }
+
+        private static String mismatch(String path, byte expectedStatus, long expectedKopecks, long[] actual) {
+            return mismatch(path, expectedStatus, expectedKopecks, (byte) actual[0], actual[1]);
+        }
+
+        private static String mismatch(String path, byte expectedStatus, long expectedKopecks, byte status, long kopecks) {
+            if (status == expectedStatus && kopecks == expectedKopecks) {
+                return null;
+            }
+            return path + ": ожидалось " + QuoteStatus.fromCode(expectedStatus) + "/" + expectedKopecks
+                    + ", получено " + QuoteStatus.fromCode(status) + "/" + kopecks;
+        }
+
+        private static String describe(BigDecimal cost, Throwable error) {
+            if (error == null) {
+                return cost.toPlainString();
+            }
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            return cause.getClass().getSimpleName() + ": " + cause.getMessage();
+        }
+
+        @Override
+        public void close() throws IOException {
+            dispatcher.close();
+            reloadable.close();
+        }
+    }
+}
@@ -1,6 +1,9 @@
 package ru.yandex.practicum.bystritskiy;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import io.qameta.allure.Description;
@@ -18,8 +21,10 @@ import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 import org.junit.jupiter.params.provider.ValueSource;
 import java.math.BigDecimal;
+import java.util.BitSet;
 import ru.yandex.practicum.bystritskiy.enums.CargoSize;
 import ru.yandex.practicum.bystritskiy.enums.DeliveryWorkload;
+import ru.yandex.practicum.bystritskiy.enums.QuoteStatus;
 
 @Feature("Калькулятор стоимости доставки")
 @DisplayName("Тесты калькулятора стоимости доставки")
@@ -579,4 +584,248 @@ class DeliveryCalculatorTest {
             assertEquals(new BigDecimal("1120.00"), cost);
         }
     }
+
+    @Nested
+    @Story("Расчёт в копейках и метрах")
+    @DisplayName("Тесты расчёта стоимости в копейках по расстоянию в метрах")
+    class FixedPointCostTests {
+
+        @ParameterizedTest
+        @MethodSource("fixedPointScenarioProvider")
+        @Severity(SeverityLevel.CRITICAL)
+        @Description("Расчёт в копейках совпадает с расчётом в BigDecimal")
+        @DisplayName("Совпадение расчёта в копейках с эталонным")
+        void shouldMatchBigDecimalCalculation(
+                long distanceMetres,
+                CargoSize cargoSize,
+                boolean isFragile,
+                DeliveryWorkload workloadLevel
+        ) {
+            BigDecimal expectedCost = calculator.calculateDeliveryCost(
+                    BigDecimal.valueOf(distanceMetres, 3),
+                    cargoSize,
+                    isFragile,
+                    workloadLevel
+            );
+            long actualCost = calculator.calculateDeliveryCostKopecks(
+                    distanceMetres,
+                    cargoSize,
+                    isFragile,
+                    workloadLevel
+            );
+            assertEquals(expectedCost, BigDecimal.valueOf(actualCost, 2));
+        }
+
+        static Stream<Arguments> fixedPointScenarioProvider() {
+            Stream.Builder<Arguments> arguments = Stream.builder();
+            long[] distances = {1, 2_000, 2_001, 10_000, 10_001, 30_000, 30_001, 100_000};
+            for (long distance : distances) {
+                for (CargoSize cargoSize : CargoSize.values()) {
+                    for (DeliveryWorkload workloadLevel : DeliveryWorkload.values()) {
+                        arguments.add(Arguments.of(distance, cargoSize, false, workloadLevel));
+                        if (distance <= 30_000) {
+                            arguments.add(Arguments.of(distance, cargoSize, true, workloadLevel));
+                        }
+                    }
+                }
+            }
+            return arguments.build();
+        }
+
+        @Test
+        @Severity(SeverityLevel.CRITICAL)
+        @Description("Максимальная стоимость в копейках")
+        @DisplayName("Максимальная стоимость: 30 км + большой хрупкий груз + очень высокая загруженность")
+        void shouldCalculateMaximumPossibleCostInKopecks() {
+            long cost = calculator.calculateDeliveryCostKopecks(
+                    30_000,
+                    CargoSize.LARGE,
+                    true,
+                    DeliveryWorkload.VERY_HIGH
+            );
+            assertEquals(112_000L, cost);
+        }
+
+        @Test
+        @Severity(SeverityLevel.CRITICAL)
+        @Description("Нулевое расстояние в метрах должно вызывать исключение")
+        @DisplayName("Исключение при нулевом расстоянии в метрах")
+        void shouldThrowExceptionForZeroDistanceInMetres() {
+            IllegalArgumentException exception = assertThrows(
+                    IllegalArgumentException.class,
+                    () ->
+                            calculator.calculateDeliveryCostKopecks(
+                                    0,
+                                    CargoSize.SMALL,
+                                    false,
+                                    DeliveryWorkload.NORMAL
+                            )
+            );
+            assertEquals(
+                    "Расстояние должно быть больше 0 км",
+                    exception.getMessage()
+            );
+        }
+
+        @Test
+        @Severity(SeverityLevel.CRITICAL)
+        @Description("Хрупкий груз нельзя возить дальше 30 000 метров")
+        @DisplayName("Исключение при доставке хрупкого груза на 30 001 метр")
+        void shouldThrowExceptionForFragileCargoOverMaxDistanceInMetres() {
+            IllegalArgumentException exception = assertThrows(
+                    IllegalArgumentException.class,
+                    () ->
+                            calculator.calculateDeliveryCostKopecks(
+                                    30_001,
+                                    CargoSize.SMALL,
+                                    true,
+                                    DeliveryWorkload.NORMAL
+                            )
+            );
+            assertEquals(
+                    "Хрупкие грузы нельзя возить на расстояние более 30 км",
+                    exception.getMessage()
+            );
+        }
+    }
+
+    @Nested
+    @Story("Пакетный расчёт")
+    @DisplayName("Тесты пакетного расчёта стоимости по столбцам")
+    class BatchCostTests {
+
+        @Test
+        @Severity(SeverityLevel.CRITICAL)
+        @Description("Пакетный расчёт записывает стоимость и статус для каждой строки")
+        @DisplayName("Пакетный расчёт с корректными и отклонёнными строками")
+        void shouldCalculateBatchWithRejectedRows() {
+            long[] distances = {30_000, 0, 31_000, 50_000, 15_000, 5_000};
+            byte[] cargoSizes = {1, 0, 0, 1, 2, 0};
+            byte[] workloads = {3, 0, 0, 3, 0, 9};
+            BitSet fragile = new BitSet();
+            fragile.set(0);
+            fragile.set(2);
+            long[] costs = new long[distances.length];
+            byte[] statuses = new byte[distances.length];
+
+            calculator.calculateDeliveryCostsKopecks(
+                    distances,
+                    cargoSizes,
+                    fragile.toLongArray(),
+                    workloads,
+                    costs,
+                    statuses
+            );
+
+            assertArrayEquals(new long[]{112_000, 0, 0, 80_000, 0, 0}, costs);
+            assertArrayEquals(
+                    new byte[]{
+                            QuoteStatus.OK.getCode(),
+                            QuoteStatus.NON_POSITIVE_DISTANCE.getCode(),
+                            QuoteStatus.FRAGILE_TOO_FAR.getCode(),
+                            QuoteStatus.OK.getCode(),
+                            QuoteStatus.UNKNOWN_CARGO_SIZE.getCode(),
+                            QuoteStatus.UNKNOWN_DELIVERY_WORKLOAD.getCode()
+                    },
+                    statuses
+            );
+        }
+
+        @Test
+        @Severity(SeverityLevel.NORMAL)
+        @Description("Пакетный расчёт меняет только строки из заданного диапазона")
+        @DisplayName("Пакетный расчёт диапазона строк")
+        void shouldCalculateOnlyRequestedRange() {
+            long[] distances = {1_000, 25_000, 25_000, 1_000};
+            byte[] cargoSizes = {0, 0, 0, 0};
+            byte[] workloads = {0, 1, 1, 0};
+            long[] costs = {-1, -1, -1, -1};
+            byte[] statuses = {-1, -1, -1, -1};
+
+            calculator.calculateDeliveryCostsKopecks(
+                    distances,
+                    cargoSizes,
+                    new long[]{0b0100},
+                    workloads,
+                    costs,
+                    statuses,
+                    1,
+                    3
+            );
+
+            assertArrayEquals(new long[]{-1, 40_000, 72_000, -1}, costs);
+            assertArrayEquals(new byte[]{-1, 0, 0, -1}, statuses);
+        }
+    }
+
+    @Nested
+    @Story("Расчёт без исключений")
+    @DisplayName("Тесты расчёта стоимости с кодом результата вместо исключений")
+    class QuoteResultTests {
+
+        @Test
+        @Severity(SeverityLevel.CRITICAL)
+        @Description("Корректный заказ возвращает статус OK и стоимость")
+        @DisplayName("Успешный расчёт возвращает стоимость")
+        void shouldReturnCostForValidOrder() {
+            QuoteResult result = calculator.tryCalculateDeliveryCost(
+                    new BigDecimal("25.00"),
+                    CargoSize.SMALL,
+                    true,
+                    DeliveryWorkload.INCREASED
+            );
+            assertEquals(QuoteStatus.OK, result.status());
+            assertEquals(new BigDecimal("720.00"), result.cost());
+        }
+
+        @ParameterizedTest
+        @MethodSource("rejectedOrderProvider")
+        @Severity(SeverityLevel.CRITICAL)
+        @Description("Некорректный заказ возвращает код отказа вместо исключения")
+        @DisplayName("Отказ без исключения")
+        void shouldReturnRejectionWithoutException(
+                BigDecimal distance,
+                CargoSize cargoSize,
+                boolean isFragile,
+                DeliveryWorkload workloadLevel,
+                QuoteStatus expectedStatus
+        ) {
+            QuoteResult result = calculator.tryCalculateDeliveryCost(
+                    distance,
+                    cargoSize,
+                    isFragile,
+                    workloadLevel
+            );
+            assertFalse(result.isOk());
+            assertEquals(expectedStatus, result.status());
+            assertSame(QuoteResult.rejected(expectedStatus), result);
+            assertEquals(expectedStatus, calculator.checkInput(distance, cargoSize, isFragile, workloadLevel));
+        }
+
+        static Stream<Arguments> rejectedOrderProvider() {
+            return Stream.of(
+                    Arguments.of(null, CargoSize.SMALL, false, DeliveryWorkload.NORMAL, QuoteStatus.MISSING_DISTANCE),
+                    Arguments.of(new BigDecimal("5.00"), null, false, DeliveryWorkload.NORMAL, QuoteStatus.UNKNOWN_CARGO_SIZE),
+                    Arguments.of(new BigDecimal("5.00"), CargoSize.SMALL, false, null, QuoteStatus.UNKNOWN_DELIVERY_WORKLOAD),
+                    Arguments.of(new BigDecimal("0.00"), CargoSize.SMALL, false, DeliveryWorkload.NORMAL, QuoteStatus.NON_POSITIVE_DISTANCE),
+                    Arguments.of(new BigDecimal("-1.00"), CargoSize.SMALL, false, DeliveryWorkload.NORMAL, QuoteStatus.NON_POSITIVE_DISTANCE),
+                    Arguments.of(new BigDecimal("30.01"), CargoSize.SMALL, true, DeliveryWorkload.NORMAL, QuoteStatus.FRAGILE_TOO_FAR)
+            );
+        }
+
+        @Test
+        @Severity(SeverityLevel.NORMAL)
+        @Description("Проверка заказа в метрах возвращает код отказа")
+        @DisplayName("Код отказа для хрупкого груза на 30 001 метр")
+        void shouldReturnStatusForMetres() {
+            assertEquals(
+                    QuoteStatus.FRAGILE_TOO_FAR,
+                    calculator.checkInput(30_001, CargoSize.SMALL, true, DeliveryWorkload.NORMAL)
+            );
+            assertEquals(
+                    QuoteStatus.OK,
+                    calculator.checkInput(30_000, CargoSize.SMALL, true, DeliveryWorkload.NORMAL)
+            );
+        }
+    }
 }
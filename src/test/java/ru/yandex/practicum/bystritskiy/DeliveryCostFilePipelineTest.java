@@ -0,0 +1,119 @@
+package ru.yandex.practicum.bystritskiy;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import io.qameta.allure.Description;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import io.qameta.allure.Story;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ru.yandex.practicum.bystritskiy.enums.CargoSize;
+import ru.yandex.practicum.bystritskiy.enums.DeliveryWorkload;
+
+@Feature("Калькулятор стоимости доставки")
+@Story("Расчёт стоимости по файлу заказов")
+@DisplayName("Тесты расчёта стоимости по файлу заказов")
+class DeliveryCostFilePipelineTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Корректные строки попадают в файл стоимостей, отклонённые — в файл отказов с кодом причины")
+    @DisplayName("Разделение строк на стоимости и отказы")
+    void shouldWriteQuotesAndRejects() throws IOException {
+        Path input = write(
+                "distance;cargoSize;fragile;workload",
+                "30;LARGE;true;VERY_HIGH",
+                "0;SMALL;false;NORMAL",
+                "30.001;SMALL;true;NORMAL",
+                "15.5;LARGE;false;HIGH",
+                "abc;SMALL;false;NORMAL",
+                "5;MEDIUM;false;NORMAL",
+                "5;SMALL;false;NORMAL;extra",
+                "",
+                "2.0010;SMALL;false;INCREASED"
+        );
+
+        DeliveryCostFilePipeline.Summary summary = new DeliveryCostFilePipeline(new DeliveryCalculator(), ';', true)
+                .process(input, directory.resolve("quotes.csv"), directory.resolve("rejects.csv"));
+
+        assertEquals(new DeliveryCostFilePipeline.Summary(3, 5), summary);
+        assertEquals(
+                List.of("2;1120.00", "5;560.00", "10;400.00"),
+                Files.readAllLines(directory.resolve("quotes.csv"))
+        );
+        assertEquals(
+                List.of(
+                        "3;NON_POSITIVE_DISTANCE",
+                        "4;FRAGILE_TOO_FAR",
+                        "6;MALFORMED_INPUT",
+                        "7;UNKNOWN_CARGO_SIZE",
+                        "8;MALFORMED_INPUT"
+                ),
+                Files.readAllLines(directory.resolve("rejects.csv"))
+        );
+    }
+
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Строки на границах окон отображения разбираются так же, как эталонный расчёт")
+    @DisplayName("Совпадение с эталонным калькулятором при маленьком окне отображения")
+    void shouldMatchReferenceAcrossWindowBoundaries() throws IOException {
+        DeliveryCalculator reference = new DeliveryCalculator();
+        Random random = new Random(11);
+        StringBuilder content = new StringBuilder();
+        StringBuilder expected = new StringBuilder();
+        for (int line = 1; line <= 10_000; line++) {
+            BigDecimal distance = BigDecimal.valueOf(1 + random.nextInt(60_000), 3);
+            CargoSize cargoSize = CargoSize.values()[random.nextInt(2)];
+            boolean isFragile = distance.compareTo(new BigDecimal("30")) <= 0 && random.nextBoolean();
+            DeliveryWorkload workload = DeliveryWorkload.values()[random.nextInt(4)];
+            content.append(distance.toPlainString()).append('\t').append(cargoSize).append('\t')
+                    .append(isFragile).append('\t').append(workload).append("\r\n");
+            expected.append(line).append('\t')
+                    .append(reference.calculateDeliveryCost(distance, cargoSize, isFragile, workload)).append('\n');
+        }
+        Path input = directory.resolve("orders.tsv");
+        Files.writeString(input, content);
+
+        DeliveryCostFilePipeline.Summary summary = new DeliveryCostFilePipeline(new VectorDeliveryCalculator(), '\t', false, 1000)
+                .process(input, directory.resolve("quotes.tsv"), directory.resolve("rejects.tsv"));
+
+        assertEquals(new DeliveryCostFilePipeline.Summary(10_000, 0), summary);
+        assertEquals(expected.toString(), Files.readString(directory.resolve("quotes.tsv")));
+    }
+
+    @Test
+    @Severity(SeverityLevel.NORMAL)
+    @Description("Строка длиннее окна отображения не может быть разобрана")
+    @DisplayName("Исключение при строке длиннее окна отображения")
+    void shouldFailOnLineLongerThanWindow() throws IOException {
+        Path input = write("5;SMALL;false;NORMAL", "5;SMALL;false;NORMAL");
+
+        IOException exception = assertThrows(
+                IOException.class,
+                () -> new DeliveryCostFilePipeline(new DeliveryCalculator(), ';', false, 10)
+                        .process(input, directory.resolve("quotes.csv"), directory.resolve("rejects.csv"))
+        );
+        assertEquals("Строка 1 не помещается в окно размером 10 байт", exception.getMessage());
+    }
+
+    private Path write(String... lines) throws IOException {
+        Path input = directory.resolve("orders.csv");
+        Files.write(input, List.of(lines), StandardCharsets.US_ASCII);
+        return input;
+    }
+}
@@ -0,0 +1,303 @@
+package ru.yandex.practicum.bystritskiy;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.qameta.allure.Description;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import io.qameta.allure.Story;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.bystritskiy.enums.CargoSize;
+import ru.yandex.practicum.bystritskiy.enums.DeliveryWorkload;
+
+@Feature("Калькулятор стоимости доставки")
+@Story("Пакетирование одиночных запросов")
+@DisplayName("Тесты диспетчера пакетного расчёта")
+class DeliveryQuoteDispatcherTest {
+
+    private static final DeliveryCalculator REFERENCE = new DeliveryCalculator();
+
+    @Test
+    @Severity(SeverityLevel.BLOCKER)
+    @Description("Запросы из нескольких потоков рассчитываются так же, как эталонным калькулятором")
+    @DisplayName("Совпадение с эталонным калькулятором")
+    void shouldMatchReferenceCalculator() throws Exception {
+        ExecutorService producers = Executors.newFixedThreadPool(4);
+        try (DeliveryQuoteDispatcher dispatcher =
+                     new DeliveryQuoteDispatcher(new DeliveryCalculator(), 1024, 64, Duration.ofMillis(1), 2)) {
+            List<Future<?>> tasks = new ArrayList<>();
+            for (int thread = 0; thread < 4; thread++) {
+                long seed = thread;
+                tasks.add(producers.submit(() -> {
+                    Random random = new Random(seed);
+                    for (int i = 0; i < 5_000; i++) {
+                        BigDecimal distance = BigDecimal.valueOf(random.nextInt(40_000) + 1, 3);
+                        CargoSize cargoSize = CargoSize.values()[random.nextInt(CargoSize.values().length)];
+                        boolean isFragile = random.nextBoolean();
+                        DeliveryWorkload deliveryWorkload = DeliveryWorkload.values()[random.nextInt(DeliveryWorkload.values().length)];
+                        CompletableFuture<BigDecimal> cost = submit(dispatcher, distance, cargoSize, isFragile, deliveryWorkload);
+                        assertSameOutcome(distance, cargoSize, isFragile, deliveryWorkload, cost);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> task : tasks) {
+                task.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            producers.shutdown();
+        }
+    }
+
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Отказ передаётся тем же исключением и сообщением, что и у эталонного калькулятора")
+    @DisplayName("Исключения при отказе в расчёте")
+    void shouldCompleteRejectionsExceptionally() throws Exception {
+        try (DeliveryQuoteDispatcher dispatcher =
+                     new DeliveryQuoteDispatcher(new DeliveryCalculator(), 16, 4, Duration.ZERO, 1)) {
+            ExecutionException tooFar = assertThrows(
+                    ExecutionException.class,
+                    () -> dispatcher.submit(new BigDecimal("30.0001"), CargoSize.SMALL, true, DeliveryWorkload.NORMAL)
+                            .get(10, TimeUnit.SECONDS)
+            );
+            assertInstanceOf(IllegalArgumentException.class, tooFar.getCause());
+            assertEquals("Хрупкие грузы нельзя возить на расстояние более 30 км", tooFar.getCause().getMessage());
+
+            ExecutionException nullDistance = assertThrows(
+                    ExecutionException.class,
+                    () -> dispatcher.submit(null, CargoSize.SMALL, false, DeliveryWorkload.NORMAL).get(10, TimeUnit.SECONDS)
+            );
+            assertInstanceOf(NullPointerException.class, nullDistance.getCause());
+
+            assertEquals(
+                    new BigDecimal("400.00"),
+                    dispatcher.submit(new BigDecimal("30.0000"), CargoSize.SMALL, false, DeliveryWorkload.NORMAL)
+                            .get(10, TimeUnit.SECONDS)
+            );
+        }
+    }
+
+    @Test
+    @Severity(SeverityLevel.NORMAL)
+    @Description("Запросы, поставленные до заполнения пакета, считаются одним вызовом пакетного расчёта")
+    @DisplayName("Объединение запросов в пакет")
+    void shouldCoalesceRequestsIntoBatch() throws Exception {
+        ConcurrentLinkedQueue<Integer> batchSizes = new ConcurrentLinkedQueue<>();
+        DeliveryCalculator recording = new DeliveryCalculator() {
+            @Override
+            public void calculateDeliveryCostsKopecks(long[] distancesMetres, byte[] cargoSizes, long[] fragile, byte[] deliveryWorkloads,
+                                                      long[] costs, byte[] statuses, int from, int to) {
+                batchSizes.add(to - from);
+                super.calculateDeliveryCostsKopecks(distancesMetres, cargoSizes, fragile, deliveryWorkloads, costs, statuses, from, to);
+            }
+        };
+
+        try (DeliveryQuoteDispatcher dispatcher = new DeliveryQuoteDispatcher(recording, 128, 32, Duration.ofSeconds(10), 1)) {
+            List<CompletableFuture<BigDecimal>> costs = new ArrayList<>();
+            for (int i = 0; i < 32; i++) {
+                costs.add(dispatcher.submit(new BigDecimal("5.00"), CargoSize.SMALL, i % 2 == 0, DeliveryWorkload.NORMAL));
+            }
+            for (int i = 0; i < costs.size(); i++) {
+                assertEquals(new BigDecimal(i % 2 == 0 ? "500.00" : "400.00"), costs.get(i).get(10, TimeUnit.SECONDS));
+            }
+        }
+
+        assertEquals(List.of(32), new ArrayList<>(batchSizes));
+    }
+
+    @Test
+    @Severity(SeverityLevel.NORMAL)
+    @Description("Неполный пакет считается по истечении максимального времени ожидания")
+    @DisplayName("Расчёт неполного пакета по таймауту")
+    void shouldFlushPartialBatchAfterMaxWait() throws Exception {
+        try (DeliveryQuoteDispatcher dispatcher =
+                     new DeliveryQuoteDispatcher(new DeliveryCalculator(), 128, 100, Duration.ofMillis(20), 1)) {
+            assertEquals(
+                    new BigDecimal("400.00"),
+                    dispatcher.submit(new BigDecimal("1.00"), CargoSize.SMALL, false, DeliveryWorkload.NORMAL)
+                            .get(10, TimeUnit.SECONDS)
+            );
+        }
+    }
+
+    @Test
+    @Severity(SeverityLevel.NORMAL)
+    @Description("После закрытия диспетчер не принимает новые запросы")
+    @DisplayName("Отказ в приёме запросов после закрытия")
+    void shouldRejectAfterClose() {
+        DeliveryQuoteDispatcher dispatcher = new DeliveryQuoteDispatcher(new DeliveryCalculator(), 16, 4, Duration.ZERO, 1);
+        dispatcher.close();
+
+        assertThrows(
+                RejectedExecutionException.class,
+                () -> dispatcher.submit(new BigDecimal("1.00"), CargoSize.SMALL, false, DeliveryWorkload.NORMAL)
+        );
+    }
+
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Запрос, принятый одновременно с закрытием, либо рассчитывается, либо отклоняется, но не зависает")
+    @DisplayName("Одновременные запросы и закрытие")
+    void shouldCompleteEveryRequestAcceptedDuringClose() throws Exception {
+        for (int round = 0; round < 50; round++) {
+            DeliveryQuoteDispatcher dispatcher = new DeliveryQuoteDispatcher(new DeliveryCalculator(), 4096, 16, Duration.ZERO, 2);
+            ConcurrentLinkedQueue<CompletableFuture<BigDecimal>> accepted = new ConcurrentLinkedQueue<>();
+            ExecutorService producers = Executors.newFixedThreadPool(3);
+            List<Future<?>> tasks = new ArrayList<>();
+            for (int producer = 0; producer < 3; producer++) {
+                tasks.add(producers.submit(() -> {
+                    while (true) {
+                        try {
+                            accepted.add(dispatcher.submit(new BigDecimal("5.00"), CargoSize.SMALL, false, DeliveryWorkload.NORMAL));
+                        } catch (RejectedExecutionException e) {
+                            return;
+                        }
+                    }
+                }));
+            }
+            Thread.sleep(2);
+            dispatcher.close();
+            for (Future<?> task : tasks) {
+                task.get(10, TimeUnit.SECONDS);
+            }
+            producers.shutdown();
+
+            for (CompletableFuture<BigDecimal> future : accepted) {
+                try {
+                    assertEquals(new BigDecimal("400.00"), future.get(10, TimeUnit.SECONDS));
+                } catch (ExecutionException e) {
+                    assertInstanceOf(RejectedExecutionException.class, e.getCause());
+                }
+            }
+        }
+    }
+
+    @Nested
+    @Story("Кольцевой буфер запросов")
+    @DisplayName("Тесты кольцевого буфера запросов")
+    class RingBufferTests {
+
+        @Test
+        @Severity(SeverityLevel.CRITICAL)
+        @Description("Ёмкость округляется до степени двойки, переполненный буфер не принимает элементы, порядок сохраняется")
+        @DisplayName("Ограниченная ёмкость и порядок элементов")
+        void shouldKeepOrderAndCapacity() {
+            QuoteRingBuffer<Integer> buffer = new QuoteRingBuffer<>(3);
+            assertEquals(4, buffer.capacity());
+
+            for (int i = 0; i < 4; i++) {
+                assertTrue(buffer.offer(i));
+            }
+            assertFalse(buffer.offer(4));
+            assertEquals(0, buffer.poll());
+            assertTrue(buffer.offer(4));
+            for (int i = 1; i <= 4; i++) {
+                assertEquals(i, buffer.poll());
+            }
+            assertNull(buffer.poll());
+            assertTrue(buffer.isEmpty());
+        }
+
+        @Test
+        @Severity(SeverityLevel.CRITICAL)
+        @Description("Несколько производителей и потребителей передают каждый элемент ровно один раз")
+        @DisplayName("Конкурентная передача элементов")
+        void shouldTransferEachElementOnce() throws Exception {
+            QuoteRingBuffer<Integer> buffer = new QuoteRingBuffer<>(64);
+            int producers = 4;
+            int perProducer = 50_000;
+            boolean[] seen = new boolean[producers * perProducer];
+            ExecutorService executor = Executors.newFixedThreadPool(producers + 2);
+            try {
+                List<Future<?>> tasks = new ArrayList<>();
+                for (int p = 0; p < producers; p++) {
+                    int first = p * perProducer;
+                    tasks.add(executor.submit(() -> {
+                        for (int i = first; i < first + perProducer; i++) {
+                            while (!buffer.offer(i)) {
+                                Thread.onSpinWait();
+                            }
+                        }
+                    }));
+                }
+                List<Future<Integer>> consumers = new ArrayList<>();
+                int total = producers * perProducer;
+                AtomicInteger received = new AtomicInteger();
+                for (int c = 0; c < 2; c++) {
+                    consumers.add(executor.submit(() -> {
+                        int count = 0;
+                        while (received.get() < total) {
+                            Integer value = buffer.poll();
+                            if (value == null) {
+                                Thread.onSpinWait();
+                                continue;
+                            }
+                            synchronized (seen) {
+                                assertFalse(seen[value]);
+                                seen[value] = true;
+                            }
+                            received.incrementAndGet();
+                            count++;
+                        }
+                        return count;
+                    }));
+                }
+                for (Future<?> task : tasks) {
+                    task.get(60, TimeUnit.SECONDS);
+                }
+                int consumed = 0;
+                for (Future<Integer> consumer : consumers) {
+                    consumed += consumer.get(60, TimeUnit.SECONDS);
+                }
+                assertEquals(total, consumed);
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+    }
+
+    private static CompletableFuture<BigDecimal> submit(DeliveryQuoteDispatcher dispatcher, BigDecimal distance, CargoSize cargoSize,
+                                                        boolean isFragile, DeliveryWorkload deliveryWorkload) {
+        while (true) {
+            try {
+                return dispatcher.submit(distance, cargoSize, isFragile, deliveryWorkload);
+            } catch (RejectedExecutionException e) {
+                Thread.onSpinWait();
+            }
+        }
+    }
+
+    private static void assertSameOutcome(BigDecimal distance, CargoSize cargoSize, boolean isFragile, DeliveryWorkload deliveryWorkload,
+                                          CompletableFuture<BigDecimal> cost) throws Exception {
+        try {
+            BigDecimal expected = REFERENCE.calculateDeliveryCost(distance, cargoSize, isFragile, deliveryWorkload);
+            assertEquals(expected, cost.get(10, TimeUnit.SECONDS));
+        } catch (IllegalArgumentException expected) {
+            ExecutionException actual = assertThrows(ExecutionException.class, () -> cost.get(10, TimeUnit.SECONDS));
+            assertEquals(expected.getMessage(), actual.getCause().getMessage());
+        }
+    }
+}
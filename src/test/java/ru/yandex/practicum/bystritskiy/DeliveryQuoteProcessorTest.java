@@ -0,0 +1,242 @@
+package ru.yandex.practicum.bystritskiy;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.qameta.allure.Description;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import io.qameta.allure.Story;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.bystritskiy.enums.CargoSize;
+import ru.yandex.practicum.bystritskiy.enums.DeliveryWorkload;
+import ru.yandex.practicum.bystritskiy.enums.QuoteStatus;
+
+@Feature("Калькулятор стоимости доставки")
+@Story("Реактивный расчёт")
+@DisplayName("Тесты реактивной стадии расчёта")
+class DeliveryQuoteProcessorTest {
+
+    private final DeliveryCalculator reference = new DeliveryCalculator();
+
+    @Test
+    @Severity(SeverityLevel.BLOCKER)
+    @Description("Стоимость и отказы совпадают с эталонным калькулятором, порядок заказов сохраняется")
+    @DisplayName("Расчёт потока заказов")
+    void shouldPriceOrdersInOrder() {
+        List<DeliveryOrder> orders = new ArrayList<>();
+        for (String distance : new String[]{"0.5", "2", "2.001", "10", "10.0001", "30", "30.001", "0", "-1"}) {
+            for (CargoSize cargoSize : CargoSize.values()) {
+                for (DeliveryWorkload deliveryWorkload : DeliveryWorkload.values()) {
+                    orders.add(new DeliveryOrder(new BigDecimal(distance), cargoSize, true, deliveryWorkload));
+                    orders.add(new DeliveryOrder(new BigDecimal(distance), cargoSize, false, deliveryWorkload));
+                }
+            }
+        }
+        orders.add(new DeliveryOrder(null, CargoSize.SMALL, false, DeliveryWorkload.NORMAL));
+        orders.add(new DeliveryOrder(BigDecimal.ONE, null, false, DeliveryWorkload.NORMAL));
+        orders.add(new DeliveryOrder(BigDecimal.ONE, CargoSize.SMALL, false, null));
+
+        ListPublisher publisher = new ListPublisher(orders);
+        DeliveryQuoteProcessor processor = new DeliveryQuoteProcessor(new DeliveryCalculator(), 16, 64, Runnable::run);
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        publisher.subscribe(processor);
+        processor.subscribe(subscriber);
+        subscriber.subscription.request(Long.MAX_VALUE);
+
+        assertTrue(subscriber.completed);
+        assertEquals(orders.size(), subscriber.quotes.size());
+        for (int i = 0; i < orders.size(); i++) {
+            DeliveryOrder order = orders.get(i);
+            assertEquals(order, subscriber.quotes.get(i).order());
+            assertEquals(
+                    reference.tryCalculateDeliveryCost(order.distance(), order.cargoSize(), order.isFragile(), order.deliveryWorkload()),
+                    subscriber.quotes.get(i).result()
+            );
+        }
+        assertEquals(QuoteStatus.UNKNOWN_DELIVERY_WORKLOAD, subscriber.quotes.get(orders.size() - 1).result().status());
+        assertTrue(publisher.maxOutstanding <= 64, "outstanding " + publisher.maxOutstanding);
+    }
+
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("У источника запрашивается не больше заказов, чем запросил подписчик")
+    @DisplayName("Соблюдение спроса подписчика")
+    void shouldHonourSubscriberDemand() {
+        List<DeliveryOrder> orders = new ArrayList<>();
+        for (int i = 1; i <= 1_000; i++) {
+            orders.add(new DeliveryOrder(BigDecimal.valueOf(i, 2), CargoSize.SMALL, false, DeliveryWorkload.NORMAL));
+        }
+        ListPublisher publisher = new ListPublisher(orders);
+        DeliveryQuoteProcessor processor = new DeliveryQuoteProcessor(new DeliveryCalculator(), 8, 32, Runnable::run);
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        publisher.subscribe(processor);
+        processor.subscribe(subscriber);
+
+        assertEquals(0, publisher.requested);
+        subscriber.subscription.request(5);
+        assertEquals(5, subscriber.quotes.size());
+        assertEquals(5, publisher.requested);
+
+        subscriber.subscription.request(100);
+        assertEquals(105, subscriber.quotes.size());
+        assertTrue(publisher.maxOutstanding <= 32, "outstanding " + publisher.maxOutstanding);
+
+        subscriber.subscription.cancel();
+        assertTrue(publisher.cancelled);
+        assertEquals(105, subscriber.quotes.size());
+    }
+
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Асинхронный источник с медленным подписчиком: все заказы посчитаны, буфер стадии не переполняется")
+    @DisplayName("Асинхронный поток с обратным давлением")
+    void shouldWorkWithAsynchronousPublisher() throws InterruptedException {
+        int count = 20_000;
+        DeliveryQuoteProcessor processor = new DeliveryQuoteProcessor(new DeliveryCalculator(), 64, 256);
+        RecordingSubscriber subscriber = new RecordingSubscriber() {
+            @Override
+            public void onNext(DeliveryQuote item) {
+                super.onNext(item);
+                if (quotes.size() % 100 == 0) {
+                    subscription.request(100);
+                }
+            }
+        };
+        processor.subscribe(subscriber);
+        subscriber.subscription.request(100);
+
+        try (SubmissionPublisher<DeliveryOrder> publisher = new SubmissionPublisher<>()) {
+            publisher.subscribe(processor);
+            for (int i = 1; i <= count; i++) {
+                publisher.submit(new DeliveryOrder(BigDecimal.valueOf(i % 40_000, 3), CargoSize.LARGE, i % 2 == 0, DeliveryWorkload.HIGH));
+            }
+        }
+
+        assertTrue(subscriber.done.await(10, TimeUnit.SECONDS));
+        assertNull(subscriber.error);
+        assertEquals(count, subscriber.quotes.size());
+        assertEquals(new BigDecimal("560.00"), subscriber.quotes.get(15_000).result().cost());
+    }
+
+    @Test
+    @Severity(SeverityLevel.NORMAL)
+    @Description("Ошибка источника, некорректный запрос и второй подписчик завершают поток ошибкой")
+    @DisplayName("Передача ошибок подписчику")
+    void shouldSignalErrors() {
+        DeliveryQuoteProcessor processor = new DeliveryQuoteProcessor(new DeliveryCalculator(), 4, 4, Runnable::run);
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        processor.subscribe(subscriber);
+        RecordingSubscriber second = new RecordingSubscriber();
+        processor.subscribe(second);
+        assertInstanceOf(IllegalStateException.class, second.error);
+
+        ListPublisher publisher = new ListPublisher(List.of());
+        publisher.subscribe(processor);
+        subscriber.subscription.request(0);
+        assertInstanceOf(IllegalArgumentException.class, subscriber.error);
+        assertTrue(publisher.cancelled);
+
+        DeliveryQuoteProcessor failing = new DeliveryQuoteProcessor(new DeliveryCalculator(), 4, 4, Runnable::run);
+        RecordingSubscriber failed = new RecordingSubscriber();
+        failing.subscribe(failed);
+        failing.onSubscribe(new ListPublisher(List.of()).subscription(failing));
+        failing.onError(new IllegalStateException("источник упал"));
+        assertEquals("источник упал", failed.error.getMessage());
+
+        assertThrows(IllegalArgumentException.class, () -> new DeliveryQuoteProcessor(new DeliveryCalculator(), 8, 4));
+    }
+
+    /**
+     * Синхронный источник из списка, который запоминает запрошенное количество и наибольшее число заказов,
+     * запрошенных, но ещё не отправленных.
+     */
+    private static final class ListPublisher implements Flow.Publisher<DeliveryOrder> {
+
+        private final List<DeliveryOrder> orders;
+        private int next;
+        private long requested;
+        private long maxOutstanding;
+        private boolean cancelled;
+        private boolean emitting;
+
+        ListPublisher(List<DeliveryOrder> orders) {
+            this.orders = orders;
+        }
+
+        @Override
+        public void subscribe(Flow.Subscriber<? super DeliveryOrder> subscriber) {
+            subscriber.onSubscribe(subscription(subscriber));
+        }
+
+        Flow.Subscription subscription(Flow.Subscriber<? super DeliveryOrder> subscriber) {
+            return new Flow.Subscription() {
+                @Override
+                public void request(long n) {
+                    requested += n;
+                    maxOutstanding = Math.max(maxOutstanding, requested - next);
+                    if (emitting) {
+                        return;
+                    }
+                    emitting = true;
+                    while (!cancelled && next < requested && next < orders.size()) {
+                        subscriber.onNext(orders.get(next++));
+                    }
+                    if (!cancelled && next == orders.size()) {
+                        cancelled = true;
+                        subscriber.onComplete();
+                    }
+                    emitting = false;
+                }
+
+                @Override
+                public void cancel() {
+                    cancelled = true;
+                }
+            };
+        }
+    }
+
+    private static class RecordingSubscriber implements Flow.Subscriber<DeliveryQuote> {
+
+        final List<DeliveryQuote> quotes = new ArrayList<>();
+        final CountDownLatch done = new CountDownLatch(1);
+        Flow.Subscription subscription;
+        volatile Throwable error;
+        volatile boolean completed;
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onNext(DeliveryQuote item) {
+            quotes.add(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+            done.countDown();
+        }
+
+        @Override
+        public void onComplete() {
+            completed = true;
+            done.countDown();
+        }
+    }
+}
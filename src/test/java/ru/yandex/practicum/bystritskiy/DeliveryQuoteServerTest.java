@@ -0,0 +1,190 @@
+package ru.yandex.practicum.bystritskiy;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import io.qameta.allure.Description;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import io.qameta.allure.Story;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@Feature("Калькулятор стоимости доставки")
+@Story("HTTP-сервис расчёта")
+@DisplayName("Тесты HTTP-сервиса расчёта стоимости доставки")
+class DeliveryQuoteServerTest {
+
+    private static DeliveryQuoteServer server;
+    private static HttpClient client;
+
+    @BeforeAll
+    static void setUp() throws Exception {
+        server = new DeliveryQuoteServer(new TableDeliveryCalculator(), new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        client = HttpClient.newHttpClient();
+    }
+
+    @AfterAll
+    static void tearDown() {
+        server.close();
+    }
+
+    @Test
+    @Severity(SeverityLevel.BLOCKER)
+    @Description("Один заказ рассчитывается и возвращается как строка стоимости")
+    @DisplayName("Расчёт одного заказа")
+    void shouldQuoteSingleOrder() throws Exception {
+        HttpResponse<String> response = post(
+                DeliveryQuoteServer.QUOTE_PATH,
+                "{\"distance\": 15.00, \"cargoSize\": \"LARGE\", \"fragile\": false, \"deliveryWorkload\": \"HIGH\"}"
+        );
+
+        assertEquals(200, response.statusCode());
+        assertEquals("{\"cost\":\"560.00\"}", response.body());
+    }
+
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Нарушение правил расчёта возвращается как 422 со статусом отказа")
+    @DisplayName("Отказ в расчёте хрупкого груза на расстояние > 30 км")
+    void shouldRejectFragileTooFar() throws Exception {
+        HttpResponse<String> response = post(
+                DeliveryQuoteServer.QUOTE_PATH,
+                "{\"distance\": \"30.01\", \"cargoSize\": \"SMALL\", \"fragile\": true, \"deliveryWorkload\": \"NORMAL\"}"
+        );
+
+        assertEquals(422, response.statusCode());
+        assertEquals("{\"status\":\"FRAGILE_TOO_FAR\",\"code\":2}", response.body());
+    }
+
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Отсутствующее расстояние и неизвестные габариты возвращаются как 422 с соответствующими статусами")
+    @DisplayName("Отказ при отсутствующих и неизвестных параметрах")
+    void shouldRejectMissingAndUnknownParameters() throws Exception {
+        HttpResponse<String> missingDistance = post(
+                DeliveryQuoteServer.QUOTE_PATH,
+                "{\"cargoSize\": \"SMALL\", \"deliveryWorkload\": \"NORMAL\"}"
+        );
+        HttpResponse<String> unknownCargoSize = post(
+                DeliveryQuoteServer.QUOTE_PATH,
+                "{\"distance\": 5, \"cargoSize\": \"HUGE\", \"deliveryWorkload\": \"NORMAL\"}"
+        );
+
+        assertEquals(422, missingDistance.statusCode());
+        assertEquals("{\"status\":\"MISSING_DISTANCE\",\"code\":6}", missingDistance.body());
+        assertEquals(422, unknownCargoSize.statusCode());
+        assertEquals("{\"status\":\"UNKNOWN_CARGO_SIZE\",\"code\":3}", unknownCargoSize.body());
+    }
+
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Некорректный JSON возвращается как 400")
+    @DisplayName("Ошибка при некорректном JSON")
+    void shouldRejectMalformedJson() throws Exception {
+        for (String body : new String[]{"", "{", "{\"distance\": 5", "{\"distance\": abc}", "{\"distance\": 5} tail", "[]"}) {
+            HttpResponse<String> response = post(DeliveryQuoteServer.QUOTE_PATH, body);
+
+            assertEquals(400, response.statusCode(), body);
+            assertEquals("{\"status\":\"MALFORMED_INPUT\",\"code\":5}", response.body());
+        }
+    }
+
+    @Test
+    @Severity(SeverityLevel.NORMAL)
+    @Description("Неизвестные поля, в том числе вложенные, пропускаются")
+    @DisplayName("Пропуск неизвестных полей")
+    void shouldSkipUnknownFields() throws Exception {
+        HttpResponse<String> response = post(
+                DeliveryQuoteServer.QUOTE_PATH,
+                "{\"id\": \"a\\\"b\", \"meta\": {\"tags\": [1, {\"x\": \"}\"}]}, \"distance\": 1, "
+                        + "\"cargoSize\": \"SMALL\", \"deliveryWorkload\": \"NORMAL\"}"
+        );
+
+        assertEquals(200, response.statusCode());
+        assertEquals("{\"cost\":\"400.00\"}", response.body());
+    }
+
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Пакет заказов рассчитывается целиком, результаты и отказы возвращаются в исходном порядке")
+    @DisplayName("Пакетный расчёт")
+    void shouldQuoteBatch() throws Exception {
+        HttpResponse<String> response = post(
+                DeliveryQuoteServer.QUOTES_PATH,
+                "[{\"distance\": 15.00, \"cargoSize\": \"LARGE\", \"deliveryWorkload\": \"HIGH\"},"
+                        + " {\"distance\": 0, \"cargoSize\": \"SMALL\", \"deliveryWorkload\": \"NORMAL\"},"
+                        + " {\"distance\": 15.00, \"cargoSize\": \"LARGE\", \"deliveryWorkload\": \"HIGH\"}]"
+        );
+
+        assertEquals(200, response.statusCode());
+        assertEquals(
+                "[{\"cost\":\"560.00\"},{\"status\":\"NON_POSITIVE_DISTANCE\",\"code\":1},{\"cost\":\"560.00\"}]",
+                response.body()
+        );
+        assertEquals("[]", post(DeliveryQuoteServer.QUOTES_PATH, " [ ] ").body());
+        assertEquals(400, post(DeliveryQuoteServer.QUOTES_PATH, "[{\"distance\": 1},").statusCode());
+    }
+
+    @Test
+    @Severity(SeverityLevel.NORMAL)
+    @Description("Запросы кроме POST отклоняются с кодом 405")
+    @DisplayName("Ошибка при методе GET")
+    void shouldRejectGet() throws Exception {
+        HttpResponse<String> response = client.send(
+                HttpRequest.newBuilder(uri(DeliveryQuoteServer.QUOTE_PATH)).GET().build(),
+                HttpResponse.BodyHandlers.ofString()
+        );
+
+        assertEquals(405, response.statusCode());
+    }
+
+    @Test
+    @Severity(SeverityLevel.NORMAL)
+    @Description("Параллельные запросы обрабатываются независимо и возвращают корректные результаты")
+    @DisplayName("Параллельные запросы")
+    void shouldServeConcurrentRequests() throws Exception {
+        List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            String workload = i % 2 == 0 ? "NORMAL" : "VERY_HIGH";
+            responses.add(client.sendAsync(
+                    request(DeliveryQuoteServer.QUOTE_PATH,
+                            "{\"distance\": 25, \"cargoSize\": \"LARGE\", \"fragile\": true, \"deliveryWorkload\": \"" + workload + "\"}"),
+                    HttpResponse.BodyHandlers.ofString()
+            ));
+        }
+
+        for (int i = 0; i < responses.size(); i++) {
+            HttpResponse<String> response = responses.get(i).join();
+            assertEquals(200, response.statusCode());
+            assertEquals(i % 2 == 0 ? "{\"cost\":\"700.00\"}" : "{\"cost\":\"1120.00\"}", response.body());
+        }
+    }
+
+    private static HttpResponse<String> post(String path, String body) throws Exception {
+        return client.send(request(path, body), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static HttpRequest request(String path, String body) {
+        return HttpRequest.newBuilder(uri(path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private static URI uri(String path) {
+        InetSocketAddress address = server.getAddress();
+        return URI.create("http://" + address.getAddress().getHostAddress() + ":" + address.getPort() + path);
+    }
+}
@@ -0,0 +1,91 @@
+package ru.yandex.practicum.bystritskiy;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import io.qameta.allure.Description;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import io.qameta.allure.Story;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import ru.yandex.practicum.bystritskiy.enums.QuoteStatus;
+
+@Feature("Калькулятор стоимости доставки")
+@Story("Разбор расстояния из текста")
+@DisplayName("Тесты разбора расстояния из текста")
+class DistanceParserTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = {"2", "2.0", "2.001", "2.0001", "2.0010", "10.000", "12.5", "30.0001", "+0.001", "0.0000001", "007.25"})
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Результат разбора из любого источника совпадает с округлением вверх до метра через BigDecimal")
+    @DisplayName("Разбор корректного расстояния")
+    void shouldParseLikeBigDecimal(String distance) {
+        long expected = Tariff.ceilMetres(new BigDecimal(distance));
+        byte[] bytes = ("[" + distance + "]").getBytes(StandardCharsets.US_ASCII);
+        ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length).put(bytes);
+
+        assertEquals(expected, DistanceParser.parseMetres(distance));
+        assertEquals(expected, DistanceParser.parseMetres("[" + distance + "]", 1, bytes.length - 1));
+        assertEquals(expected, DistanceParser.parseMetres(bytes, 1, bytes.length - 1));
+        assertEquals(expected, DistanceParser.parseMetres(ByteBuffer.wrap(bytes), 1, bytes.length - 1));
+        assertEquals(expected, DistanceParser.parseMetres(ByteBuffer.wrap(bytes, 1, bytes.length - 1).slice(), 0, bytes.length - 2));
+        assertEquals(expected, DistanceParser.parseMetres(direct, 1, bytes.length - 1));
+        assertEquals(QuoteStatus.OK, DistanceParser.status(expected));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "-", "+", ".5", "5.", "1.2.3", "12,5", "1e3", " 5", "5 ", "abc", "--1", "0x10"})
+    @Severity(SeverityLevel.NORMAL)
+    @Description("Некорректная запись расстояния возвращает код отказа вместо исключения")
+    @DisplayName("Отказ при некорректной записи")
+    void shouldRejectMalformed(String distance) {
+        byte[] bytes = distance.getBytes(StandardCharsets.US_ASCII);
+
+        assertEquals(DistanceParser.MALFORMED_INPUT, DistanceParser.parseMetres(distance));
+        assertEquals(DistanceParser.MALFORMED_INPUT, DistanceParser.parseMetres(bytes, 0, bytes.length));
+        assertEquals(DistanceParser.MALFORMED_INPUT, DistanceParser.parseMetres(ByteBuffer.allocateDirect(bytes.length).put(bytes), 0, bytes.length));
+        assertEquals(QuoteStatus.MALFORMED_INPUT, DistanceParser.status(DistanceParser.MALFORMED_INPUT));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"0", "0.000", "0.0000", "-0", "-5", "-0.0001", "-12.5"})
+    @Severity(SeverityLevel.NORMAL)
+    @Description("Нулевое и отрицательное расстояние возвращает код NON_POSITIVE_DISTANCE")
+    @DisplayName("Отказ при неположительном расстоянии")
+    void shouldRejectNonPositive(String distance) {
+        assertEquals(DistanceParser.NON_POSITIVE_DISTANCE, DistanceParser.parseMetres(distance));
+        assertEquals(QuoteStatus.NON_POSITIVE_DISTANCE, DistanceParser.status(DistanceParser.parseMetres(distance)));
+    }
+
+    @Test
+    @Severity(SeverityLevel.NORMAL)
+    @Description("Слишком большое расстояние ограничивается максимальным значением, как при переводе из BigDecimal")
+    @DisplayName("Ограничение очень больших расстояний")
+    void shouldSaturateHugeDistances() {
+        String huge = "123456789012345678901234567890.5";
+
+        assertEquals(Long.MAX_VALUE, DistanceParser.parseMetres(huge));
+        assertEquals(Tariff.ceilMetres(new BigDecimal(huge)), DistanceParser.parseMetres(huge));
+        assertEquals(9_223_372_036_854_774_999L, DistanceParser.parseMetres("9223372036854774.999"));
+    }
+
+    @Test
+    @Severity(SeverityLevel.NORMAL)
+    @Description("Результат разбора сразу определяет полосу расстояния тарифа")
+    @DisplayName("Определение полосы расстояния по разобранным метрам")
+    void shouldFeedDistanceBand() {
+        Tariff tariff = new DeliveryCalculator().getTariff();
+
+        assertEquals(tariff.distanceBand(new BigDecimal("10.0001")), tariff.distanceBand(DistanceParser.parseMetres("10.0001")));
+        assertEquals(tariff.distanceBand(new BigDecimal("2")), tariff.distanceBand(DistanceParser.parseMetres("2")));
+        assertThrows(IndexOutOfBoundsException.class, () -> DistanceParser.parseMetres("12.5", 2, 5));
+    }
+}
@@ -0,0 +1,173 @@
+package ru.yandex.practicum.bystritskiy;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.qameta.allure.Description;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import io.qameta.allure.Story;
+import java.math.BigDecimal;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.bystritskiy.enums.CargoSize;
+import ru.yandex.practicum.bystritskiy.enums.DeliveryWorkload;
+import ru.yandex.practicum.bystritskiy.enums.QuoteStatus;
+
+@Feature("Калькулятор стоимости доставки")
+@Story("Расчёт по координатам")
+@DisplayName("Тесты расчёта стоимости по координатам и зонам")
+class GeoDeliveryCalculatorTest {
+
+    private final GeoDeliveryCalculator calculator = new GeoDeliveryCalculator(new DeliveryCalculator(), GeoDistance.HAVERSINE);
+
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Расстояние по дуге и по сетке округляется вверх до метра")
+    @DisplayName("Расчёт расстояния по координатам")
+    void shouldComputeDistances() {
+        assertEquals(111_196, GeoDistance.haversineMetres(0, 0, 1, 0));
+        assertTrue(GeoDistance.gridMetres(0, 0, 1, 1) >= GeoDistance.haversineMetres(0, 0, 1, 1));
+        assertEquals(GeoDistance.haversineMetres(10, 179.5, 10, -179.5), GeoDistance.haversineMetres(10, -0.5, 10, 0.5));
+        assertEquals(0, GeoDistance.haversineMetres(55.75, 37.62, 55.75, 37.62));
+    }
+
+    @Test
+    @Severity(SeverityLevel.BLOCKER)
+    @Description("Стоимость по координатам совпадает с расчётом по вычисленному расстоянию")
+    @DisplayName("Расчёт стоимости по координатам")
+    void shouldQuoteByCoordinates() {
+        assertEquals(11_120, calculator.distanceMetres(0, 0, 0.1, 0));
+        assertEquals(
+                new BigDecimal("560.00"),
+                calculator.calculateDeliveryCost(0, 0, 0.1, 0, CargoSize.LARGE, false, DeliveryWorkload.HIGH)
+        );
+        assertEquals(56_000, calculator.calculateDeliveryCostKopecks(0, 0, 0.1, 0, CargoSize.LARGE, false, DeliveryWorkload.HIGH));
+    }
+
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Совпадающие точки дают нулевое расстояние, некорректные координаты отклоняются")
+    @DisplayName("Отказ при нулевом расстоянии и некорректных координатах")
+    void shouldRejectInvalidCoordinates() {
+        IllegalArgumentException samePoint = assertThrows(
+                IllegalArgumentException.class,
+                () -> calculator.calculateDeliveryCost(55.75, 37.62, 55.75, 37.62, CargoSize.SMALL, false, DeliveryWorkload.NORMAL)
+        );
+        assertEquals("Расстояние должно быть больше 0 км", samePoint.getMessage());
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> calculator.calculateDeliveryCostKopecks(91, 0, 0, 0, CargoSize.SMALL, false, DeliveryWorkload.NORMAL)
+        );
+        assertEquals(
+                QuoteStatus.MALFORMED_INPUT,
+                calculator.tryCalculateDeliveryCost(Double.NaN, 0, 0, 0, CargoSize.SMALL, false, DeliveryWorkload.NORMAL).status()
+        );
+    }
+
+    @Nested
+    @Story("Матрица расстояний между зонами")
+    @DisplayName("Тесты матрицы расстояний между зонами")
+    class ZoneDistanceMatrixTests {
+
+        private final double[] latitudes = new double[100];
+        private final double[] longitudes = new double[100];
+
+        {
+            for (int zone = 0; zone < latitudes.length; zone++) {
+                latitudes[zone] = 55.5 + zone * 0.005;
+                longitudes[zone] = 37.3 + (zone % 10) * 0.05;
+            }
+        }
+
+        @Test
+        @Severity(SeverityLevel.CRITICAL)
+        @Description("Расстояния между популярными зонами считаются заранее и совпадают с прямым расчётом")
+        @DisplayName("Заранее рассчитанные расстояния")
+        void shouldPrecomputeHotPairs() {
+            AtomicInteger calls = new AtomicInteger();
+            GeoDistance counting = (fromLatitude, fromLongitude, toLatitude, toLongitude) -> {
+                calls.incrementAndGet();
+                return GeoDistance.haversineMetres(fromLatitude, fromLongitude, toLatitude, toLongitude);
+            };
+            ZoneDistanceMatrix matrix = new ZoneDistanceMatrix(latitudes, longitudes, new int[]{3, 7, 42, 7}, 0, counting);
+
+            assertEquals(3, matrix.getHotZoneCount());
+            assertEquals(9, calls.get());
+            assertEquals(
+                    GeoDistance.haversineMetres(latitudes[3], longitudes[3], latitudes[42], longitudes[42]),
+                    matrix.distanceMetres(3, 42)
+            );
+            assertEquals(9, calls.get());
+        }
+
+        @Test
+        @Severity(SeverityLevel.CRITICAL)
+        @Description("Остальные пары считаются один раз и хранятся в кеше ограниченного размера")
+        @DisplayName("Ограниченный LRU-кеш расстояний")
+        void shouldCacheColdPairs() {
+            AtomicInteger calls = new AtomicInteger();
+            GeoDistance counting = (fromLatitude, fromLongitude, toLatitude, toLongitude) -> {
+                calls.incrementAndGet();
+                return GeoDistance.gridMetres(fromLatitude, fromLongitude, toLatitude, toLongitude);
+            };
+            ZoneDistanceMatrix matrix = new ZoneDistanceMatrix(latitudes, longitudes, new int[0], 32, counting);
+
+            long first = matrix.distanceMetres(1, 2);
+            assertEquals(first, matrix.distanceMetres(1, 2));
+            assertEquals(1, calls.get());
+
+            for (int zone = 0; zone < latitudes.length; zone++) {
+                matrix.distanceMetres(0, zone);
+            }
+            assertTrue(matrix.getCachedPairCount() <= 32, "cached " + matrix.getCachedPairCount());
+            assertThrows(IllegalArgumentException.class, () -> matrix.distanceMetres(0, 100));
+        }
+
+        @Test
+        @Severity(SeverityLevel.NORMAL)
+        @Description("Стоимость по зонам считается по расстоянию из матрицы")
+        @DisplayName("Расчёт стоимости по зонам")
+        void shouldQuoteByZones() {
+            ZoneDistanceMatrix matrix = new ZoneDistanceMatrix(latitudes, longitudes, new int[]{0, 99}, 64, GeoDistance.HAVERSINE);
+            GeoDeliveryCalculator zones = new GeoDeliveryCalculator(new DeliveryCalculator(), GeoDistance.HAVERSINE, matrix);
+            DeliveryCalculator reference = new DeliveryCalculator();
+
+            for (int[] pair : new int[][]{{0, 99}, {5, 60}, {10, 11}}) {
+                long metres = matrix.distanceMetres(pair[0], pair[1]);
+                assertEquals(
+                        reference.calculateDeliveryCost(BigDecimal.valueOf(metres, 3), CargoSize.SMALL, false, DeliveryWorkload.INCREASED),
+                        zones.calculateDeliveryCost(pair[0], pair[1], CargoSize.SMALL, false, DeliveryWorkload.INCREASED)
+                );
+            }
+            assertThrows(
+                    IllegalStateException.class,
+                    () -> calculator.calculateDeliveryCostKopecks(0, 1, CargoSize.SMALL, false, DeliveryWorkload.NORMAL)
+            );
+        }
+
+        @Test
+        @Severity(SeverityLevel.NORMAL)
+        @Description("Неизвестная зона возвращается собственным кодом отказа, известные зоны считаются так же, как с исключениями")
+        @DisplayName("Отказ для неизвестной зоны без исключения")
+        void shouldRejectUnknownZoneWithStatus() {
+            ZoneDistanceMatrix matrix = new ZoneDistanceMatrix(latitudes, longitudes, new int[]{0, 99}, 64, GeoDistance.HAVERSINE);
+            GeoDeliveryCalculator zones = new GeoDeliveryCalculator(new DeliveryCalculator(), GeoDistance.HAVERSINE, matrix);
+
+            assertEquals(
+                    QuoteResult.rejected(QuoteStatus.UNKNOWN_ZONE),
+                    zones.tryCalculateDeliveryCost(0, 100, CargoSize.SMALL, false, DeliveryWorkload.NORMAL)
+            );
+            assertEquals(QuoteStatus.UNKNOWN_ZONE, zones.checkInput(-1, 5, CargoSize.SMALL, false, DeliveryWorkload.NORMAL));
+            assertEquals(QuoteStatus.OK, zones.checkInput(5, 60, CargoSize.SMALL, false, DeliveryWorkload.NORMAL));
+            assertEquals(
+                    QuoteResult.ok(zones.calculateDeliveryCost(5, 60, CargoSize.LARGE, false, DeliveryWorkload.HIGH)),
+                    zones.tryCalculateDeliveryCost(5, 60, CargoSize.LARGE, false, DeliveryWorkload.HIGH)
+            );
+        }
+    }
+}
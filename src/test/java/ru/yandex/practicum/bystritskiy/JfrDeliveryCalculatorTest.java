@@ -0,0 +1,207 @@
+package ru.yandex.practicum.bystritskiy;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.qameta.allure.Description;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import io.qameta.allure.Story;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ru.yandex.practicum.bystritskiy.enums.CargoSize;
+import ru.yandex.practicum.bystritskiy.enums.DeliveryWorkload;
+
+@Feature("Калькулятор стоимости доставки")
+@Story("События JFR")
+@DisplayName("Тесты событий JFR калькулятора стоимости доставки")
+class JfrDeliveryCalculatorTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Каждый расчёт при интервале выборки 1 записывается событием с входными данными, полосой и стоимостью или причиной отказа")
+    @DisplayName("Запись событий расчёта и отказа")
+    void shouldRecordQuoteEvents() throws Exception {
+        DeliveryCalculator calculator = new JfrDeliveryCalculator(new TableDeliveryCalculator(), 1);
+
+        Path file = tempDir.resolve("quotes.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(QuoteEvent.NAME);
+            recording.start();
+
+            calculator.calculateDeliveryCost(new BigDecimal("15.00"), CargoSize.LARGE, false, DeliveryWorkload.HIGH);
+            calculator.tryCalculateDeliveryCost(new BigDecimal("0"), CargoSize.SMALL, false, DeliveryWorkload.NORMAL);
+            assertThrows(
+                    IllegalArgumentException.class,
+                    () -> calculator.calculateDeliveryCost(new BigDecimal("31.00"), CargoSize.SMALL, true, DeliveryWorkload.NORMAL)
+            );
+
+            recording.stop();
+            recording.dump(file);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+                .filter(event -> event.getEventType().getName().equals(QuoteEvent.NAME))
+                .collect(Collectors.toList());
+
+        assertEquals(3, events.size());
+
+        RecordedEvent quote = events.get(0);
+        assertEquals("15.00", quote.getString("distance"));
+        assertEquals("LARGE", quote.getString("cargoSize"));
+        assertEquals("HIGH", quote.getString("deliveryWorkload"));
+        assertEquals(2, quote.getInt("distanceBand"));
+        assertEquals("560.00", quote.getString("cost"));
+        assertEquals("OK", quote.getString("status"));
+
+        assertEquals("NON_POSITIVE_DISTANCE", events.get(1).getString("status"));
+        assertEquals(-1, events.get(1).getInt("distanceBand"));
+        assertEquals("FRAGILE_TOO_FAR", events.get(2).getString("status"));
+    }
+
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Расчёт в копейках передаётся исходному калькулятору и записывается событием, как расчёт на BigDecimal")
+    @DisplayName("Запись события расчёта в копейках")
+    void shouldDelegateAndRecordKopecksQuote() throws Exception {
+        AtomicInteger delegated = new AtomicInteger();
+        DeliveryCalculator recordingDelegate = new TableDeliveryCalculator() {
+            @Override
+            public long calculateDeliveryCostKopecks(long distanceMetres, CargoSize cargoSize, boolean isFragile,
+                                                     DeliveryWorkload deliveryWorkload) {
+                delegated.incrementAndGet();
+                return super.calculateDeliveryCostKopecks(distanceMetres, cargoSize, isFragile, deliveryWorkload);
+            }
+        };
+        DeliveryCalculator calculator = new JfrDeliveryCalculator(recordingDelegate, 1);
+
+        Path file = tempDir.resolve("kopecks.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(QuoteEvent.NAME);
+            recording.start();
+
+            assertEquals(56_000, calculator.calculateDeliveryCostKopecks(15_000, CargoSize.LARGE, false, DeliveryWorkload.HIGH));
+            assertThrows(
+                    IllegalArgumentException.class,
+                    () -> calculator.calculateDeliveryCostKopecks(31_000, CargoSize.SMALL, true, DeliveryWorkload.NORMAL)
+            );
+
+            recording.stop();
+            recording.dump(file);
+        }
+
+        assertEquals(2, delegated.get());
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+                .filter(event -> event.getEventType().getName().equals(QuoteEvent.NAME))
+                .collect(Collectors.toList());
+        assertEquals(2, events.size());
+        assertEquals("15.000", events.get(0).getString("distance"));
+        assertEquals(2, events.get(0).getInt("distanceBand"));
+        assertEquals("560.00", events.get(0).getString("cost"));
+        assertEquals("OK", events.get(0).getString("status"));
+        assertEquals("FRAGILE_TOO_FAR", events.get(1).getString("status"));
+    }
+
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Строки пакетного расчёта записываются событиями и учитываются в периодической сводке")
+    @DisplayName("Запись событий пакетного расчёта")
+    void shouldRecordBatchRows() throws Exception {
+        DeliveryCalculator calculator = new JfrDeliveryCalculator(new TableDeliveryCalculator(), 1);
+        long[] distancesMetres = {15_000, 31_000, 5_000};
+        byte[] cargoSizes = {(byte) CargoSize.LARGE.ordinal(), (byte) CargoSize.SMALL.ordinal(), (byte) CargoSize.SMALL.ordinal()};
+        long[] fragile = {0b010};
+        byte[] deliveryWorkloads = {
+                (byte) DeliveryWorkload.HIGH.ordinal(), (byte) DeliveryWorkload.NORMAL.ordinal(),
+                (byte) DeliveryWorkload.INCREASED.ordinal()
+        };
+        long[] costs = new long[3];
+        byte[] statuses = new byte[3];
+
+        Path file = tempDir.resolve("batch.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(QuoteEvent.NAME);
+            recording.enable(QuoteThroughputEvent.NAME).withPeriod(Duration.ofMillis(100));
+            recording.start();
+
+            calculator.calculateDeliveryCostsKopecks(distancesMetres, cargoSizes, fragile, deliveryWorkloads, costs, statuses);
+            Thread.sleep(1_000);
+
+            recording.stop();
+            recording.dump(file);
+        }
+
+        List<RecordedEvent> recorded = RecordingFile.readAllEvents(file);
+        List<RecordedEvent> quotes = recorded.stream()
+                .filter(event -> event.getEventType().getName().equals(QuoteEvent.NAME))
+                .collect(Collectors.toList());
+        assertEquals(3, quotes.size());
+        assertEquals("15.000", quotes.get(0).getString("distance"));
+        assertEquals("560.00", quotes.get(0).getString("cost"));
+        assertEquals("FRAGILE_TOO_FAR", quotes.get(1).getString("status"));
+        assertTrue(quotes.get(1).getBoolean("fragile"));
+        assertEquals("INCREASED", quotes.get(2).getString("deliveryWorkload"));
+
+        List<RecordedEvent> throughput = recorded.stream()
+                .filter(event -> event.getEventType().getName().equals(QuoteThroughputEvent.NAME))
+                .collect(Collectors.toList());
+        assertEquals(1, throughput.stream().mapToLong(event -> event.getLong("high")).sum());
+        assertEquals(1, throughput.stream().mapToLong(event -> event.getLong("increased")).sum());
+        assertEquals(1, throughput.stream().mapToLong(event -> event.getLong("rejected")).sum());
+    }
+
+    @Test
+    @Severity(SeverityLevel.NORMAL)
+    @Description("Периодическое событие содержит количество расчётов по уровням загруженности и количество отказов")
+    @DisplayName("Периодическая сводка по загруженности")
+    void shouldRecordThroughputEvents() throws Exception {
+        DeliveryCalculator calculator = new JfrDeliveryCalculator(new TableDeliveryCalculator(), 1_000);
+
+        Path file = tempDir.resolve("throughput.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(QuoteThroughputEvent.NAME).withPeriod(Duration.ofMillis(100));
+            recording.start();
+
+            for (int i = 0; i < 10; i++) {
+                calculator.calculateDeliveryCost(new BigDecimal("5.00"), CargoSize.SMALL, false, DeliveryWorkload.INCREASED);
+            }
+            calculator.tryCalculateDeliveryCost(new BigDecimal("5.00"), CargoSize.SMALL, false, null);
+            Thread.sleep(2_000);
+
+            recording.stop();
+            recording.dump(file);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+                .filter(event -> event.getEventType().getName().equals(QuoteThroughputEvent.NAME))
+                .collect(Collectors.toList());
+
+        assertTrue(events.size() > 0);
+        assertEquals(10, events.stream().mapToLong(event -> event.getLong("increased")).sum());
+        assertEquals(0, events.stream().mapToLong(event -> event.getLong("normal")).sum());
+        assertEquals(1, events.stream().mapToLong(event -> event.getLong("rejected")).sum());
+    }
+
+    @Test
+    @Severity(SeverityLevel.NORMAL)
+    @Description("Интервал выборки должен быть положительным")
+    @DisplayName("Исключение при неположительном интервале выборки")
+    void shouldRejectNonPositiveSampleInterval() {
+        assertThrows(IllegalArgumentException.class, () -> new JfrDeliveryCalculator(new DeliveryCalculator(), 0));
+    }
+}
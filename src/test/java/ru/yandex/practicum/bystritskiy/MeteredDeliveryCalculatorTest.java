@@ -0,0 +1,176 @@
+package ru.yandex.practicum.bystritskiy;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.qameta.allure.Description;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import io.qameta.allure.Story;
+import java.math.BigDecimal;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.bystritskiy.enums.CargoSize;
+import ru.yandex.practicum.bystritskiy.enums.DeliveryWorkload;
+import ru.yandex.practicum.bystritskiy.enums.QuoteStatus;
+
+@Feature("Калькулятор стоимости доставки")
+@Story("Метрики расчётов")
+@DisplayName("Тесты метрик калькулятора стоимости доставки")
+class MeteredDeliveryCalculatorTest {
+
+    private DeliveryMetrics metrics;
+    private DeliveryCalculator calculator;
+
+    @BeforeEach
+    void setUp() {
+        metrics = new DeliveryMetrics(Tariff.defaultTariff().getDistanceBandCount());
+        calculator = MeteredDeliveryCalculator.of(new TableDeliveryCalculator(), metrics);
+    }
+
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Расчёты учитываются по полосе расстояния, габаритам, хрупкости и загруженности")
+    @DisplayName("Учёт расчётов по измерениям тарифа")
+    void shouldCountQuotesPerDimension() {
+        calculator.calculateDeliveryCost(new BigDecimal("1.00"), CargoSize.SMALL, false, DeliveryWorkload.NORMAL);
+        calculator.calculateDeliveryCost(new BigDecimal("15.00"), CargoSize.LARGE, true, DeliveryWorkload.HIGH);
+        calculator.tryCalculateDeliveryCost(new BigDecimal("50.00"), CargoSize.LARGE, false, DeliveryWorkload.HIGH);
+        calculator.calculateDeliveryCostKopecks(5_000, CargoSize.SMALL, false, DeliveryWorkload.VERY_HIGH);
+
+        DeliveryMetrics.Snapshot snapshot = metrics.snapshot();
+
+        assertEquals(4, snapshot.quotes());
+        assertArrayEquals(new long[]{1, 1, 1, 1}, snapshot.distanceBands());
+        assertArrayEquals(new long[]{2, 2}, snapshot.cargoSizes());
+        assertArrayEquals(new long[]{3, 1}, snapshot.fragile());
+        assertArrayEquals(new long[]{1, 0, 2, 1}, snapshot.deliveryWorkloads());
+    }
+
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Отказы учитываются по причинам, исключение пробрасывается вызывающему")
+    @DisplayName("Учёт отказов по причинам")
+    void shouldCountRejectionsPerReason() {
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> calculator.calculateDeliveryCost(new BigDecimal("31.00"), CargoSize.SMALL, true, DeliveryWorkload.NORMAL)
+        );
+        calculator.tryCalculateDeliveryCost(new BigDecimal("0"), CargoSize.SMALL, false, DeliveryWorkload.NORMAL);
+        calculator.tryCalculateDeliveryCost(new BigDecimal("40.00"), CargoSize.SMALL, true, DeliveryWorkload.NORMAL);
+
+        DeliveryMetrics.Snapshot snapshot = metrics.snapshot();
+
+        assertEquals(0, snapshot.quotes());
+        assertEquals(2, snapshot.rejections(QuoteStatus.FRAGILE_TOO_FAR));
+        assertEquals(1, snapshot.rejections(QuoteStatus.NON_POSITIVE_DISTANCE));
+    }
+
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Исключение калькулятора при корректных входных данных учитывается как сбой, а не как отказ, "
+            + "и пробрасывается вызывающему")
+    @DisplayName("Учёт сбоев калькулятора")
+    void shouldCountDelegateFailuresSeparately() {
+        DeliveryCalculator failing = new TableDeliveryCalculator() {
+            @Override
+            public BigDecimal calculateDeliveryCost(BigDecimal distance, CargoSize cargoSize, boolean isFragile,
+                                                    DeliveryWorkload deliveryWorkload) {
+                throw new IllegalStateException("Тариф недоступен");
+            }
+
+            @Override
+            public long calculateDeliveryCostKopecks(long distanceMetres, CargoSize cargoSize, boolean isFragile,
+                                                     DeliveryWorkload deliveryWorkload) {
+                throw new IllegalStateException("Тариф недоступен");
+            }
+
+            @Override
+            public void calculateDeliveryCostsKopecks(long[] distancesMetres, byte[] cargoSizes, long[] fragile,
+                                                      byte[] deliveryWorkloads, long[] costs, byte[] statuses, int from, int to) {
+                throw new IllegalStateException("Тариф недоступен");
+            }
+        };
+        DeliveryCalculator metered = MeteredDeliveryCalculator.of(failing, metrics);
+
+        assertThrows(
+                IllegalStateException.class,
+                () -> metered.calculateDeliveryCost(new BigDecimal("5.00"), CargoSize.SMALL, false, DeliveryWorkload.NORMAL)
+        );
+        assertThrows(
+                IllegalStateException.class,
+                () -> metered.calculateDeliveryCostKopecks(5_000, CargoSize.SMALL, false, DeliveryWorkload.NORMAL)
+        );
+        assertThrows(
+                IllegalStateException.class,
+                () -> metered.calculateDeliveryCostsKopecks(new long[]{1_000, 2_000}, new byte[2], new long[1], new byte[2],
+                        new long[2], new byte[2])
+        );
+
+        DeliveryMetrics.Snapshot snapshot = metrics.snapshot();
+        assertEquals(4, snapshot.failures());
+        assertEquals(0, snapshot.quotes());
+        assertEquals(0, snapshot.rejections(QuoteStatus.OK));
+    }
+
+    @Test
+    @Severity(SeverityLevel.NORMAL)
+    @Description("Строки пакетного расчёта учитываются как расчёты и отказы по причинам")
+    @DisplayName("Учёт пакетного расчёта")
+    void shouldCountBatchRows() {
+        long[] distances = {1_000, 15_000, 40_000, 0};
+        byte[] cargoSizes = {0, 1, 0, 0};
+        long[] fragile = {0b0100};
+        byte[] workloads = {0, 2, 0, 0};
+        long[] costs = new long[distances.length];
+        byte[] statuses = new byte[distances.length];
+
+        calculator.calculateDeliveryCostsKopecks(distances, cargoSizes, fragile, workloads, costs, statuses);
+
+        DeliveryMetrics.Snapshot snapshot = metrics.snapshot();
+        assertEquals(2, snapshot.quotes());
+        assertArrayEquals(new long[]{1, 0, 1, 0}, snapshot.distanceBands());
+        assertEquals(1, snapshot.rejections(QuoteStatus.FRAGILE_TOO_FAR));
+        assertEquals(1, snapshot.rejections(QuoteStatus.NON_POSITIVE_DISTANCE));
+    }
+
+    @Test
+    @Severity(SeverityLevel.NORMAL)
+    @Description("Расчёт по тарифу с большим числом полос, чем в метриках, не превращается в исключение и не считается отказом")
+    @DisplayName("Учёт расчёта при несовпадении сетки тарифа и метрик")
+    void shouldNotFailQuoteWhenMetricsHaveFewerBands() {
+        DeliveryMetrics narrow = new DeliveryMetrics(2);
+        DeliveryCalculator metered = MeteredDeliveryCalculator.of(new DeliveryCalculator(), narrow);
+
+        assertEquals(
+                new BigDecimal("400.00"),
+                metered.calculateDeliveryCost(new BigDecimal("40.00"), CargoSize.SMALL, false, DeliveryWorkload.NORMAL)
+        );
+
+        DeliveryMetrics.Snapshot snapshot = narrow.snapshot();
+        assertArrayEquals(new long[]{0, 1}, snapshot.distanceBands());
+        assertEquals(0, snapshot.rejections(QuoteStatus.OK));
+    }
+
+    @Test
+    @Severity(SeverityLevel.NORMAL)
+    @Description("Снимок со сбросом обнуляет счётчики и гистограмму")
+    @DisplayName("Сброс метрик")
+    void shouldResetCounters() {
+        for (int i = 0; i < 100; i++) {
+            calculator.calculateDeliveryCost(new BigDecimal("5.00"), CargoSize.SMALL, false, DeliveryWorkload.NORMAL);
+        }
+
+        DeliveryMetrics.Snapshot beforeReset = metrics.snapshotAndReset();
+        DeliveryMetrics.Snapshot afterReset = metrics.snapshot();
+
+        assertEquals(100, beforeReset.quotes());
+        assertTrue(beforeReset.latencyPercentileNanos(99) > 0);
+        assertEquals(0, afterReset.quotes());
+        assertEquals(0, afterReset.latencyPercentileNanos(99));
+    }
+}
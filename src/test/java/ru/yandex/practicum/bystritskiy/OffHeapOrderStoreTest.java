@@ -0,0 +1,193 @@
+package ru.yandex.practicum.bystritskiy;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.qameta.allure.Description;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import io.qameta.allure.Story;
+import java.util.Properties;
+import java.util.SplittableRandom;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.bystritskiy.enums.CargoSize;
+import ru.yandex.practicum.bystritskiy.enums.DeliveryWorkload;
+import ru.yandex.practicum.bystritskiy.enums.QuoteStatus;
+
+@Feature("Калькулятор стоимости доставки")
+@Story("Хранилище заказов вне кучи")
+@DisplayName("Тесты хранилища заказов вне кучи")
+class OffHeapOrderStoreTest {
+
+    private static final int ORDERS_PER_CHUNK = 4;
+
+    private final DeliveryCalculator calculator = new DeliveryCalculator();
+    private final Tariff tariff = calculator.getTariff();
+
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Пересчёт на месте даёт ту же стоимость и те же отказы, что и калькулятор, в том числе на границах частей")
+    @DisplayName("Пересчёт совпадает с калькулятором")
+    void shouldRepriceLikeCalculator() {
+        OffHeapOrderStore store = new OffHeapOrderStore(ORDERS_PER_CHUNK);
+        SplittableRandom random = new SplittableRandom(11);
+        for (int i = 0; i < 1_000; i++) {
+            store.add(
+                    1_000_000L + i,
+                    random.nextLong(-1_000, 40_000_000),
+                    CargoSize.values()[random.nextInt(CargoSize.values().length)],
+                    random.nextBoolean(),
+                    DeliveryWorkload.values()[random.nextInt(DeliveryWorkload.values().length)]
+            );
+        }
+        assertNull(store.getStatus(0));
+
+        long priced = store.reprice(tariff);
+
+        long expectedPriced = 0;
+        for (long i = 0; i < store.size(); i++) {
+            QuoteStatus expected = calculator.checkInput(
+                    store.getDistanceMetres(i), store.getCargoSize(i), store.isFragile(i), store.getDeliveryWorkload(i)
+            );
+            assertEquals(expected, store.getStatus(i), "Заказ " + store.getOrderId(i));
+            if (expected == QuoteStatus.OK) {
+                expectedPriced++;
+                assertEquals(calculator.calculateDeliveryCostKopecks(
+                        store.getDistanceMetres(i), store.getCargoSize(i), store.isFragile(i), store.getDeliveryWorkload(i)
+                ), store.getCostKopecks(i));
+            } else {
+                assertEquals(0, store.getCostKopecks(i));
+            }
+        }
+        assertEquals(expectedPriced, priced);
+        assertTrue(priced > 0 && priced < store.size());
+        assertEquals(250L * ORDERS_PER_CHUNK * OffHeapOrderStore.RECORD_SIZE, store.getFootprintBytes());
+    }
+
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Пересчёт идёт по переданному тарифу, а не по тарифу по умолчанию")
+    @DisplayName("Пересчёт по заданному тарифу")
+    void shouldRepriceWithGivenTariff() {
+        Properties properties = new Properties();
+        properties.setProperty("distance.thresholds", "5.00,15.00");
+        properties.setProperty("distance.costs", "70.00,150.00,250.00");
+        properties.setProperty("cargo-size.surcharge.SMALL", "80.00");
+        properties.setProperty("cargo-size.surcharge.LARGE", "250.00");
+        properties.setProperty("workload.coefficient.NORMAL", "1.00");
+        properties.setProperty("workload.coefficient.INCREASED", "1.15");
+        properties.setProperty("workload.coefficient.HIGH", "1.35");
+        properties.setProperty("workload.coefficient.VERY_HIGH", "1.75");
+        properties.setProperty("fragile.surcharge", "250.00");
+        properties.setProperty("fragile.max-distance", "15.00");
+        properties.setProperty("min-cost", "350.00");
+        Tariff cityTariff = Tariff.fromProperties(properties);
+        OffHeapOrderStore store = new OffHeapOrderStore(ORDERS_PER_CHUNK);
+        store.add(1, 20_000, CargoSize.LARGE, false, DeliveryWorkload.HIGH);
+        store.add(2, 20_000, CargoSize.SMALL, true, DeliveryWorkload.NORMAL);
+
+        assertEquals(1, store.reprice(cityTariff));
+
+        assertEquals(67_500, store.getCostKopecks(0));
+        assertEquals(QuoteStatus.FRAGILE_TOO_FAR, store.getStatus(1));
+        assertThrows(NullPointerException.class, () -> store.reprice(null));
+    }
+
+    @Test
+    @Severity(SeverityLevel.NORMAL)
+    @Description("Курсор проходит диапазон по порядку, читает поля и записывает результат расчёта в хранилище")
+    @DisplayName("Курсор по диапазону")
+    void shouldIterateAndPriceWithCursor() {
+        OffHeapOrderStore store = new OffHeapOrderStore(ORDERS_PER_CHUNK);
+        for (int i = 0; i < 10; i++) {
+            store.add(i, 15_000, CargoSize.SMALL, i % 2 == 1, DeliveryWorkload.NORMAL);
+        }
+
+        OffHeapOrderStore.Cursor cursor = store.cursor(3, 7);
+        long expectedIndex = 3;
+        while (cursor.next()) {
+            assertEquals(expectedIndex, cursor.getIndex());
+            assertEquals(expectedIndex, cursor.getOrderId());
+            assertEquals(15_000, cursor.getDistanceMetres());
+            assertEquals(CargoSize.SMALL, cursor.getCargoSize());
+            assertEquals(DeliveryWorkload.NORMAL, cursor.getDeliveryWorkload());
+            assertEquals(QuoteStatus.OK, cursor.price(tariff));
+            assertEquals(QuoteStatus.OK, cursor.getStatus());
+            assertEquals(calculator.calculateDeliveryCostKopecks(15_000, CargoSize.SMALL, cursor.isFragile(), DeliveryWorkload.NORMAL),
+                    cursor.getCostKopecks());
+            expectedIndex++;
+        }
+        assertEquals(7, expectedIndex);
+        assertFalse(cursor.next());
+        assertNull(store.getStatus(2));
+        assertNull(store.getStatus(7));
+        assertThrows(IndexOutOfBoundsException.class, () -> store.cursor(5, 11));
+    }
+
+    @Test
+    @Severity(SeverityLevel.NORMAL)
+    @Description("Удаление переносит последний заказ на место удалённого, изменение параметров сбрасывает стоимость")
+    @DisplayName("Удаление и изменение заказов")
+    void shouldRemoveBySwappingWithLast() {
+        OffHeapOrderStore store = new OffHeapOrderStore(ORDERS_PER_CHUNK);
+        for (int i = 0; i < 6; i++) {
+            store.add(100 + i, 1_000L * (i + 1), CargoSize.LARGE, false, DeliveryWorkload.HIGH);
+        }
+        store.reprice(tariff);
+
+        assertEquals(105, store.remove(1));
+        assertEquals(5, store.size());
+        assertEquals(105, store.getOrderId(1));
+        assertEquals(6_000, store.getDistanceMetres(1));
+        assertEquals(QuoteStatus.OK, store.getStatus(1));
+        assertEquals(-1, store.remove(4));
+        assertThrows(IndexOutOfBoundsException.class, () -> store.getOrderId(4));
+
+        store.update(0, 40_000, CargoSize.SMALL, true, DeliveryWorkload.NORMAL);
+        assertEquals(100, store.getOrderId(0));
+        assertNull(store.getStatus(0));
+        store.reprice(tariff, 0, 1);
+        assertEquals(QuoteStatus.FRAGILE_TOO_FAR, store.getStatus(0));
+        assertEquals(0, store.getCostKopecks(0));
+
+        store.clear();
+        assertEquals(0, store.size());
+        assertEquals(0, store.getFootprintBytes());
+        assertThrows(IllegalArgumentException.class, () -> new OffHeapOrderStore(3));
+    }
+
+    @Test
+    @Severity(SeverityLevel.NORMAL)
+    @Description("Непересекающиеся диапазоны пересчитываются параллельно без расхождений с последовательным пересчётом")
+    @DisplayName("Параллельный пересчёт диапазонов")
+    void shouldRepriceDisjointRangesInParallel() {
+        OffHeapOrderStore parallel = new OffHeapOrderStore(1 << 10);
+        OffHeapOrderStore sequential = new OffHeapOrderStore(1 << 12);
+        SplittableRandom random = new SplittableRandom(5);
+        for (int i = 0; i < 100_000; i++) {
+            long distance = random.nextLong(1, 50_000);
+            CargoSize cargoSize = random.nextBoolean() ? CargoSize.LARGE : CargoSize.SMALL;
+            boolean isFragile = random.nextInt(4) == 0;
+            parallel.add(i, distance, cargoSize, isFragile, DeliveryWorkload.VERY_HIGH);
+            sequential.add(i, distance, cargoSize, isFragile, DeliveryWorkload.VERY_HIGH);
+        }
+
+        long step = 7_919;
+        long priced = LongStream.iterate(0, from -> from < parallel.size(), from -> from + step)
+                .parallel()
+                .map(from -> parallel.reprice(tariff, from, Math.min(from + step, parallel.size())))
+                .sum();
+
+        assertEquals(sequential.reprice(tariff), priced);
+        for (long i = 0; i < parallel.size(); i++) {
+            assertEquals(sequential.getStatus(i), parallel.getStatus(i));
+            assertEquals(sequential.getCostKopecks(i), parallel.getCostKopecks(i));
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package ru.yandex.practicum.bystritskiy;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.qameta.allure.Description;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import io.qameta.allure.Story;
+import java.math.BigDecimal;
+import java.util.Random;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.bystritskiy.enums.CargoSize;
+import ru.yandex.practicum.bystritskiy.enums.DeliveryWorkload;
+
+@Feature("Калькулятор стоимости доставки")
+@Story("Книга открытых заказов")
+@DisplayName("Тесты книги открытых заказов")
+class OpenOrderBookTest {
+
+    private final DeliveryCalculator reference = new DeliveryCalculator();
+    private OpenOrderBook book;
+
+    @BeforeEach
+    void setUp() {
+        book = new OpenOrderBook(Tariff.defaultTariff(), DeliveryWorkload.NORMAL);
+    }
+
+    @Test
+    @Severity(SeverityLevel.BLOCKER)
+    @Description("После каждой смены загруженности стоимости всех заказов совпадают с эталонным расчётом")
+    @DisplayName("Совпадение с эталонным калькулятором при смене загруженности")
+    void shouldMatchReferenceAfterWorkloadChanges() {
+        Random random = new Random(7);
+        int count = 10_000;
+        BigDecimal[] distances = new BigDecimal[count];
+        CargoSize[] cargoSizes = new CargoSize[count];
+        boolean[] fragile = new boolean[count];
+        int[] orders = new int[count];
+        for (int i = 0; i < count; i++) {
+            distances[i] = BigDecimal.valueOf(random.nextInt(50_000) + 1, 3);
+            cargoSizes[i] = CargoSize.values()[random.nextInt(CargoSize.values().length)];
+            fragile[i] = distances[i].compareTo(new BigDecimal("30")) <= 0 && random.nextBoolean();
+            orders[i] = book.add(distances[i], cargoSizes[i], fragile[i]);
+        }
+
+        for (DeliveryWorkload deliveryWorkload : new DeliveryWorkload[]{
+                DeliveryWorkload.VERY_HIGH, DeliveryWorkload.INCREASED, DeliveryWorkload.NORMAL, DeliveryWorkload.HIGH}) {
+            book.setDeliveryWorkload(deliveryWorkload);
+            for (int i = 0; i < count; i++) {
+                assertEquals(
+                        reference.calculateDeliveryCost(distances[i], cargoSizes[i], fragile[i], deliveryWorkload),
+                        book.getCost(orders[i])
+                );
+            }
+        }
+    }
+
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Заказы распределяются по 16 группам, цены групп пересчитываются при смене загруженности")
+    @DisplayName("Цены и заполненность групп")
+    void shouldGroupOrders() {
+        assertEquals(16, book.getGroupCount());
+
+        book.add(15_000, CargoSize.LARGE, false);
+        book.add(25_000, CargoSize.LARGE, false);
+        int group = OpenOrderBook.group(2, CargoSize.LARGE.ordinal(), false);
+
+        assertEquals(2, book.getGroupOrderCount(group));
+        assertEquals(40_000, book.getGroupPriceKopecks(group));
+        book.setDeliveryWorkload(DeliveryWorkload.HIGH);
+        assertEquals(DeliveryWorkload.HIGH, book.getDeliveryWorkload());
+        assertEquals(56_000, book.getGroupPriceKopecks(group));
+    }
+
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Удалённый заказ закрывается, его номер используется повторно")
+    @DisplayName("Удаление заказа")
+    void shouldRemoveOrder() {
+        int first = book.add(1_000, CargoSize.SMALL, false);
+        int second = book.add(5_000, CargoSize.SMALL, true);
+
+        assertTrue(book.remove(first));
+        assertFalse(book.remove(first));
+        assertFalse(book.isOpen(first));
+        assertEquals(1, book.size());
+        assertThrows(IllegalArgumentException.class, () -> book.getCostKopecks(first));
+
+        int third = book.add(40_000, CargoSize.LARGE, false);
+        assertEquals(first, third);
+        assertEquals(50_000, book.getCostKopecks(second));
+        assertEquals(50_000, book.getCostKopecks(third));
+    }
+
+    @Test
+    @Severity(SeverityLevel.NORMAL)
+    @Description("Стоимости всех открытых заказов выгружаются по одной таблице цен")
+    @DisplayName("Выгрузка стоимостей открытых заказов")
+    void shouldCopyOpenOrderCosts() {
+        int first = book.add(1_000, CargoSize.SMALL, false);
+        book.add(2_500, CargoSize.SMALL, false);
+        int third = book.add(35_000, CargoSize.LARGE, false);
+        book.remove(1);
+        book.setDeliveryWorkload(DeliveryWorkload.VERY_HIGH);
+
+        int[] orders = new int[2];
+        long[] costs = new long[2];
+
+        assertEquals(2, book.copyCostsKopecks(orders, costs));
+        assertEquals(first, orders[0]);
+        assertEquals(40_000, costs[0]);
+        assertEquals(third, orders[1]);
+        assertEquals(80_000, costs[1]);
+    }
+
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Заказ проверяется по правилам калькулятора")
+    @DisplayName("Исключение при добавлении некорректного заказа")
+    void shouldValidateOrders() {
+        IllegalArgumentException exception = assertThrows(
+                IllegalArgumentException.class,
+                () -> book.add(new BigDecimal("30.01"), CargoSize.SMALL, true)
+        );
+        assertEquals("Хрупкие грузы нельзя возить на расстояние более 30 км", exception.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> book.add(0, CargoSize.SMALL, false));
+        assertThrows(NullPointerException.class, () -> book.add(1_000, null, false));
+        assertThrows(NullPointerException.class, () -> book.setDeliveryWorkload(null));
+        assertEquals(0, book.size());
+    }
+}
@@ -0,0 +1,154 @@
+package ru.yandex.practicum.bystritskiy;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import io.qameta.allure.Description;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import io.qameta.allure.Story;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.bystritskiy.enums.CargoSize;
+import ru.yandex.practicum.bystritskiy.enums.DeliveryWorkload;
+
+@Feature("Калькулятор стоимости доставки")
+@Story("Параллельный расчёт")
+@DisplayName("Тесты параллельного расчёта стоимости доставки")
+class ParallelDeliveryCalculatorTest {
+
+    private static DeliveryCalculator reference;
+    private static ParallelDeliveryCalculator calculator;
+
+    @BeforeAll
+    static void setUp() {
+        reference = new DeliveryCalculator();
+        calculator = new ParallelDeliveryCalculator(new TableDeliveryCalculator(), 4, 100);
+    }
+
+    @AfterAll
+    static void tearDown() {
+        calculator.close();
+    }
+
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Параллельный расчёт списка заказов сохраняет порядок и совпадает с последовательным")
+    @DisplayName("Параллельный расчёт списка заказов")
+    void shouldCalculateOrdersInOriginalOrder() {
+        Random random = new Random(5);
+        List<DeliveryOrder> orders = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            orders.add(new DeliveryOrder(
+                    BigDecimal.valueOf(1 + random.nextInt(30_000), 3),
+                    CargoSize.values()[random.nextInt(2)],
+                    random.nextBoolean(),
+                    DeliveryWorkload.values()[random.nextInt(4)]
+            ));
+        }
+
+        BigDecimal[] costs = calculator.calculateDeliveryCosts(orders);
+
+        assertEquals(orders.size(), costs.length);
+        for (int i = 0; i < orders.size(); i++) {
+            DeliveryOrder order = orders.get(i);
+            assertEquals(
+                    reference.calculateDeliveryCost(
+                            order.distance(), order.cargoSize(), order.isFragile(), order.deliveryWorkload()
+                    ),
+                    costs[i]
+            );
+        }
+    }
+
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Параллельный пакетный расчёт по столбцам совпадает с последовательным")
+    @DisplayName("Параллельный пакетный расчёт по столбцам")
+    void shouldCalculateColumnsLikeSerialBatch() {
+        Random random = new Random(7);
+        int size = 5_000;
+        long[] distances = new long[size];
+        byte[] cargoSizes = new byte[size];
+        byte[] workloads = new byte[size];
+        long[] fragile = new long[(size + 63) / 64];
+        for (int i = 0; i < size; i++) {
+            distances[i] = random.nextInt(40_000);
+            cargoSizes[i] = (byte) random.nextInt(2);
+            workloads[i] = (byte) random.nextInt(4);
+            if (random.nextBoolean()) {
+                fragile[i >>> 6] |= 1L << i;
+            }
+        }
+
+        long[] expectedCosts = new long[size];
+        byte[] expectedStatuses = new byte[size];
+        reference.calculateDeliveryCostsKopecks(distances, cargoSizes, fragile, workloads, expectedCosts, expectedStatuses);
+        long[] actualCosts = new long[size];
+        byte[] actualStatuses = new byte[size];
+        calculator.calculateDeliveryCostsKopecks(distances, cargoSizes, fragile, workloads, actualCosts, actualStatuses);
+
+        assertArrayEquals(expectedCosts, actualCosts);
+        assertArrayEquals(expectedStatuses, actualStatuses);
+    }
+
+    @Test
+    @Severity(SeverityLevel.NORMAL)
+    @Description("Ошибка валидации в одном из заказов пробрасывается с исходным сообщением")
+    @DisplayName("Исключение при некорректном заказе в параллельном расчёте")
+    void shouldPropagateValidationException() {
+        List<DeliveryOrder> orders = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            orders.add(new DeliveryOrder(new BigDecimal("5.00"), CargoSize.SMALL, false, DeliveryWorkload.NORMAL));
+        }
+        orders.set(777, new DeliveryOrder(new BigDecimal("31.00"), CargoSize.SMALL, true, DeliveryWorkload.NORMAL));
+
+        IllegalArgumentException exception = assertThrows(
+                IllegalArgumentException.class,
+                () -> calculator.calculateDeliveryCosts(orders)
+        );
+        assertEquals(
+                "Хрупкие грузы нельзя возить на расстояние более 30 км",
+                exception.getMessage()
+        );
+    }
+
+    @Test
+    @Severity(SeverityLevel.NORMAL)
+    @Description("Собственная цепочка причин исключения калькулятора сохраняется, снимаются только копии ForkJoinTask")
+    @DisplayName("Цепочка причин исключения в параллельном расчёте")
+    void shouldKeepOwnCauseChain() {
+        DeliveryCalculator failing = new DeliveryCalculator() {
+            @Override
+            public BigDecimal calculateDeliveryCost(BigDecimal distance, CargoSize cargoSize, boolean isFragile,
+                                                    DeliveryWorkload deliveryWorkload) {
+                if (distance.compareTo(BigDecimal.TEN) > 0) {
+                    throw new IllegalArgumentException("Заказ отклонён", new IllegalArgumentException("Ошибка тарифа"));
+                }
+                return super.calculateDeliveryCost(distance, cargoSize, isFragile, deliveryWorkload);
+            }
+        };
+        List<DeliveryOrder> orders = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            orders.add(new DeliveryOrder(new BigDecimal("5.00"), CargoSize.SMALL, false, DeliveryWorkload.NORMAL));
+        }
+        orders.set(555, new DeliveryOrder(new BigDecimal("11.00"), CargoSize.SMALL, false, DeliveryWorkload.NORMAL));
+
+        try (ParallelDeliveryCalculator parallel = new ParallelDeliveryCalculator(failing, 4, 10)) {
+            IllegalArgumentException exception = assertThrows(
+                    IllegalArgumentException.class,
+                    () -> parallel.calculateDeliveryCosts(orders)
+            );
+            assertEquals("Заказ отклонён", exception.getMessage());
+            assertEquals("Ошибка тарифа", exception.getCause().getMessage());
+        }
+    }
+}
@@ -0,0 +1,261 @@
+package ru.yandex.practicum.bystritskiy;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.qameta.allure.Allure;
+import io.qameta.allure.Description;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import io.qameta.allure.Story;
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.bystritskiy.enums.CargoSize;
+import ru.yandex.practicum.bystritskiy.enums.DeliveryWorkload;
+import ru.yandex.practicum.bystritskiy.enums.QuoteStatus;
+
+/**
+ * Бюджеты выделения памяти и времени на горячих путях расчёта. Выделение считается по
+ * {@code com.sun.management.ThreadMXBean#getCurrentThreadAllocatedBytes} (то же, что {@code getThreadAllocatedBytes}
+ * для текущего потока) после прогрева, в зачёт идёт лучший из нескольких раундов. Бюджет памяти проверяется всегда.
+ * Время по часам зависит от машины, поэтому по умолчанию только попадает в отчёт; потолки времени проверяются,
+ * если задано свойство {@code delivery.budget.latency-factor} (в Gradle — {@code -PbudgetLatencyFactor=3}),
+ * на которое они умножаются. Замеры каждого пути прикладываются к отчёту Allure.
+ */
+@Feature("Калькулятор стоимости доставки")
+@Story("Бюджеты выделения памяти и времени")
+@DisplayName("Тесты бюджетов выделения памяти и времени расчёта")
+class PricingBudgetTest {
+
+    private static final String LATENCY_FACTOR = System.getProperty("delivery.budget.latency-factor");
+
+    private static final int ORDERS = 1024;
+    private static final int CALLS_PER_ROUND = 50_000;
+    private static final int WARMUP_ROUNDS = 100;
+    private static final int MEASURED_ROUNDS = 5;
+
+    private static final CargoSize[] CARGO_SIZES = CargoSize.values();
+    private static final DeliveryWorkload[] DELIVERY_WORKLOADS = DeliveryWorkload.values();
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private static final long[] distancesMetres = new long[ORDERS];
+    private static final BigDecimal[] distances = new BigDecimal[ORDERS];
+    private static final byte[][] distanceTexts = new byte[ORDERS][];
+    private static final byte[] cargoSizes = new byte[ORDERS];
+    private static final long[] fragile = new long[ORDERS / Long.SIZE];
+    private static final byte[] deliveryWorkloads = new byte[ORDERS];
+    private static final long[] costs = new long[ORDERS];
+    private static final byte[] statuses = new byte[ORDERS];
+
+    private static long sink;
+
+    @BeforeAll
+    static void setUp() {
+        assertTrue(THREADS.isThreadAllocatedMemorySupported(), "JVM не считает выделенную потоком память");
+        THREADS.setThreadAllocatedMemoryEnabled(true);
+
+        SplittableRandom random = new SplittableRandom(25);
+        for (int i = 0; i < ORDERS; i++) {
+            distancesMetres[i] = random.nextLong(1, 30_000);
+            distances[i] = BigDecimal.valueOf(distancesMetres[i], Tariff.METRES_SCALE);
+            distanceTexts[i] = distances[i].toPlainString().getBytes(StandardCharsets.US_ASCII);
+            cargoSizes[i] = (byte) random.nextInt(CARGO_SIZES.length);
+            deliveryWorkloads[i] = (byte) random.nextInt(DELIVERY_WORKLOADS.length);
+            if (random.nextBoolean()) {
+                fragile[i >>> 6] |= 1L << i;
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("Тесты примитивных путей")
+    class PrimitivePathTests {
+
+        @Test
+        @Severity(SeverityLevel.CRITICAL)
+        @Description("Расчёт в копейках по метрам не выделяет память")
+        @DisplayName("Расчёт в копейках")
+        void kopecksPathShouldNotAllocate() {
+            DeliveryCalculator calculator = new DeliveryCalculator();
+            assertWithinBudget("DeliveryCalculator.calculateDeliveryCostKopecks", 0, 500, 1, i -> calculator.calculateDeliveryCostKopecks(
+                    distancesMetres[i], CARGO_SIZES[cargoSizes[i]], DeliveryCalculator.isFragile(fragile, i),
+                    DELIVERY_WORKLOADS[deliveryWorkloads[i]]
+            ));
+        }
+
+        @Test
+        @Severity(SeverityLevel.CRITICAL)
+        @Description("Пакетный расчёт по массивам не выделяет память, бюджет считается на один заказ")
+        @DisplayName("Пакетный расчёт")
+        void batchPathShouldNotAllocate() {
+            DeliveryCalculator calculator = new DeliveryCalculator();
+            assertWithinBudget("DeliveryCalculator.calculateDeliveryCostsKopecks", 0, 100, ORDERS, i -> {
+                calculator.calculateDeliveryCostsKopecks(distancesMetres, cargoSizes, fragile, deliveryWorkloads, costs, statuses);
+                return costs[i];
+            });
+        }
+
+        @Test
+        @Severity(SeverityLevel.CRITICAL)
+        @Description("Векторный пакетный расчёт укладывается в бюджет на один заказ. Инкубаторный Vector API размещает "
+                + "векторы в куче, если процессор не поддерживает выбранную ширину, поэтому бюджет не нулевой")
+        @DisplayName("Векторный пакетный расчёт")
+        void vectorBatchPathShouldStayWithinBudget() {
+            DeliveryCalculator calculator = new VectorDeliveryCalculator();
+            assertWithinBudget("VectorDeliveryCalculator.calculateDeliveryCostsKopecks", 64, 100, ORDERS, i -> {
+                calculator.calculateDeliveryCostsKopecks(distancesMetres, cargoSizes, fragile, deliveryWorkloads, costs, statuses);
+                return costs[i];
+            });
+        }
+
+        @Test
+        @Severity(SeverityLevel.NORMAL)
+        @Description("Разбор расстояния из байтов не выделяет память")
+        @DisplayName("Разбор расстояния")
+        void distanceParserShouldNotAllocate() {
+            assertWithinBudget("DistanceParser.parseMetres(byte[])", 0, 500, 1,
+                    i -> DistanceParser.parseMetres(distanceTexts[i], 0, distanceTexts[i].length));
+        }
+
+        @Test
+        @Severity(SeverityLevel.NORMAL)
+        @Description("Расстояние между зонами из кеша не выделяет память")
+        @DisplayName("Расстояние между зонами")
+        void zoneDistanceCacheShouldNotAllocate() {
+            double[] latitudes = new double[64];
+            double[] longitudes = new double[64];
+            for (int zone = 0; zone < latitudes.length; zone++) {
+                latitudes[zone] = 55.5 + zone * 0.005;
+                longitudes[zone] = 37.3 + (zone % 8) * 0.05;
+            }
+            ZoneDistanceMatrix matrix = new ZoneDistanceMatrix(latitudes, longitudes, new int[0], 8_192, GeoDistance.HAVERSINE);
+            assertWithinBudget("ZoneDistanceMatrix.distanceMetres", 0, 500, 1, i -> matrix.distanceMetres(i & 63, i >>> 6));
+        }
+
+        @Test
+        @Severity(SeverityLevel.NORMAL)
+        @Description("Пересчёт хранилища вне кучи не выделяет память, бюджет считается на один заказ")
+        @DisplayName("Пересчёт хранилища вне кучи")
+        void offHeapRepriceShouldNotAllocate() {
+            Tariff tariff = Tariff.defaultTariff();
+            OffHeapOrderStore store = new OffHeapOrderStore(ORDERS);
+            for (int i = 0; i < ORDERS; i++) {
+                store.add(i, distancesMetres[i], CARGO_SIZES[cargoSizes[i]], DeliveryCalculator.isFragile(fragile, i),
+                        DELIVERY_WORKLOADS[deliveryWorkloads[i]]);
+            }
+            assertWithinBudget("OffHeapOrderStore.reprice", 0, 100, ORDERS, i -> store.reprice(tariff));
+        }
+    }
+
+    @Nested
+    @DisplayName("Тесты путей BigDecimal")
+    class BigDecimalPathTests {
+
+        @Test
+        @Severity(SeverityLevel.CRITICAL)
+        @Description("Табличный расчёт возвращает заранее созданные значения и не выделяет память")
+        @DisplayName("Табличный расчёт")
+        void tablePathShouldNotAllocate() {
+            DeliveryCalculator calculator = new TableDeliveryCalculator();
+            assertWithinBudget("TableDeliveryCalculator.calculateDeliveryCost", 0, 1_000, 1, i -> calculator.calculateDeliveryCost(
+                    distances[i], CARGO_SIZES[cargoSizes[i]], DeliveryCalculator.isFragile(fragile, i),
+                    DELIVERY_WORKLOADS[deliveryWorkloads[i]]
+            ).signum());
+        }
+
+        @Test
+        @Severity(SeverityLevel.NORMAL)
+        @Description("Отказ без исключения возвращает общий экземпляр результата и не выделяет память")
+        @DisplayName("Отказ без исключения")
+        void rejectionShouldNotAllocate() {
+            DeliveryCalculator calculator = new DeliveryCalculator();
+            BigDecimal tooFar = new BigDecimal("30.01");
+            assertWithinBudget("DeliveryCalculator.tryCalculateDeliveryCost (отказ)", 0, 500, 1, i -> {
+                QuoteResult result = calculator.tryCalculateDeliveryCost(tooFar, CARGO_SIZES[cargoSizes[i]], true,
+                        DELIVERY_WORKLOADS[deliveryWorkloads[i]]);
+                return result.status() == QuoteStatus.FRAGILE_TOO_FAR ? i : -1;
+            });
+        }
+
+        @Test
+        @Severity(SeverityLevel.NORMAL)
+        @Description("Эталонный расчёт на BigDecimal укладывается в объявленный бюджет промежуточных объектов")
+        @DisplayName("Эталонный расчёт")
+        void referencePathShouldStayWithinBudget() {
+            DeliveryCalculator calculator = new DeliveryCalculator();
+            assertWithinBudget("DeliveryCalculator.calculateDeliveryCost", 256, 5_000, 1, i -> calculator.calculateDeliveryCost(
+                    distances[i], CARGO_SIZES[cargoSizes[i]], DeliveryCalculator.isFragile(fragile, i),
+                    DELIVERY_WORKLOADS[deliveryWorkloads[i]]
+            ).signum());
+        }
+    }
+
+    /**
+     * Прогревает путь, замеряет его несколько раундов и сравнивает лучший раунд с бюджетом на один заказ.
+     * Потолок времени проверяется, только если задан {@code delivery.budget.latency-factor}.
+     *
+     * @param ordersPerCall сколько заказов считает один вызов, например размер пакета
+     */
+    private static void assertWithinBudget(String path, long bytesPerOrderBudget, long nanosPerOrderCeiling, int ordersPerCall,
+                                           PricingCall call) {
+        int calls = Math.max(1, CALLS_PER_ROUND / ordersPerCall);
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            runRound(call, calls);
+        }
+
+        long bestBytes = Long.MAX_VALUE;
+        long bestNanos = Long.MAX_VALUE;
+        for (int round = 0; round < MEASURED_ROUNDS; round++) {
+            long allocatedBefore = THREADS.getCurrentThreadAllocatedBytes();
+            long started = System.nanoTime();
+            runRound(call, calls);
+            long elapsed = System.nanoTime() - started;
+            long allocated = THREADS.getCurrentThreadAllocatedBytes() - allocatedBefore;
+            bestBytes = Math.min(bestBytes, allocated);
+            bestNanos = Math.min(bestNanos, elapsed);
+        }
+
+        long orders = (long) calls * ordersPerCall;
+        long bytesPerRound = bestBytes;
+        double bytesPerOrder = (double) bestBytes / orders;
+        double nanosPerOrder = (double) bestNanos / orders;
+        boolean latencyChecked = LATENCY_FACTOR != null;
+        double ceiling = nanosPerOrderCeiling * (latencyChecked ? Double.parseDouble(LATENCY_FACTOR) : 1);
+        Allure.addAttachment("Бюджет: " + path, "text/plain", String.format(
+                "Путь: %s%nВыделено на заказ: %.3f байт, бюджет %d байт%nВремя на заказ: %.1f нс, потолок %.1f нс%s%n"
+                        + "Заказов в раунде: %d, раундов прогрева: %d, замеров: %d%n",
+                path, bytesPerOrder, bytesPerOrderBudget, nanosPerOrder, ceiling, latencyChecked ? "" : " (не проверяется)",
+                orders, WARMUP_ROUNDS, MEASURED_ROUNDS
+        ), ".txt");
+
+        assertAll(
+                () -> assertTrue(bytesPerOrder <= bytesPerOrderBudget, String.format(
+                        "%s выделяет %.3f байт на заказ при бюджете %d (%d байт за раунд)",
+                        path, bytesPerOrder, bytesPerOrderBudget, bytesPerRound)),
+                () -> assertTrue(!latencyChecked || nanosPerOrder <= ceiling, String.format(
+                        "%s считает заказ за %.1f нс при потолке %.1f нс", path, nanosPerOrder, ceiling))
+        );
+    }
+
+    private static void runRound(PricingCall call, int calls) {
+        long result = 0;
+        for (int i = 0; i < calls; i++) {
+            result += call.price(i & (ORDERS - 1));
+        }
+        sink += result;
+    }
+
+    @FunctionalInterface
+    private interface PricingCall {
+        long price(int order);
+    }
+}
@@ -0,0 +1,226 @@
+package ru.yandex.practicum.bystritskiy;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.qameta.allure.Description;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import io.qameta.allure.Story;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Properties;
+import java.util.Random;
+import java.util.function.IntPredicate;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.bystritskiy.enums.CargoSize;
+import ru.yandex.practicum.bystritskiy.enums.DeliveryWorkload;
+import ru.yandex.practicum.bystritskiy.enums.QuoteStatus;
+
+@Feature("Калькулятор стоимости доставки")
+@Story("Аналитика по расчётам")
+@DisplayName("Тесты аналитики по расчётам")
+class QuoteAnalyticsTest {
+
+    private static final int ORDERS = 200_000;
+    private static final int PARTS = 4;
+
+    @Nested
+    @DisplayName("Тесты эскиза распределения")
+    class QuantileSketchTests {
+
+        @Test
+        @Severity(SeverityLevel.CRITICAL)
+        @Description("Квантили отличаются от точных не больше чем на заданную относительную точность")
+        @DisplayName("Точность квантилей")
+        void shouldEstimateQuantilesWithinRelativeAccuracy() {
+            QuantileSketch sketch = new QuantileSketch(0.01);
+            for (long value = 1; value <= 100_000; value++) {
+                sketch.add(value);
+            }
+
+            for (double q : new double[]{0, 0.5, 0.95, 0.99, 1}) {
+                long exact = 1 + (long) (q * 99_999);
+                assertTrue(Math.abs(sketch.quantile(q) - exact) <= exact * 0.01 + 1, q + " -> " + sketch.quantile(q));
+            }
+            assertEquals(1, sketch.quantile(0));
+            assertEquals(100_000, sketch.quantile(1));
+        }
+
+        @Test
+        @Severity(SeverityLevel.CRITICAL)
+        @Description("Объединение эскизов частей даёт те же квантили, что и один эскиз по всем значениям")
+        @DisplayName("Объединение эскизов")
+        void shouldMergeWithoutLosingAccuracy() {
+            QuantileSketch whole = new QuantileSketch();
+            QuantileSketch low = new QuantileSketch();
+            QuantileSketch high = new QuantileSketch();
+            Random random = new Random(7);
+            for (int i = 0; i < 50_000; i++) {
+                long value = random.nextInt(300_000);
+                whole.add(value);
+                (value < 60_000 ? low : high).add(value);
+            }
+            low.merge(high);
+
+            assertEquals(whole.getCount(), low.getCount());
+            for (double q : new double[]{0, 0.01, 0.5, 0.95, 0.99, 1}) {
+                assertEquals(whole.quantile(q), low.quantile(q));
+            }
+            assertThrows(IllegalArgumentException.class, () -> whole.merge(new QuantileSketch(0.01)));
+            assertThrows(IllegalStateException.class, () -> new QuantileSketch().quantile(0.5));
+        }
+    }
+
+    @Test
+    @Severity(SeverityLevel.BLOCKER)
+    @Description("Части, посчитанные параллельно по результатам пакетного расчёта, после объединения дают точные количество, "
+            + "выручку и среднее, а квантили — с заданной точностью")
+    @DisplayName("Итоги по измерениям из параллельных частей")
+    void shouldAggregateMergedParts() {
+        DeliveryCalculator calculator = new DeliveryCalculator();
+        Tariff tariff = calculator.getTariff();
+        Random random = new Random(42);
+        long[] distancesMetres = new long[ORDERS];
+        byte[] cargoSizes = new byte[ORDERS];
+        long[] fragile = new long[(ORDERS + Long.SIZE - 1) / Long.SIZE];
+        byte[] deliveryWorkloads = new byte[ORDERS];
+        for (int i = 0; i < ORDERS; i++) {
+            distancesMetres[i] = random.nextInt(45_000) - 500;
+            cargoSizes[i] = (byte) random.nextInt(CargoSize.values().length);
+            if (random.nextBoolean()) {
+                fragile[i >>> 6] |= 1L << i;
+            }
+            deliveryWorkloads[i] = (byte) random.nextInt(DeliveryWorkload.values().length);
+        }
+        long[] costs = new long[ORDERS];
+        byte[] statuses = new byte[ORDERS];
+        calculator.calculateDeliveryCostsKopecks(distancesMetres, cargoSizes, fragile, deliveryWorkloads, costs, statuses);
+
+        QuoteAnalytics[] parts = IntStream.range(0, PARTS).parallel().mapToObj(part -> {
+            QuoteAnalytics analytics = new QuoteAnalytics(tariff);
+            analytics.addAll(distancesMetres, cargoSizes, fragile, deliveryWorkloads, costs, statuses,
+                    part * ORDERS / PARTS, (part + 1) * ORDERS / PARTS);
+            return analytics;
+        }).toArray(QuoteAnalytics[]::new);
+        QuoteAnalytics analytics = parts[0];
+        for (int part = 1; part < PARTS; part++) {
+            analytics.merge(parts[part]);
+        }
+
+        for (int band = 0; band < tariff.getDistanceBandCount(); band++) {
+            int expectedBand = band;
+            assertSummary(analytics.byDistanceBand(band), costs, statuses,
+                    i -> tariff.distanceBand(distancesMetres[i]) == expectedBand);
+        }
+        for (CargoSize cargoSize : CargoSize.values()) {
+            assertSummary(analytics.byCargoSize(cargoSize), costs, statuses, i -> cargoSizes[i] == cargoSize.ordinal());
+        }
+        for (boolean isFragile : new boolean[]{false, true}) {
+            assertSummary(analytics.byFragile(isFragile), costs, statuses,
+                    i -> DeliveryCalculator.isFragile(fragile, i) == isFragile);
+        }
+        for (DeliveryWorkload deliveryWorkload : DeliveryWorkload.values()) {
+            assertSummary(analytics.byDeliveryWorkload(deliveryWorkload), costs, statuses,
+                    i -> deliveryWorkloads[i] == deliveryWorkload.ordinal());
+        }
+        assertSummary(analytics.total(), costs, statuses, i -> true);
+
+        long rejected = IntStream.range(0, ORDERS).filter(i -> statuses[i] != QuoteStatus.OK.getCode()).count();
+        assertEquals(rejected, analytics.getRejections(QuoteStatus.NON_POSITIVE_DISTANCE)
+                + analytics.getRejections(QuoteStatus.FRAGILE_TOO_FAR));
+    }
+
+    @Test
+    @Severity(SeverityLevel.NORMAL)
+    @Description("Записи журнала расчётов учитываются в своей ячейке, в ячейке без расчётов нет квантилей")
+    @DisplayName("Учёт записей журнала расчётов")
+    void shouldAddAuditRecords() {
+        QuoteAnalytics analytics = new QuoteAnalytics(new DeliveryCalculator().getTariff());
+        analytics.add(new QuoteAuditRecord(0, Instant.EPOCH, new BigDecimal("15.5"), CargoSize.LARGE, false,
+                DeliveryWorkload.HIGH, QuoteStatus.OK, new BigDecimal("560.00")));
+        analytics.add(new QuoteAuditRecord(1, Instant.EPOCH, new BigDecimal("31"), CargoSize.SMALL, true,
+                DeliveryWorkload.NORMAL, QuoteStatus.FRAGILE_TOO_FAR, null));
+        analytics.add(15_500, CargoSize.LARGE, false, DeliveryWorkload.HIGH, 56_000);
+
+        assertEquals(
+                new QuoteAnalytics.Summary(2, new BigDecimal("1120.00"), new BigDecimal("560.00"),
+                        new BigDecimal("560.00"), new BigDecimal("560.00"), new BigDecimal("560.00")),
+                analytics.cell(2, CargoSize.LARGE, false, DeliveryWorkload.HIGH)
+        );
+        assertEquals(1, analytics.getRejections(QuoteStatus.FRAGILE_TOO_FAR));
+        QuoteAnalytics.Summary empty = analytics.cell(0, CargoSize.SMALL, true, DeliveryWorkload.NORMAL);
+        assertEquals(0, empty.count());
+        assertNull(empty.p50());
+    }
+
+    @Test
+    @Severity(SeverityLevel.NORMAL)
+    @Description("Сетка ячеек строится по тарифу аналитики: у тарифа с шестью полосами расстояния учитывается каждая полоса")
+    @DisplayName("Ячейки по тарифу с другим числом полос")
+    void shouldUseOwnTariffGrid() {
+        Properties properties = new Properties();
+        properties.setProperty("distance.thresholds", "1.00,3.00,5.00,10.00,20.00");
+        properties.setProperty("distance.costs", "50.00,80.00,120.00,180.00,260.00,400.00");
+        properties.setProperty("cargo-size.surcharge.SMALL", "100.00");
+        properties.setProperty("cargo-size.surcharge.LARGE", "200.00");
+        properties.setProperty("workload.coefficient.NORMAL", "1.00");
+        properties.setProperty("workload.coefficient.INCREASED", "1.20");
+        properties.setProperty("workload.coefficient.HIGH", "1.40");
+        properties.setProperty("workload.coefficient.VERY_HIGH", "1.60");
+        properties.setProperty("fragile.surcharge", "300.00");
+        properties.setProperty("fragile.max-distance", "30.00");
+        properties.setProperty("min-cost", "400.00");
+        QuoteAnalytics analytics = new QuoteAnalytics(Tariff.fromProperties(properties));
+
+        long[] distancesMetres = {500, 2_000, 4_000, 7_000, 15_000, 40_000};
+        for (int band = 0; band < distancesMetres.length; band++) {
+            analytics.add(distancesMetres[band], CargoSize.LARGE, band % 2 == 1, DeliveryWorkload.VERY_HIGH, (band + 1) * 10_000L);
+        }
+
+        for (int band = 0; band < distancesMetres.length; band++) {
+            assertEquals(1, analytics.byDistanceBand(band).count(), "band " + band);
+            assertEquals(BigDecimal.valueOf(band + 1, -2).setScale(2), analytics.byDistanceBand(band).revenue());
+            assertEquals(1, analytics.cell(band, CargoSize.LARGE, band % 2 == 1, DeliveryWorkload.VERY_HIGH).count());
+        }
+        assertEquals(6, analytics.byCargoSize(CargoSize.LARGE).count());
+        assertEquals(3, analytics.byFragile(true).count());
+        assertEquals(6, analytics.byDeliveryWorkload(DeliveryWorkload.VERY_HIGH).count());
+        assertEquals(0, analytics.byDeliveryWorkload(DeliveryWorkload.NORMAL).count());
+        assertThrows(IllegalArgumentException.class, () -> analytics.byDistanceBand(6));
+        assertThrows(IllegalArgumentException.class, () -> analytics.cell(6, CargoSize.SMALL, false, DeliveryWorkload.NORMAL));
+    }
+
+    private static void assertSummary(QuoteAnalytics.Summary summary, long[] costs, byte[] statuses,
+                                      IntPredicate filter) {
+        long[] matching = IntStream.range(0, ORDERS)
+                .filter(i -> statuses[i] == QuoteStatus.OK.getCode() && filter.test(i))
+                .mapToLong(i -> costs[i])
+                .sorted()
+                .toArray();
+        long revenue = Arrays.stream(matching).sum();
+
+        assertEquals(matching.length, summary.count());
+        assertEquals(BigDecimal.valueOf(revenue, 2), summary.revenue());
+        assertEquals(BigDecimal.valueOf(revenue, 2).divide(BigDecimal.valueOf(matching.length), RoundingMode.HALF_UP),
+                summary.average());
+        assertQuantile(matching, 0.50, summary.p50());
+        assertQuantile(matching, 0.95, summary.p95());
+        assertQuantile(matching, 0.99, summary.p99());
+    }
+
+    private static void assertQuantile(long[] sorted, double q, BigDecimal actual) {
+        long exact = sorted[(int) (q * (sorted.length - 1))];
+        long estimate = actual.movePointRight(2).longValueExact();
+        assertTrue(Math.abs(estimate - exact) <= exact * QuantileSketch.DEFAULT_RELATIVE_ACCURACY + 1,
+                "q" + q + ": exact " + exact + ", estimate " + estimate);
+    }
+}
@@ -0,0 +1,281 @@
+package ru.yandex.practicum.bystritskiy;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.qameta.allure.Description;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import io.qameta.allure.Story;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ru.yandex.practicum.bystritskiy.enums.CargoSize;
+import ru.yandex.practicum.bystritskiy.enums.DeliveryWorkload;
+import ru.yandex.practicum.bystritskiy.enums.QuoteStatus;
+
+@Feature("Калькулятор стоимости доставки")
+@Story("Журнал расчётов")
+@DisplayName("Тесты журнала расчётов для аудита")
+class QuoteAuditJournalTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Расчёты и отказы записываются в журнал с входными данными, стоимостью и временем и читаются в том же порядке")
+    @DisplayName("Запись и чтение расчётов")
+    void shouldRecordQuotesAndRejections() throws IOException {
+        Instant before = Instant.now().minusMillis(1);
+        try (QuoteAuditJournal journal = QuoteAuditJournal.open(directory)) {
+            DeliveryCalculator calculator = new AuditedDeliveryCalculator(new TableDeliveryCalculator(), journal);
+
+            calculator.calculateDeliveryCost(new BigDecimal("15.50"), CargoSize.LARGE, false, DeliveryWorkload.HIGH);
+            assertThrows(
+                    IllegalArgumentException.class,
+                    () -> calculator.calculateDeliveryCost(new BigDecimal("31"), CargoSize.SMALL, true, DeliveryWorkload.NORMAL)
+            );
+            calculator.tryCalculateDeliveryCost(null, CargoSize.SMALL, false, DeliveryWorkload.NORMAL);
+            calculator.calculateDeliveryCostKopecks(2_001, CargoSize.SMALL, true, DeliveryWorkload.VERY_HIGH);
+        }
+
+        List<QuoteAuditRecord> records = readAll();
+        assertEquals(4, records.size());
+        assertEquals(
+                new QuoteAuditRecord(0, records.get(0).timestamp(), new BigDecimal("15.50"), CargoSize.LARGE, false,
+                        DeliveryWorkload.HIGH, QuoteStatus.OK, new BigDecimal("560.00")),
+                records.get(0)
+        );
+        assertEquals(
+                new QuoteAuditRecord(1, records.get(1).timestamp(), new BigDecimal("31"), CargoSize.SMALL, true,
+                        DeliveryWorkload.NORMAL, QuoteStatus.FRAGILE_TOO_FAR, null),
+                records.get(1)
+        );
+        assertEquals(QuoteStatus.MISSING_DISTANCE, records.get(2).status());
+        assertNull(records.get(2).distance());
+        assertEquals(new BigDecimal("2.001"), records.get(3).distance());
+        assertEquals(new BigDecimal("800.00"), records.get(3).cost());
+        assertTrue(!records.get(0).timestamp().isBefore(before) && !records.get(3).timestamp().isAfter(Instant.now()));
+    }
+
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Заполненный сегмент сменяется следующим, после перезапуска нумерация продолжается в новом сегменте")
+    @DisplayName("Смена сегментов и продолжение после перезапуска")
+    void shouldRollSegmentsAndResume() throws IOException {
+        try (QuoteAuditJournal journal = QuoteAuditJournal.open(directory, 4, Duration.ofMillis(1))) {
+            for (int i = 1; i <= 10; i++) {
+                journal.append(i * 1_000L, CargoSize.SMALL, false, DeliveryWorkload.NORMAL, QuoteStatus.OK, 40_000);
+            }
+            assertEquals(10, journal.flush());
+        }
+        try (QuoteAuditJournal journal = QuoteAuditJournal.open(directory, 4, Duration.ofMillis(1))) {
+            assertEquals(10, journal.getNextSequence());
+            assertEquals(10, journal.append(11_000L, CargoSize.SMALL, false, DeliveryWorkload.NORMAL, QuoteStatus.OK, 40_000));
+        }
+
+        List<QuoteAuditRecord> records = readAll();
+        assertEquals(11, records.size());
+        for (int i = 0; i < records.size(); i++) {
+            assertEquals(i, records.get(i).sequence());
+            assertEquals(BigDecimal.valueOf((i + 1) * 1_000L, 3), records.get(i).distance());
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            assertTrue(files.count() >= 4);
+        }
+    }
+
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Параллельные писатели получают разные номера, все записи попадают в журнал и сбрасываются на диск фоновым потоком")
+    @DisplayName("Параллельная запись и групповой сброс на диск")
+    void shouldAcceptConcurrentWriters() throws Exception {
+        int threads = 4;
+        int perThread = 20_000;
+        try (QuoteAuditJournal journal = QuoteAuditJournal.open(directory, 8_192, Duration.ofMillis(1))) {
+            List<Thread> writers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                long distance = t + 1;
+                Thread writer = new Thread(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        journal.append(distance, CargoSize.LARGE, true, DeliveryWorkload.INCREASED, QuoteStatus.OK, i);
+                    }
+                });
+                writers.add(writer);
+                writer.start();
+            }
+            for (Thread writer : writers) {
+                writer.join();
+            }
+
+            long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+            while (journal.getDurableSequence() < threads * perThread && System.nanoTime() < deadline) {
+                Thread.sleep(1);
+            }
+            assertEquals(threads * perThread, journal.getDurableSequence());
+            assertNull(journal.getLastFlushError());
+        }
+
+        BitSet sequences = new BitSet();
+        long[] perDistance = new long[threads + 1];
+        for (QuoteAuditRecord record : readAll()) {
+            sequences.set((int) record.sequence());
+            perDistance[record.distance().unscaledValue().intValueExact()]++;
+        }
+        assertEquals(threads * perThread, sequences.cardinality());
+        assertEquals(threads * perThread, sequences.nextClearBit(0));
+        for (int t = 1; t <= threads; t++) {
+            assertEquals(perThread, perDistance[t]);
+        }
+    }
+
+    @Test
+    @Severity(SeverityLevel.NORMAL)
+    @Description("После закрытия журнал не принимает записи")
+    @DisplayName("Отказ в записи после закрытия")
+    void shouldRejectAppendAfterClose() throws IOException {
+        QuoteAuditJournal journal = QuoteAuditJournal.open(directory, 16, Duration.ofMillis(5));
+        journal.close();
+
+        IllegalStateException exception = assertThrows(
+                IllegalStateException.class,
+                () -> journal.append(1_000L, CargoSize.SMALL, false, DeliveryWorkload.NORMAL, QuoteStatus.OK, 40_000)
+        );
+        assertEquals("Журнал расчётов закрыт", exception.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> QuoteAuditJournal.open(directory, 0, Duration.ofMillis(5)));
+    }
+
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Сегменты открывает фоновый поток: при редком сбросе писатель будит его и дожидается следующего сегмента")
+    @DisplayName("Смена сегмента без открытия файла в потоке расчёта")
+    void shouldRollSegmentsPreparedByFlusher() throws IOException {
+        try (QuoteAuditJournal journal = QuoteAuditJournal.open(directory, 4, Duration.ofHours(1))) {
+            for (int i = 0; i < 64; i++) {
+                assertEquals(i, journal.append(1_000L, CargoSize.SMALL, false, DeliveryWorkload.NORMAL, QuoteStatus.OK, i));
+            }
+        }
+
+        List<QuoteAuditRecord> records = readAll();
+        assertEquals(64, records.size());
+        assertEquals(63, records.get(63).sequence());
+    }
+
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Запись, принятая во время закрытия, дописывается и сбрасывается на диск до завершения close")
+    @DisplayName("Принятые во время закрытия записи попадают на диск")
+    void shouldPersistAppendsAcceptedDuringClose() throws Exception {
+        for (int round = 0; round < 200; round++) {
+            Path roundDirectory = directory.resolve("round-" + round);
+            QuoteAuditJournal journal = QuoteAuditJournal.open(roundDirectory, 64, Duration.ofHours(1));
+            AtomicLong accepted = new AtomicLong();
+            List<Thread> writers = new ArrayList<>();
+            for (int t = 0; t < 3; t++) {
+                Thread writer = new Thread(() -> {
+                    try {
+                        while (true) {
+                            journal.append(1_000L, CargoSize.SMALL, false, DeliveryWorkload.NORMAL, QuoteStatus.OK, 40_000);
+                            accepted.incrementAndGet();
+                        }
+                    } catch (IllegalStateException closed) {
+                        // журнал закрыт
+                    }
+                });
+                writers.add(writer);
+                writer.start();
+            }
+            Thread.yield();
+            journal.close();
+            for (Thread writer : writers) {
+                writer.join();
+            }
+
+            assertEquals(accepted.get(), journal.getNextSequence(), "round " + round);
+            assertEquals(accepted.get(), journal.getDurableSequence(), "round " + round);
+            assertEquals(accepted.get(), readAll(roundDirectory).size(), "round " + round);
+        }
+    }
+
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Запись без результата расчёта отклоняется до занятия номера и не оставляет пропуска в журнале")
+    @DisplayName("Отказ в записи без результата расчёта")
+    void shouldRejectNullStatusWithoutClaimingSequence() throws IOException {
+        try (QuoteAuditJournal journal = QuoteAuditJournal.open(directory, 4, Duration.ofHours(1))) {
+            journal.append(1_000L, CargoSize.SMALL, false, DeliveryWorkload.NORMAL, QuoteStatus.OK, 40_000);
+            assertThrows(
+                    NullPointerException.class,
+                    () -> journal.append(2_000L, CargoSize.SMALL, false, DeliveryWorkload.NORMAL, null, 40_000)
+            );
+            assertEquals(1, journal.append(3_000L, CargoSize.SMALL, false, DeliveryWorkload.NORMAL, QuoteStatus.OK, 40_000));
+            assertEquals(2, journal.flush());
+        }
+
+        assertEquals(2, readAll().size());
+    }
+
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Номер, занятый записью, для которой не удалось открыть сегмент, помечается отменённым: "
+            + "сброс идёт дальше, а последующие записи читаются")
+    @DisplayName("Отменённая запись не прерывает журнал")
+    void shouldSkipAbortedSlotAfterMappingFailure() throws IOException {
+        Path blocker = directory.resolve(String.format("quotes-%019d.journal", 1));
+        try (QuoteAuditJournal journal = QuoteAuditJournal.open(directory, 4, Duration.ofHours(1))) {
+            Files.createDirectory(blocker);
+            for (int i = 0; i < 4; i++) {
+                journal.append(1_000L * (i + 1), CargoSize.SMALL, false, DeliveryWorkload.NORMAL, QuoteStatus.OK, 40_000);
+            }
+            assertThrows(
+                    UncheckedIOException.class,
+                    () -> journal.append(5_000L, CargoSize.SMALL, false, DeliveryWorkload.NORMAL, QuoteStatus.OK, 40_000)
+            );
+
+            Files.delete(blocker);
+            for (int i = 5; i < 10; i++) {
+                assertEquals(i, journal.append(1_000L * (i + 1), CargoSize.SMALL, false, DeliveryWorkload.NORMAL,
+                        QuoteStatus.OK, 40_000));
+            }
+            assertEquals(10, journal.flush());
+        }
+
+        List<QuoteAuditRecord> records = readAll();
+        assertEquals(9, records.size());
+        assertEquals(3, records.get(3).sequence());
+        assertEquals(5, records.get(4).sequence());
+        assertEquals(9, records.get(8).sequence());
+        try (QuoteAuditJournal journal = QuoteAuditJournal.open(directory, 4, Duration.ofHours(1))) {
+            assertEquals(10, journal.getNextSequence());
+        }
+    }
+
+    private List<QuoteAuditRecord> readAll() throws IOException {
+        return readAll(directory);
+    }
+
+    private static List<QuoteAuditRecord> readAll(Path directory) throws IOException {
+        QuoteAuditJournal.Reader reader = QuoteAuditJournal.read(directory);
+        List<QuoteAuditRecord> records = new ArrayList<>();
+        for (QuoteAuditRecord record = reader.next(); record != null; record = reader.next()) {
+            records.add(record);
+        }
+        return records;
+    }
+}
@@ -0,0 +1,176 @@
+package ru.yandex.practicum.bystritskiy;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.qameta.allure.Description;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import io.qameta.allure.Story;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import java.util.Random;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.bystritskiy.enums.CargoSize;
+import ru.yandex.practicum.bystritskiy.enums.DeliveryWorkload;
+import ru.yandex.practicum.bystritskiy.enums.QuoteStatus;
+
+@Feature("Калькулятор стоимости доставки")
+@Story("Тарифы регионов")
+@DisplayName("Тесты расчёта стоимости по тарифам регионов")
+class RegionDeliveryCalculatorTest {
+
+    private static Tariff cityTariff;
+    private static RegionDeliveryCalculator calculator;
+
+    @BeforeAll
+    static void setUp() {
+        Properties properties = new Properties();
+        properties.setProperty("distance.thresholds", "5.00,15.00");
+        properties.setProperty("distance.costs", "70.00,150.00,250.00");
+        properties.setProperty("cargo-size.surcharge.SMALL", "80.00");
+        properties.setProperty("cargo-size.surcharge.LARGE", "250.00");
+        properties.setProperty("workload.coefficient.NORMAL", "1.00");
+        properties.setProperty("workload.coefficient.INCREASED", "1.15");
+        properties.setProperty("workload.coefficient.HIGH", "1.35");
+        properties.setProperty("workload.coefficient.VERY_HIGH", "1.75");
+        properties.setProperty("fragile.surcharge", "250.00");
+        properties.setProperty("fragile.max-distance", "15.00");
+        properties.setProperty("min-cost", "350.00");
+        cityTariff = Tariff.fromProperties(properties);
+
+        calculator = new RegionDeliveryCalculator(RegionTariffStore.of(Arrays.asList(Tariff.defaultTariff(), null, cityTariff)));
+    }
+
+    @Test
+    @Severity(SeverityLevel.BLOCKER)
+    @Description("Расчёт по тарифу региона совпадает с расчётом калькулятора с тем же тарифом")
+    @DisplayName("Совпадение с калькулятором по тарифу региона")
+    void shouldMatchCalculatorWithSameTariff() {
+        DeliveryCalculator reference = new DeliveryCalculator();
+        DeliveryCalculator city = new DeliveryCalculator() {
+            @Override
+            public Tariff getTariff() {
+                return cityTariff;
+            }
+        };
+
+        Random random = new Random(17);
+        for (int i = 0; i < 10_000; i++) {
+            BigDecimal distance = BigDecimal.valueOf(random.nextInt(40_000) + 1, 3);
+            CargoSize cargoSize = CargoSize.values()[random.nextInt(CargoSize.values().length)];
+            boolean isFragile = random.nextBoolean();
+            DeliveryWorkload deliveryWorkload = DeliveryWorkload.values()[random.nextInt(DeliveryWorkload.values().length)];
+
+            assertEquals(
+                    reference.tryCalculateDeliveryCost(distance, cargoSize, isFragile, deliveryWorkload),
+                    calculator.tryCalculateDeliveryCost(0, distance, cargoSize, isFragile, deliveryWorkload)
+            );
+            long distanceMetres = distance.movePointRight(3).longValueExact();
+            if (city.checkInput(distanceMetres, cargoSize, isFragile, deliveryWorkload) == QuoteStatus.OK) {
+                assertEquals(
+                        city.calculateDeliveryCostKopecks(distanceMetres, cargoSize, isFragile, deliveryWorkload),
+                        calculator.calculateDeliveryCostKopecks(2, distanceMetres, cargoSize, isFragile, deliveryWorkload)
+                );
+            }
+        }
+    }
+
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Ограничение для хрупких грузов берётся из тарифа региона")
+    @DisplayName("Исключение при доставке хрупкого груза дальше предела региона")
+    void shouldUseRegionFragileLimit() {
+        IllegalArgumentException exception = assertThrows(
+                IllegalArgumentException.class,
+                () -> calculator.calculateDeliveryCost(2, new BigDecimal("15.001"), CargoSize.SMALL, true, DeliveryWorkload.NORMAL)
+        );
+        assertEquals("Хрупкие грузы нельзя возить на расстояние более 15 км", exception.getMessage());
+        assertEquals(
+                new BigDecimal("552.00"),
+                calculator.calculateDeliveryCost(2, new BigDecimal("15.000"), CargoSize.SMALL, true, DeliveryWorkload.INCREASED)
+        );
+    }
+
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Отсутствующий регион и номер вне диапазона отклоняются")
+    @DisplayName("Отказ в расчёте для неизвестного региона")
+    void shouldRejectUnknownRegion() {
+        assertEquals(
+                QuoteStatus.UNKNOWN_REGION,
+                calculator.tryCalculateDeliveryCost(1, new BigDecimal("1.00"), CargoSize.SMALL, false, DeliveryWorkload.NORMAL).status()
+        );
+        IllegalArgumentException exception = assertThrows(
+                IllegalArgumentException.class,
+                () -> calculator.calculateDeliveryCostKopecks(3, 1_000, CargoSize.SMALL, false, DeliveryWorkload.NORMAL)
+        );
+        assertEquals("Неизвестный регион: 3", exception.getMessage());
+        assertThrows(
+                NullPointerException.class,
+                () -> calculator.calculateDeliveryCost(0, null, CargoSize.SMALL, false, DeliveryWorkload.NORMAL)
+        );
+    }
+
+    @Test
+    @Severity(SeverityLevel.NORMAL)
+    @Description("Пакетный расчёт использует регион каждой строки")
+    @DisplayName("Пакетный расчёт по регионам")
+    void shouldCalculateBatchPerRegion() {
+        long[] costs = new long[4];
+        byte[] statuses = new byte[4];
+
+        calculator.calculateDeliveryCostsKopecks(
+                new int[]{0, 2, 1, 2},
+                new long[]{15_000, 15_000, 15_000, 20_000},
+                new byte[]{1, 1, 1, 0},
+                new long[]{0b1000},
+                new byte[]{2, 2, 2, 0},
+                costs,
+                statuses
+        );
+
+        assertArrayEquals(new long[]{56_000, 54_000, 0, 0}, costs);
+        assertArrayEquals(
+                new byte[]{
+                        QuoteStatus.OK.getCode(),
+                        QuoteStatus.OK.getCode(),
+                        QuoteStatus.UNKNOWN_REGION.getCode(),
+                        QuoteStatus.FRAGILE_TOO_FAR.getCode()
+                },
+                statuses
+        );
+    }
+
+    @Test
+    @Severity(SeverityLevel.NORMAL)
+    @Description("10 000 регионов занимают в хранилище меньше 2 МБ")
+    @DisplayName("Компактное хранение тарифов")
+    void shouldStoreRegionsCompactly() {
+        List<Tariff> tariffs = new ArrayList<>();
+        for (int region = 0; region < 10_000; region++) {
+            tariffs.add(region % 2 == 0 ? Tariff.defaultTariff() : cityTariff);
+        }
+        RegionTariffStore store = RegionTariffStore.of(tariffs);
+
+        assertEquals(10_000, store.getRegionCount());
+        assertTrue(store.hasRegion(9_999));
+        assertFalse(store.hasRegion(10_000));
+        assertTrue(store.getFootprintBytes() < 2 * 1024 * 1024, "footprint " + store.getFootprintBytes());
+        assertEquals(
+                56_000,
+                new RegionDeliveryCalculator(store).calculateDeliveryCostKopecks(
+                        9_998, 15_000, CargoSize.LARGE, false, DeliveryWorkload.HIGH
+                )
+        );
+    }
+}
@@ -0,0 +1,218 @@
+package ru.yandex.practicum.bystritskiy;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import io.qameta.allure.Description;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import io.qameta.allure.Story;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ru.yandex.practicum.bystritskiy.enums.CargoSize;
+import ru.yandex.practicum.bystritskiy.enums.DeliveryWorkload;
+
+@Feature("Калькулятор стоимости доставки")
+@Story("Тариф из файла")
+@DisplayName("Тесты калькулятора с перечитываемым тарифом")
+class ReloadableDeliveryCalculatorTest {
+
+    private static final String DEFAULT_TARIFF = """
+            distance.thresholds=2.00,10.00,30.00
+            distance.costs=50.00,100.00,200.00,300.00
+            cargo-size.surcharge.SMALL=100.00
+            cargo-size.surcharge.LARGE=200.00
+            workload.coefficient.NORMAL=1.00
+            workload.coefficient.INCREASED=1.20
+            workload.coefficient.HIGH=1.40
+            workload.coefficient.VERY_HIGH=1.60
+            fragile.surcharge=300.00
+            fragile.max-distance=30.00
+            min-cost=400.00
+            """;
+
+    @TempDir
+    Path directory;
+
+    @Nested
+    @DisplayName("Тесты расчёта по тарифу из файла")
+    class CalculationTests {
+
+        @Test
+        @Severity(SeverityLevel.CRITICAL)
+        @Description("Тариф из файла со значениями по умолчанию даёт те же результаты, что и эталонный калькулятор")
+        @DisplayName("Совпадение с эталонным калькулятором")
+        void shouldMatchReferenceCalculatorWithDefaultTariff() throws IOException {
+            DeliveryCalculator reference = new DeliveryCalculator();
+            try (ReloadableDeliveryCalculator calculator = ReloadableDeliveryCalculator.open(write(DEFAULT_TARIFF))) {
+                for (String distance : new String[]{"0.5", "2.00", "2.001", "10", "10.01", "30", "30.01", "75"}) {
+                    for (CargoSize cargoSize : CargoSize.values()) {
+                        for (DeliveryWorkload workload : DeliveryWorkload.values()) {
+                            for (boolean isFragile : new boolean[]{false, true}) {
+                                assertEquals(
+                                        reference.tryCalculateDeliveryCost(new BigDecimal(distance), cargoSize, isFragile, workload),
+                                        calculator.tryCalculateDeliveryCost(new BigDecimal(distance), cargoSize, isFragile, workload)
+                                );
+                            }
+                        }
+                    }
+                }
+            }
+        }
+
+        @Test
+        @Severity(SeverityLevel.CRITICAL)
+        @Description("Ограничение расстояния для хрупкого груза берётся из тарифа")
+        @DisplayName("Исключение для хрупкого груза по лимиту из тарифа")
+        void shouldUseFragileLimitFromTariff() throws IOException {
+            Path file = write(DEFAULT_TARIFF.replace("fragile.max-distance=30.00", "fragile.max-distance=25.50"));
+            try (ReloadableDeliveryCalculator calculator = ReloadableDeliveryCalculator.open(file)) {
+                IllegalArgumentException exception = assertThrows(
+                        IllegalArgumentException.class,
+                        () -> calculator.calculateDeliveryCost(
+                                new BigDecimal("26.00"), CargoSize.SMALL, true, DeliveryWorkload.NORMAL
+                        )
+                );
+                assertEquals("Хрупкие грузы нельзя возить на расстояние более 25.5 км", exception.getMessage());
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("Тесты перечитывания тарифа")
+    class ReloadTests {
+
+        @Test
+        @Severity(SeverityLevel.CRITICAL)
+        @Description("Изменение файла тарифа подхватывается без перезапуска")
+        @DisplayName("Новый тариф применяется после изменения файла")
+        void shouldPickUpChangedFile() throws Exception {
+            Path file = write(DEFAULT_TARIFF);
+            try (ReloadableDeliveryCalculator calculator = ReloadableDeliveryCalculator.open(file)) {
+                Tariff initial = calculator.getTariff();
+                Files.writeString(file, DEFAULT_TARIFF.replace("workload.coefficient.VERY_HIGH=1.60", "workload.coefficient.VERY_HIGH=2.00"));
+
+                long deadline = System.nanoTime() + 30_000_000_000L;
+                while (calculator.getTariff() == initial && System.nanoTime() < deadline) {
+                    Thread.sleep(50);
+                }
+
+                assertEquals(
+                        new BigDecimal("1000.00"),
+                        calculator.calculateDeliveryCost(new BigDecimal("50.00"), CargoSize.LARGE, false, DeliveryWorkload.VERY_HIGH)
+                );
+            }
+        }
+
+        @Test
+        @Severity(SeverityLevel.CRITICAL)
+        @Description("Файл, который дописывается частями, перечитывается только после затишья, "
+                + "поэтому разбираемый, но недописанный тариф не публикуется")
+        @DisplayName("Недописанный файл тарифа не применяется")
+        void shouldNotPublishPartiallyWrittenFile() throws Exception {
+            Path file = write(DEFAULT_TARIFF);
+            String updated = DEFAULT_TARIFF.replace("min-cost=400.00", "min-cost=500.00");
+            int split = updated.indexOf("500.00") + 1;
+            try (ReloadableDeliveryCalculator calculator = ReloadableDeliveryCalculator.open(file, Duration.ofMillis(500))) {
+                Set<BigDecimal> seen = ConcurrentHashMap.newKeySet();
+                AtomicBoolean sampling = new AtomicBoolean(true);
+                Thread sampler = new Thread(() -> {
+                    while (sampling.get()) {
+                        seen.add(calculator.calculateDeliveryCost(BigDecimal.ONE, CargoSize.SMALL, false, DeliveryWorkload.NORMAL));
+                    }
+                });
+                sampler.start();
+
+                try (OutputStream out = Files.newOutputStream(file)) {
+                    out.write(updated.substring(0, split).getBytes(StandardCharsets.UTF_8));
+                    out.flush();
+                    Thread.sleep(150);
+                    out.write(updated.substring(split).getBytes(StandardCharsets.UTF_8));
+                }
+
+                long deadline = System.nanoTime() + 30_000_000_000L;
+                while (!seen.contains(new BigDecimal("500.00")) && System.nanoTime() < deadline) {
+                    Thread.sleep(50);
+                }
+                sampling.set(false);
+                sampler.join();
+
+                assertEquals(Set.of(new BigDecimal("400.00"), new BigDecimal("500.00")), seen);
+                assertNull(calculator.getLastReloadError());
+            }
+        }
+
+        @Test
+        @Severity(SeverityLevel.CRITICAL)
+        @Description("Некорректный файл тарифа не заменяет действующий тариф")
+        @DisplayName("Действующий тариф сохраняется при ошибке в файле")
+        void shouldKeepCurrentTariffWhenFileIsInvalid() throws IOException {
+            Path file = write(DEFAULT_TARIFF);
+            try (ReloadableDeliveryCalculator calculator = ReloadableDeliveryCalculator.open(file)) {
+                Tariff initial = calculator.getTariff();
+                Files.writeString(file, DEFAULT_TARIFF.replace("min-cost=400.00", "min-cost=abc"));
+
+                assertFalse(calculator.reload());
+                assertNotNull(calculator.getLastReloadError());
+                assertSame(initial, calculator.getTariff());
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("Тесты разбора файла тарифа")
+    class ParsingTests {
+
+        @Test
+        @Severity(SeverityLevel.NORMAL)
+        @Description("Отсутствующий параметр тарифа приводит к ошибке с его именем")
+        @DisplayName("Ошибка при отсутствии параметра тарифа")
+        void shouldRejectMissingParameter() throws IOException {
+            Path file = write(DEFAULT_TARIFF.replace("cargo-size.surcharge.LARGE=200.00", ""));
+            IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> Tariff.load(file));
+            assertEquals("Не задан параметр тарифа: cargo-size.surcharge.LARGE", exception.getMessage());
+        }
+
+        @Test
+        @Severity(SeverityLevel.NORMAL)
+        @Description("Пороги расстояния должны строго возрастать")
+        @DisplayName("Ошибка при невозрастающих порогах расстояния")
+        void shouldRejectUnorderedThresholds() throws IOException {
+            Path file = write(DEFAULT_TARIFF.replace("distance.thresholds=2.00,10.00,30.00", "distance.thresholds=2.00,30.00,10.00"));
+            IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> Tariff.load(file));
+            assertEquals("Пороги расстояния должны быть положительными и строго возрастать", exception.getMessage());
+        }
+
+        @Test
+        @Severity(SeverityLevel.NORMAL)
+        @Description("Тариф по умолчанию собран из констант эталонного калькулятора")
+        @DisplayName("Тариф по умолчанию")
+        void shouldExposeDefaultTariff() {
+            assertSame(Tariff.defaultTariff(), new DeliveryCalculator().getTariff());
+            assertEquals(4, Tariff.defaultTariff().getDistanceBandCount());
+        }
+    }
+
+    private Path write(String content) throws IOException {
+        Path file = directory.resolve("tariff.properties");
+        Files.writeString(file, content);
+        return file;
+    }
+}
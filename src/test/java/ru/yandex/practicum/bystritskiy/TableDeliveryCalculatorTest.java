@@ -0,0 +1,115 @@
+package ru.yandex.practicum.bystritskiy;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import io.qameta.allure.Description;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import io.qameta.allure.Story;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import ru.yandex.practicum.bystritskiy.enums.CargoSize;
+import ru.yandex.practicum.bystritskiy.enums.DeliveryWorkload;
+
+@Feature("Калькулятор стоимости доставки")
+@Story("Табличный расчёт стоимости")
+@DisplayName("Тесты табличного калькулятора стоимости доставки")
+class TableDeliveryCalculatorTest {
+
+    private static DeliveryCalculator reference;
+    private static TableDeliveryCalculator calculator;
+
+    @BeforeAll
+    static void setUp() {
+        reference = new DeliveryCalculator();
+        calculator = new TableDeliveryCalculator();
+    }
+
+    @ParameterizedTest
+    @MethodSource("allCombinationsProvider")
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Табличный расчёт совпадает с эталонным для всех комбинаций параметров")
+    @DisplayName("Совпадение с эталонным калькулятором")
+    void shouldMatchReferenceCalculator(
+            BigDecimal distance,
+            CargoSize cargoSize,
+            boolean isFragile,
+            DeliveryWorkload deliveryWorkload
+    ) {
+        assertEquals(
+                reference.calculateDeliveryCost(distance, cargoSize, isFragile, deliveryWorkload),
+                calculator.calculateDeliveryCost(distance, cargoSize, isFragile, deliveryWorkload)
+        );
+    }
+
+    static Stream<Arguments> allCombinationsProvider() {
+        List<Arguments> arguments = new ArrayList<>();
+        String[] distances = {"0.01", "2.00", "2.001", "10.00", "10.01", "30.00", "30.01", "100.00"};
+        for (String distance : distances) {
+            for (CargoSize cargoSize : CargoSize.values()) {
+                for (boolean isFragile : new boolean[]{false, true}) {
+                    if (isFragile && new BigDecimal(distance).compareTo(new BigDecimal("30.00")) > 0) {
+                        continue;
+                    }
+                    for (DeliveryWorkload deliveryWorkload : DeliveryWorkload.values()) {
+                        arguments.add(Arguments.of(new BigDecimal(distance), cargoSize, isFragile, deliveryWorkload));
+                    }
+                }
+            }
+        }
+        return arguments.stream();
+    }
+
+    @Test
+    @Severity(SeverityLevel.NORMAL)
+    @Description("Повторные вызовы возвращают один и тот же заранее рассчитанный объект")
+    @DisplayName("Результат берётся из таблицы без создания новых объектов")
+    void shouldReturnSharedInstance() {
+        BigDecimal first = calculator.calculateDeliveryCost(
+                new BigDecimal("15.00"),
+                CargoSize.LARGE,
+                false,
+                DeliveryWorkload.HIGH
+        );
+        BigDecimal second = calculator.calculateDeliveryCost(
+                new BigDecimal("25.00"),
+                CargoSize.LARGE,
+                false,
+                DeliveryWorkload.HIGH
+        );
+        assertSame(first, second);
+        assertEquals(new BigDecimal("560.00"), first);
+    }
+
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Табличный калькулятор сохраняет валидацию эталонного")
+    @DisplayName("Исключение при доставке хрупкого груза на расстояние > 30 км")
+    void shouldKeepReferenceValidation() {
+        IllegalArgumentException exception = assertThrows(
+                IllegalArgumentException.class,
+                () ->
+                        calculator.calculateDeliveryCost(
+                                new BigDecimal("30.01"),
+                                CargoSize.SMALL,
+                                true,
+                                DeliveryWorkload.NORMAL
+                        )
+        );
+        assertEquals(
+                "Хрупкие грузы нельзя возить на расстояние более 30 км",
+                exception.getMessage()
+        );
+    }
+}
@@ -0,0 +1,153 @@
+package ru.yandex.practicum.bystritskiy;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.qameta.allure.Description;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import io.qameta.allure.Story;
+import java.util.Properties;
+import java.util.Random;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+@Feature("Калькулятор стоимости доставки")
+@Story("Векторный пакетный расчёт")
+@DisplayName("Тесты векторного пакетного калькулятора")
+class VectorDeliveryCalculatorTest {
+
+    private static final long[] DISTANCES = {
+            -1, 0, 1, 1_999, 2_000, 2_001, 9_999, 10_000, 10_001, 29_999, 30_000, 30_001, 100_000
+    };
+
+    private static DeliveryCalculator reference;
+    private static VectorDeliveryCalculator calculator;
+
+    @BeforeAll
+    static void setUp() {
+        reference = new DeliveryCalculator();
+        calculator = new VectorDeliveryCalculator();
+    }
+
+    @Test
+    @Severity(SeverityLevel.NORMAL)
+    @Description("Тесты запускаются с подключённым модулем jdk.incubator.vector")
+    @DisplayName("Vector API доступен")
+    void shouldUseVectorApi() {
+        assertTrue(VectorDeliveryCalculator.isVectorApiAvailable());
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, 1, 7, 61})
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Векторный расчёт побитово совпадает со скалярным, включая некорректные строки и хвост пакета")
+    @DisplayName("Совпадение векторного пакетного расчёта со скалярным")
+    void shouldMatchScalarBatch(int from) {
+        Random random = new Random(from);
+        int size = 1_000;
+        long[] distances = new long[size];
+        byte[] cargoSizes = new byte[size];
+        byte[] workloads = new byte[size];
+        long[] fragile = new long[(size + 63) / 64];
+        for (int i = 0; i < size; i++) {
+            distances[i] = DISTANCES[random.nextInt(DISTANCES.length)];
+            cargoSizes[i] = (byte) (random.nextInt(50) == 0 ? 2 : random.nextInt(2));
+            workloads[i] = (byte) (random.nextInt(50) == 0 ? -1 : random.nextInt(4));
+            if (random.nextBoolean()) {
+                fragile[i >>> 6] |= 1L << i;
+            }
+        }
+
+        long[] expectedCosts = new long[size];
+        byte[] expectedStatuses = new byte[size];
+        reference.calculateDeliveryCostsKopecks(
+                distances, cargoSizes, fragile, workloads, expectedCosts, expectedStatuses, from, size - 3
+        );
+        long[] actualCosts = new long[size];
+        byte[] actualStatuses = new byte[size];
+        calculator.calculateDeliveryCostsKopecks(
+                distances, cargoSizes, fragile, workloads, actualCosts, actualStatuses, from, size - 3
+        );
+
+        assertArrayEquals(expectedCosts, actualCosts);
+        assertArrayEquals(expectedStatuses, actualStatuses);
+    }
+
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Для тарифа по умолчанию округление считается векторно, без скалярного пересчёта")
+    @DisplayName("Векторное округление для тарифа по умолчанию")
+    void shouldRoundDefaultTariffWithReciprocal() {
+        assertTrue(Tariff.defaultTariff().costReciprocal != 0);
+    }
+
+    static Stream<Arguments> tariffMaxCostProvider() {
+        return Stream.of(
+                Arguments.of("400.00", true),
+                Arguments.of("1234.56", true),
+                Arguments.of("12345.67", false),
+                Arguments.of("900000000000.00", false)
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("tariffMaxCostProvider")
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Деление умножением на обратное число совпадает со скалярным делением во всём диапазоне стоимостей тарифа, "
+            + "а тариф без подходящего множителя считается скалярно")
+    @DisplayName("Совпадение векторного округления со скалярным на границах тарифа")
+    void shouldMatchScalarRoundingForTariff(String maxCost, boolean vectorRounding) {
+        Properties properties = new Properties();
+        properties.setProperty("distance.thresholds", "2.00,10.00,30.00");
+        properties.setProperty("distance.costs", "0.01,99.99,1234.57," + maxCost);
+        properties.setProperty("cargo-size.surcharge.SMALL", "0.00");
+        properties.setProperty("cargo-size.surcharge.LARGE", maxCost);
+        properties.setProperty("workload.coefficient.NORMAL", "0.0001");
+        properties.setProperty("workload.coefficient.INCREASED", "1.2345");
+        properties.setProperty("workload.coefficient.HIGH", "1.5");
+        properties.setProperty("workload.coefficient.VERY_HIGH", "9.9999");
+        properties.setProperty("fragile.surcharge", maxCost);
+        properties.setProperty("fragile.max-distance", "100.00");
+        properties.setProperty("min-cost", "0.00");
+        Tariff tariff = Tariff.fromProperties(properties);
+        assertEquals(vectorRounding, tariff.costReciprocal != 0);
+
+        Random random = new Random(maxCost.hashCode());
+        int size = 4_096;
+        long[] distances = new long[size];
+        byte[] cargoSizes = new byte[size];
+        byte[] workloads = new byte[size];
+        long[] fragile = new long[size / 64];
+        for (int i = 0; i < size; i++) {
+            distances[i] = DISTANCES[2 + random.nextInt(DISTANCES.length - 2)];
+            cargoSizes[i] = (byte) random.nextInt(2);
+            workloads[i] = (byte) random.nextInt(4);
+            if (random.nextBoolean()) {
+                fragile[i >>> 6] |= 1L << i;
+            }
+        }
+
+        long[] expectedCosts = new long[size];
+        byte[] expectedStatuses = new byte[size];
+        DeliveryCalculator.calculateCostsKopecks(
+                tariff, distances, cargoSizes, fragile, workloads, expectedCosts, expectedStatuses, 0, size
+        );
+        long[] actualCosts = new long[size];
+        byte[] actualStatuses = new byte[size];
+        VectorBatchPricer.calculateCostsKopecks(
+                tariff, distances, cargoSizes, fragile, workloads, actualCosts, actualStatuses, 0, size
+        );
+
+        assertArrayEquals(expectedCosts, actualCosts);
+        assertArrayEquals(expectedStatuses, actualStatuses);
+    }
+}
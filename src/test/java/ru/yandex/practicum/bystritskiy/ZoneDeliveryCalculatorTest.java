@@ -0,0 +1,117 @@
+package ru.yandex.practicum.bystritskiy;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.qameta.allure.Description;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import io.qameta.allure.Story;
+import java.math.BigDecimal;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.bystritskiy.enums.CargoSize;
+import ru.yandex.practicum.bystritskiy.enums.DeliveryWorkload;
+import ru.yandex.practicum.bystritskiy.enums.QuoteStatus;
+
+@Feature("Калькулятор стоимости доставки")
+@Story("Загруженность по зонам доставки")
+@DisplayName("Тесты расчёта стоимости по зоне доставки")
+class ZoneDeliveryCalculatorTest {
+
+    private ZoneWorkloadRegistry registry;
+    private ZoneDeliveryCalculator calculator;
+
+    @BeforeEach
+    void setUp() {
+        registry = new ZoneWorkloadRegistry();
+        calculator = new ZoneDeliveryCalculator(new DeliveryCalculator(), registry);
+    }
+
+    @Test
+    @Severity(SeverityLevel.BLOCKER)
+    @Description("Стоимость считается по текущей загруженности зоны и меняется после её обновления")
+    @DisplayName("Расчёт по загруженности зоны")
+    void shouldUseZoneWorkload() {
+        registry.put(42, DeliveryWorkload.NORMAL);
+        assertEquals(
+                new BigDecimal("400.00"),
+                calculator.calculateDeliveryCost(new BigDecimal("15.00"), CargoSize.LARGE, false, 42)
+        );
+
+        assertEquals(DeliveryWorkload.NORMAL, registry.put(42, DeliveryWorkload.HIGH));
+        assertEquals(
+                new BigDecimal("560.00"),
+                calculator.calculateDeliveryCost(new BigDecimal("15.00"), CargoSize.LARGE, false, 42)
+        );
+        assertEquals(56_000, calculator.calculateDeliveryCostKopecks(15_000, CargoSize.LARGE, false, 42));
+        assertEquals(
+                QuoteResult.ok(new BigDecimal("560.00")),
+                calculator.tryCalculateDeliveryCost(new BigDecimal("15.00"), CargoSize.LARGE, false, 42)
+        );
+    }
+
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Для неизвестной зоны расчёт отклоняется")
+    @DisplayName("Отказ в расчёте для неизвестной зоны")
+    void shouldRejectUnknownZone() {
+        IllegalArgumentException exception = assertThrows(
+                IllegalArgumentException.class,
+                () -> calculator.calculateDeliveryCost(new BigDecimal("1.00"), CargoSize.SMALL, false, 7)
+        );
+        assertEquals("Неизвестна загруженность зоны доставки 7", exception.getMessage());
+        assertEquals(
+                QuoteStatus.UNKNOWN_DELIVERY_WORKLOAD,
+                calculator.tryCalculateDeliveryCost(new BigDecimal("1.00"), CargoSize.SMALL, false, -1).status()
+        );
+    }
+
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Реестр хранит 50 000 зон с расширением таблицы без потери значений")
+    @DisplayName("Хранение большого количества зон")
+    void shouldStoreManyZones() {
+        for (int zoneId = 0; zoneId < 50_000; zoneId++) {
+            assertNull(registry.put(zoneId * 7, DeliveryWorkload.values()[zoneId % DeliveryWorkload.values().length]));
+        }
+
+        assertEquals(50_000, registry.size());
+        for (int zoneId = 0; zoneId < 50_000; zoneId++) {
+            assertEquals(DeliveryWorkload.values()[zoneId % DeliveryWorkload.values().length], registry.get(zoneId * 7));
+        }
+        assertNull(registry.get(1));
+        assertEquals(ZoneWorkloadRegistry.UNKNOWN_ZONE, registry.getOrdinal(-1));
+        assertThrows(IllegalArgumentException.class, () -> registry.put(-5, DeliveryWorkload.NORMAL));
+    }
+
+    @Test
+    @Severity(SeverityLevel.NORMAL)
+    @Description("Чтение во время добавления зон и расширения таблицы всегда видит уже добавленные зоны")
+    @DisplayName("Чтение без блокировок во время изменений")
+    void shouldReadWhileUpdating() throws Exception {
+        registry.put(0, DeliveryWorkload.VERY_HIGH);
+        AtomicBoolean done = new AtomicBoolean();
+        CompletableFuture<Boolean> reader = CompletableFuture.supplyAsync(() -> {
+            boolean consistent = true;
+            while (!done.get()) {
+                consistent &= registry.get(0) == DeliveryWorkload.VERY_HIGH;
+            }
+            return consistent;
+        });
+
+        for (int zoneId = 1; zoneId < 100_000; zoneId++) {
+            registry.put(zoneId, DeliveryWorkload.NORMAL);
+        }
+        done.set(true);
+
+        assertTrue(reader.get(30, TimeUnit.SECONDS));
+    }
+}